@@ -0,0 +1,21 @@
+package main.api;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+// One row of the API projection query: only the columns the API exposes plus the subscriber count, no entities
+public record EventApiRow(UUID id,
+                          String name,
+                          String description,
+                          String location,
+                          Double latitude,
+                          Double longitude,
+                          String imageName,
+                          LocalDateTime startTime,
+                          LocalDateTime endTime,
+                          Integer capacity,
+                          String categoryName,
+                          UUID creatorId,
+                          String creatorName,
+                          long registeredCount) {
+}
@@ -0,0 +1,40 @@
+package main.api;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+import java.util.UUID;
+
+// Position after the last event of a page; the id breaks ties between events starting at the same time
+public record EventCursor(LocalDateTime startTime, UUID id) {
+
+    public EventCursor {
+        if (startTime == null || id == null) {
+            throw new IllegalArgumentException("Невалиден курсор");
+        }
+    }
+
+    public static EventCursor after(EventApiRow row) {
+        return new EventCursor(row.startTime(), row.id());
+    }
+
+    // Opaque to clients, so the ordering can change without breaking the API contract
+    public String encode() {
+        String raw = startTime + "|" + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static EventCursor decode(String value) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(value), StandardCharsets.UTF_8);
+            int separator = raw.indexOf('|');
+            if (separator < 0) {
+                throw new IllegalArgumentException("Невалиден курсор");
+            }
+            return new EventCursor(LocalDateTime.parse(raw.substring(0, separator)), UUID.fromString(raw.substring(separator + 1)));
+        } catch (DateTimeParseException e) {
+            throw new IllegalArgumentException("Невалиден курсор", e);
+        }
+    }
+}
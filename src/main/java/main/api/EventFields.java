@@ -0,0 +1,52 @@
+package main.api;
+
+import com.fasterxml.jackson.databind.ser.FilterProvider;
+import com.fasterxml.jackson.databind.ser.impl.SimpleBeanPropertyFilter;
+import com.fasterxml.jackson.databind.ser.impl.SimpleFilterProvider;
+
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+// Sparse field selection for EventResource, e.g. fields=name,startTime; the id is always returned
+public final class EventFields {
+
+    public static final String FILTER_ID = "eventFields";
+
+    static final List<String> ALL = List.of("id", "name", "description", "location", "latitude", "longitude",
+            "imageName", "startTime", "endTime", "capacity", "remainingCapacity", "registeredCount", "full",
+            "categoryName", "creatorId", "creatorName", "subscribed");
+
+    private final Set<String> selected;
+
+    private EventFields(Set<String> selected) {
+        this.selected = selected;
+    }
+
+    public static EventFields parse(String fields) {
+        if (fields == null || fields.isBlank()) {
+            return new EventFields(new LinkedHashSet<>(ALL));
+        }
+        Set<String> selected = new LinkedHashSet<>();
+        selected.add("id");
+        for (String field : fields.split(",")) {
+            String name = field.trim();
+            if (name.isEmpty()) {
+                continue;
+            }
+            if (!ALL.contains(name)) {
+                throw new IllegalArgumentException("Непознато поле: " + name);
+            }
+            selected.add(name);
+        }
+        return new EventFields(selected);
+    }
+
+    public Set<String> selected() {
+        return Set.copyOf(selected);
+    }
+
+    public FilterProvider filters() {
+        return new SimpleFilterProvider().addFilter(FILTER_ID, SimpleBeanPropertyFilter.filterOutAllExcept(selected));
+    }
+}
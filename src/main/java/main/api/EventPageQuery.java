@@ -0,0 +1,15 @@
+package main.api;
+
+import java.util.UUID;
+
+public record EventPageQuery(EventCursor after, UUID categoryId, int limit) {
+
+    public static final int DEFAULT_LIMIT = 20;
+    public static final int MAX_LIMIT = 100;
+
+    public EventPageQuery {
+        if (limit < 1 || limit > MAX_LIMIT) {
+            throw new IllegalArgumentException("Размерът на страницата трябва да е между 1 и " + MAX_LIMIT);
+        }
+    }
+}
@@ -0,0 +1,60 @@
+package main.cache;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.hibernate.boot.spi.SessionFactoryOptions;
+import org.hibernate.cache.cfg.spi.DomainDataRegionBuildingContext;
+import org.hibernate.cache.cfg.spi.DomainDataRegionConfig;
+import org.hibernate.cache.spi.support.DomainDataStorageAccess;
+import org.hibernate.cache.spi.support.RegionFactoryTemplate;
+import org.hibernate.cache.spi.support.StorageAccess;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+// Hibernate second-level cache provider that keeps every region in this JVM, so it is only correct
+// while the application runs as a single instance. Entity and query regions are bounded; the
+// timestamps region is not, because losing a table's last update time would let stale query results through.
+public class LocalRegionFactory extends RegionFactoryTemplate {
+
+    private final int maxEntriesPerRegion;
+    private final MeterRegistry meterRegistry;
+    private final Map<String, LocalStorageAccess> regions = new ConcurrentHashMap<>();
+
+    public LocalRegionFactory(int maxEntriesPerRegion, MeterRegistry meterRegistry) {
+        this.maxEntriesPerRegion = maxEntriesPerRegion;
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    protected DomainDataStorageAccess createDomainDataStorageAccess(DomainDataRegionConfig regionConfig,
+                                                                    DomainDataRegionBuildingContext buildingContext) {
+        return region(regionConfig.getRegionName(), maxEntriesPerRegion);
+    }
+
+    @Override
+    protected StorageAccess createQueryResultsRegionStorageAccess(String regionName,
+                                                                  SessionFactoryImplementor sessionFactory) {
+        return region(regionName, maxEntriesPerRegion);
+    }
+
+    @Override
+    protected StorageAccess createTimestampsRegionStorageAccess(String regionName,
+                                                                SessionFactoryImplementor sessionFactory) {
+        return region(regionName, Integer.MAX_VALUE);
+    }
+
+    @Override
+    protected void prepareForUse(SessionFactoryOptions settings, Map<String, Object> configValues) {
+    }
+
+    @Override
+    protected void releaseFromUse() {
+        regions.values().forEach(LocalStorageAccess::release);
+        regions.clear();
+    }
+
+    private LocalStorageAccess region(String regionName, int maxEntries) {
+        return regions.computeIfAbsent(regionName, name -> new LocalStorageAccess(name, maxEntries, meterRegistry));
+    }
+}
@@ -0,0 +1,78 @@
+package main.cache;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.hibernate.cache.spi.support.DomainDataStorageAccess;
+import org.hibernate.engine.spi.SharedSessionContractImplementor;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+// One cache region held in this JVM. Once full, the least recently used entry makes room for the new one.
+public class LocalStorageAccess implements DomainDataStorageAccess {
+
+    private final Map<Object, Object> entries;
+    private final Counter hits;
+    private final Counter misses;
+
+    public LocalStorageAccess(String regionName, int maxEntries, MeterRegistry meterRegistry) {
+        this.entries = Collections.synchronizedMap(new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Object, Object> eldest) {
+                return size() > maxEntries;
+            }
+        });
+        this.hits = Counter.builder("hibernate.cache.requests")
+                .description("Second-level cache lookups by region and result")
+                .tag("region", regionName)
+                .tag("result", "hit")
+                .register(meterRegistry);
+        this.misses = Counter.builder("hibernate.cache.requests")
+                .description("Second-level cache lookups by region and result")
+                .tag("region", regionName)
+                .tag("result", "miss")
+                .register(meterRegistry);
+        Gauge.builder("hibernate.cache.entries", entries, Map::size)
+                .description("Entries held in the second-level cache region")
+                .tag("region", regionName)
+                .register(meterRegistry);
+    }
+
+    @Override
+    public Object getFromCache(Object key, SharedSessionContractImplementor session) {
+        Object value = entries.get(key);
+        (value != null ? hits : misses).increment();
+        return value;
+    }
+
+    @Override
+    public void putIntoCache(Object key, Object value, SharedSessionContractImplementor session) {
+        entries.put(key, value);
+    }
+
+    @Override
+    public boolean contains(Object key) {
+        return entries.containsKey(key);
+    }
+
+    @Override
+    public void evictData() {
+        entries.clear();
+    }
+
+    @Override
+    public void evictData(Object key) {
+        entries.remove(key);
+    }
+
+    @Override
+    public void release() {
+        entries.clear();
+    }
+
+    public int size() {
+        return entries.size();
+    }
+}
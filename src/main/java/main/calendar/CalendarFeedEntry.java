@@ -0,0 +1,8 @@
+package main.calendar;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+public record CalendarFeedEntry(UUID eventId, String name, String description, String location,
+                                Double latitude, Double longitude, LocalDateTime startTime, LocalDateTime endTime) {
+}
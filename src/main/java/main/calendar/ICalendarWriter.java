@@ -0,0 +1,122 @@
+package main.calendar;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.util.Locale;
+
+// Writes RFC 5545 straight to the response: values are escaped and lines folded at 75 octets as they are written
+public class ICalendarWriter {
+
+    private static final String CRLF = "\r\n";
+    private static final int MAX_LINE_OCTETS = 75;
+    private static final DateTimeFormatter UTC_DATE_TIME =
+            DateTimeFormatter.ofPattern("yyyyMMdd'T'HHmmss'Z'").withZone(ZoneOffset.UTC);
+
+    private final Writer writer;
+    private final ZoneId zone;
+    private int lineOctets;
+
+    public ICalendarWriter(Writer writer, ZoneId zone) {
+        this.writer = writer;
+        this.zone = zone;
+    }
+
+    public void beginCalendar(String productId, String name) throws IOException {
+        line("BEGIN", "VCALENDAR");
+        line("VERSION", "2.0");
+        line("PRODID", productId);
+        line("CALSCALE", "GREGORIAN");
+        line("METHOD", "PUBLISH");
+        text("X-WR-CALNAME", name);
+        line("REFRESH-INTERVAL;VALUE=DURATION", "PT15M");
+        line("X-PUBLISHED-TTL", "PT15M");
+    }
+
+    public void event(CalendarFeedEntry entry, String uidDomain, Instant stamp) throws IOException {
+        if (entry.startTime() == null) {
+            return;
+        }
+        line("BEGIN", "VEVENT");
+        line("UID", entry.eventId() + "@" + uidDomain);
+        line("DTSTAMP", UTC_DATE_TIME.format(stamp));
+        line("DTSTART", UTC_DATE_TIME.format(entry.startTime().atZone(zone)));
+        if (entry.endTime() != null) {
+            line("DTEND", UTC_DATE_TIME.format(entry.endTime().atZone(zone)));
+        }
+        text("SUMMARY", entry.name());
+        if (entry.location() != null && !entry.location().isBlank()) {
+            text("LOCATION", entry.location());
+        }
+        if (entry.description() != null && !entry.description().isBlank()) {
+            text("DESCRIPTION", entry.description());
+        }
+        if (entry.latitude() != null && entry.longitude() != null) {
+            line("GEO", String.format(Locale.ROOT, "%.6f;%.6f", entry.latitude(), entry.longitude()));
+        }
+        line("END", "VEVENT");
+    }
+
+    public void endCalendar() throws IOException {
+        line("END", "VCALENDAR");
+        writer.flush();
+    }
+
+    private void text(String name, String value) throws IOException {
+        begin(name);
+        String content = value != null ? value : "";
+        for (int i = 0; i < content.length(); ) {
+            int codePoint = content.codePointAt(i);
+            switch (codePoint) {
+                case '\\' -> append("\\\\");
+                case ';' -> append("\\;");
+                case ',' -> append("\\,");
+                case '\n' -> append("\\n");
+                case '\r' -> {
+                }
+                default -> append(codePoint);
+            }
+            i += Character.charCount(codePoint);
+        }
+        writer.write(CRLF);
+    }
+
+    private void line(String name, String value) throws IOException {
+        begin(name);
+        append(value);
+        writer.write(CRLF);
+    }
+
+    private void begin(String name) throws IOException {
+        lineOctets = 0;
+        append(name);
+        append(":");
+    }
+
+    private void append(String content) throws IOException {
+        for (int i = 0; i < content.length(); ) {
+            int codePoint = content.codePointAt(i);
+            append(codePoint);
+            i += Character.charCount(codePoint);
+        }
+    }
+
+    private void append(int codePoint) throws IOException {
+        int octets = codePoint < 0x80 ? 1 : codePoint < 0x800 ? 2 : codePoint < 0x10000 ? 3 : 4;
+        if (lineOctets + octets > MAX_LINE_OCTETS) {
+            // The leading space of a continuation line counts towards its 75 octets
+            writer.write(CRLF);
+            writer.write(' ');
+            lineOctets = 1;
+        }
+        if (Character.isBmpCodePoint(codePoint)) {
+            writer.write(codePoint);
+        } else {
+            writer.write(Character.toChars(codePoint));
+        }
+        lineOctets += octets;
+    }
+}
@@ -1,5 +1,12 @@
 package main.config;
 
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.persistence.SharedCacheMode;
+import main.cache.LocalRegionFactory;
+import main.security.BoundedPasswordEncoder;
+import org.hibernate.cfg.AvailableSettings;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
 import org.springframework.cache.CacheManager;
 import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
 import org.springframework.context.annotation.Bean;
@@ -10,13 +17,28 @@ import org.springframework.security.crypto.password.PasswordEncoder;
 @Configuration
 public class BeanConfiguration {
 
-    @Bean
-    public PasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder();
+    @Bean(destroyMethod = "shutdown")
+    public PasswordEncoder passwordEncoder(@Value("${security.password-hashing.threads:0}") int threads,
+                                           @Value("${security.password-hashing.queue-capacity:64}") int queueCapacity,
+                                           @Value("${security.password-hashing.timeout-ms:5000}") long timeoutMillis,
+                                           MeterRegistry meterRegistry) {
+        return new BoundedPasswordEncoder(new BCryptPasswordEncoder(), threads, queueCapacity, timeoutMillis, meterRegistry);
     }
 
     @Bean
     public CacheManager cacheManager() {
         return new ConcurrentMapCacheManager("events", "categories", "stats", "users");
     }
+
+    // Only entities marked @Cacheable and queries with the cacheable hint go through the second-level cache
+    @Bean
+    public HibernatePropertiesCustomizer secondLevelCache(@Value("${cache.second-level.max-entries-per-region:10000}") int maxEntries,
+                                                          MeterRegistry meterRegistry) {
+        return properties -> {
+            properties.put(AvailableSettings.USE_SECOND_LEVEL_CACHE, true);
+            properties.put(AvailableSettings.USE_QUERY_CACHE, true);
+            properties.put(AvailableSettings.CACHE_REGION_FACTORY, new LocalRegionFactory(maxEntries, meterRegistry));
+            properties.put(AvailableSettings.JAKARTA_SHARED_CACHE_MODE, SharedCacheMode.ENABLE_SELECTIVE);
+        };
+    }
 }
@@ -0,0 +1,135 @@
+package main.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.metrics.micrometer.MicrometerMetricsTrackerFactory;
+import io.micrometer.core.instrument.MeterRegistry;
+import main.datasource.BatchWorkload;
+import main.datasource.ReadWriteRoutingDataSource;
+import main.datasource.ReadYourWritesFilter;
+import main.datasource.ReplicaLagMonitor;
+import main.datasource.WorkloadRoutingDataSource;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.jdbc.DataSourceBuilder;
+import org.springframework.boot.task.SimpleAsyncTaskSchedulerCustomizer;
+import org.springframework.boot.task.ThreadPoolTaskSchedulerCustomizer;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.core.Ordered;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+
+// Web requests and @Scheduled jobs get separate pools on the primary database; with datasource.replica.url set,
+// read-only transactions go to a replica pool as well. Every pool reports hikaricp.* metrics tagged by its name.
+@Configuration
+public class DataSourceConfiguration {
+
+    @Bean
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource primaryDataSource(DataSourceProperties properties,
+                                              MeterRegistry meterRegistry,
+                                              @Value("${datasource.leak-detection-threshold-ms:0}") long leakDetectionMs) {
+        HikariDataSource primary = properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+        return configure(primary, "primary", meterRegistry, leakDetectionMs);
+    }
+
+    // Small on purpose: the jobs run one at a time and may wait, web requests should not
+    @Bean
+    @ConfigurationProperties("datasource.batch.hikari")
+    public HikariDataSource batchDataSource(DataSourceProperties properties,
+                                            MeterRegistry meterRegistry,
+                                            @Value("${datasource.leak-detection-threshold-ms:0}") long leakDetectionMs) {
+        HikariDataSource batch = properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+        batch.setMaximumPoolSize(2);
+        batch.setMinimumIdle(0);
+        return configure(batch, "batch", meterRegistry, leakDetectionMs);
+    }
+
+    // The one JPA and everything else use; the pools are only reached through it
+    @Bean
+    @Primary
+    public DataSource dataSource(@Qualifier("primaryDataSource") DataSource primary,
+                                 @Qualifier("batchDataSource") DataSource batch,
+                                 @Qualifier("replicaDataSource") ObjectProvider<DataSource> replica,
+                                 ObjectProvider<ReplicaLagMonitor> replicaLagMonitor) {
+        DataSource primaryDatabase = new WorkloadRoutingDataSource(primary, batch);
+        ReplicaLagMonitor lagMonitor = replicaLagMonitor.getIfAvailable();
+        return lagMonitor != null
+                ? new ReadWriteRoutingDataSource(primaryDatabase, replica.getObject(), lagMonitor)
+                : primaryDatabase;
+    }
+
+    // Every @Scheduled run draws from the batch pool, whichever scheduler spring.threads.virtual.enabled picks
+    @Bean
+    public ThreadPoolTaskSchedulerCustomizer batchWorkloadTaskScheduler() {
+        return scheduler -> scheduler.setTaskDecorator(BatchWorkload::wrap);
+    }
+
+    @Bean
+    public SimpleAsyncTaskSchedulerCustomizer batchWorkloadVirtualThreadTaskScheduler() {
+        return scheduler -> scheduler.setTaskDecorator(BatchWorkload::wrap);
+    }
+
+    // Values set here are defaults; the pool's own properties are bound afterwards and win
+    static HikariDataSource configure(HikariDataSource pool, String name, MeterRegistry meterRegistry,
+                                      long leakDetectionMs) {
+        pool.setPoolName(name);
+        pool.setLeakDetectionThreshold(leakDetectionMs);
+        pool.setMetricsTrackerFactory(new MicrometerMetricsTrackerFactory(meterRegistry));
+        return pool;
+    }
+
+    // Only with datasource.replica.url set; the replica falls back to the primary's credentials, as it usually shares them
+    @Configuration
+    @ConditionalOnProperty("datasource.replica.url")
+    static class ReplicaConfiguration {
+
+        @Bean
+        @ConfigurationProperties("datasource.replica.hikari")
+        public HikariDataSource replicaDataSource(
+                @Value("${datasource.replica.url}") String url,
+                @Value("${datasource.replica.username:${spring.datasource.username:}}") String username,
+                @Value("${datasource.replica.password:${spring.datasource.password:}}") String password,
+                MeterRegistry meterRegistry,
+                @Value("${datasource.leak-detection-threshold-ms:0}") long leakDetectionMs) {
+            HikariDataSource replica = DataSourceBuilder.create().type(HikariDataSource.class)
+                    .url(url)
+                    .username(username)
+                    .password(password)
+                    .build();
+            return configure(replica, "replica", meterRegistry, leakDetectionMs);
+        }
+
+        // The first check runs at startup, so a lag query without a lag column stops the application right away;
+        // a replica that is down only keeps reads on the primary until a later check reaches it
+        @Bean
+        public ReplicaLagMonitor replicaLagMonitor(
+                @Qualifier("replicaDataSource") DataSource replica,
+                @Value("${datasource.replica.lag-query:SHOW REPLICA STATUS}") String lagQuery,
+                @Value("${datasource.replica.max-lag-seconds:2}") long maxLagSeconds,
+                @Value("${datasource.replica.missing-status-means-caught-up:false}") boolean missingStatusMeansCaughtUp,
+                MeterRegistry meterRegistry) {
+            ReplicaLagMonitor monitor = new ReplicaLagMonitor(replica, lagQuery, Duration.ofSeconds(maxLagSeconds),
+                    missingStatusMeansCaughtUp, meterRegistry);
+            monitor.check();
+            return monitor;
+        }
+
+        // Ahead of the security filters, so the user lookup right after a write reads the primary as well
+        @Bean
+        public FilterRegistrationBean<ReadYourWritesFilter> readYourWritesFilter(
+                @Value("${datasource.replica.read-your-writes-ms:10000}") long windowMs) {
+            FilterRegistrationBean<ReadYourWritesFilter> registration = new FilterRegistrationBean<>(
+                    new ReadYourWritesFilter(Duration.ofMillis(windowMs)));
+            registration.setOrder(Ordered.HIGHEST_PRECEDENCE + 2);
+            return registration;
+        }
+    }
+}
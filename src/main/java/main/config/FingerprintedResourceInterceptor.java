@@ -0,0 +1,50 @@
+package main.config;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.web.servlet.HandlerInterceptor;
+import org.springframework.web.servlet.resource.ResourceHttpRequestHandler;
+import org.springframework.web.servlet.resource.ResourceUrlProvider;
+
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+public class FingerprintedResourceInterceptor implements HandlerInterceptor {
+
+    static final CacheControl IMMUTABLE = CacheControl.maxAge(365, TimeUnit.DAYS).cachePublic().immutable();
+
+    // Spring's content version strategy inserts "-<md5>" before the extension
+    private static final Pattern CONTENT_VERSION = Pattern.compile("^(.+)-[0-9a-f]{32}(\\.[^/.]+)$");
+
+    // Resolved lazily: the provider is built from the same MVC configuration this interceptor is registered in
+    private final ObjectProvider<ResourceUrlProvider> resourceUrlProvider;
+
+    public FingerprintedResourceInterceptor(ObjectProvider<ResourceUrlProvider> resourceUrlProvider) {
+        this.resourceUrlProvider = resourceUrlProvider;
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        if (!(handler instanceof ResourceHttpRequestHandler)) {
+            return true;
+        }
+
+        String path = request.getRequestURI().substring(request.getContextPath().length());
+        Matcher matcher = CONTENT_VERSION.matcher(path);
+        if (!matcher.matches()) {
+            return true;
+        }
+
+        // Only the URL the templates would render today is immutable; a stale hash must not be cached for a year
+        ResourceUrlProvider provider = resourceUrlProvider.getIfAvailable();
+        String current = provider == null ? null : provider.getForLookupPath(matcher.group(1) + matcher.group(2));
+        if (path.equals(current)) {
+            response.setHeader(HttpHeaders.CACHE_CONTROL, IMMUTABLE.getHeaderValue());
+        }
+        return true;
+    }
+}
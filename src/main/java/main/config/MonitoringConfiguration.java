@@ -0,0 +1,96 @@
+package main.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import main.monitoring.PrometheusTextEndpoint;
+import main.monitoring.ServerTimingFilter;
+import main.monitoring.SqlStatementCountFilter;
+import main.monitoring.SqlStatementCounter;
+import main.monitoring.TimedDataSource;
+import main.monitoring.ViewRenderTimingInterceptor;
+import main.monitoring.jfr.FlightRecordingEndpoint;
+import org.hibernate.cfg.AvailableSettings;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingClass;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+import org.springframework.web.servlet.handler.MappedInterceptor;
+
+import javax.sql.DataSource;
+import java.nio.file.Path;
+import java.time.Duration;
+
+@Configuration
+public class MonitoringConfiguration {
+
+    @Bean
+    public SqlStatementCounter sqlStatementCounter() {
+        return new SqlStatementCounter();
+    }
+
+    @Bean
+    public HibernatePropertiesCustomizer sqlStatementInspector(SqlStatementCounter sqlStatementCounter) {
+        return properties -> properties.put(AvailableSettings.STATEMENT_INSPECTOR, sqlStatementCounter);
+    }
+
+    // Ahead of the security filters, so the lookups they make count towards the request too
+    @Bean
+    public FilterRegistrationBean<SqlStatementCountFilter> sqlStatementCountFilter(
+            SqlStatementCounter sqlStatementCounter,
+            MeterRegistry meterRegistry,
+            @Value("${monitoring.sql-statements.warn-threshold:20}") long warnThreshold) {
+        FilterRegistrationBean<SqlStatementCountFilter> registration = new FilterRegistrationBean<>(
+                new SqlStatementCountFilter(sqlStatementCounter, meterRegistry, warnThreshold));
+        registration.setOrder(Ordered.HIGHEST_PRECEDENCE + 1);
+        return registration;
+    }
+
+    // Outermost, so the total covers every other filter
+    @Bean
+    public FilterRegistrationBean<ServerTimingFilter> serverTimingFilter(
+            MeterRegistry meterRegistry,
+            @Value("${monitoring.server-timing.header-enabled:false}") boolean headerEnabled) {
+        FilterRegistrationBean<ServerTimingFilter> registration = new FilterRegistrationBean<>(
+                new ServerTimingFilter(meterRegistry, headerEnabled));
+        registration.setOrder(Ordered.HIGHEST_PRECEDENCE);
+        return registration;
+    }
+
+    // Picked up by every handler mapping, controllers and static resources alike
+    @Bean
+    public MappedInterceptor viewRenderTimingInterceptor() {
+        return new MappedInterceptor(null, new ViewRenderTimingInterceptor());
+    }
+
+    // Static, so the data source is wrapped without initializing this configuration early. Delegating data sources,
+    // such as the read/write router, are left alone: the pools behind them are beans and are wrapped themselves.
+    @Bean
+    public static BeanPostProcessor timedDataSourcePostProcessor() {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                return bean instanceof DataSource dataSource && !(bean instanceof DelegatingDataSource)
+                        ? new TimedDataSource(dataSource)
+                        : bean;
+            }
+        };
+    }
+
+    @Bean
+    public FlightRecordingEndpoint flightRecordingEndpoint(
+            @Value("${monitoring.jfr.directory:${java.io.tmpdir}/eventapp-recordings}") String directory,
+            @Value("${monitoring.jfr.max-duration-minutes:30}") long maxDurationMinutes) {
+        return new FlightRecordingEndpoint(Path.of(directory), Duration.ofMinutes(maxDurationMinutes));
+    }
+
+    // micrometer-registry-prometheus brings its own /actuator/prometheus with histograms; this one stands in until then
+    @Bean
+    @ConditionalOnMissingClass("io.micrometer.prometheusmetrics.PrometheusMeterRegistry")
+    public PrometheusTextEndpoint prometheusTextEndpoint(MeterRegistry meterRegistry) {
+        return new PrometheusTextEndpoint(meterRegistry);
+    }
+}
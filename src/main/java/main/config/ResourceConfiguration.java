@@ -0,0 +1,37 @@
+package main.config;
+
+import main.image.ResponsiveImages;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.ResourceHandlerRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+import org.springframework.web.servlet.resource.ResourceUrlProvider;
+
+@Configuration
+public class ResourceConfiguration implements WebMvcConfigurer {
+
+    // Absent in @WebMvcTest slices, which do not scan components
+    private final ObjectProvider<ResponsiveImages> responsiveImages;
+    private final ObjectProvider<ResourceUrlProvider> resourceUrlProvider;
+
+    public ResourceConfiguration(ObjectProvider<ResponsiveImages> responsiveImages,
+                                 ObjectProvider<ResourceUrlProvider> resourceUrlProvider) {
+        this.responsiveImages = responsiveImages;
+        this.resourceUrlProvider = resourceUrlProvider;
+    }
+
+    // Variant names carry a content hash, so a changed image gets a new URL and the old one can be cached forever
+    @Override
+    public void addResourceHandlers(ResourceHandlerRegistry registry) {
+        responsiveImages.ifAvailable(images -> registry.addResourceHandler(ResponsiveImages.URL_PREFIX + "**")
+                .addResourceLocations(images.getVariantsDirectory().toUri().toString())
+                .setCacheControl(FingerprintedResourceInterceptor.IMMUTABLE));
+    }
+
+    // The static/ chain itself (content-hash URLs, precompressed .gz only) is configured in application.properties
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        registry.addInterceptor(new FingerprintedResourceInterceptor(resourceUrlProvider));
+    }
+}
@@ -1,30 +1,81 @@
 package main.config;
 
 import main.repository.UserRepository;
+import main.security.LoginAttemptService;
+import main.security.LoginFailureHandler;
+import main.security.LoginThrottlingFilter;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.autoconfigure.security.servlet.PathRequest;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.security.authorization.AuthorityAuthorizationManager;
+import org.springframework.security.authorization.AuthorizationDecision;
+import org.springframework.security.authorization.AuthorizationManager;
+import org.springframework.security.authorization.AuthorizationManagers;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.annotation.web.configuration.EnableWebSecurity;
+import org.springframework.security.config.http.SessionCreationPolicy;
 import org.springframework.security.core.userdetails.User;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.security.web.SecurityFilterChain;
+import org.springframework.security.web.authentication.HttpStatusEntryPoint;
+import org.springframework.security.web.authentication.UsernamePasswordAuthenticationFilter;
+import org.springframework.security.web.authentication.www.BasicAuthenticationFilter;
+import org.springframework.security.web.access.intercept.RequestAuthorizationContext;
 import org.springframework.security.web.util.matcher.AntPathRequestMatcher;
+import org.springframework.security.web.util.matcher.AndRequestMatcher;
+import org.springframework.security.web.util.matcher.IpAddressMatcher;
+import org.springframework.security.web.util.matcher.RequestMatcher;
 import org.springframework.web.filter.HiddenHttpMethodFilter;
 
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.util.Arrays;
+import java.util.List;
+
 @Configuration
 @EnableWebSecurity
 public class WebConfiguration {
 
+    // Scripts and curl reach the actuator endpoints (e.g. POST /actuator/flightrecording) with HTTP Basic as an
+    // ADMIN. Only requests that carry Basic credentials take this chain, so CSRF is off just for them; browsers keep
+    // the session login below with CSRF on. Wrong passwords count towards the same limits as the login form.
+    @Bean
+    @Order(1)
+    public SecurityFilterChain actuatorBasicAuthFilterChain(HttpSecurity http,
+                                                            LoginAttemptService loginAttemptService) throws Exception {
+        RequestMatcher withBasicCredentials = request -> {
+            String header = request.getHeader(HttpHeaders.AUTHORIZATION);
+            return header != null && header.regionMatches(true, 0, "Basic ", 0, 6);
+        };
+        http
+                .securityMatcher(new AndRequestMatcher(new AntPathRequestMatcher("/actuator/**"), withBasicCredentials))
+                .addFilterBefore(new LoginThrottlingFilter(loginAttemptService, true), BasicAuthenticationFilter.class)
+                .authorizeHttpRequests(matcher -> matcher.anyRequest().hasRole("ADMIN"))
+                .httpBasic(basic -> basic.realmName("eventapp-actuator"))
+                .sessionManagement(session -> session.sessionCreationPolicy(SessionCreationPolicy.STATELESS))
+                .csrf(csrf -> csrf.disable());
+
+        return http.build();
+    }
+
     @Bean
-    public SecurityFilterChain securityFilterChain(HttpSecurity http) throws Exception {
+    public SecurityFilterChain securityFilterChain(HttpSecurity http, LoginAttemptService loginAttemptService,
+                                                   @Value("${monitoring.prometheus.scrape-networks:127.0.0.1/32,::1/128}") String scrapeNetworks,
+                                                   @Value("${monitoring.prometheus.scrape-token:}") String scrapeToken) throws Exception {
         http
+                .addFilterBefore(new LoginThrottlingFilter(loginAttemptService), UsernamePasswordAuthenticationFilter.class)
                 .authorizeHttpRequests(matcher -> matcher
                         .requestMatchers(PathRequest.toStaticResources().atCommonLocations()).permitAll()
                         .requestMatchers("/", "/register", "/error/**").permitAll()
-                        .requestMatchers("/admin/**").hasRole("ADMIN")
+                        .requestMatchers("/calendar/*.ics").permitAll()
+                        .requestMatchers("/actuator/prometheus").access(scrapeAccess(scrapeNetworks, scrapeToken))
+                        .requestMatchers("/admin/**", "/actuator/**").hasRole("ADMIN")
                         .anyRequest().authenticated()
                 )
                 .formLogin(login -> login
@@ -32,7 +83,7 @@ public class WebConfiguration {
                         .usernameParameter("email")
                         .passwordParameter("password")
                         .defaultSuccessUrl("/home", true)
-                        .failureUrl("/login?error")
+                        .failureHandler(new LoginFailureHandler())
                         .permitAll()
                 )
                 .logout(logout -> logout
@@ -41,12 +92,38 @@ public class WebConfiguration {
                         .permitAll()
                 )
                 .exceptionHandling(exception -> exception
+                        // API clients get a 401 instead of a redirect to the login page
+                        .defaultAuthenticationEntryPointFor(new HttpStatusEntryPoint(HttpStatus.UNAUTHORIZED),
+                                new AntPathRequestMatcher("/api/**"))
                         .accessDeniedPage("/error/oops")
                 );
 
         return http.build();
     }
 
+    // Prometheus cannot log in, so it scrapes without a session: with the bearer token when one is configured,
+    // otherwise from the allowed networks. Anyone else needs the ADMIN role.
+    private static AuthorizationManager<RequestAuthorizationContext> scrapeAccess(String scrapeNetworks,
+                                                                                  String scrapeToken) {
+        if (!scrapeToken.isBlank()) {
+            byte[] expected = ("Bearer " + scrapeToken.strip()).getBytes(StandardCharsets.UTF_8);
+            AuthorizationManager<RequestAuthorizationContext> withToken = (authentication, context) -> {
+                String header = context.getRequest().getHeader(HttpHeaders.AUTHORIZATION);
+                return new AuthorizationDecision(header != null
+                        && MessageDigest.isEqual(expected, header.getBytes(StandardCharsets.UTF_8)));
+            };
+            return AuthorizationManagers.anyOf(withToken, AuthorityAuthorizationManager.hasRole("ADMIN"));
+        }
+        List<IpAddressMatcher> networks = Arrays.stream(scrapeNetworks.split(","))
+                .map(String::trim)
+                .filter(network -> !network.isEmpty())
+                .map(IpAddressMatcher::new)
+                .toList();
+        AuthorizationManager<RequestAuthorizationContext> fromScrapeNetwork = (authentication, context) ->
+                new AuthorizationDecision(networks.stream().anyMatch(network -> network.matches(context.getRequest())));
+        return AuthorizationManagers.anyOf(fromScrapeNetwork, AuthorityAuthorizationManager.hasRole("ADMIN"));
+    }
+
     @Bean
     public UserDetailsService userDetailsService(UserRepository userRepository) {
         return email -> {
@@ -0,0 +1,25 @@
+package main.controller;
+
+import main.service.ConnectionPoolService;
+import org.springframework.stereotype.Controller;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.servlet.ModelAndView;
+
+@Controller
+@RequestMapping("/admin/pools")
+public class AdminPoolController {
+
+    private final ConnectionPoolService connectionPoolService;
+
+    public AdminPoolController(ConnectionPoolService connectionPoolService) {
+        this.connectionPoolService = connectionPoolService;
+    }
+
+    @GetMapping
+    public ModelAndView showPools() {
+        ModelAndView modelAndView = new ModelAndView("admin-pools");
+        modelAndView.addObject("pools", connectionPoolService.getPools());
+        return modelAndView;
+    }
+}
@@ -3,6 +3,8 @@ package main.controller;
 import main.model.Role;
 import main.model.User;
 import main.service.UserService;
+import main.web.dto.UserDeletionStatusResponse;
+import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Controller;
 import org.springframework.web.bind.annotation.GetMapping;
@@ -10,6 +12,7 @@ import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.ResponseBody;
 import org.springframework.web.servlet.ModelAndView;
 import org.springframework.web.servlet.mvc.support.RedirectAttributes;
 
@@ -59,6 +62,7 @@ public class AdminUserController {
 
     @PostMapping("/{userId}")
     public ModelAndView deleteUser(@PathVariable UUID userId,
+                                   @RequestParam(value = "async", required = false, defaultValue = "false") boolean async,
                                    Principal principal,
                                    RedirectAttributes redirectAttributes) {
         User currentUser = userService.getByEmail(principal.getName());
@@ -67,10 +71,24 @@ public class AdminUserController {
             return new ModelAndView("redirect:/admin/users");
         }
 
+        if (async) {
+            userService.deleteUserWithDataAsync(userId);
+            redirectAttributes.addFlashAttribute("successMessage", "Изтриването на потребителя започна във фонов режим.");
+            return new ModelAndView("redirect:/admin/users");
+        }
+
         userService.deleteUserWithData(userId);
         redirectAttributes.addFlashAttribute("successMessage", "Потребителят беше изтрит успешно.");
 
         return new ModelAndView("redirect:/admin/users");
     }
+
+    @GetMapping("/{userId}/deletion")
+    @ResponseBody
+    public ResponseEntity<UserDeletionStatusResponse> getDeletionStatus(@PathVariable UUID userId) {
+        return userService.getDeletionStatus(userId)
+                .map(ResponseEntity::ok)
+                .orElse(ResponseEntity.notFound().build());
+    }
 }
 
@@ -0,0 +1,70 @@
+package main.controller;
+
+import main.calendar.CalendarFeedEntry;
+import main.calendar.ICalendarWriter;
+import main.model.CalendarFeed;
+import main.service.CalendarFeedService;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.CacheControl;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Controller;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.BufferedWriter;
+import java.io.OutputStreamWriter;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.util.List;
+
+@Controller
+public class CalendarFeedController {
+
+    // Bump when the .ics layout changes so clients holding an old ETag download the new format
+    private static final String FEED_FORMAT = "1";
+    private static final String PRODUCT_ID = "-//EventApp//Calendar Feed//BG";
+    private static final String UID_DOMAIN = "eventapp";
+    private static final MediaType TEXT_CALENDAR = new MediaType("text", "calendar", StandardCharsets.UTF_8);
+
+    private final CalendarFeedService calendarFeedService;
+    private final ZoneId zone;
+
+    public CalendarFeedController(CalendarFeedService calendarFeedService,
+                                  @Value("${events.time-zone:Europe/Sofia}") ZoneId zone) {
+        this.calendarFeedService = calendarFeedService;
+        this.zone = zone;
+    }
+
+    // The token is the credential here: calendar clients poll without a session
+    @GetMapping("/calendar/{token}.ics")
+    public ResponseEntity<StreamingResponseBody> feed(@PathVariable String token, WebRequest request) {
+        CalendarFeed feed = calendarFeedService.getByToken(token);
+        String eTag = "\"" + FEED_FORMAT + "-" + feed.getVersion() + "\"";
+        Instant lastModified = feed.getUpdatedOn().atZone(zone).toInstant();
+        if (request.checkNotModified(eTag, lastModified.toEpochMilli())) {
+            return null;
+        }
+
+        // Read after the version, so at worst the body is newer than its ETag and the next poll downloads it again
+        List<CalendarFeedEntry> entries = calendarFeedService.getEntries(feed.getUserId());
+        StreamingResponseBody body = outputStream -> {
+            ICalendarWriter writer = new ICalendarWriter(
+                    new BufferedWriter(new OutputStreamWriter(outputStream, StandardCharsets.UTF_8)), zone);
+            writer.beginCalendar(PRODUCT_ID, "EventApp");
+            for (CalendarFeedEntry entry : entries) {
+                writer.event(entry, UID_DOMAIN, lastModified);
+            }
+            writer.endCalendar();
+        };
+        return ResponseEntity.ok()
+                .contentType(TEXT_CALENDAR)
+                .eTag(eTag)
+                .lastModified(lastModified)
+                .cacheControl(CacheControl.noCache().cachePrivate())
+                .body(body);
+    }
+}
@@ -0,0 +1,115 @@
+package main.controller;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import main.api.EventCursor;
+import main.api.EventFields;
+import main.api.EventPageQuery;
+import main.model.User;
+import main.service.EventService;
+import main.service.UserService;
+import main.web.dto.EventPageResponse;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Controller;
+import org.springframework.util.DigestUtils;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.ResponseBody;
+import org.springframework.web.context.request.WebRequest;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.security.Principal;
+import java.util.Locale;
+import java.util.UUID;
+import java.util.zip.GZIPOutputStream;
+
+// Read-only JSON API for the mobile client; the path carries the version so v1 clients keep working after changes
+@Controller
+@RequestMapping("/api/v1/events")
+public class EventApiController {
+
+    // Below this gzip saves less than the header overhead costs
+    private static final int MIN_GZIP_BYTES = 1024;
+
+    private final EventService eventService;
+    private final UserService userService;
+    private final ObjectMapper objectMapper;
+
+    public EventApiController(EventService eventService, UserService userService, ObjectMapper objectMapper) {
+        this.eventService = eventService;
+        this.userService = userService;
+        this.objectMapper = objectMapper;
+    }
+
+    @GetMapping
+    @ResponseBody
+    public ResponseEntity<byte[]> events(@RequestParam(value = "after", required = false) String after,
+                                         @RequestParam(value = "category", required = false) UUID categoryId,
+                                         @RequestParam(value = "limit", defaultValue = "" + EventPageQuery.DEFAULT_LIMIT) int limit,
+                                         @RequestParam(value = "fields", required = false) String fields,
+                                         Principal principal,
+                                         WebRequest request) throws IOException {
+        EventPageQuery query;
+        EventFields selection;
+        try {
+            query = new EventPageQuery(after != null && !after.isBlank() ? EventCursor.decode(after) : null, categoryId, limit);
+            selection = EventFields.parse(fields);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+
+        User user = userService.getByEmail(principal.getName());
+        EventPageResponse page = eventService.getEventPage(user.getId(), query);
+        byte[] json = objectMapper.writer(selection.filters()).writeValueAsBytes(page);
+
+        // Tomcat refuses to compress responses with a strong ETag, so the API compresses its own body
+        // and gives each encoding its own ETag, as a strong validator has to be byte-exact
+        boolean gzip = json.length >= MIN_GZIP_BYTES && acceptsGzip(request.getHeader(HttpHeaders.ACCEPT_ENCODING));
+        String eTag = "\"" + DigestUtils.md5DigestAsHex(json) + (gzip ? "-gzip" : "") + "\"";
+        if (request.checkNotModified(eTag)) {
+            return null;
+        }
+
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_JSON)
+                .eTag(eTag)
+                .cacheControl(CacheControl.noCache().cachePrivate())
+                .varyBy(HttpHeaders.ACCEPT_ENCODING);
+        if (gzip) {
+            return response.header(HttpHeaders.CONTENT_ENCODING, "gzip").body(gzip(json));
+        }
+        return response.body(json);
+    }
+
+    static boolean acceptsGzip(String acceptEncoding) {
+        if (acceptEncoding == null) {
+            return false;
+        }
+        for (String part : acceptEncoding.split(",")) {
+            String[] parameters = part.trim().toLowerCase(Locale.ROOT).split(";");
+            if (!parameters[0].trim().equals("gzip")) {
+                continue;
+            }
+            for (int i = 1; i < parameters.length; i++) {
+                String parameter = parameters[i].replace(" ", "");
+                if (parameter.startsWith("q=") && parameter.substring(2).matches("0(\\.0*)?")) {
+                    return false;
+                }
+            }
+            return true;
+        }
+        return false;
+    }
+
+    private static byte[] gzip(byte[] body) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(body.length / 4 + 64);
+        try (GZIPOutputStream gzip = new GZIPOutputStream(out)) {
+            gzip.write(body);
+        }
+        return out.toByteArray();
+    }
+}
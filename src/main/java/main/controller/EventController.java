@@ -1,15 +1,28 @@
 package main.controller;
 
 import jakarta.validation.Valid;
+import main.image.UploadedImages;
 import main.model.Category;
 import main.model.Event;
 import main.model.Subscription;
 import main.model.User;
+import main.search.CalendarWindow;
+import main.search.GeoQuery;
+import main.search.MapViewport;
+import main.service.BulkInviteService;
 import main.service.CategoryService;
 import main.service.EventService;
 import main.service.SubscriptionService;
 import main.service.UserService;
+import main.web.dto.CalendarEventResponse;
 import main.web.dto.EventCreateRequest;
+import main.web.dto.MapClusterResponse;
+import main.web.dto.NearbyEventResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.CacheControl;
+import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Controller;
 import org.springframework.validation.BindingResult;
 import org.springframework.web.bind.annotation.DeleteMapping;
@@ -20,10 +33,15 @@ import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.ResponseBody;
+import org.springframework.web.multipart.MultipartFile;
 import org.springframework.web.servlet.mvc.support.RedirectAttributes;
 import org.springframework.web.servlet.ModelAndView;
 
+import java.io.IOException;
 import java.security.Principal;
+import java.time.Duration;
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.UUID;
 
@@ -31,16 +49,26 @@ import java.util.UUID;
 @RequestMapping("/events")
 public class EventController {
 
+    private static final Logger logger = LoggerFactory.getLogger(EventController.class);
+    private static final int MAX_NEARBY_RESULTS = 200;
+    private static final Duration MAP_CLUSTERS_MAX_AGE = Duration.ofSeconds(15);
+
     private final EventService eventService;
     private final CategoryService categoryService;
     private final UserService userService;
     private final SubscriptionService subscriptionService;
+    private final BulkInviteService bulkInviteService;
+    private final UploadedImages uploadedImages;
 
-    public EventController(EventService eventService, CategoryService categoryService, UserService userService, SubscriptionService subscriptionService) {
+    public EventController(EventService eventService, CategoryService categoryService, UserService userService,
+                           SubscriptionService subscriptionService, BulkInviteService bulkInviteService,
+                           UploadedImages uploadedImages) {
         this.eventService = eventService;
         this.categoryService = categoryService;
         this.userService = userService;
         this.subscriptionService = subscriptionService;
+        this.bulkInviteService = bulkInviteService;
+        this.uploadedImages = uploadedImages;
     }
 
     @ModelAttribute("categories")
@@ -59,6 +87,58 @@ public class EventController {
         );
     }
 
+    @GetMapping("/nearby")
+    @ResponseBody
+    public ResponseEntity<List<NearbyEventResponse>> nearbyEvents(@RequestParam("lat") double latitude,
+                                                                  @RequestParam("lng") double longitude,
+                                                                  @RequestParam(value = "radiusKm", defaultValue = "10") double radiusKm,
+                                                                  @RequestParam(value = "from", required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+                                                                  @RequestParam(value = "to", required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+                                                                  @RequestParam(value = "category", required = false) UUID categoryId,
+                                                                  @RequestParam(value = "limit", defaultValue = "50") int limit) {
+        GeoQuery query;
+        try {
+            query = new GeoQuery(latitude, longitude, radiusKm, from != null ? from : LocalDateTime.now(), to,
+                    categoryId, Math.max(1, Math.min(limit, MAX_NEARBY_RESULTS)));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+        return ResponseEntity.ok(eventService.getNearbyEvents(query));
+    }
+
+    @GetMapping("/calendar")
+    @ResponseBody
+    public ResponseEntity<List<CalendarEventResponse>> calendarEvents(@RequestParam("from") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+                                                                      @RequestParam("to") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+                                                                      @RequestParam(value = "category", required = false) UUID categoryId) {
+        CalendarWindow window;
+        try {
+            window = new CalendarWindow(from, to, categoryId);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+        return ResponseEntity.ok(eventService.getCalendarEvents(window));
+    }
+
+    @GetMapping("/map/clusters")
+    @ResponseBody
+    public ResponseEntity<List<MapClusterResponse>> mapClusters(@RequestParam("zoom") int zoom,
+                                                                @RequestParam("west") double west,
+                                                                @RequestParam("south") double south,
+                                                                @RequestParam("east") double east,
+                                                                @RequestParam("north") double north) {
+        MapViewport viewport;
+        try {
+            viewport = new MapViewport(zoom, west, south, east, north);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+        // Short private caching so panning back and forth over the same area does not refetch
+        return ResponseEntity.ok()
+                .cacheControl(CacheControl.maxAge(MAP_CLUSTERS_MAX_AGE).cachePrivate())
+                .body(eventService.getMapClusters(viewport));
+    }
+
     @GetMapping("/new")
     public ModelAndView showCreateForm() {
         ModelAndView modelAndView = new ModelAndView("event-create");
@@ -69,10 +149,12 @@ public class EventController {
     @PostMapping
     public ModelAndView createEvent(@Valid @ModelAttribute("eventCreateRequest") EventCreateRequest eventCreateRequest,
                                     BindingResult bindingResult,
+                                    @RequestParam(value = "imageFile", required = false) MultipartFile imageFile,
                                     Principal principal,
                                     RedirectAttributes redirectAttributes) {
 
         eventService.validateSchedule(eventCreateRequest, bindingResult);
+        attachUploadedImage(imageFile, eventCreateRequest, bindingResult);
 
         if (bindingResult.hasErrors()) {
             ModelAndView modelAndView = new ModelAndView("event-create");
@@ -119,10 +201,12 @@ public class EventController {
     public ModelAndView updateEvent(@PathVariable UUID eventId,
                                     @Valid @ModelAttribute("eventCreateRequest") EventCreateRequest eventCreateRequest,
                                     BindingResult bindingResult,
+                                    @RequestParam(value = "imageFile", required = false) MultipartFile imageFile,
                                     Principal principal) {
         User user = userService.getByEmail(principal.getName());
 
         eventService.validateSchedule(eventCreateRequest, bindingResult);
+        attachUploadedImage(imageFile, eventCreateRequest, bindingResult);
 
         if (bindingResult.hasErrors()) {
             ModelAndView modelAndView = new ModelAndView("event-edit");
@@ -167,5 +251,37 @@ public class EventController {
         modelAndView.addObject("subscriptions", subscriptions);
         return modelAndView;
     }
-}
 
+    @PostMapping("/{eventId}/invites")
+    public ModelAndView inviteParticipants(@PathVariable UUID eventId,
+                                           @RequestParam("file") MultipartFile file,
+                                           Principal principal,
+                                           RedirectAttributes redirectAttributes) {
+        User organizer = userService.getByEmail(principal.getName());
+        try {
+            List<String> emails = BulkInviteService.readEmails(file.getInputStream());
+            redirectAttributes.addFlashAttribute("inviteResult", bulkInviteService.invite(eventId, organizer, emails));
+        } catch (IllegalArgumentException e) {
+            redirectAttributes.addFlashAttribute("errorMessage", e.getMessage());
+        } catch (IOException e) {
+            logger.error("Could not read invite list {} for event {}", file.getOriginalFilename(), eventId, e);
+            redirectAttributes.addFlashAttribute("errorMessage", "Файлът не беше прочетен, опитай отново");
+        }
+        return new ModelAndView("redirect:/events/" + eventId + "/participants");
+    }
+
+    // Stored only once the rest of the form is valid, so a rejected form never leaves an orphaned upload behind
+    private void attachUploadedImage(MultipartFile imageFile, EventCreateRequest request, BindingResult bindingResult) {
+        if (imageFile == null || imageFile.isEmpty() || bindingResult.hasErrors()) {
+            return;
+        }
+        try {
+            request.setImageName(uploadedImages.store(imageFile));
+        } catch (IllegalArgumentException e) {
+            bindingResult.rejectValue("imageName", "event.image.invalid", e.getMessage());
+        } catch (IOException e) {
+            logger.error("Could not store uploaded image {}", imageFile.getOriginalFilename(), e);
+            bindingResult.rejectValue("imageName", "event.image.failed", "Изображението не беше запазено, опитай отново");
+        }
+    }
+}
@@ -1,19 +1,26 @@
 package main.controller;
 
 import main.model.User;
+import main.search.CalendarWindow;
+import main.search.GeoQuery;
+import main.service.CalendarFeedService;
 import main.service.EventService;
 import main.service.RatingService;
 import main.service.UserService;
 import main.web.dto.EventRatingSummaryResponse;
 import main.web.view.EventView;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.stereotype.Controller;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.servlet.ModelAndView;
+import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
 
 import java.security.Principal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
 
 import java.util.List;
 import java.util.Map;
@@ -23,14 +30,20 @@ import java.util.stream.Collectors;
 @Controller
 public class HomeController {
 
+    private static final int NEARBY_LISTING_LIMIT = 200;
+    private static final int DEFAULT_WINDOW_DAYS = 7;
+
     private final UserService userService;
     private final EventService eventService;
     private final RatingService ratingService;
+    private final CalendarFeedService calendarFeedService;
 
-    public HomeController(UserService userService, EventService eventService, RatingService ratingService) {
+    public HomeController(UserService userService, EventService eventService, RatingService ratingService,
+                          CalendarFeedService calendarFeedService) {
         this.userService = userService;
         this.eventService = eventService;
         this.ratingService = ratingService;
+        this.calendarFeedService = calendarFeedService;
     }
 
     @GetMapping("/home")
@@ -55,14 +68,27 @@ public class HomeController {
         return modelAndView;
     }
 
+    // Only shows the calendar feed; it is created by the POST below, so opening the profile never writes
     @GetMapping("/profile")
     public ModelAndView profile(Principal principal) {
         User user = userService.getByEmail(principal.getName());
         ModelAndView modelAndView = new ModelAndView("profile");
         modelAndView.addObject("user", user);
+        calendarFeedService.find(user.getId()).ifPresent(feed ->
+                modelAndView.addObject("calendarFeedUrl", ServletUriComponentsBuilder.fromCurrentContextPath()
+                        .path("/calendar/{token}.ics")
+                        .buildAndExpand(feed.getToken())
+                        .toUriString()));
         return modelAndView;
     }
 
+    @PostMapping("/profile/calendar-feed")
+    public ModelAndView enableCalendarFeed(Principal principal) {
+        User user = userService.getByEmail(principal.getName());
+        calendarFeedService.getOrCreate(user.getId());
+        return new ModelAndView("redirect:/profile");
+    }
+
     @GetMapping("/profile/{id}")
     public ModelAndView editProfilePage(@PathVariable UUID id,
                                         Principal principal) {
@@ -86,12 +112,48 @@ public class HomeController {
 
     @GetMapping("/events")
     public ModelAndView events(@RequestParam(value = "category", required = false) UUID categoryId,
+                               @RequestParam(value = "q", required = false) String query,
+                               @RequestParam(value = "lat", required = false) Double latitude,
+                               @RequestParam(value = "lng", required = false) Double longitude,
+                               @RequestParam(value = "radiusKm", required = false) Double radiusKm,
+                               @RequestParam(value = "from", required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+                               @RequestParam(value = "to", required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
                                Principal principal) {
         User user = userService.getByEmail(principal.getName());
         ModelAndView modelAndView = new ModelAndView("events");
-        modelAndView.addObject("events", eventService.getEventsForListing(user.getId(), categoryId));
-        modelAndView.addObject("pastEvents", eventService.getPastEventsForListing(user.getId(), categoryId));
+        GeoQuery nearby = null;
+        CalendarWindow window = null;
+        try {
+            if (latitude != null && longitude != null && radiusKm != null) {
+                nearby = new GeoQuery(latitude, longitude, radiusKm,
+                        from != null ? from.atStartOfDay() : LocalDateTime.now(),
+                        to != null ? to.plusDays(1).atStartOfDay() : null,
+                        categoryId, NEARBY_LISTING_LIMIT);
+            } else if (from != null || to != null) {
+                LocalDate firstDay = from != null ? from : LocalDate.now();
+                LocalDate lastDay = to != null ? to : firstDay.plusDays(DEFAULT_WINDOW_DAYS - 1);
+                window = new CalendarWindow(firstDay.atStartOfDay(), lastDay.plusDays(1).atStartOfDay(), categoryId);
+            }
+        } catch (IllegalArgumentException e) {
+            modelAndView.addObject("filterError", e.getMessage());
+        }
+        if (nearby != null) {
+            modelAndView.addObject("events", eventService.getNearbyEventsForListing(user.getId(), nearby, query));
+            modelAndView.addObject("pastEvents", List.of());
+        } else if (window != null) {
+            modelAndView.addObject("events", eventService.getEventsInWindowForListing(user.getId(), window, query));
+            modelAndView.addObject("pastEvents", List.of());
+        } else if (query != null && !query.isBlank()) {
+            modelAndView.addObject("events", eventService.searchEventsForListing(user.getId(), categoryId, query));
+            modelAndView.addObject("pastEvents", eventService.searchPastEventsForListing(user.getId(), categoryId, query));
+        } else {
+            modelAndView.addObject("events", eventService.getEventsForListing(user.getId(), categoryId));
+            modelAndView.addObject("pastEvents", eventService.getPastEventsForListing(user.getId(), categoryId));
+        }
         modelAndView.addObject("selectedCategory", categoryId);
+        modelAndView.addObject("query", query);
+        modelAndView.addObject("nearby", nearby);
+        modelAndView.addObject("calendarWindow", window);
         modelAndView.addObject("user", user);
         modelAndView.addObject("categories", eventService.getAvailableCategories());
         return modelAndView;
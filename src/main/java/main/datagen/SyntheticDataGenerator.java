@@ -0,0 +1,348 @@
+package main.datagen;
+
+import main.model.Role;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.context.annotation.Profile;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.nio.ByteBuffer;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.Collections;
+import java.util.Random;
+import java.util.UUID;
+
+// Bulk-loads users, categories, events, subscriptions and tickets with plain JDBC batches when the
+// synthetic-data profile is active. Runners finish before ApplicationReadyEvent, so the in-memory
+// event indexes are rebuilt from the generated rows afterwards.
+@Component
+@Profile("synthetic-data")
+public class SyntheticDataGenerator implements ApplicationRunner {
+
+    private static final Logger logger = LoggerFactory.getLogger(SyntheticDataGenerator.class);
+
+    static final String EMAIL_DOMAIN = "@synthetic.example";
+
+    private static final String[] IMAGES = {"event-business.jpg", "event-gathering.jpg", "event-networking.jpg",
+            "event-presentation.jpg", "event-workshop.jpg", null};
+    private static final String[] CITIES = {"София", "Пловдив", "Варна", "Бургас", "Русе", "Стара Загора"};
+
+    private final DataSource dataSource;
+    private final PasswordEncoder passwordEncoder;
+    private final int users;
+    private final int events;
+    private final long subscriptions;
+    private final int categories;
+    private final double zipfExponent;
+    private final int batchSize;
+    private final long seed;
+    private final String password;
+
+    public SyntheticDataGenerator(DataSource dataSource,
+                                  PasswordEncoder passwordEncoder,
+                                  @Value("${synthetic-data.users:100000}") int users,
+                                  @Value("${synthetic-data.events:10000}") int events,
+                                  @Value("${synthetic-data.subscriptions:1000000}") long subscriptions,
+                                  @Value("${synthetic-data.categories:12}") int categories,
+                                  @Value("${synthetic-data.zipf-exponent:1.0}") double zipfExponent,
+                                  @Value("${synthetic-data.batch-size:5000}") int batchSize,
+                                  @Value("${synthetic-data.seed:42}") long seed,
+                                  @Value("${synthetic-data.password:password123}") String password) {
+        this.dataSource = dataSource;
+        this.passwordEncoder = passwordEncoder;
+        this.users = users;
+        this.events = events;
+        this.subscriptions = subscriptions;
+        this.categories = categories;
+        this.zipfExponent = zipfExponent;
+        this.batchSize = batchSize;
+        this.seed = seed;
+        this.password = password;
+    }
+
+    @Override
+    public void run(ApplicationArguments args) throws SQLException {
+        generate();
+    }
+
+    // Returns the number of subscriptions written, 0 when a previous run's users are already there
+    public long generate() throws SQLException {
+        try (Connection connection = dataSource.getConnection()) {
+            if (alreadyGenerated(connection)) {
+                logger.warn("Synthetic data already present (users with {} emails), skipping generation", EMAIL_DOMAIN);
+                return 0;
+            }
+            connection.setAutoCommit(false);
+            boolean mysql = "MySQL".equals(connection.getMetaData().getDatabaseProductName());
+            // The rows are consistent by construction, so MySQL can skip the per-row key checks for this session
+            if (mysql) {
+                execute(connection, "set session foreign_key_checks = 0, unique_checks = 0");
+            }
+            try {
+                return generate(connection);
+            } finally {
+                if (mysql) {
+                    execute(connection, "set session foreign_key_checks = 1, unique_checks = 1");
+                }
+                connection.setAutoCommit(true);
+            }
+        }
+    }
+
+    private long generate(Connection connection) throws SQLException {
+        Random random = new Random(seed);
+        SequentialIds ids = new SequentialIds(random.nextLong());
+        long start = System.nanoTime();
+
+        UUID[] categoryIds = insertCategories(connection, ids);
+        UUID[] userIds = insertUsers(connection, ids);
+        int[] subscribers = ZipfAllocation.allocate(subscriptions, events, zipfExponent, users);
+        UUID[] eventIds = insertEvents(connection, random, ids, categoryIds, userIds, subscribers);
+        long written = insertSubscriptionsAndTickets(connection, random, ids, userIds, eventIds, subscribers);
+
+        logger.info("Synthetic data generated in {} ms: {} users, {} events, {} subscriptions and tickets",
+                (System.nanoTime() - start) / 1_000_000, users, events, written);
+        return written;
+    }
+
+    private static void execute(Connection connection, String sql) throws SQLException {
+        try (Statement statement = connection.createStatement()) {
+            statement.execute(sql);
+        }
+    }
+
+    private boolean alreadyGenerated(Connection connection) throws SQLException {
+        try (PreparedStatement statement = connection.prepareStatement(
+                "select count(*) from users where email like ?")) {
+            statement.setString(1, "%" + EMAIL_DOMAIN);
+            try (ResultSet resultSet = statement.executeQuery()) {
+                resultSet.next();
+                return resultSet.getLong(1) > 0;
+            }
+        }
+    }
+
+    private UUID[] insertCategories(Connection connection, SequentialIds sequentialIds) throws SQLException {
+        UUID[] ids = new UUID[categories];
+        try (Batch batch = new Batch(connection, "categories", "id", "name", "is_active")) {
+            for (int i = 0; i < categories; i++) {
+                ids[i] = sequentialIds.next();
+                batch.add(bytes(ids[i]), "Синтетична категория " + (i + 1), true);
+            }
+        }
+        return ids;
+    }
+
+    // Every account shares one hash, so generating them costs a single BCrypt round
+    private UUID[] insertUsers(Connection connection, SequentialIds sequentialIds) throws SQLException {
+        String passwordHash = passwordEncoder.encode(password);
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        UUID[] ids = new UUID[users];
+        try (Batch batch = new Batch(connection, "users", "id", "username", "email", "password", "first_name",
+                "last_name", "role", "created_on", "updated_on")) {
+            for (int i = 0; i < users; i++) {
+                ids[i] = sequentialIds.next();
+                batch.add(bytes(ids[i]), "synthetic" + i, "user" + i + EMAIL_DOMAIN, passwordHash, "Потребител",
+                        String.valueOf(i), Role.USER.name(), now, now);
+            }
+        }
+        return ids;
+    }
+
+    // Events are spread over the next six months and created by the first 1% of the users. Popularity
+    // ranks are dealt out at random, so the most subscribed events are not simply the earliest ones.
+    private UUID[] insertEvents(Connection connection, Random random, SequentialIds sequentialIds,
+                                UUID[] categoryIds, UUID[] userIds, int[] subscribers) throws SQLException {
+        shuffle(subscribers, random);
+        int organizers = Math.max(1, users / 100);
+        LocalDateTime now = LocalDateTime.now().withSecond(0).withNano(0);
+        UUID[] ids = new UUID[events];
+        try (Batch batch = new Batch(connection, "events", "id", "name", "description", "location", "latitude",
+                "longitude", "image_name", "start_time", "end_time", "capacity", "category_id", "creator_id")) {
+            for (int i = 0; i < events; i++) {
+                ids[i] = sequentialIds.next();
+                LocalDateTime startTime = now.plusMinutes(30 + random.nextInt(180 * 24 * 60));
+                // A third of the events are limited, always with room for their generated subscribers
+                Integer capacity = i % 3 == 0 ? subscribers[i] + 1 + random.nextInt(subscribers[i] / 4 + 10) : null;
+                batch.add(bytes(ids[i]),
+                        "Събитие " + (i + 1),
+                        "Синтетично събитие за тестове с реален обем данни.",
+                        CITIES[random.nextInt(CITIES.length)],
+                        41.3 + random.nextDouble() * 2.9,
+                        22.4 + random.nextDouble() * 6.2,
+                        IMAGES[random.nextInt(IMAGES.length)],
+                        Timestamp.valueOf(startTime),
+                        Timestamp.valueOf(startTime.plusHours(1 + random.nextInt(4))),
+                        capacity,
+                        bytes(categoryIds[random.nextInt(categoryIds.length)]),
+                        bytes(userIds[random.nextInt(organizers)]));
+            }
+        }
+        return ids;
+    }
+
+    // The subscribers of an event are users offset, offset + stride, ... modulo the user count. With the stride
+    // coprime to it they are all distinct, so no (user, event) pair repeats and nothing has to be remembered.
+    private long insertSubscriptionsAndTickets(Connection connection, Random random, SequentialIds sequentialIds,
+                                               UUID[] userIds, UUID[] eventIds, int[] subscribers) throws SQLException {
+        LocalDateTime now = LocalDateTime.now();
+        long written = 0;
+        // Both batches fill in step and subscriptions are added first, so every ticket batch reaches the database
+        // after the subscriptions it references; resources close in reverse, which keeps that order for the rest
+        try (Batch tickets = new Batch(connection, "tickets", "id", "subscription_id", "code", "issued_at");
+             Batch subscriptions = new Batch(connection, "subscriptions", "id", "user_id", "event_id", "subscription_time")) {
+            for (int e = 0; e < eventIds.length; e++) {
+                int offset = random.nextInt(users);
+                int stride = coprimeStride(random);
+                byte[] eventId = bytes(eventIds[e]);
+                for (int s = 0; s < subscribers[e]; s++) {
+                    byte[] subscriptionId = bytes(sequentialIds.next());
+                    Timestamp subscribedAt = Timestamp.valueOf(now.minusMinutes(random.nextInt(30 * 24 * 60)));
+                    byte[] userId = bytes(userIds[(int) ((offset + (long) s * stride) % users)]);
+                    subscriptions.add(subscriptionId, userId, eventId, subscribedAt);
+                    // Ticket codes have to stay unguessable, so they come from SecureRandom rather than the seeded generator
+                    tickets.add(bytes(sequentialIds.next()), subscriptionId, UUID.randomUUID().toString(), subscribedAt);
+                    written++;
+                }
+            }
+        }
+        return written;
+    }
+
+    private int coprimeStride(Random random) {
+        if (users == 1) {
+            return 1;
+        }
+        int stride;
+        do {
+            stride = 1 + random.nextInt(users - 1);
+        } while (gcd(stride, users) != 1);
+        return stride;
+    }
+
+    private static int gcd(int a, int b) {
+        return b == 0 ? a : gcd(b, a % b);
+    }
+
+    private static void shuffle(int[] values, Random random) {
+        for (int i = values.length - 1; i > 0; i--) {
+            int j = random.nextInt(i + 1);
+            int value = values[i];
+            values[i] = values[j];
+            values[j] = value;
+        }
+    }
+
+    // Primary keys share one random prefix and count up from there, so every insert appends to the end of the
+    // index instead of splitting a random B-tree page (InnoDB clusters rows by it). Marked as version 8 UUIDs.
+    private static final class SequentialIds {
+
+        private final long most;
+        private long sequence;
+
+        SequentialIds(long prefix) {
+            this.most = prefix & ~0xF000L | 0x8000L;
+        }
+
+        UUID next() {
+            return new UUID(most, 0x8000000000000000L | ++sequence);
+        }
+    }
+
+    // Hibernate maps UUID to binary(16) on MySQL and uuid on H2; both take the 16 big-endian bytes
+    private static byte[] bytes(UUID id) {
+        return ByteBuffer.allocate(16)
+                .putLong(id.getMostSignificantBits())
+                .putLong(id.getLeastSignificantBits())
+                .array();
+    }
+
+    // Rows go out as multi-row inserts of ROWS_PER_STATEMENT, batched and committed every batchSize rows, which
+    // cuts the per-statement cost on H2 and does what rewriteBatchedStatements would do on MySQL; close() writes
+    // the remaining rows one statement each
+    private final class Batch implements AutoCloseable {
+
+        private static final int ROWS_PER_STATEMENT = 100;
+
+        private final Connection connection;
+        private final String table;
+        private final int columns;
+        private final PreparedStatement multiRow;
+        private final PreparedStatement singleRow;
+        private final Object[] buffered;
+        private final long start = System.nanoTime();
+        private int bufferedRows;
+        private int pendingRows;
+        private long rows;
+
+        Batch(Connection connection, String table, String... columns) throws SQLException {
+            this.connection = connection;
+            this.table = table;
+            this.columns = columns.length;
+            String row = "(" + String.join(", ", Collections.nCopies(columns.length, "?")) + ")";
+            String insert = "insert into " + table + " (" + String.join(", ", columns) + ") values ";
+            this.multiRow = connection.prepareStatement(insert + String.join(", ", Collections.nCopies(ROWS_PER_STATEMENT, row)));
+            this.singleRow = connection.prepareStatement(insert + row);
+            this.buffered = new Object[ROWS_PER_STATEMENT * columns.length];
+        }
+
+        void add(Object... values) throws SQLException {
+            System.arraycopy(values, 0, buffered, bufferedRows * columns, columns);
+            if (++bufferedRows < ROWS_PER_STATEMENT) {
+                return;
+            }
+            for (int i = 0; i < buffered.length; i++) {
+                multiRow.setObject(i + 1, buffered[i]);
+            }
+            multiRow.addBatch();
+            bufferedRows = 0;
+            pendingRows += ROWS_PER_STATEMENT;
+            if (pendingRows >= batchSize) {
+                flush();
+            }
+        }
+
+        private void flush() throws SQLException {
+            if (pendingRows > 0) {
+                multiRow.executeBatch();
+            }
+            connection.commit();
+            rows += pendingRows;
+            pendingRows = 0;
+        }
+
+        @Override
+        public void close() throws SQLException {
+            try {
+                for (int row = 0; row < bufferedRows; row++) {
+                    for (int column = 0; column < columns; column++) {
+                        singleRow.setObject(column + 1, buffered[row * columns + column]);
+                    }
+                    singleRow.addBatch();
+                }
+                flush();
+                if (bufferedRows > 0) {
+                    singleRow.executeBatch();
+                    connection.commit();
+                    rows += bufferedRows;
+                }
+                long millis = Math.max(1, (System.nanoTime() - start) / 1_000_000);
+                logger.info("Inserted {} rows into {} in {} ms ({} rows/s)", rows, table, millis, rows * 1000 / millis);
+            } finally {
+                multiRow.close();
+                singleRow.close();
+            }
+        }
+    }
+}
@@ -0,0 +1,35 @@
+package main.datagen;
+
+// Splits a total over ranked buckets in proportion to 1 / rank^exponent, with a cap per bucket.
+// Each bucket takes its share of what is still left, so capped overflow moves to the lower ranks
+// and the counts add up to the total whenever buckets * cap allows it.
+public final class ZipfAllocation {
+
+    private ZipfAllocation() {
+    }
+
+    public static int[] allocate(long total, int buckets, double exponent, int cap) {
+        if (buckets <= 0 || total < 0 || cap < 0 || exponent < 0) {
+            throw new IllegalArgumentException("Invalid Zipf allocation: total=" + total + ", buckets=" + buckets
+                    + ", exponent=" + exponent + ", cap=" + cap);
+        }
+        double[] weights = new double[buckets];
+        double remainingWeight = 0;
+        for (int rank = 0; rank < buckets; rank++) {
+            weights[rank] = 1 / Math.pow(rank + 1, exponent);
+            remainingWeight += weights[rank];
+        }
+
+        int[] counts = new int[buckets];
+        long remaining = total;
+        for (int rank = 0; rank < buckets && remaining > 0; rank++) {
+            long share = rank == buckets - 1
+                    ? remaining
+                    : Math.round(remaining * weights[rank] / remainingWeight);
+            counts[rank] = (int) Math.min(cap, share);
+            remaining -= counts[rank];
+            remainingWeight -= weights[rank];
+        }
+        return counts;
+    }
+}
@@ -0,0 +1,33 @@
+package main.datasource;
+
+// Marks the current thread as running a batch job, so WorkloadRoutingDataSource hands it the batch pool instead of
+// the one web requests draw from. The scheduler wraps every @Scheduled run with it. Background work handed to
+// applicationTaskExecutor (user purges, image variants) wraps itself: that executor also runs the rating fan-out of
+// page requests, so a decorator on it would mark those as batch work too.
+public final class BatchWorkload {
+
+    private static final ThreadLocal<Boolean> ACTIVE = new ThreadLocal<>();
+
+    private BatchWorkload() {
+    }
+
+    public static boolean isActive() {
+        return Boolean.TRUE.equals(ACTIVE.get());
+    }
+
+    public static Runnable wrap(Runnable task) {
+        return () -> {
+            Boolean previous = ACTIVE.get();
+            ACTIVE.set(true);
+            try {
+                task.run();
+            } finally {
+                if (previous == null) {
+                    ACTIVE.remove();
+                } else {
+                    ACTIVE.set(previous);
+                }
+            }
+        };
+    }
+}
@@ -0,0 +1,60 @@
+package main.datasource;
+
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+
+// Sends @Transactional(readOnly = true) work to the replica and everything else to the primary. The connection is
+// only taken from a pool at the first statement, after the transaction manager has marked it read-only, which is
+// what lets a single DataSource route per transaction. A session held open across transactions keeps its first
+// connection, so routing needs spring.jpa.open-in-view=false. Requests pinned by ReadYourWritesFilter read from
+// the primary too.
+public class ReadWriteRoutingDataSource extends LazyConnectionDataSourceProxy {
+
+    public ReadWriteRoutingDataSource(DataSource primary, DataSource replica, ReplicaLagMonitor lagMonitor) {
+        super(primary);
+        setReadOnlyDataSource(new ReplicaOrPrimary(replica, primary, lagMonitor));
+    }
+
+    // Reads fall back to the primary while the replica is behind or unreachable, or the session has just written
+    private static final class ReplicaOrPrimary extends DelegatingDataSource {
+
+        private final DataSource primary;
+        private final ReplicaLagMonitor lagMonitor;
+
+        private ReplicaOrPrimary(DataSource replica, DataSource primary, ReplicaLagMonitor lagMonitor) {
+            super(replica);
+            this.primary = primary;
+            this.lagMonitor = lagMonitor;
+        }
+
+        @Override
+        public Connection getConnection() throws SQLException {
+            if (ReadYourWritesFilter.isPinned()) {
+                lagMonitor.countFallback("read-your-writes");
+                return primary.getConnection();
+            }
+            if (!lagMonitor.isReplicaUsable()) {
+                lagMonitor.countFallback("unhealthy");
+                return primary.getConnection();
+            }
+            try {
+                return obtainTargetDataSource().getConnection();
+            } catch (SQLException e) {
+                lagMonitor.markUnavailable(e);
+                lagMonitor.countFallback("connection-failed");
+                return primary.getConnection();
+            }
+        }
+
+        @Override
+        public Connection getConnection(String username, String password) throws SQLException {
+            return lagMonitor.isReplicaUsable() && !ReadYourWritesFilter.isPinned()
+                    ? obtainTargetDataSource().getConnection(username, password)
+                    : primary.getConnection(username, password);
+        }
+    }
+}
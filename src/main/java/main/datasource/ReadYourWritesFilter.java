@@ -0,0 +1,60 @@
+package main.datasource;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.servlet.http.HttpSession;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.Set;
+
+// Read-your-writes on top of the replica routing: a request that may write (anything but GET, HEAD, OPTIONS and
+// TRACE) and the same session's requests for a short window after it read from the primary, so the page a POST
+// redirects to shows the subscription, ticket or event it has just saved even while the replica is behind.
+public class ReadYourWritesFilter extends OncePerRequestFilter {
+
+    static final String PINNED_UNTIL = ReadYourWritesFilter.class.getName() + ".PINNED_UNTIL";
+
+    private static final Set<String> SAFE_METHODS = Set.of("GET", "HEAD", "OPTIONS", "TRACE");
+    private static final ThreadLocal<Boolean> PINNED = new ThreadLocal<>();
+
+    private final Duration window;
+
+    public ReadYourWritesFilter(Duration window) {
+        this.window = window;
+    }
+
+    public static boolean isPinned() {
+        return Boolean.TRUE.equals(PINNED.get());
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        boolean writes = !SAFE_METHODS.contains(request.getMethod());
+        if (!writes && !pinned(request.getSession(false))) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+        PINNED.set(true);
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            PINNED.remove();
+            // Counted from the end of the write, after its transaction has committed; a login gets a session here too
+            HttpSession session = writes ? request.getSession(false) : null;
+            if (session != null) {
+                session.setAttribute(PINNED_UNTIL, System.currentTimeMillis() + window.toMillis());
+            }
+        }
+    }
+
+    private static boolean pinned(HttpSession session) {
+        return session != null
+                && session.getAttribute(PINNED_UNTIL) instanceof Long until
+                && until > System.currentTimeMillis();
+    }
+}
@@ -0,0 +1,129 @@
+package main.datasource;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.annotation.Scheduled;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.List;
+
+// Decides whether read-only transactions may go to the replica. The replication lag is polled with the configured
+// query; the replica is used while that lag stays within the limit and is skipped while it is behind, stopped or down.
+// Until the first check has passed, reads stay on the primary. A query whose result has no lag column is a
+// configuration error and fails the check instead of reading some other column.
+public class ReplicaLagMonitor {
+
+    private static final Logger logger = LoggerFactory.getLogger(ReplicaLagMonitor.class);
+
+    // SHOW REPLICA STATUS (MySQL 8.0.22+) and SHOW SLAVE STATUS name the column differently; a custom query may
+    // return the lag as its only column instead
+    private static final List<String> LAG_COLUMNS = List.of("Seconds_Behind_Source", "Seconds_Behind_Master");
+
+    private final DataSource replica;
+    private final String lagQuery;
+    private final Duration maxLag;
+    private final boolean missingStatusMeansCaughtUp;
+    private final MeterRegistry meterRegistry;
+
+    private volatile boolean usable;
+    private volatile double lagSeconds = Double.NaN;
+
+    public ReplicaLagMonitor(DataSource replica, String lagQuery, Duration maxLag, boolean missingStatusMeansCaughtUp,
+                             MeterRegistry meterRegistry) {
+        this.replica = replica;
+        this.lagQuery = lagQuery;
+        this.maxLag = maxLag;
+        this.missingStatusMeansCaughtUp = missingStatusMeansCaughtUp;
+        this.meterRegistry = meterRegistry;
+        Gauge.builder("datasource.replica.lag", this, monitor -> monitor.lagSeconds)
+                .description("Replication lag of the read replica at the last check, NaN when unknown")
+                .baseUnit("seconds")
+                .register(meterRegistry);
+        Gauge.builder("datasource.replica.active", this, monitor -> monitor.usable ? 1 : 0)
+                .description("1 while read-only transactions go to the replica, 0 while they fall back to the primary")
+                .register(meterRegistry);
+    }
+
+    @Scheduled(fixedDelayString = "${datasource.replica.lag-check-interval-ms:5000}")
+    public void check() {
+        Double lag;
+        try {
+            lag = readLagSeconds();
+        } catch (SQLException e) {
+            lagSeconds = Double.NaN;
+            update(false, "the lag could not be read: " + e.getMessage());
+            return;
+        } catch (IllegalStateException e) {
+            lagSeconds = Double.NaN;
+            update(false, e.getMessage());
+            throw e;
+        }
+        if (lag == null) {
+            lagSeconds = Double.NaN;
+            update(false, "replication is not running");
+            return;
+        }
+        lagSeconds = lag;
+        update(lag <= maxLag.toSeconds(), "lag is " + lag.longValue() + " s, the limit is " + maxLag.toSeconds() + " s");
+    }
+
+    public boolean isReplicaUsable() {
+        return usable;
+    }
+
+    // A replica that refuses connections is skipped until the next check finds it healthy again
+    void markUnavailable(SQLException cause) {
+        update(false, "no connection could be obtained: " + cause.getMessage());
+    }
+
+    void countFallback(String reason) {
+        meterRegistry.counter("datasource.replica.fallbacks", "reason", reason).increment();
+    }
+
+    // No row usually means the server is not a replica at all (replication was reset or never set up), so it is not
+    // used unless the property says that this server is known to be caught up whenever it reports nothing
+    private Double readLagSeconds() throws SQLException {
+        try (Connection connection = replica.getConnection();
+             Statement statement = connection.createStatement();
+             ResultSet resultSet = statement.executeQuery(lagQuery)) {
+            if (!resultSet.next()) {
+                return missingStatusMeansCaughtUp ? 0.0 : null;
+            }
+            double lag = resultSet.getDouble(lagColumn(resultSet.getMetaData()));
+            return resultSet.wasNull() ? null : lag;
+        }
+    }
+
+    private int lagColumn(ResultSetMetaData metaData) throws SQLException {
+        for (int column = 1; column <= metaData.getColumnCount(); column++) {
+            String label = metaData.getColumnLabel(column);
+            if (LAG_COLUMNS.stream().anyMatch(label::equalsIgnoreCase)) {
+                return column;
+            }
+        }
+        if (metaData.getColumnCount() == 1) {
+            return 1;
+        }
+        throw new IllegalStateException("datasource.replica.lag-query '" + lagQuery + "' returns neither "
+                + String.join(" nor ", LAG_COLUMNS) + " nor a single column");
+    }
+
+    private synchronized void update(boolean nowUsable, String reason) {
+        if (nowUsable != usable) {
+            if (nowUsable) {
+                logger.info("Read-only transactions go to the replica again: {}", reason);
+            } else {
+                logger.warn("Read-only transactions fall back to the primary: {}", reason);
+            }
+        }
+        usable = nowUsable;
+    }
+}
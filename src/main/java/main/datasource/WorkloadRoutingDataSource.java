@@ -0,0 +1,33 @@
+package main.datasource;
+
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+
+// Gives batch jobs a pool of their own on the same database, so a long cleanup cannot hold the connections web
+// requests wait for during a ticket drop, and a burst of requests cannot stall the jobs either.
+public class WorkloadRoutingDataSource extends DelegatingDataSource {
+
+    private final DataSource batch;
+
+    public WorkloadRoutingDataSource(DataSource web, DataSource batch) {
+        super(web);
+        this.batch = batch;
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        return current().getConnection();
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        return current().getConnection(username, password);
+    }
+
+    private DataSource current() {
+        return BatchWorkload.isActive() ? batch : obtainTargetDataSource();
+    }
+}
@@ -25,6 +25,14 @@ public class GlobalExceptionHandler {
         return new ModelAndView("redirect:/admin/categories");
     }
 
+    @ExceptionHandler(ServiceBusyException.class)
+    public ModelAndView handleServiceBusyException(ServiceBusyException ex) {
+        ModelAndView modelAndView = new ModelAndView("error/oops");
+        modelAndView.setStatus(HttpStatus.SERVICE_UNAVAILABLE);
+        modelAndView.addObject("message", ex.getMessage());
+        return modelAndView;
+    }
+
     @ExceptionHandler(IllegalArgumentException.class)
     public ModelAndView handleIllegalArgumentException(IllegalArgumentException ex, RedirectAttributes redirectAttributes, HttpServletRequest request) {
         String requestURI = request.getRequestURI();
@@ -0,0 +1,163 @@
+package main.image;
+
+import javax.imageio.IIOImage;
+import javax.imageio.ImageIO;
+import javax.imageio.ImageReadParam;
+import javax.imageio.ImageReader;
+import javax.imageio.ImageWriteParam;
+import javax.imageio.ImageWriter;
+import javax.imageio.stream.ImageInputStream;
+import javax.imageio.stream.ImageOutputStream;
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.Iterator;
+import java.util.Locale;
+
+// JDK-only image scaling and encoding; WebP is written only when an ImageIO WebP plugin is on the classpath
+public final class ImageResizer {
+
+    public static final String JPEG = "image/jpeg";
+    public static final String WEBP = "image/webp";
+
+    private static final float JPEG_QUALITY = 0.8f;
+    private static final float WEBP_QUALITY = 0.75f;
+
+    private ImageResizer() {
+    }
+
+    public static boolean canWrite(String mimeType) {
+        return ImageIO.getImageWritersByMIMEType(mimeType).hasNext();
+    }
+
+    // Format and size from the header only, without decoding any pixels
+    public static ImageInfo probe(InputStream input) throws IOException {
+        try (ImageInputStream stream = ImageIO.createImageInputStream(input)) {
+            ImageReader reader = readerFor(stream);
+            try {
+                reader.setInput(stream, true, true);
+                return new ImageInfo(reader.getFormatName().toLowerCase(Locale.ROOT), reader.getWidth(0), reader.getHeight(0));
+            } finally {
+                reader.dispose();
+            }
+        }
+    }
+
+    // Skips source pixels while decoding so a 5000px photo never has to be held in memory at full size
+    public static BufferedImage read(InputStream input, int largestTargetWidth) throws IOException {
+        try (ImageInputStream stream = ImageIO.createImageInputStream(input)) {
+            ImageReader reader = readerFor(stream);
+            try {
+                reader.setInput(stream, true, true);
+                int step = Math.max(1, reader.getWidth(0) / (largestTargetWidth * 2));
+                ImageReadParam param = reader.getDefaultReadParam();
+                param.setSourceSubsampling(step, step, 0, 0);
+                return reader.read(0, param);
+            } finally {
+                reader.dispose();
+            }
+        }
+    }
+
+    // Halves with bilinear filtering until close to the target; a single bilinear step from far away aliases badly
+    public static BufferedImage resize(BufferedImage source, int targetWidth) {
+        BufferedImage current = toRgb(source);
+        int targetHeight = Math.max(1, Math.round((float) source.getHeight() * targetWidth / source.getWidth()));
+        while (current.getWidth() / 2 >= targetWidth) {
+            current = scale(current, current.getWidth() / 2, Math.max(1, current.getHeight() / 2));
+        }
+        if (current.getWidth() != targetWidth) {
+            current = scale(current, targetWidth, targetHeight);
+        }
+        return current;
+    }
+
+    public static void write(BufferedImage image, String mimeType, OutputStream output) throws IOException {
+        Iterator<ImageWriter> writers = ImageIO.getImageWritersByMIMEType(mimeType);
+        if (!writers.hasNext()) {
+            throw new IOException("No image writer for " + mimeType);
+        }
+        ImageWriter writer = writers.next();
+        try (ImageOutputStream stream = ImageIO.createImageOutputStream(output)) {
+            writer.setOutput(stream);
+            ImageWriteParam param = writer.getDefaultWriteParam();
+            if (param.canWriteCompressed()) {
+                param.setCompressionMode(ImageWriteParam.MODE_EXPLICIT);
+                if (param.getCompressionTypes() != null && param.getCompressionType() == null) {
+                    param.setCompressionType(param.getCompressionTypes()[0]);
+                }
+                param.setCompressionQuality(JPEG.equals(mimeType) ? JPEG_QUALITY : WEBP_QUALITY);
+            }
+            if (param.canWriteProgressive()) {
+                param.setProgressiveMode(ImageWriteParam.MODE_DEFAULT);
+            }
+            writer.write(null, new IIOImage(image, null, null), param);
+        } finally {
+            writer.dispose();
+        }
+    }
+
+    // Written next to the target and moved into place, so a crash never leaves a truncated file that looks finished
+    public static void writeAtomically(Path target, BufferedImage image, String mimeType) throws IOException {
+        Path temporary = Files.createTempFile(target.getParent(), ".variant", ".tmp");
+        try {
+            try (OutputStream output = Files.newOutputStream(temporary)) {
+                write(image, mimeType, output);
+            }
+            Files.move(temporary, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            Files.deleteIfExists(temporary);
+        }
+    }
+
+    private static ImageReader readerFor(ImageInputStream stream) throws IOException {
+        if (stream == null) {
+            throw new IOException("Unreadable image");
+        }
+        Iterator<ImageReader> readers = ImageIO.getImageReaders(stream);
+        if (!readers.hasNext()) {
+            throw new IOException("Unsupported image format");
+        }
+        return readers.next();
+    }
+
+    // JPEG has no alpha channel, so transparent PNGs are flattened onto white
+    private static BufferedImage toRgb(BufferedImage source) {
+        if (source.getType() == BufferedImage.TYPE_INT_RGB) {
+            return source;
+        }
+        BufferedImage rgb = new BufferedImage(source.getWidth(), source.getHeight(), BufferedImage.TYPE_INT_RGB);
+        Graphics2D graphics = rgb.createGraphics();
+        try {
+            graphics.setColor(Color.WHITE);
+            graphics.fillRect(0, 0, source.getWidth(), source.getHeight());
+            graphics.drawImage(source, 0, 0, null);
+        } finally {
+            graphics.dispose();
+        }
+        return rgb;
+    }
+
+    private static BufferedImage scale(BufferedImage source, int width, int height) {
+        BufferedImage scaled = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+        Graphics2D graphics = scaled.createGraphics();
+        try {
+            graphics.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+            graphics.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
+            graphics.drawImage(source, 0, 0, width, height, null);
+        } finally {
+            graphics.dispose();
+        }
+        return scaled;
+    }
+
+    public record ImageInfo(String formatName, int width, int height) {
+    }
+}
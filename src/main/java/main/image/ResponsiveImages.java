@@ -0,0 +1,180 @@
+package main.image;
+
+import main.datasource.BatchWorkload;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.support.PathMatchingResourcePatternResolver;
+import org.springframework.core.io.support.ResourcePatternResolver;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.stereotype.Component;
+
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+// Resized variants of the bundled event images, written once to disk under content-hashed names and
+// referenced from the templates through srcset; until they are ready the templates use the originals.
+// Uploaded images are handed to UploadedImages, so the templates have one entry point for both
+@Component("responsiveImages")
+public class ResponsiveImages {
+
+    private static final Logger logger = LoggerFactory.getLogger(ResponsiveImages.class);
+
+    public static final String URL_PREFIX = "/images/v/";
+    static final List<Integer> WIDTHS = List.of(320, 480, 640, 960);
+    // Cards are about 400 CSS px wide: 480 covers 1x screens, 960 covers 2x
+    private static final int DEFAULT_WIDTH = 480;
+    // Part of every hash; bump it when sizes or encoder settings change, as browsers cache these URLs as immutable
+    private static final String PIPELINE_VERSION = "1";
+    private static final String ORIGINALS_URL = "/images/events/";
+
+    private final String sourceLocation;
+    private final Path variantsDirectory;
+    private final UploadedImages uploadedImages;
+    private final ResourcePatternResolver resolver = new PathMatchingResourcePatternResolver();
+    private volatile Map<String, ImageSet> sets = Map.of();
+
+    public ResponsiveImages(@Value("${images.variants.source:classpath:static/images/events/}") String sourceLocation,
+                            @Value("${images.variants.dir:${java.io.tmpdir}/eventapp-image-variants}") Path variantsDirectory,
+                            UploadedImages uploadedImages) {
+        this.sourceLocation = sourceLocation;
+        this.variantsDirectory = variantsDirectory.toAbsolutePath();
+        this.uploadedImages = uploadedImages;
+    }
+
+    public Path getVariantsDirectory() {
+        return variantsDirectory;
+    }
+
+    @Async
+    public void prepareAsync() {
+        BatchWorkload.wrap(() -> {
+            try {
+                prepare();
+            } catch (RuntimeException e) {
+                logger.error("Preparing responsive images failed, pages keep using the original images", e);
+            }
+        }).run();
+    }
+
+    // Only the first startup pays for decoding; later ones find every variant on disk and just hash the sources
+    public void prepare() {
+        long start = System.nanoTime();
+        Map<String, ImageSet> prepared = new HashMap<>();
+        try {
+            Files.createDirectories(variantsDirectory);
+            for (Resource resource : resolver.getResources(sourceLocation + "*")) {
+                String name = resource.getFilename();
+                if (name == null || !isRaster(name)) {
+                    continue;
+                }
+                try {
+                    prepared.put(name, prepare(name, resource.getContentAsByteArray()));
+                } catch (IOException e) {
+                    logger.warn("Could not prepare variants of {}", name, e);
+                }
+            }
+        } catch (IOException e) {
+            logger.error("Could not read images from {} or write to {}", sourceLocation, variantsDirectory, e);
+        }
+        sets = Map.copyOf(prepared);
+        logger.info("Responsive variants of {} images ready in {} ms", prepared.size(), (System.nanoTime() - start) / 1_000_000);
+    }
+
+    public String src(String imageName) {
+        if (UploadedImages.isUploadName(imageName)) {
+            return uploadedImages.src(imageName);
+        }
+        ImageSet set = imageName != null ? sets.get(imageName) : null;
+        if (set == null) {
+            return ORIGINALS_URL + imageName;
+        }
+        return set.jpeg().stream()
+                .filter(variant -> variant.width() >= DEFAULT_WIDTH)
+                .findFirst()
+                .orElse(set.jpeg().get(set.jpeg().size() - 1))
+                .url();
+    }
+
+    public String srcset(String imageName) {
+        if (UploadedImages.isUploadName(imageName)) {
+            return uploadedImages.srcset(imageName);
+        }
+        ImageSet set = imageName != null ? sets.get(imageName) : null;
+        return set != null ? srcset(set.jpeg()) : null;
+    }
+
+    public String webpSrcset(String imageName) {
+        ImageSet set = imageName != null ? sets.get(imageName) : null;
+        return set != null && !set.webp().isEmpty() ? srcset(set.webp()) : null;
+    }
+
+    private ImageSet prepare(String name, byte[] source) throws IOException {
+        String hash = hash(source);
+        String baseName = name.substring(0, name.lastIndexOf('.'));
+        List<Integer> widths = widthsFor(ImageResizer.probe(new ByteArrayInputStream(source)).width());
+
+        BufferedImage decoded = null;
+        List<Variant> jpeg = new ArrayList<>();
+        List<Variant> webp = new ArrayList<>();
+        for (String format : ImageResizer.canWrite(ImageResizer.WEBP)
+                ? List.of(ImageResizer.JPEG, ImageResizer.WEBP) : List.of(ImageResizer.JPEG)) {
+            for (int width : widths) {
+                String fileName = baseName + "-" + width + "." + hash + (ImageResizer.JPEG.equals(format) ? ".jpg" : ".webp");
+                Path target = variantsDirectory.resolve(fileName);
+                if (!Files.exists(target)) {
+                    if (decoded == null) {
+                        decoded = ImageResizer.read(new ByteArrayInputStream(source), widths.get(widths.size() - 1));
+                    }
+                    ImageResizer.writeAtomically(target, ImageResizer.resize(decoded, width), format);
+                }
+                (ImageResizer.JPEG.equals(format) ? jpeg : webp).add(new Variant(URL_PREFIX + fileName, width));
+            }
+        }
+        return new ImageSet(List.copyOf(jpeg), List.copyOf(webp));
+    }
+
+    static List<Integer> widthsFor(int sourceWidth) {
+        List<Integer> widths = WIDTHS.stream().filter(width -> width < sourceWidth).toList();
+        return widths.isEmpty() ? List.of(sourceWidth) : widths;
+    }
+
+    private static String hash(byte[] source) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            digest.update(PIPELINE_VERSION.getBytes(StandardCharsets.UTF_8));
+            return HexFormat.of().formatHex(digest.digest(source)).substring(0, 12);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static boolean isRaster(String name) {
+        String lower = name.toLowerCase(Locale.ROOT);
+        return lower.endsWith(".jpg") || lower.endsWith(".jpeg") || lower.endsWith(".png");
+    }
+
+    private static String srcset(List<Variant> variants) {
+        return variants.stream().map(variant -> variant.url() + " " + variant.width() + "w").collect(Collectors.joining(", "));
+    }
+
+    private record Variant(String url, int width) {
+    }
+
+    private record ImageSet(List<Variant> jpeg, List<Variant> webp) {
+    }
+}
@@ -0,0 +1,190 @@
+package main.image;
+
+import main.datasource.BatchWorkload;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.stereotype.Component;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+// Organiser uploads on local disk, named by the SHA-256 of their content: the same photo uploaded twice is stored once,
+// and a name never points at different bytes, so every stored file can be cached as immutable
+@Component
+public class UploadedImages {
+
+    private static final Logger logger = LoggerFactory.getLogger(UploadedImages.class);
+
+    public static final String URL_PREFIX = "/images/u/";
+    private static final Pattern UPLOAD_NAME = Pattern.compile("[0-9a-f]{64}\\.(jpg|png)");
+    // Originals and their variants, e.g. <hash>.png and <hash>-480.jpg
+    private static final Pattern STORED_FILE = Pattern.compile("([0-9a-f]{64})(-\\d{2,4})?\\.(jpg|png)");
+    // Header-declared size limit, so a tiny file claiming a huge canvas is rejected before anything decodes it
+    private static final long MAX_PIXELS = 40_000_000L;
+    private static final int DEFAULT_WIDTH = 480;
+
+    private final Path directory;
+    private final TaskExecutor taskExecutor;
+    private final Map<String, List<Integer>> variantWidths = new ConcurrentHashMap<>();
+
+    public UploadedImages(@Value("${images.uploads.dir:uploads}") Path directory,
+                          @Qualifier("applicationTaskExecutor") TaskExecutor taskExecutor) {
+        this.directory = directory.toAbsolutePath();
+        this.taskExecutor = taskExecutor;
+    }
+
+    public static boolean isUploadName(String imageName) {
+        return imageName != null && UPLOAD_NAME.matcher(imageName).matches();
+    }
+
+    // Streams the upload to disk while hashing it; variants are generated afterwards off the request thread
+    public String store(MultipartFile file) throws IOException {
+        Files.createDirectories(directory);
+        Path temporary = Files.createTempFile(directory, ".upload", ".tmp");
+        try {
+            MessageDigest digest = sha256();
+            try (InputStream input = new DigestInputStream(file.getInputStream(), digest)) {
+                Files.copy(input, temporary, StandardCopyOption.REPLACE_EXISTING);
+            }
+            String extension = extensionOf(probe(temporary));
+            String name = HexFormat.of().formatHex(digest.digest()) + "." + extension;
+            Path target = directory.resolve(name);
+            if (!Files.exists(target)) {
+                Files.move(temporary, target, StandardCopyOption.ATOMIC_MOVE);
+            }
+            taskExecutor.execute(BatchWorkload.wrap(() -> generateVariants(name)));
+            logger.info("Stored uploaded image {} ({} bytes)", name, file.getSize());
+            return name;
+        } finally {
+            Files.deleteIfExists(temporary);
+        }
+    }
+
+    // Existing variants are kept, so re-uploading a photo or retrying after a crash only fills in what is missing
+    public void generateVariants(String name) {
+        if (!isUploadName(name)) {
+            return;
+        }
+        try {
+            Path original = directory.resolve(name);
+            ImageResizer.ImageInfo info;
+            try (InputStream input = Files.newInputStream(original)) {
+                info = ImageResizer.probe(input);
+            }
+            List<Integer> widths = ResponsiveImages.WIDTHS.stream().filter(width -> width < info.width()).toList();
+            BufferedImage decoded = null;
+            for (int width : widths) {
+                Path target = variantPath(name, width);
+                if (Files.exists(target)) {
+                    continue;
+                }
+                if (decoded == null) {
+                    try (InputStream input = Files.newInputStream(original)) {
+                        decoded = ImageResizer.read(input, widths.get(widths.size() - 1));
+                    }
+                }
+                ImageResizer.writeAtomically(target, ImageResizer.resize(decoded, width), ImageResizer.JPEG);
+            }
+            variantWidths.put(name, widths);
+        } catch (IOException | RuntimeException e) {
+            logger.error("Could not generate variants of uploaded image {}", name, e);
+        }
+    }
+
+    // Only names this class could have written resolve, which also rules out path traversal
+    public Optional<Path> resolve(String fileName) {
+        if (fileName == null || !STORED_FILE.matcher(fileName).matches()) {
+            return Optional.empty();
+        }
+        Path file = directory.resolve(fileName);
+        return Files.isRegularFile(file) ? Optional.of(file) : Optional.empty();
+    }
+
+    public static String contentType(String fileName) {
+        return fileName.endsWith(".png") ? "image/png" : ImageResizer.JPEG;
+    }
+
+    public String src(String name) {
+        List<Integer> widths = widthsOf(name);
+        if (widths.isEmpty()) {
+            return URL_PREFIX + name;
+        }
+        int width = widths.stream().filter(candidate -> candidate >= DEFAULT_WIDTH).findFirst().orElse(widths.get(widths.size() - 1));
+        return URL_PREFIX + variantPath(name, width).getFileName();
+    }
+
+    // null until the variants exist, then the browser picks the smallest that fits
+    public String srcset(String name) {
+        List<Integer> widths = widthsOf(name);
+        if (widths.isEmpty()) {
+            return null;
+        }
+        return widths.stream()
+                .map(width -> URL_PREFIX + variantPath(name, width).getFileName() + " " + width + "w")
+                .collect(Collectors.joining(", "));
+    }
+
+    // Falls back to the disk for images stored before this instance started
+    private List<Integer> widthsOf(String name) {
+        List<Integer> widths = variantWidths.get(name);
+        if (widths != null) {
+            return widths;
+        }
+        List<Integer> onDisk = ResponsiveImages.WIDTHS.stream().filter(width -> Files.exists(variantPath(name, width))).toList();
+        if (!onDisk.isEmpty()) {
+            variantWidths.put(name, onDisk);
+        }
+        return onDisk;
+    }
+
+    private Path variantPath(String name, int width) {
+        return directory.resolve(name.substring(0, name.indexOf('.')) + "-" + width + ".jpg");
+    }
+
+    private static ImageResizer.ImageInfo probe(Path file) {
+        ImageResizer.ImageInfo info;
+        try (InputStream input = Files.newInputStream(file)) {
+            info = ImageResizer.probe(input);
+        } catch (IOException e) {
+            throw new IllegalArgumentException("Файлът не е изображение (JPEG или PNG)");
+        }
+        if ((long) info.width() * info.height() > MAX_PIXELS) {
+            throw new IllegalArgumentException("Изображението е с твърде голяма резолюция");
+        }
+        return info;
+    }
+
+    private static String extensionOf(ImageResizer.ImageInfo info) {
+        return switch (info.formatName()) {
+            case "jpeg", "jpg" -> "jpg";
+            case "png" -> "png";
+            default -> throw new IllegalArgumentException("Файлът не е изображение (JPEG или PNG)");
+        };
+    }
+
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -1,16 +1,53 @@
 package main.listener;
 
 import main.event.UserRegisteredEvent;
+import main.image.ResponsiveImages;
+import main.search.EventCalendarIndex;
+import main.search.EventGeoIndex;
+import main.search.EventSearchIndex;
+import main.service.BootstrapService;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
 import org.springframework.context.event.EventListener;
 import org.springframework.stereotype.Component;
 
 @Component
-public class ApplicationEventListener {
+public class ApplicationEventListener implements SmartInitializingSingleton {
 
     private static final Logger logger = LoggerFactory.getLogger(ApplicationEventListener.class);
 
+    private final BootstrapService bootstrapService;
+    private final EventSearchIndex eventSearchIndex;
+    private final EventGeoIndex eventGeoIndex;
+    private final EventCalendarIndex eventCalendarIndex;
+    private final ResponsiveImages responsiveImages;
+
+    public ApplicationEventListener(BootstrapService bootstrapService, EventSearchIndex eventSearchIndex,
+                                    EventGeoIndex eventGeoIndex, EventCalendarIndex eventCalendarIndex,
+                                    ResponsiveImages responsiveImages) {
+        this.bootstrapService = bootstrapService;
+        this.eventSearchIndex = eventSearchIndex;
+        this.eventGeoIndex = eventGeoIndex;
+        this.eventCalendarIndex = eventCalendarIndex;
+        this.responsiveImages = responsiveImages;
+    }
+
+    // Before the web server starts taking requests, so the first registration always finds the admin flag
+    @Override
+    public void afterSingletonsInstantiated() {
+        bootstrapService.initialize();
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void handleApplicationReady() {
+        eventSearchIndex.rebuild();
+        eventGeoIndex.rebuild();
+        eventCalendarIndex.rebuild();
+        responsiveImages.prepareAsync();
+    }
+
     @EventListener
     public void handleUserRegistered(UserRegisteredEvent event) {
         logger.info("New user registered: {} ({})", 
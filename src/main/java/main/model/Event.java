@@ -4,7 +4,9 @@ import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
+import lombok.EqualsAndHashCode;
 import lombok.NoArgsConstructor;
+import lombok.ToString;
 
 import java.time.LocalDateTime;
 import java.util.Set;
@@ -15,7 +17,11 @@ import java.util.UUID;
 @NoArgsConstructor
 @AllArgsConstructor
 @Entity
-@Table(name = "events")
+@Table(name = "events", indexes = {
+        @Index(name = "idx_events_lat_lng", columnList = "latitude, longitude"),
+        @Index(name = "idx_events_start_end", columnList = "startTime, endTime"),
+        @Index(name = "idx_events_start_id", columnList = "startTime, id")
+})
 public class Event {
 
     @Id
@@ -49,6 +55,8 @@ public class Event {
     private User creator;
 
     @OneToMany(mappedBy = "event")
+    @ToString.Exclude
+    @EqualsAndHashCode.Exclude
     private Set<Subscription> subscriptions;
 
 }
@@ -0,0 +1,180 @@
+package main.monitoring;
+
+import io.micrometer.core.instrument.Measurement;
+import io.micrometer.core.instrument.Meter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tag;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.distribution.CountAtBucket;
+import io.micrometer.core.instrument.distribution.HistogramSnapshot;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.function.ToDoubleFunction;
+
+// Serves the application's meters at /actuator/prometheus in the Prometheus text format (0.0.4), following the
+// names micrometer-registry-prometheus would give them. Timers and summaries are exported as count, sum and max, plus
+// cumulative buckets where buckets are configured; the real registry replaces this endpoint once it is on the classpath.
+@Endpoint(id = "prometheus")
+public class PrometheusTextEndpoint {
+
+    public static final String CONTENT_TYPE = "text/plain;version=0.0.4;charset=utf-8";
+
+    private final MeterRegistry meterRegistry;
+
+    public PrometheusTextEndpoint(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    @ReadOperation(produces = CONTENT_TYPE)
+    public String scrape() {
+        Map<String, Family> families = new LinkedHashMap<>();
+        List<Meter> meters = new ArrayList<>(meterRegistry.getMeters());
+        meters.sort(Comparator.comparing(meter -> meter.getId().getName()));
+        for (Meter meter : meters) {
+            write(meter, families);
+        }
+        StringBuilder text = new StringBuilder();
+        families.values().forEach(family -> family.appendTo(text));
+        return text.toString();
+    }
+
+    private void write(Meter meter, Map<String, Family> families) {
+        Meter.Id id = meter.getId();
+        String labels = labels(id.getTagsAsIterable());
+        String name = sanitize(id.getName());
+        String description = id.getDescription();
+        meter.use(
+                gauge -> family(families, withUnit(name, id.getBaseUnit()), "gauge", description)
+                        .add("", labels, gauge.value()),
+                counter -> family(families, withUnit(name, id.getBaseUnit()) + "_total", "counter", description)
+                        .add("", labels, counter.count()),
+                timer -> {
+                    HistogramSnapshot snapshot = timer.takeSnapshot();
+                    distribution(families, name + "_seconds", description, id, snapshot,
+                            snapshot.total(TimeUnit.SECONDS), snapshot.max(TimeUnit.SECONDS),
+                            bucket -> bucket.bucket(TimeUnit.SECONDS));
+                },
+                summary -> {
+                    HistogramSnapshot snapshot = summary.takeSnapshot();
+                    distribution(families, withUnit(name, id.getBaseUnit()), description, id, snapshot,
+                            snapshot.total(), snapshot.max(), CountAtBucket::bucket);
+                },
+                longTaskTimer -> {
+                    String base = name + "_seconds";
+                    family(families, base + "_active_count", "gauge", description)
+                            .add("", labels, longTaskTimer.activeTasks());
+                    family(families, base + "_duration_sum", "gauge", description)
+                            .add("", labels, longTaskTimer.duration(TimeUnit.SECONDS));
+                    family(families, base + "_max", "gauge", description)
+                            .add("", labels, longTaskTimer.max(TimeUnit.SECONDS));
+                },
+                timeGauge -> family(families, name + "_seconds", "gauge", description)
+                        .add("", labels, timeGauge.value(TimeUnit.SECONDS)),
+                functionCounter -> family(families, withUnit(name, id.getBaseUnit()) + "_total", "counter", description)
+                        .add("", labels, functionCounter.count()),
+                functionTimer -> {
+                    Family family = family(families, name + "_seconds", "summary", description);
+                    family.add("_count", labels, functionTimer.count());
+                    family.add("_sum", labels, functionTimer.totalTime(TimeUnit.SECONDS));
+                },
+                other -> {
+                    for (Measurement measurement : other.measure()) {
+                        family(families, name + "_" + measurement.getStatistic().getTagValueRepresentation(),
+                                "untyped", description).add("", labels, measurement.getValue());
+                    }
+                });
+    }
+
+    // Meters with buckets configured (management.metrics.distribution.slo.*) become histograms, the rest summaries
+    private static void distribution(Map<String, Family> families, String base, String description, Meter.Id id,
+                                     HistogramSnapshot snapshot, double sum, double max,
+                                     ToDoubleFunction<CountAtBucket> upperBound) {
+        String labels = labels(id.getTagsAsIterable());
+        CountAtBucket[] buckets = snapshot.histogramCounts();
+        Family family = family(families, base, buckets.length > 0 ? "histogram" : "summary", description);
+        for (CountAtBucket bucket : buckets) {
+            String le = Family.format(upperBound.applyAsDouble(bucket));
+            family.add("_bucket", labels(Tags.of(id.getTagsAsIterable()).and("le", le)), bucket.count());
+        }
+        if (buckets.length > 0) {
+            family.add("_bucket", labels(Tags.of(id.getTagsAsIterable()).and("le", "+Inf")), snapshot.count());
+        }
+        family.add("_count", labels, snapshot.count());
+        family.add("_sum", labels, sum);
+        family(families, base + "_max", "gauge", description).add("", labels, max);
+    }
+
+    private static Family family(Map<String, Family> families, String name, String type, String description) {
+        return families.computeIfAbsent(name, key -> new Family(key, type, description));
+    }
+
+    private static String withUnit(String name, String baseUnit) {
+        if (baseUnit == null || baseUnit.isEmpty()) {
+            return name;
+        }
+        String unit = sanitize(baseUnit);
+        return name.endsWith("_" + unit) ? name : name + "_" + unit;
+    }
+
+    private static String labels(Iterable<Tag> tags) {
+        StringBuilder labels = new StringBuilder();
+        for (Tag tag : tags) {
+            labels.append(labels.isEmpty() ? "{" : ",")
+                    .append(sanitize(tag.getKey()))
+                    .append("=\"")
+                    .append(tag.getValue().replace("\\", "\\\\").replace("\"", "\\\"").replace("\n", "\\n"))
+                    .append('"');
+        }
+        return labels.isEmpty() ? "" : labels.append('}').toString();
+    }
+
+    private static String sanitize(String name) {
+        String sanitized = name.replaceAll("[^a-zA-Z0-9_:]", "_");
+        return Character.isDigit(sanitized.charAt(0)) ? "_" + sanitized : sanitized;
+    }
+
+    private static final class Family {
+
+        private final String name;
+        private final String type;
+        private final String description;
+        private final StringBuilder samples = new StringBuilder();
+
+        Family(String name, String type, String description) {
+            this.name = name;
+            this.type = type;
+            this.description = description;
+        }
+
+        void add(String suffix, String labels, double value) {
+            samples.append(name).append(suffix).append(labels).append(' ').append(format(value)).append('\n');
+        }
+
+        void appendTo(StringBuilder text) {
+            if (description != null && !description.isEmpty()) {
+                text.append("# HELP ").append(name).append(' ')
+                        .append(description.replace("\\", "\\\\").replace("\n", "\\n")).append('\n');
+            }
+            text.append("# TYPE ").append(name).append(' ').append(type).append('\n').append(samples);
+        }
+
+        private static String format(double value) {
+            if (Double.isNaN(value)) {
+                return "NaN";
+            }
+            if (Double.isInfinite(value)) {
+                return value > 0 ? "+Inf" : "-Inf";
+            }
+            return value == Math.rint(value) && Math.abs(value) < 1e15
+                    ? Long.toString((long) value)
+                    : Double.toString(value);
+        }
+    }
+}
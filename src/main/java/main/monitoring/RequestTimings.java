@@ -0,0 +1,91 @@
+package main.monitoring;
+
+import java.util.Locale;
+import java.util.function.Supplier;
+
+// Where one request spends its time, kept on the request thread: the database, the rating service and view
+// rendering. Parts may overlap (lazy loading while the view renders counts for both), and work handed to other
+// threads is not seen, so code that fans out times its wait on the request thread instead.
+public final class RequestTimings {
+
+    public enum Part {
+        DB("db", "Database"),
+        RATING("rating", "Rating service"),
+        VIEW("view", "View rendering");
+
+        private final String metricName;
+        private final String description;
+
+        Part(String metricName, String description) {
+            this.metricName = metricName;
+            this.description = description;
+        }
+
+        public String metricName() {
+            return metricName;
+        }
+    }
+
+    private static final ThreadLocal<RequestTimings> CURRENT = new ThreadLocal<>();
+
+    private final long startNanos = System.nanoTime();
+    private final long[] nanos = new long[Part.values().length];
+    private final long[] openedAt = new long[Part.values().length];
+    // Only the outermost of nested sections counts, e.g. a statement run while a connection is being acquired
+    private final int[] depth = new int[Part.values().length];
+
+    private RequestTimings() {
+    }
+
+    public static RequestTimings start() {
+        RequestTimings timings = new RequestTimings();
+        CURRENT.set(timings);
+        return timings;
+    }
+
+    public void finish() {
+        CURRENT.remove();
+    }
+
+    public static void begin(Part part) {
+        RequestTimings timings = CURRENT.get();
+        if (timings != null && timings.depth[part.ordinal()]++ == 0) {
+            timings.openedAt[part.ordinal()] = System.nanoTime();
+        }
+    }
+
+    public static void end(Part part) {
+        RequestTimings timings = CURRENT.get();
+        if (timings != null && timings.depth[part.ordinal()] > 0 && --timings.depth[part.ordinal()] == 0) {
+            timings.nanos[part.ordinal()] += System.nanoTime() - timings.openedAt[part.ordinal()];
+        }
+    }
+
+    public static <T> T time(Part part, Supplier<T> work) {
+        begin(part);
+        try {
+            return work.get();
+        } finally {
+            end(part);
+        }
+    }
+
+    // A part that is still running counts up to now, which is how the header sees a view whose output is being written
+    public long nanos(Part part) {
+        long total = nanos[part.ordinal()];
+        return depth[part.ordinal()] > 0 ? total + System.nanoTime() - openedAt[part.ordinal()] : total;
+    }
+
+    public long totalNanos() {
+        return System.nanoTime() - startNanos;
+    }
+
+    public String toServerTimingHeader() {
+        StringBuilder header = new StringBuilder();
+        for (Part part : Part.values()) {
+            header.append(String.format(Locale.ROOT, "%s;dur=%.1f;desc=\"%s\", ",
+                    part.metricName, nanos(part) / 1e6, part.description));
+        }
+        return header.append(String.format(Locale.ROOT, "total;dur=%.1f", totalNanos() / 1e6)).toString();
+    }
+}
@@ -0,0 +1,126 @@
+package main.monitoring;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletOutputStream;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.servlet.http.HttpServletResponseWrapper;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.util.concurrent.TimeUnit;
+
+// Splits every request into database, rating service, view and total time. The split goes out in a Server-Timing
+// header, added just before the body is written, and into a timer per controller method and part.
+public class ServerTimingFilter extends OncePerRequestFilter {
+
+    static final String HEADER = "Server-Timing";
+    static final String METRIC = "http.server.requests.breakdown";
+
+    private final MeterRegistry meterRegistry;
+    private final boolean headerEnabled;
+
+    public ServerTimingFilter(MeterRegistry meterRegistry, boolean headerEnabled) {
+        this.meterRegistry = meterRegistry;
+        this.headerEnabled = headerEnabled;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        RequestTimings timings = RequestTimings.start();
+        ServerTimingResponse timedResponse = headerEnabled ? new ServerTimingResponse(response, timings) : null;
+        try {
+            filterChain.doFilter(request, timedResponse != null ? timedResponse : response);
+            // Redirects and empty bodies never ask for an output stream
+            if (timedResponse != null) {
+                timedResponse.addServerTimingHeader();
+            }
+        } finally {
+            timings.finish();
+            record(request, timings);
+        }
+    }
+
+    // Only requests that reached a controller method are recorded, so the tags stay bounded
+    private void record(HttpServletRequest request, RequestTimings timings) {
+        if (!(request.getAttribute(HandlerMapping.BEST_MATCHING_HANDLER_ATTRIBUTE) instanceof HandlerMethod handler)) {
+            return;
+        }
+        String controller = handler.getBeanType().getSimpleName();
+        String method = handler.getMethod().getName();
+        for (RequestTimings.Part part : RequestTimings.Part.values()) {
+            timer(controller, method, part.metricName()).record(timings.nanos(part), TimeUnit.NANOSECONDS);
+        }
+        timer(controller, method, "total").record(timings.totalNanos(), TimeUnit.NANOSECONDS);
+    }
+
+    private Timer timer(String controller, String method, String part) {
+        return Timer.builder(METRIC)
+                .description("Time requests to one controller method spent in each part")
+                .tag("controller", controller)
+                .tag("method", method)
+                .tag("part", part)
+                .register(meterRegistry);
+    }
+
+    private static final class ServerTimingResponse extends HttpServletResponseWrapper {
+
+        private final RequestTimings timings;
+        private boolean headerAdded;
+
+        ServerTimingResponse(HttpServletResponse response, RequestTimings timings) {
+            super(response);
+            this.timings = timings;
+        }
+
+        void addServerTimingHeader() {
+            if (!headerAdded && !isCommitted()) {
+                setHeader(HEADER, timings.toServerTimingHeader());
+            }
+            headerAdded = true;
+        }
+
+        @Override
+        public ServletOutputStream getOutputStream() throws IOException {
+            addServerTimingHeader();
+            return super.getOutputStream();
+        }
+
+        @Override
+        public PrintWriter getWriter() throws IOException {
+            addServerTimingHeader();
+            return super.getWriter();
+        }
+
+        @Override
+        public void flushBuffer() throws IOException {
+            addServerTimingHeader();
+            super.flushBuffer();
+        }
+
+        @Override
+        public void sendError(int sc) throws IOException {
+            addServerTimingHeader();
+            super.sendError(sc);
+        }
+
+        @Override
+        public void sendError(int sc, String msg) throws IOException {
+            addServerTimingHeader();
+            super.sendError(sc, msg);
+        }
+
+        @Override
+        public void sendRedirect(String location) throws IOException {
+            addServerTimingHeader();
+            super.sendRedirect(location);
+        }
+    }
+}
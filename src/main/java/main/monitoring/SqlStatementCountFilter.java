@@ -0,0 +1,59 @@
+package main.monitoring;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.io.IOException;
+
+// Records how many SQL statements each request ran as a histogram per route and logs the requests above
+// the threshold, which is how per-row queries (N+1) show up before they hurt.
+public class SqlStatementCountFilter extends OncePerRequestFilter {
+
+    private static final Logger logger = LoggerFactory.getLogger(SqlStatementCountFilter.class);
+
+    static final String METRIC = "http.server.requests.sql.statements";
+
+    private final SqlStatementCounter counter;
+    private final MeterRegistry meterRegistry;
+    private final long warnThreshold;
+
+    public SqlStatementCountFilter(SqlStatementCounter counter, MeterRegistry meterRegistry, long warnThreshold) {
+        this.counter = counter;
+        this.meterRegistry = meterRegistry;
+        this.warnThreshold = warnThreshold;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        long before = counter.current();
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            long statements = counter.current() - before;
+            // The route pattern rather than the path keeps the number of tag values bounded
+            Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+            String uri = pattern != null ? pattern.toString() : "UNKNOWN";
+            DistributionSummary.builder(METRIC)
+                    .description("SQL statements run by one HTTP request")
+                    .tag("method", request.getMethod())
+                    .tag("uri", uri)
+                    .publishPercentileHistogram()
+                    .maximumExpectedValue(1000.0)
+                    .register(meterRegistry)
+                    .record(statements);
+            if (statements > warnThreshold) {
+                logger.warn("{} {} ran {} SQL statements (route {}, threshold {})",
+                        request.getMethod(), request.getRequestURI(), statements, uri, warnThreshold);
+            }
+        }
+    }
+}
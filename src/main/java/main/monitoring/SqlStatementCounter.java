@@ -0,0 +1,20 @@
+package main.monitoring;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+// Counts the SQL statements Hibernate prepares on each thread. The count only grows, so a caller
+// measures a piece of work as the difference between two readings and nested measurements never interfere.
+public class SqlStatementCounter implements StatementInspector {
+
+    private final ThreadLocal<long[]> statements = ThreadLocal.withInitial(() -> new long[1]);
+
+    @Override
+    public String inspect(String sql) {
+        statements.get()[0]++;
+        return sql;
+    }
+
+    public long current() {
+        return statements.get()[0];
+    }
+}
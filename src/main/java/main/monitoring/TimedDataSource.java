@@ -0,0 +1,95 @@
+package main.monitoring;
+
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.CallableStatement;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Set;
+
+// Adds the time spent waiting for a pooled connection, running statements and committing to the database part of
+// the current request's timings. Reading result sets is not timed; it is mostly in memory once a query has run.
+public class TimedDataSource extends DelegatingDataSource implements AutoCloseable {
+
+    private static final Set<String> TIMED_METHODS = Set.of("execute", "executeQuery", "executeUpdate",
+            "executeLargeUpdate", "executeBatch", "executeLargeBatch", "commit", "rollback");
+
+    public TimedDataSource(DataSource targetDataSource) {
+        super(targetDataSource);
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        RequestTimings.begin(RequestTimings.Part.DB);
+        try {
+            return timed(Connection.class, obtainTargetDataSource().getConnection());
+        } finally {
+            RequestTimings.end(RequestTimings.Part.DB);
+        }
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        RequestTimings.begin(RequestTimings.Part.DB);
+        try {
+            return timed(Connection.class, obtainTargetDataSource().getConnection(username, password));
+        } finally {
+            RequestTimings.end(RequestTimings.Part.DB);
+        }
+    }
+
+    // The pool behind it is closed with the context, as it would be without the wrapper
+    @Override
+    public void close() throws Exception {
+        if (obtainTargetDataSource() instanceof AutoCloseable target) {
+            target.close();
+        }
+    }
+
+    private static <T> T timed(Class<T> type, T target) {
+        return type.cast(Proxy.newProxyInstance(TimedDataSource.class.getClassLoader(), new Class<?>[]{type},
+                new TimedInvocation(target)));
+    }
+
+    private record TimedInvocation(Object target) implements InvocationHandler {
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            if (method.getName().equals("equals") && method.getParameterCount() == 1) {
+                return proxy == args[0];
+            }
+            boolean isTimed = TIMED_METHODS.contains(method.getName());
+            if (isTimed) {
+                RequestTimings.begin(RequestTimings.Part.DB);
+            }
+            try {
+                Object result = method.invoke(target, args);
+                if (target instanceof Connection) {
+                    if (result instanceof CallableStatement statement) {
+                        return timed(CallableStatement.class, statement);
+                    }
+                    if (result instanceof PreparedStatement statement) {
+                        return timed(PreparedStatement.class, statement);
+                    }
+                    if (result instanceof Statement statement) {
+                        return timed(Statement.class, statement);
+                    }
+                }
+                return result;
+            } catch (InvocationTargetException e) {
+                throw e.getTargetException();
+            } finally {
+                if (isTimed) {
+                    RequestTimings.end(RequestTimings.Part.DB);
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,26 @@
+package main.monitoring;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.HandlerInterceptor;
+import org.springframework.web.servlet.ModelAndView;
+
+// Times view rendering: it starts once the handler has returned a view and ends when the request completes.
+// Handlers that write their own body (ResponseEntity, @ResponseBody) have no view and spend no time here.
+public class ViewRenderTimingInterceptor implements HandlerInterceptor {
+
+    @Override
+    public void postHandle(HttpServletRequest request, HttpServletResponse response, Object handler,
+                           ModelAndView modelAndView) {
+        if (handler instanceof HandlerMethod && modelAndView != null && !modelAndView.wasCleared()) {
+            RequestTimings.begin(RequestTimings.Part.VIEW);
+        }
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler,
+                                Exception ex) {
+        RequestTimings.end(RequestTimings.Part.VIEW);
+    }
+}
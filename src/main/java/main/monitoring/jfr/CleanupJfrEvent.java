@@ -0,0 +1,48 @@
+package main.monitoring.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+import java.util.UUID;
+
+@Name("eventapp.Cleanup")
+@Label("Cleanup Job")
+@Category({"EventApp", "Cleanup"})
+@Description("A run of the past-event cleanup or the purge of a deleted user")
+public class CleanupJfrEvent extends Event {
+
+    @Label("Job")
+    String job;
+
+    @Label("User Id")
+    String userId;
+
+    @Label("Deleted Events")
+    long deletedEvents;
+
+    @Label("Deleted Subscriptions")
+    long deletedSubscriptions;
+
+    @Label("Succeeded")
+    boolean succeeded;
+
+    public static CleanupJfrEvent start(String job, UUID userId) {
+        CleanupJfrEvent event = new CleanupJfrEvent();
+        event.begin();
+        event.job = job;
+        event.userId = userId != null ? userId.toString() : null;
+        return event;
+    }
+
+    public void complete(long deletedEvents, long deletedSubscriptions, boolean succeeded) {
+        if (shouldCommit()) {
+            this.deletedEvents = deletedEvents;
+            this.deletedSubscriptions = deletedSubscriptions;
+            this.succeeded = succeeded;
+            commit();
+        }
+    }
+}
@@ -0,0 +1,43 @@
+package main.monitoring.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+import java.util.Collection;
+import java.util.UUID;
+
+@Name("eventapp.EventListing")
+@Label("Event Listing Build")
+@Category({"EventApp", "Listings"})
+@Description("Building the event cards of one listing, from the queries to the finished views")
+public class EventListingJfrEvent extends Event {
+
+    @Label("Listing")
+    String listing;
+
+    @Label("User Id")
+    String userId;
+
+    @Label("Events")
+    int events;
+
+    public static EventListingJfrEvent start(String listing, UUID userId) {
+        EventListingJfrEvent event = new EventListingJfrEvent();
+        event.begin();
+        event.listing = listing;
+        event.userId = String.valueOf(userId);
+        return event;
+    }
+
+    // Returns the views, so a builder can end with return listing.complete(views)
+    public <T extends Collection<?>> T complete(T views) {
+        if (shouldCommit()) {
+            events = views.size();
+            commit();
+        }
+        return views;
+    }
+}
@@ -0,0 +1,125 @@
+package main.monitoring.jfr;
+
+import jdk.jfr.Configuration;
+import jdk.jfr.FlightRecorder;
+import jdk.jfr.Recording;
+import jdk.jfr.RecordingState;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.actuate.endpoint.InvalidEndpointRequestException;
+import org.springframework.boot.actuate.endpoint.annotation.DeleteOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Selector;
+import org.springframework.boot.actuate.endpoint.annotation.WriteOperation;
+import org.springframework.lang.Nullable;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.text.ParseException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+// Starts and stops Java Flight Recorder recordings at /actuator/flightrecording, so a production incident can be
+// profiled without a restart or shell access. One recording runs at a time and stops itself after the maximum
+// duration; the .jfr file stays in the recordings directory for JDK Mission Control or the jfr tool.
+@Endpoint(id = "flightrecording")
+public class FlightRecordingEndpoint {
+
+    private static final Logger logger = LoggerFactory.getLogger(FlightRecordingEndpoint.class);
+
+    static final String NAME_PREFIX = "eventapp-";
+    // The JDK's own settings files: "default" is meant to stay on in production, "profile" samples more
+    private static final Set<String> SETTINGS = Set.of("default", "profile");
+    private static final DateTimeFormatter FILE_TIME = DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss");
+
+    private final Path directory;
+    private final Duration maxDuration;
+
+    public FlightRecordingEndpoint(Path directory, Duration maxDuration) {
+        this.directory = directory;
+        this.maxDuration = maxDuration;
+    }
+
+    @ReadOperation
+    public List<Map<String, Object>> recordings() {
+        return ownRecordings().stream().map(this::describe).toList();
+    }
+
+    @WriteOperation
+    public synchronized Map<String, Object> start(@Nullable String settings, @Nullable Integer durationSeconds) {
+        String settingsName = settings != null ? settings : "default";
+        if (!SETTINGS.contains(settingsName)) {
+            throw new InvalidEndpointRequestException("Unknown settings " + settingsName, "settings must be one of " + SETTINGS);
+        }
+        if (ownRecordings().stream().anyMatch(recording -> recording.getState() == RecordingState.RUNNING)) {
+            throw new InvalidEndpointRequestException("A recording is already running", "Stop the running recording first");
+        }
+        Duration duration = durationSeconds != null && durationSeconds > 0
+                && Duration.ofSeconds(durationSeconds).compareTo(maxDuration) < 0
+                ? Duration.ofSeconds(durationSeconds)
+                : maxDuration;
+
+        try {
+            Files.createDirectories(directory);
+            Recording recording = new Recording(Configuration.getConfiguration(settingsName));
+            String name = NAME_PREFIX + LocalDateTime.now().format(FILE_TIME);
+            recording.setName(name);
+            recording.setToDisk(true);
+            recording.setDestination(directory.resolve(name + ".jfr"));
+            recording.setDuration(duration);
+            recording.start();
+            logger.info("Flight recording {} started with {} settings for at most {} s", name, settingsName, duration.toSeconds());
+            return describe(recording);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not start a flight recording in " + directory, e);
+        } catch (ParseException e) {
+            throw new IllegalStateException("The JDK's " + settingsName + " settings could not be read", e);
+        }
+    }
+
+    // Stopping a recording writes its file and closes it; one that already stopped itself is only released
+    @DeleteOperation
+    public synchronized Map<String, Object> stop(@Selector long id) {
+        Recording recording = ownRecordings().stream()
+                .filter(candidate -> candidate.getId() == id)
+                .findFirst()
+                .orElse(null);
+        if (recording == null) {
+            return null;
+        }
+        if (recording.getState() == RecordingState.RUNNING) {
+            recording.stop();
+        }
+        Map<String, Object> description = describe(recording);
+        recording.close();
+        logger.info("Flight recording {} stopped and written to {}", recording.getName(), recording.getDestination());
+        return description;
+    }
+
+    private List<Recording> ownRecordings() {
+        return FlightRecorder.getFlightRecorder().getRecordings().stream()
+                .filter(recording -> recording.getName().startsWith(NAME_PREFIX))
+                .toList();
+    }
+
+    private Map<String, Object> describe(Recording recording) {
+        Map<String, Object> description = new LinkedHashMap<>();
+        description.put("id", recording.getId());
+        description.put("name", recording.getName());
+        description.put("state", recording.getState().name());
+        description.put("startTime", recording.getStartTime() != null ? recording.getStartTime().toString() : null);
+        description.put("durationSeconds", recording.getDuration() != null ? recording.getDuration().toSeconds() : null);
+        Path destination = recording.getDestination();
+        description.put("file", destination != null ? destination.toAbsolutePath().toString() : null);
+        description.put("bytes", destination != null && Files.exists(destination) ? destination.toFile().length() : 0L);
+        return description;
+    }
+}
@@ -0,0 +1,39 @@
+package main.monitoring.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+// The ticket code is what admits its holder, so it is never put in a recording
+@Name("eventapp.QrCode")
+@Label("Ticket QR Generation")
+@Category({"EventApp", "Tickets"})
+@Description("Encoding a ticket code as a QR image and writing it as PNG")
+public class QrCodeJfrEvent extends Event {
+
+    @Label("Size")
+    @Description("Width and height of the image in pixels")
+    int size;
+
+    @Label("PNG Size")
+    @DataAmount
+    long bytes;
+
+    public static QrCodeJfrEvent start(int size) {
+        QrCodeJfrEvent event = new QrCodeJfrEvent();
+        event.begin();
+        event.size = size;
+        return event;
+    }
+
+    public byte[] complete(byte[] png) {
+        if (shouldCommit()) {
+            bytes = png.length;
+            commit();
+        }
+        return png;
+    }
+}
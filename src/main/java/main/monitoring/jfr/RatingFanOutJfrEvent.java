@@ -0,0 +1,45 @@
+package main.monitoring.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+import java.util.UUID;
+
+@Name("eventapp.RatingFanOut")
+@Label("Rating Fan-Out")
+@Category({"EventApp", "Ratings"})
+@Description("Rating service calls for every event of a page, from the first request to the last answer")
+public class RatingFanOutJfrEvent extends Event {
+
+    @Label("Call")
+    String call;
+
+    @Label("User Id")
+    String userId;
+
+    @Label("Events")
+    int events;
+
+    @Label("Parallel")
+    @Description("Whether the calls ran concurrently on virtual threads")
+    boolean parallel;
+
+    public static RatingFanOutJfrEvent start(String call, UUID userId, int events, boolean parallel) {
+        RatingFanOutJfrEvent event = new RatingFanOutJfrEvent();
+        event.begin();
+        event.call = call;
+        event.userId = userId != null ? userId.toString() : null;
+        event.events = events;
+        event.parallel = parallel;
+        return event;
+    }
+
+    public void complete() {
+        if (shouldCommit()) {
+            commit();
+        }
+    }
+}
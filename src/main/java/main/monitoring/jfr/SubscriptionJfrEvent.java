@@ -0,0 +1,49 @@
+package main.monitoring.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+import java.util.UUID;
+
+@Name("eventapp.Subscription")
+@Label("Subscription Change")
+@Category({"EventApp", "Subscriptions"})
+@Description("A user subscribing to or unsubscribing from an event")
+public class SubscriptionJfrEvent extends Event {
+
+    @Label("Action")
+    String action;
+
+    @Label("Event Id")
+    String eventId;
+
+    @Label("User Id")
+    String userId;
+
+    @Label("Outcome")
+    @Description("subscribed, unsubscribed, duplicate, not-subscribed or the reason it was rejected")
+    String outcome;
+
+    @Label("Rows Changed")
+    int rows;
+
+    public static SubscriptionJfrEvent start(String action, UUID eventId, UUID userId) {
+        SubscriptionJfrEvent event = new SubscriptionJfrEvent();
+        event.begin();
+        event.action = action;
+        event.eventId = String.valueOf(eventId);
+        event.userId = String.valueOf(userId);
+        return event;
+    }
+
+    public void complete(String outcome, int rows) {
+        if (shouldCommit()) {
+            this.outcome = outcome;
+            this.rows = rows;
+            commit();
+        }
+    }
+}
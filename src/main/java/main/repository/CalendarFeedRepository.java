@@ -0,0 +1,30 @@
+package main.repository;
+
+import main.model.CalendarFeed;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.Optional;
+import java.util.UUID;
+
+@Repository
+public interface CalendarFeedRepository extends JpaRepository<CalendarFeed, UUID> {
+
+    Optional<CalendarFeed> findByToken(String token);
+
+    @Modifying
+    @Query("update CalendarFeed f set f.version = f.version + 1, f.updatedOn = :now where f.userId in :userIds")
+    int touchUsers(@Param("userIds") Collection<UUID> userIds, @Param("now") LocalDateTime now);
+
+    // Everyone who sees these events in their feed: the creators and the subscribers
+    @Modifying
+    @Query("update CalendarFeed f set f.version = f.version + 1, f.updatedOn = :now " +
+            "where f.userId in (select e.creator.id from Event e where e.id in :eventIds) " +
+            "or f.userId in (select s.user.id from Subscription s where s.event.id in :eventIds)")
+    int touchEventAudience(@Param("eventIds") Collection<UUID> eventIds, @Param("now") LocalDateTime now);
+}
@@ -1,30 +1,106 @@
 package main.repository;
 
+import jakarta.persistence.LockModeType;
+import main.api.EventApiRow;
+import main.calendar.CalendarFeedEntry;
 import main.model.Event;
+import main.search.EventGeoDocument;
+import main.search.EventInterval;
+import main.search.EventSearchDocument;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 import java.util.UUID;
 
 @Repository
 public interface EventRepository extends JpaRepository<Event, UUID> {
 
+    @Override
+    @EntityGraph(attributePaths = {"category", "creator"})
+    List<Event> findAll();
+
+    // Holds the event row until the transaction ends, so two subscribes or bulk invites cannot both take the last places
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT e FROM Event e WHERE e.id = :id")
+    Optional<Event> findByIdForUpdate(@Param("id") UUID id);
+
     @Query("SELECT COUNT(DISTINCT e.category.id) FROM Event e WHERE e.category IS NOT NULL")
     long countDistinctCategories();
 
     @Query("SELECT e FROM Event e WHERE e.endTime < :cutoffDate")
     List<Event> findEventsOlderThan(LocalDateTime cutoffDate);
 
-    @Query("SELECT e FROM Event e WHERE e.endTime >= :now")
+    // The cards show the category and the organizer, so both come with the events instead of one query per value
+    @Query("SELECT e FROM Event e LEFT JOIN FETCH e.category LEFT JOIN FETCH e.creator WHERE e.endTime >= :now")
     List<Event> findUpcomingEvents(LocalDateTime now);
 
-    @Query("SELECT e FROM Event e WHERE e.endTime < :now")
+    @Query("SELECT e FROM Event e LEFT JOIN FETCH e.category LEFT JOIN FETCH e.creator WHERE e.endTime < :now")
     List<Event> findPastEvents(LocalDateTime now);
 
     List<Event> findByCreatorId(UUID creatorId);
 
     List<Event> findByCategoryId(UUID categoryId);
+
+    @Query("SELECT e.id FROM Event e WHERE e.creator.id = :creatorId")
+    List<UUID> findIdsByCreatorId(@Param("creatorId") UUID creatorId, Pageable pageable);
+
+    @Query("SELECT new main.search.EventSearchDocument(e.id, e.name, e.description, e.location) FROM Event e")
+    List<EventSearchDocument> findAllSearchDocuments();
+
+    @Query("SELECT new main.search.EventGeoDocument(e.id, e.latitude, e.longitude, e.startTime, e.endTime, c.id) " +
+            "FROM Event e LEFT JOIN e.category c WHERE e.latitude IS NOT NULL AND e.longitude IS NOT NULL")
+    List<EventGeoDocument> findAllGeoDocuments();
+
+    @Query("SELECT new main.search.EventGeoDocument(e.id, e.latitude, e.longitude, e.startTime, e.endTime, c.id) " +
+            "FROM Event e LEFT JOIN e.category c " +
+            "WHERE e.latitude BETWEEN :minLatitude AND :maxLatitude " +
+            "AND e.longitude BETWEEN :minLongitude AND :maxLongitude " +
+            "AND e.endTime >= :from AND e.startTime < :to")
+    List<EventGeoDocument> findGeoDocumentsInBox(@Param("minLatitude") double minLatitude,
+                                                 @Param("maxLatitude") double maxLatitude,
+                                                 @Param("minLongitude") double minLongitude,
+                                                 @Param("maxLongitude") double maxLongitude,
+                                                 @Param("from") LocalDateTime from,
+                                                 @Param("to") LocalDateTime to);
+
+    @Query("SELECT new main.search.EventInterval(e.id, e.startTime, e.endTime, c.id) FROM Event e LEFT JOIN e.category c")
+    List<EventInterval> findAllIntervals();
+
+    @Query("SELECT new main.search.EventInterval(e.id, e.startTime, e.endTime, c.id) FROM Event e LEFT JOIN e.category c " +
+            "WHERE e.startTime < :to AND e.endTime > :from")
+    List<EventInterval> findIntervalsOverlapping(@Param("from") LocalDateTime from, @Param("to") LocalDateTime to);
+
+    @Query("SELECT new main.calendar.CalendarFeedEntry(e.id, e.name, e.description, e.location, e.latitude, e.longitude, e.startTime, e.endTime) " +
+            "FROM Event e WHERE e.creator.id = :userId " +
+            "OR e.id IN (SELECT s.event.id FROM Subscription s WHERE s.user.id = :userId) " +
+            "ORDER BY e.startTime")
+    List<CalendarFeedEntry> findCalendarFeedEntries(@Param("userId") UUID userId);
+
+    // Keyset page of upcoming events ordered by (startTime, id); pass the last row of the previous page, or a bound before any event
+    @Query("SELECT new main.api.EventApiRow(e.id, e.name, e.description, e.location, e.latitude, e.longitude, e.imageName, " +
+            "e.startTime, e.endTime, e.capacity, c.name, u.id, u.username, " +
+            "(SELECT COUNT(s) FROM Subscription s WHERE s.event.id = e.id)) " +
+            "FROM Event e LEFT JOIN e.category c LEFT JOIN e.creator u " +
+            "WHERE e.endTime >= :now AND (:categoryId IS NULL OR c.id = :categoryId) " +
+            "AND (e.startTime > :afterStart OR (e.startTime = :afterStart AND e.id > :afterId)) " +
+            "ORDER BY e.startTime, e.id")
+    List<EventApiRow> findApiPage(@Param("now") LocalDateTime now,
+                                  @Param("categoryId") UUID categoryId,
+                                  @Param("afterStart") LocalDateTime afterStart,
+                                  @Param("afterId") UUID afterId,
+                                  Pageable pageable);
+
+    @Modifying
+    @Query("DELETE FROM Event e WHERE e.id IN :ids")
+    int deleteByIdIn(@Param("ids") Collection<UUID> ids);
 }
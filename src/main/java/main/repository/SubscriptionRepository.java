@@ -1,16 +1,22 @@
 package main.repository;
 
 import main.model.Subscription;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
 
 @Repository
 public interface SubscriptionRepository extends JpaRepository<Subscription, UUID> {
+    @EntityGraph(attributePaths = {"event", "event.category", "event.creator"})
     List<Subscription> findByUserId(UUID userId);
 
     Optional<Subscription> findByUserIdAndEventId(UUID userId, UUID eventId);
@@ -19,6 +25,27 @@ public interface SubscriptionRepository extends JpaRepository<Subscription, UUID
 
     long countByEventId(UUID eventId);
 
+    // Rows of (event id, subscription count); events without subscriptions have no row
+    @Query("select s.event.id, count(s) from Subscription s where s.event.id in :eventIds group by s.event.id")
+    List<Object[]> countByEventIdIn(@Param("eventIds") Collection<UUID> eventIds);
+
     @EntityGraph(attributePaths = {"user"})
     List<Subscription> findByEventId(UUID eventId);
+
+    @Query("select s.event.id from Subscription s where s.user.id = :userId")
+    List<UUID> findEventIdsByUserId(@Param("userId") UUID userId);
+
+    @Query("select s.user.id from Subscription s where s.event.id = :eventId")
+    List<UUID> findUserIdsByEventId(@Param("eventId") UUID eventId);
+
+    @Query("select s.id from Subscription s where s.user.id = :userId")
+    List<UUID> findIdsByUserId(@Param("userId") UUID userId, Pageable pageable);
+
+    @Modifying
+    @Query("delete from Subscription s where s.id in :ids")
+    int deleteByIdIn(@Param("ids") Collection<UUID> ids);
+
+    @Modifying
+    @Query("delete from Subscription s where s.event.id in :eventIds")
+    int deleteByEventIdIn(@Param("eventIds") Collection<UUID> eventIds);
 }
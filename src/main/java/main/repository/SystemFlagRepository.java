@@ -0,0 +1,16 @@
+package main.repository;
+
+import main.model.SystemFlag;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface SystemFlagRepository extends JpaRepository<SystemFlag, String> {
+
+    @Modifying
+    @Query("update SystemFlag f set f.enabled = true where f.name = :name and f.enabled = false")
+    int enableIfDisabled(@Param("name") String name);
+}
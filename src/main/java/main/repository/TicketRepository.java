@@ -2,9 +2,11 @@ package main.repository;
 
 import main.model.Ticket;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
@@ -24,5 +26,14 @@ public interface TicketRepository extends JpaRepository<Ticket, UUID> {
     Optional<Ticket> findBySubscriptionId(UUID subscriptionId);
 
     void deleteBySubscriptionId(UUID subscriptionId);
+
+    @Modifying
+    @Query("delete from Ticket t where t.subscription.id in :subscriptionIds")
+    int deleteBySubscriptionIdIn(@Param("subscriptionIds") Collection<UUID> subscriptionIds);
+
+    @Modifying
+    @Query("delete from Ticket t where t.subscription.id in " +
+            "(select s.id from Subscription s where s.event.id in :eventIds)")
+    int deleteByEventIdIn(@Param("eventIds") Collection<UUID> eventIds);
 }
 
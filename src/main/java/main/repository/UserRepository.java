@@ -1,13 +1,19 @@
 package main.repository;
 
 
+import jakarta.persistence.QueryHint;
 import jakarta.validation.constraints.Email;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.Size;
 import main.model.User;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.UUID;
 
 @Repository
@@ -16,5 +22,12 @@ public interface UserRepository extends JpaRepository<User, UUID> {
 
     User findByUsername(@Size(min = 6) String username);
 
+    // Runs on every authenticated request, so the result comes from the query cache until the users table changes.
+    // Not read-only, so it runs on the primary: a result read from a lagging replica after a write would be cached as
+    // current, because the write has already invalidated the table, and nothing would evict it later.
+    @Transactional
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
     User findByEmail(@NotBlank @Email String email);
+
+    List<User> findByEmailIn(Collection<String> emails);
 }
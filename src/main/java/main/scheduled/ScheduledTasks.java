@@ -1,6 +1,11 @@
 package main.scheduled;
 
+import io.micrometer.core.instrument.MeterRegistry;
+import main.monitoring.jfr.CleanupJfrEvent;
+import main.search.EventGeoIndex;
+import main.security.LoginAttemptService;
 import main.service.EventService;
+import main.service.UserCleanupService;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.scheduling.annotation.Scheduled;
@@ -11,18 +16,31 @@ public class ScheduledTasks {
 
     private static final Logger logger = LoggerFactory.getLogger(ScheduledTasks.class);
     private final EventService eventService;
+    private final LoginAttemptService loginAttemptService;
+    private final EventGeoIndex eventGeoIndex;
+    private final UserCleanupService userCleanupService;
+    private final MeterRegistry meterRegistry;
 
-    public ScheduledTasks(EventService eventService) {
+    public ScheduledTasks(EventService eventService, LoginAttemptService loginAttemptService, EventGeoIndex eventGeoIndex,
+                          UserCleanupService userCleanupService, MeterRegistry meterRegistry) {
         this.eventService = eventService;
+        this.loginAttemptService = loginAttemptService;
+        this.eventGeoIndex = eventGeoIndex;
+        this.userCleanupService = userCleanupService;
+        this.meterRegistry = meterRegistry;
     }
 
     @Scheduled(cron = "0 */5 * * * ?")
     public void cleanupPastEvents() {
         logger.info("Starting scheduled task: cleanupPastEvents");
+        CleanupJfrEvent recorded = CleanupJfrEvent.start("past-events", null);
         try {
             int deletedCount = eventService.deleteEventsOlderThanDays(2);
+            recorded.complete(deletedCount, 0, true);
+            meterRegistry.counter("scheduled.cleanup.purged", "task", "cleanupPastEvents").increment(deletedCount);
             logger.info("Completed scheduled task: cleanupPastEvents - deleted {} events older than 2 days", deletedCount);
         } catch (Exception e) {
+            recorded.complete(0, 0, false);
             logger.error("Error in cleanupPastEvents task", e);
         }
     }
@@ -36,5 +54,35 @@ public class ScheduledTasks {
             logger.error("Error in updateStatistics task", e);
         }
     }
-}
 
+    @Scheduled(fixedRate = 60000)
+    public void purgeExpiredLoginAttempts() {
+        try {
+            loginAttemptService.purgeExpired();
+        } catch (Exception e) {
+            logger.error("Error in purgeExpiredLoginAttempts task", e);
+        }
+    }
+
+    @Scheduled(fixedRate = 60000)
+    public void pruneFinishedUserDeletions() {
+        try {
+            userCleanupService.pruneFinishedStatuses();
+        } catch (Exception e) {
+            logger.error("Error in pruneFinishedUserDeletions task", e);
+        }
+    }
+
+    @Scheduled(fixedRate = 60000)
+    public void evictEndedEventsFromMap() {
+        try {
+            int evicted = eventGeoIndex.evictEndedFromClusters();
+            meterRegistry.counter("scheduled.cleanup.purged", "task", "evictEndedEventsFromMap").increment(evicted);
+            if (evicted > 0) {
+                logger.info("Removed {} ended events from the map clusters", evicted);
+            }
+        } catch (Exception e) {
+            logger.error("Error in evictEndedEventsFromMap task", e);
+        }
+    }
+}
@@ -0,0 +1,28 @@
+package main.search;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+// Events whose [startTime, endTime) overlaps [from, to); capped at six weeks so a response stays the size of a month view
+public record CalendarWindow(LocalDateTime from, LocalDateTime to, UUID categoryId) {
+
+    public static final Duration MAX_LENGTH = Duration.ofDays(42);
+
+    public CalendarWindow {
+        if (from == null || to == null) {
+            throw new IllegalArgumentException("Началото и краят на периода са задължителни");
+        }
+        if (!to.isAfter(from)) {
+            throw new IllegalArgumentException("Краят на периода трябва да е след началото");
+        }
+        if (Duration.between(from, to).compareTo(MAX_LENGTH) > 0) {
+            throw new IllegalArgumentException("Периодът може да е най-много " + MAX_LENGTH.toDays() + " дни");
+        }
+    }
+
+    boolean matches(EventInterval interval) {
+        return interval.startTime().isBefore(to) && interval.endTime().isAfter(from)
+                && (categoryId == null || categoryId.equals(interval.categoryId()));
+    }
+}
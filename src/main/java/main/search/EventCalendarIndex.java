@@ -0,0 +1,189 @@
+package main.search;
+
+import main.model.Event;
+import main.repository.EventRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.TreeSet;
+import java.util.UUID;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+// Events ordered by start time; any event overlapping a window starts at most LONG_EVENT before it, so a query only walks
+// [from - LONG_EVENT, to) plus the few longer events kept aside. Until it is built queries go to the (start_time, end_time) index
+@Component
+public class EventCalendarIndex {
+
+    private static final Logger logger = LoggerFactory.getLogger(EventCalendarIndex.class);
+
+    static final Duration LONG_EVENT = Duration.ofDays(7);
+    private static final Comparator<EventInterval> BY_START =
+            Comparator.comparing(EventInterval::startTime).thenComparing(EventInterval::id);
+    private static final UUID LOWEST_ID = new UUID(Long.MIN_VALUE, Long.MIN_VALUE);
+
+    private final EventRepository eventRepository;
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private NavigableSet<EventInterval> byStart = new TreeSet<>(BY_START);
+    private Map<UUID, EventInterval> longEvents = new HashMap<>();
+    private Map<UUID, EventInterval> intervals = new HashMap<>();
+    private volatile boolean ready;
+
+    // Updates made while a rebuild reads the database, replayed on the rebuilt index; null when no rebuild runs
+    private List<Runnable> pendingUpdates;
+
+    public EventCalendarIndex(EventRepository eventRepository) {
+        this.eventRepository = eventRepository;
+    }
+
+    // Built aside and swapped in, replaying the updates committed during the database read (as in EventSearchIndex)
+    public synchronized void rebuild() {
+        long start = System.nanoTime();
+        withWriteLock(() -> pendingUpdates = new ArrayList<>());
+        EventCalendarIndex built = new EventCalendarIndex(eventRepository);
+        int size;
+        try {
+            List<EventInterval> all = eventRepository.findAllIntervals();
+            all.forEach(built::add);
+            size = all.size();
+        } catch (RuntimeException e) {
+            withWriteLock(() -> pendingUpdates = null);
+            throw e;
+        }
+        withWriteLock(() -> {
+            byStart = built.byStart;
+            longEvents = built.longEvents;
+            intervals = built.intervals;
+            pendingUpdates.forEach(Runnable::run);
+            pendingUpdates = null;
+            ready = true;
+        });
+        logger.info("Calendar index built with {} events in {} ms", size, (System.nanoTime() - start) / 1_000_000);
+    }
+
+    public void index(EventInterval interval) {
+        update(() -> {
+            remove(interval.id());
+            add(interval);
+        });
+    }
+
+    public void removeAll(Collection<UUID> ids) {
+        List<UUID> snapshot = List.copyOf(ids);
+        update(() -> snapshot.forEach(this::remove));
+    }
+
+    public void indexAfterCommit(Event event) {
+        EventInterval interval = EventInterval.of(event);
+        AfterCommit.run(() -> index(interval));
+    }
+
+    public void removeAfterCommit(Collection<UUID> ids) {
+        List<UUID> snapshot = List.copyOf(ids);
+        AfterCommit.run(() -> removeAll(snapshot));
+    }
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return intervals.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // Ordered by start time, at most limit events
+    public List<UUID> findOverlapping(CalendarWindow window, int limit) {
+        List<EventInterval> matches = ready ? scanIndex(window) : scanDatabase(window);
+        matches.sort(BY_START);
+        List<UUID> ids = new ArrayList<>(Math.min(limit, matches.size()));
+        for (int i = 0; i < matches.size() && i < limit; i++) {
+            ids.add(matches.get(i).id());
+        }
+        return ids;
+    }
+
+    private List<EventInterval> scanIndex(CalendarWindow window) {
+        EventInterval lowest = new EventInterval(LOWEST_ID, window.from().minus(LONG_EVENT), null, null);
+        EventInterval highest = new EventInterval(LOWEST_ID, window.to(), null, null);
+        List<EventInterval> matches = new ArrayList<>();
+        lock.readLock().lock();
+        try {
+            for (EventInterval interval : byStart.subSet(lowest, true, highest, false)) {
+                if (window.matches(interval)) {
+                    matches.add(interval);
+                }
+            }
+            for (EventInterval interval : longEvents.values()) {
+                if (window.matches(interval)) {
+                    matches.add(interval);
+                }
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+        return matches;
+    }
+
+    private List<EventInterval> scanDatabase(CalendarWindow window) {
+        List<EventInterval> matches = new ArrayList<>();
+        for (EventInterval interval : eventRepository.findIntervalsOverlapping(window.from(), window.to())) {
+            if (window.matches(interval)) {
+                matches.add(interval);
+            }
+        }
+        return matches;
+    }
+
+    private void update(Runnable change) {
+        withWriteLock(() -> {
+            change.run();
+            if (pendingUpdates != null) {
+                pendingUpdates.add(change);
+            }
+        });
+    }
+
+    private void withWriteLock(Runnable action) {
+        lock.writeLock().lock();
+        try {
+            action.run();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void add(EventInterval interval) {
+        if (!interval.isScheduled()) {
+            return;
+        }
+        intervals.put(interval.id(), interval);
+        if (Duration.between(interval.startTime(), interval.endTime()).compareTo(LONG_EVENT) > 0) {
+            longEvents.put(interval.id(), interval);
+        } else {
+            byStart.add(interval);
+        }
+    }
+
+    private void remove(UUID eventId) {
+        EventInterval existing = intervals.remove(eventId);
+        if (existing != null && longEvents.remove(eventId) == null) {
+            byStart.remove(existing);
+        }
+    }
+}
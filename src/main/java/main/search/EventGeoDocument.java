@@ -0,0 +1,20 @@
+package main.search;
+
+import main.model.Event;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+public record EventGeoDocument(UUID id, Double latitude, Double longitude,
+                               LocalDateTime startTime, LocalDateTime endTime, UUID categoryId) {
+
+    public static EventGeoDocument of(Event event) {
+        return new EventGeoDocument(event.getId(), event.getLatitude(), event.getLongitude(),
+                event.getStartTime(), event.getEndTime(),
+                event.getCategory() != null ? event.getCategory().getId() : null);
+    }
+
+    boolean hasLocation() {
+        return latitude != null && longitude != null;
+    }
+}
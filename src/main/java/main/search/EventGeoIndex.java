@@ -0,0 +1,349 @@
+package main.search;
+
+import main.model.Event;
+import main.repository.EventRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.UUID;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+// Fixed lat/long grid over events with coordinates; until it is built (or when disabled) queries go to a bounding-box DB query
+@Component
+public class EventGeoIndex {
+
+    private static final Logger logger = LoggerFactory.getLogger(EventGeoIndex.class);
+
+    static final double CELL_DEGREES = 0.1;
+    static final double EARTH_RADIUS_KM = 6371.0088;
+    private static final double KM_PER_DEGREE = Math.PI * EARTH_RADIUS_KM / 180;
+    private static final int COLUMNS = (int) Math.round(360 / CELL_DEGREES);
+    private static final LocalDateTime NO_LOWER_BOUND = LocalDateTime.of(1970, 1, 1, 0, 0);
+    private static final LocalDateTime NO_UPPER_BOUND = LocalDateTime.of(9999, 12, 31, 23, 59);
+
+    private final EventRepository eventRepository;
+    private final boolean enabled;
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private Map<Long, List<EventGeoDocument>> cells = new HashMap<>();
+    private Map<UUID, EventGeoDocument> documents = new HashMap<>();
+    private MarkerClusters clusters = new MarkerClusters(0, MarkerClusters.MAX_ZOOM);
+    private volatile boolean ready;
+
+    // Updates made while a rebuild reads the database, replayed on the rebuilt grid; null when no rebuild runs
+    private List<Runnable> pendingUpdates;
+
+    public EventGeoIndex(EventRepository eventRepository,
+                         @Value("${events.geo-index.enabled:true}") boolean enabled) {
+        this.eventRepository = eventRepository;
+        this.enabled = enabled;
+    }
+
+    // Built aside while queries and updates go on against the current grid, then swapped in, replaying the updates
+    // committed during the database read (the same scheme as EventSearchIndex)
+    public synchronized void rebuild() {
+        if (!enabled) {
+            logger.info("Geo index disabled, nearby queries use the database");
+            return;
+        }
+        long start = System.nanoTime();
+        withWriteLock(() -> pendingUpdates = new ArrayList<>());
+        EventGeoIndex built = new EventGeoIndex(eventRepository, true);
+        int size;
+        try {
+            List<EventGeoDocument> all = eventRepository.findAllGeoDocuments();
+            all.forEach(built::add);
+            size = all.size();
+        } catch (RuntimeException e) {
+            withWriteLock(() -> pendingUpdates = null);
+            throw e;
+        }
+        withWriteLock(() -> {
+            cells = built.cells;
+            documents = built.documents;
+            clusters = built.clusters;
+            pendingUpdates.forEach(Runnable::run);
+            pendingUpdates = null;
+            ready = true;
+        });
+        logger.info("Geo index built with {} events in {} ms", size, (System.nanoTime() - start) / 1_000_000);
+    }
+
+    public void index(EventGeoDocument document) {
+        update(() -> {
+            remove(document.id());
+            add(document);
+        });
+    }
+
+    public void removeAll(Collection<UUID> ids) {
+        List<UUID> snapshot = List.copyOf(ids);
+        update(() -> snapshot.forEach(this::remove));
+    }
+
+    public void indexAfterCommit(Event event) {
+        if (!enabled) {
+            return;
+        }
+        EventGeoDocument document = EventGeoDocument.of(event);
+        AfterCommit.run(() -> index(document));
+    }
+
+    public void removeAfterCommit(Collection<UUID> ids) {
+        if (!enabled) {
+            return;
+        }
+        List<UUID> snapshot = List.copyOf(ids);
+        AfterCommit.run(() -> removeAll(snapshot));
+    }
+
+    // Ended events stay in the grid for date-range queries but leave the map clusters
+    public int evictEndedFromClusters() {
+        if (!enabled) {
+            return 0;
+        }
+        lock.writeLock().lock();
+        try {
+            return clusters.removeEnded(LocalDateTime.now());
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return documents.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // Nearest first, at most query.limit() matches
+    public List<GeoMatch> findNearby(GeoQuery query) {
+        NearestMatches nearest = new NearestMatches(query.limit());
+        if (ready) {
+            scanGrid(query, nearest);
+        } else {
+            scanDatabase(query, nearest);
+        }
+        return nearest.sorted();
+    }
+
+    // Upcoming events clustered for the given map zoom and viewport
+    public List<MapCluster> findClusters(MapViewport viewport) {
+        if (!ready) {
+            return clusterFromDatabase(viewport);
+        }
+        lock.readLock().lock();
+        try {
+            return clusters.find(viewport);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // Aggregates only the viewport's events at the one requested zoom
+    private List<MapCluster> clusterFromDatabase(MapViewport viewport) {
+        LocalDateTime now = LocalDateTime.now();
+        List<EventGeoDocument> candidates = eventRepository.findGeoDocumentsInBox(viewport.south(), viewport.north(),
+                viewport.crossesAntimeridian() ? -180 : viewport.west(),
+                viewport.crossesAntimeridian() ? 180 : viewport.east(),
+                now, NO_UPPER_BOUND);
+        int zoom = MarkerClusters.clusteringZoom(viewport.zoom());
+        MarkerClusters onDemand = new MarkerClusters(zoom, zoom);
+        candidates.forEach(document -> onDemand.add(document, now));
+        return onDemand.find(viewport);
+    }
+
+    private void scanGrid(GeoQuery query, NearestMatches nearest) {
+        BoundingBox box = BoundingBox.around(query.latitude(), query.longitude(), query.radiusKm());
+        int minRow = row(box.minLatitude());
+        int maxRow = row(box.maxLatitude());
+        int minColumn = column(box.minLongitude());
+        int columnSpan = box.spansAllLongitudes() ? COLUMNS - 1 : Math.floorMod(column(box.maxLongitude()) - minColumn, COLUMNS);
+
+        lock.readLock().lock();
+        try {
+            for (int row = minRow; row <= maxRow; row++) {
+                for (int offset = 0; offset <= columnSpan; offset++) {
+                    List<EventGeoDocument> cell = cells.get(key(row, (minColumn + offset) % COLUMNS));
+                    if (cell != null) {
+                        collect(cell, query, box, nearest);
+                    }
+                }
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // The DB box does not wrap around the antimeridian; the app's events are nowhere near it
+    private void scanDatabase(GeoQuery query, NearestMatches nearest) {
+        BoundingBox box = BoundingBox.around(query.latitude(), query.longitude(), query.radiusKm());
+        List<EventGeoDocument> candidates = eventRepository.findGeoDocumentsInBox(
+                box.minLatitude(), box.maxLatitude(),
+                box.spansAllLongitudes() ? -180 : Math.max(-180, box.minLongitude()),
+                box.spansAllLongitudes() ? 180 : Math.min(180, box.maxLongitude()),
+                query.from() != null ? query.from() : NO_LOWER_BOUND,
+                query.to() != null ? query.to() : NO_UPPER_BOUND);
+        collect(candidates, query, box, nearest);
+    }
+
+    private void collect(List<EventGeoDocument> candidates, GeoQuery query, BoundingBox box, NearestMatches nearest) {
+        for (EventGeoDocument document : candidates) {
+            // Box check first so only events in the corners of the box pay for the trigonometry
+            if (!box.contains(document.latitude(), document.longitude()) || !query.matches(document)) {
+                continue;
+            }
+            double distance = distanceKm(query.latitude(), query.longitude(), document.latitude(), document.longitude());
+            if (distance <= query.radiusKm()) {
+                nearest.offer(document.id(), distance);
+            }
+        }
+    }
+
+    static double distanceKm(double latitude1, double longitude1, double latitude2, double longitude2) {
+        double dLatitude = Math.toRadians(latitude2 - latitude1);
+        double dLongitude = Math.toRadians(longitude2 - longitude1);
+        double a = Math.sin(dLatitude / 2) * Math.sin(dLatitude / 2)
+                + Math.cos(Math.toRadians(latitude1)) * Math.cos(Math.toRadians(latitude2))
+                * Math.sin(dLongitude / 2) * Math.sin(dLongitude / 2);
+        return 2 * EARTH_RADIUS_KM * Math.asin(Math.min(1, Math.sqrt(a)));
+    }
+
+    // Nothing reads the grid or the clusters while the index is disabled, so they are not kept up to date either
+    private void update(Runnable change) {
+        if (!enabled) {
+            return;
+        }
+        withWriteLock(() -> {
+            change.run();
+            if (pendingUpdates != null) {
+                pendingUpdates.add(change);
+            }
+        });
+    }
+
+    private void withWriteLock(Runnable action) {
+        lock.writeLock().lock();
+        try {
+            action.run();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void add(EventGeoDocument document) {
+        if (!document.hasLocation()) {
+            return;
+        }
+        documents.put(document.id(), document);
+        cells.computeIfAbsent(cellOf(document), k -> new ArrayList<>()).add(document);
+        clusters.add(document, LocalDateTime.now());
+    }
+
+    private void remove(UUID eventId) {
+        clusters.remove(eventId);
+        EventGeoDocument existing = documents.remove(eventId);
+        if (existing == null) {
+            return;
+        }
+        long key = cellOf(existing);
+        List<EventGeoDocument> cell = cells.get(key);
+        cell.removeIf(document -> document.id().equals(eventId));
+        if (cell.isEmpty()) {
+            cells.remove(key);
+        }
+    }
+
+    private static long cellOf(EventGeoDocument document) {
+        return key(row(document.latitude()), column(document.longitude()));
+    }
+
+    private static long key(int row, int column) {
+        return (long) row * COLUMNS + column;
+    }
+
+    private static int row(double latitude) {
+        return (int) Math.floor((Math.max(-90, Math.min(90, latitude)) + 90) / CELL_DEGREES);
+    }
+
+    private static int column(double longitude) {
+        return Math.floorMod((int) Math.floor((longitude + 180) / CELL_DEGREES), COLUMNS);
+    }
+
+    // Bounded max-heap, so a wide radius in a dense city does not sort every match just to keep the first few
+    private static final class NearestMatches {
+
+        private final int limit;
+        private final PriorityQueue<GeoMatch> heap;
+
+        NearestMatches(int limit) {
+            this.limit = limit;
+            this.heap = new PriorityQueue<>(Math.min(limit, 256) + 1, Comparator.comparingDouble(GeoMatch::distanceKm).reversed());
+        }
+
+        void offer(UUID eventId, double distanceKm) {
+            if (heap.size() < limit) {
+                heap.add(new GeoMatch(eventId, distanceKm));
+            } else if (distanceKm < heap.peek().distanceKm()) {
+                heap.poll();
+                heap.add(new GeoMatch(eventId, distanceKm));
+            }
+        }
+
+        List<GeoMatch> sorted() {
+            List<GeoMatch> matches = new ArrayList<>(heap);
+            matches.sort(Comparator.comparingDouble(GeoMatch::distanceKm));
+            return matches;
+        }
+    }
+
+    record BoundingBox(double minLatitude, double maxLatitude, double minLongitude, double maxLongitude) {
+
+        static BoundingBox around(double latitude, double longitude, double radiusKm) {
+            double dLatitude = radiusKm / KM_PER_DEGREE;
+            double minLatitude = Math.max(-90, latitude - dLatitude);
+            double maxLatitude = Math.min(90, latitude + dLatitude);
+            // Widest longitude span is at the latitude closest to a pole
+            double widest = Math.max(Math.abs(minLatitude), Math.abs(maxLatitude));
+            double cos = Math.cos(Math.toRadians(widest));
+            double dLongitude = cos < 1e-6 ? 360 : radiusKm / (KM_PER_DEGREE * cos);
+            if (dLongitude >= 180) {
+                return new BoundingBox(minLatitude, maxLatitude, -180, 180);
+            }
+            return new BoundingBox(minLatitude, maxLatitude, longitude - dLongitude, longitude + dLongitude);
+        }
+
+        boolean contains(double latitude, double longitude) {
+            if (latitude < minLatitude || latitude > maxLatitude) {
+                return false;
+            }
+            if (spansAllLongitudes()) {
+                return true;
+            }
+            double offset = Math.floorMod((long) Math.floor((longitude - minLongitude) * 1e6), 360_000_000L) / 1e6;
+            return offset <= maxLongitude - minLongitude;
+        }
+
+        boolean spansAllLongitudes() {
+            return maxLongitude - minLongitude >= 360;
+        }
+    }
+}
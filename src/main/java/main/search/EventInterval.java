@@ -0,0 +1,18 @@
+package main.search;
+
+import main.model.Event;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+public record EventInterval(UUID id, LocalDateTime startTime, LocalDateTime endTime, UUID categoryId) {
+
+    public static EventInterval of(Event event) {
+        return new EventInterval(event.getId(), event.getStartTime(), event.getEndTime(),
+                event.getCategory() != null ? event.getCategory().getId() : null);
+    }
+
+    boolean isScheduled() {
+        return startTime != null && endTime != null;
+    }
+}
@@ -0,0 +1,12 @@
+package main.search;
+
+import main.model.Event;
+
+import java.util.UUID;
+
+public record EventSearchDocument(UUID id, String name, String description, String location) {
+
+    public static EventSearchDocument of(Event event) {
+        return new EventSearchDocument(event.getId(), event.getName(), event.getDescription(), event.getLocation());
+    }
+}
@@ -0,0 +1,430 @@
+package main.search;
+
+import main.model.Event;
+import main.repository.EventRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+import java.util.UUID;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+// In-process inverted index over event name, location and description with BM25 ranking and prefix matching on the last query word
+@Component
+public class EventSearchIndex {
+
+    private static final Logger logger = LoggerFactory.getLogger(EventSearchIndex.class);
+
+    static final float NAME_WEIGHT = 3f;
+    static final float LOCATION_WEIGHT = 2f;
+    static final float DESCRIPTION_WEIGHT = 1f;
+    static final float PREFIX_PENALTY = 0.7f;
+    static final int MAX_PREFIX_EXPANSIONS = 64;
+    static final int MIN_PREFIX_LENGTH = 2;
+    private static final float K1 = 1.2f;
+    private static final float B = 0.75f;
+
+    private final EventRepository eventRepository;
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    // Posting lists are kept sorted by document number so query words can be intersected with a linear merge
+    private NavigableMap<String, Postings> postings = new TreeMap<>();
+    private Map<UUID, Integer> docIds = new HashMap<>();
+    private UUID[] eventIds = new UUID[1024];
+    private String[][] docTerms = new String[1024][];
+    private float[] docLengths = new float[1024];
+    private int nextDocId;
+    private double totalLength;
+    // Numbers of removed documents, handed out again before new ones so the arrays stay as large as the peak event count
+    private Deque<Integer> freeDocIds = new ArrayDeque<>();
+
+    // Updates made while a rebuild reads the database, replayed on the rebuilt index; null when no rebuild runs
+    private List<Runnable> pendingUpdates;
+
+    public EventSearchIndex(EventRepository eventRepository) {
+        this.eventRepository = eventRepository;
+    }
+
+    // Built aside while searches and updates go on against the current index, then swapped in. Updates committed
+    // during the database read may be missing from it, so they are recorded and replayed on the new index.
+    public synchronized void rebuild() {
+        long start = System.nanoTime();
+        withWriteLock(() -> pendingUpdates = new ArrayList<>());
+        EventSearchIndex built = new EventSearchIndex(eventRepository);
+        int size;
+        try {
+            List<EventSearchDocument> documents = eventRepository.findAllSearchDocuments();
+            built.ensureCapacity(documents.size());
+            documents.forEach(built::add);
+            size = documents.size();
+        } catch (RuntimeException e) {
+            withWriteLock(() -> pendingUpdates = null);
+            throw e;
+        }
+        withWriteLock(() -> {
+            postings = built.postings;
+            docIds = built.docIds;
+            eventIds = built.eventIds;
+            docTerms = built.docTerms;
+            docLengths = built.docLengths;
+            nextDocId = built.nextDocId;
+            totalLength = built.totalLength;
+            freeDocIds = built.freeDocIds;
+            pendingUpdates.forEach(Runnable::run);
+            pendingUpdates = null;
+        });
+        logger.info("Search index built with {} events in {} ms", size, (System.nanoTime() - start) / 1_000_000);
+    }
+
+    public void index(EventSearchDocument document) {
+        update(() -> add(document));
+    }
+
+    public void removeAll(Collection<UUID> ids) {
+        List<UUID> snapshot = List.copyOf(ids);
+        update(() -> snapshot.forEach(this::remove));
+    }
+
+    // Keeps the index in step with the database: a rolled-back create or delete never reaches it
+    public void indexAfterCommit(Event event) {
+        EventSearchDocument document = EventSearchDocument.of(event);
+        AfterCommit.run(() -> index(document));
+    }
+
+    public void removeAfterCommit(Collection<UUID> ids) {
+        List<UUID> snapshot = List.copyOf(ids);
+        AfterCommit.run(() -> removeAll(snapshot));
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return docIds.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // Document numbers in use or free for reuse, i.e. how far the per-document arrays are filled
+    int documentSlots() {
+        lock.readLock().lock();
+        try {
+            return nextDocId;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // Every query word must match; results are ordered by descending relevance
+    public List<UUID> search(String query, int limit) {
+        List<String> words = SearchTokenizer.words(query);
+        if (words.isEmpty() || limit <= 0) {
+            return Collections.emptyList();
+        }
+        boolean lastIsPrefix = !Character.isWhitespace(query.charAt(query.length() - 1));
+
+        lock.readLock().lock();
+        try {
+            Hits result = null;
+            for (int i = 0; i < words.size(); i++) {
+                Hits hits = scoreWord(words.get(i), lastIsPrefix && i == words.size() - 1);
+                if (hits == null) {
+                    continue;
+                }
+                result = result == null ? hits : result.intersect(hits);
+                if (result.size == 0) {
+                    return Collections.emptyList();
+                }
+            }
+            return result == null ? Collections.emptyList() : topResults(result, limit);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // Returns null for stop words so they do not narrow the result set
+    private Hits scoreWord(String word, boolean prefix) {
+        List<String> stems = SearchTokenizer.tokenize(word);
+        String stem = stems.isEmpty() ? null : stems.get(0);
+        boolean expand = prefix && word.length() >= MIN_PREFIX_LENGTH;
+        if (stem == null && !expand) {
+            return null;
+        }
+
+        Hits hits = new Hits(0);
+        Postings exact = stem != null ? postings.get(stem) : null;
+        if (exact != null) {
+            hits = score(exact, 1f);
+        }
+        if (expand) {
+            hits = expandPrefix(word, stem, hits);
+            if (stem != null && !stem.equals(word)) {
+                hits = expandPrefix(stem, stem, hits);
+            }
+        }
+        return hits;
+    }
+
+    private Hits expandPrefix(String prefix, String exactStem, Hits hits) {
+        int expansions = 0;
+        for (Map.Entry<String, Postings> entry : postings.tailMap(prefix, true).entrySet()) {
+            if (!entry.getKey().startsWith(prefix) || expansions++ >= MAX_PREFIX_EXPANSIONS) {
+                break;
+            }
+            if (!entry.getKey().equals(exactStem)) {
+                hits = hits.union(score(entry.getValue(), PREFIX_PENALTY));
+            }
+        }
+        return hits;
+    }
+
+    private Hits score(Postings termPostings, float boost) {
+        int documentCount = docIds.size();
+        double averageLength = documentCount == 0 ? 1 : totalLength / documentCount;
+        double idf = Math.log(1 + (documentCount - termPostings.size + 0.5) / (termPostings.size + 0.5));
+        Hits hits = new Hits(termPostings.size);
+        for (int i = 0; i < termPostings.size; i++) {
+            int doc = termPostings.docs[i];
+            float frequency = termPostings.frequencies[i];
+            double norm = K1 * (1 - B + B * docLengths[doc] / averageLength);
+            hits.docs[i] = doc;
+            hits.scores[i] = (float) (boost * idf * frequency * (K1 + 1) / (frequency + norm));
+        }
+        hits.size = termPostings.size;
+        return hits;
+    }
+
+    // Min-heap of the best hits seen so far, drained from the back to get descending order
+    private List<UUID> topResults(Hits hits, int limit) {
+        int capacity = Math.min(limit, hits.size);
+        int[] heap = new int[capacity];
+        int heapSize = 0;
+        for (int i = 0; i < hits.size; i++) {
+            if (heapSize < capacity) {
+                heap[heapSize] = i;
+                siftUp(heap, heapSize++, hits.scores);
+            } else if (hits.scores[i] > hits.scores[heap[0]]) {
+                heap[0] = i;
+                siftDown(heap, heapSize, hits.scores);
+            }
+        }
+        UUID[] result = new UUID[heapSize];
+        for (int i = heapSize - 1; i >= 0; i--) {
+            result[i] = eventIds[hits.docs[heap[0]]];
+            heap[0] = heap[--heapSize];
+            siftDown(heap, heapSize, hits.scores);
+        }
+        return Arrays.asList(result);
+    }
+
+    private static void siftUp(int[] heap, int index, float[] scores) {
+        while (index > 0) {
+            int parent = (index - 1) / 2;
+            if (scores[heap[parent]] <= scores[heap[index]]) {
+                return;
+            }
+            swap(heap, parent, index);
+            index = parent;
+        }
+    }
+
+    private static void siftDown(int[] heap, int size, float[] scores) {
+        int index = 0;
+        while (true) {
+            int smallest = index;
+            int left = 2 * index + 1;
+            int right = left + 1;
+            if (left < size && scores[heap[left]] < scores[heap[smallest]]) {
+                smallest = left;
+            }
+            if (right < size && scores[heap[right]] < scores[heap[smallest]]) {
+                smallest = right;
+            }
+            if (smallest == index) {
+                return;
+            }
+            swap(heap, smallest, index);
+            index = smallest;
+        }
+    }
+
+    private static void swap(int[] heap, int a, int b) {
+        int tmp = heap[a];
+        heap[a] = heap[b];
+        heap[b] = tmp;
+    }
+
+    private void update(Runnable change) {
+        withWriteLock(() -> {
+            change.run();
+            if (pendingUpdates != null) {
+                pendingUpdates.add(change);
+            }
+        });
+    }
+
+    private void withWriteLock(Runnable action) {
+        lock.writeLock().lock();
+        try {
+            action.run();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void remove(UUID id) {
+        Integer docId = docIds.remove(id);
+        if (docId != null) {
+            clear(docId);
+            eventIds[docId] = null;
+            freeDocIds.push(docId);
+        }
+    }
+
+    // An updated event keeps its document number; a new one takes a freed number or is appended
+    private void add(EventSearchDocument document) {
+        Map<String, Float> frequencies = new HashMap<>();
+        float length = addField(document.name(), NAME_WEIGHT, frequencies)
+                + addField(document.location(), LOCATION_WEIGHT, frequencies)
+                + addField(document.description(), DESCRIPTION_WEIGHT, frequencies);
+
+        Integer existing = docIds.get(document.id());
+        int docId;
+        if (existing != null) {
+            docId = existing;
+            clear(docId);
+        } else {
+            docId = freeDocIds.isEmpty() ? nextDocId++ : freeDocIds.pop();
+            ensureCapacity(docId + 1);
+            docIds.put(document.id(), docId);
+        }
+
+        eventIds[docId] = document.id();
+        docTerms[docId] = frequencies.keySet().toArray(new String[0]);
+        docLengths[docId] = length;
+        totalLength += length;
+        frequencies.forEach((term, frequency) -> postings.computeIfAbsent(term, t -> new Postings()).insert(docId, frequency));
+    }
+
+    private float addField(String text, float weight, Map<String, Float> frequencies) {
+        List<String> tokens = SearchTokenizer.tokenize(text);
+        tokens.forEach(token -> frequencies.merge(token, weight, Float::sum));
+        return tokens.size() * weight;
+    }
+
+    private void clear(int docId) {
+        for (String term : docTerms[docId]) {
+            Postings termPostings = postings.get(term);
+            termPostings.remove(docId);
+            if (termPostings.size == 0) {
+                postings.remove(term);
+            }
+        }
+        docTerms[docId] = new String[0];
+        totalLength -= docLengths[docId];
+        docLengths[docId] = 0;
+    }
+
+    private void ensureCapacity(int capacity) {
+        if (capacity > eventIds.length) {
+            int grown = Math.max(capacity, eventIds.length * 2);
+            eventIds = Arrays.copyOf(eventIds, grown);
+            docTerms = Arrays.copyOf(docTerms, grown);
+            docLengths = Arrays.copyOf(docLengths, grown);
+        }
+    }
+
+    private static final class Postings {
+
+        private int[] docs = new int[4];
+        private float[] frequencies = new float[4];
+        private int size;
+
+        void insert(int doc, float frequency) {
+            if (size == docs.length) {
+                docs = Arrays.copyOf(docs, size * 2);
+                frequencies = Arrays.copyOf(frequencies, size * 2);
+            }
+            int position = size == 0 || docs[size - 1] < doc ? size : -(Arrays.binarySearch(docs, 0, size, doc) + 1);
+            System.arraycopy(docs, position, docs, position + 1, size - position);
+            System.arraycopy(frequencies, position, frequencies, position + 1, size - position);
+            docs[position] = doc;
+            frequencies[position] = frequency;
+            size++;
+        }
+
+        void remove(int doc) {
+            int position = Arrays.binarySearch(docs, 0, size, doc);
+            if (position < 0) {
+                return;
+            }
+            System.arraycopy(docs, position + 1, docs, position, size - position - 1);
+            System.arraycopy(frequencies, position + 1, frequencies, position, size - position - 1);
+            size--;
+        }
+    }
+
+    // Matching documents of one query word, sorted by document number
+    private static final class Hits {
+
+        private final int[] docs;
+        private final float[] scores;
+        private int size;
+
+        Hits(int capacity) {
+            docs = new int[capacity];
+            scores = new float[capacity];
+        }
+
+        // A document keeps its best match per query word, so many expansions of one prefix do not outrank an exact hit
+        Hits union(Hits other) {
+            Hits merged = new Hits(size + other.size);
+            int i = 0;
+            int j = 0;
+            while (i < size || j < other.size) {
+                int n = merged.size++;
+                if (j == other.size || (i < size && docs[i] < other.docs[j])) {
+                    merged.docs[n] = docs[i];
+                    merged.scores[n] = scores[i++];
+                } else if (i == size || other.docs[j] < docs[i]) {
+                    merged.docs[n] = other.docs[j];
+                    merged.scores[n] = other.scores[j++];
+                } else {
+                    merged.docs[n] = docs[i];
+                    merged.scores[n] = Math.max(scores[i++], other.scores[j++]);
+                }
+            }
+            return merged;
+        }
+
+        Hits intersect(Hits other) {
+            Hits common = new Hits(Math.min(size, other.size));
+            int i = 0;
+            int j = 0;
+            while (i < size && j < other.size) {
+                if (docs[i] < other.docs[j]) {
+                    i++;
+                } else if (docs[i] > other.docs[j]) {
+                    j++;
+                } else {
+                    int n = common.size++;
+                    common.docs[n] = docs[i];
+                    common.scores[n] = scores[i++] + other.scores[j++];
+                }
+            }
+            return common;
+        }
+    }
+}
@@ -0,0 +1,6 @@
+package main.search;
+
+import java.util.UUID;
+
+public record GeoMatch(UUID eventId, double distanceKm) {
+}
@@ -0,0 +1,36 @@
+package main.search;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+// Events within radiusKm of a point whose [startTime, endTime] overlaps [from, to); to and categoryId are optional
+public record GeoQuery(double latitude, double longitude, double radiusKm,
+                       LocalDateTime from, LocalDateTime to, UUID categoryId, int limit) {
+
+    public static final double MAX_RADIUS_KM = 200;
+
+    public GeoQuery {
+        if (latitude < -90 || latitude > 90 || longitude < -180 || longitude > 180) {
+            throw new IllegalArgumentException("Невалидни координати");
+        }
+        if (!(radiusKm > 0) || radiusKm > MAX_RADIUS_KM) {
+            throw new IllegalArgumentException("Радиусът трябва да е между 0 и " + (int) MAX_RADIUS_KM + " км");
+        }
+        if (from != null && to != null && !to.isAfter(from)) {
+            throw new IllegalArgumentException("Краят на периода трябва да е след началото");
+        }
+        if (limit < 1) {
+            throw new IllegalArgumentException("Броят резултати трябва да е положително число");
+        }
+    }
+
+    boolean matches(EventGeoDocument document) {
+        if (categoryId != null && !categoryId.equals(document.categoryId())) {
+            return false;
+        }
+        if (from != null && document.endTime() != null && document.endTime().isBefore(from)) {
+            return false;
+        }
+        return to == null || document.startTime() == null || document.startTime().isBefore(to);
+    }
+}
@@ -0,0 +1,7 @@
+package main.search;
+
+import java.util.UUID;
+
+// eventId is only set for a cluster of one, so the map can link straight to the event
+public record MapCluster(double latitude, double longitude, int count, UUID eventId) {
+}
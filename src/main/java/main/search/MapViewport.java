@@ -0,0 +1,20 @@
+package main.search;
+
+// Visible map area at a zoom level; west greater than east means the area crosses the antimeridian
+public record MapViewport(int zoom, double west, double south, double east, double north) {
+
+    public static final int MAX_ZOOM = 22;
+
+    public MapViewport {
+        if (zoom < 0 || zoom > MAX_ZOOM) {
+            throw new IllegalArgumentException("Невалидно ниво на мащаба");
+        }
+        if (south < -90 || north > 90 || south > north || west < -180 || west > 180 || east < -180 || east > 180) {
+            throw new IllegalArgumentException("Невалидна видима област на картата");
+        }
+    }
+
+    boolean crossesAntimeridian() {
+        return west > east;
+    }
+}
@@ -0,0 +1,170 @@
+package main.search;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+// Upcoming events aggregated per zoom level into 64 px cells of the Web Mercator tile grid; not thread-safe, EventGeoIndex guards it
+final class MarkerClusters {
+
+    static final int MAX_ZOOM = 16;
+    private static final int CELLS_PER_TILE_SHIFT = 2;
+    private static final double MAX_MERCATOR_LATITUDE = 85.05112878;
+
+    private final int minZoom;
+    private final int maxZoom;
+    private final List<Map<Long, Cell>> levels = new ArrayList<>();
+    private final Map<UUID, EventGeoDocument> members = new HashMap<>();
+
+    MarkerClusters(int minZoom, int maxZoom) {
+        this.minZoom = minZoom;
+        this.maxZoom = maxZoom;
+        for (int zoom = minZoom; zoom <= maxZoom; zoom++) {
+            levels.add(new HashMap<>());
+        }
+    }
+
+    void add(EventGeoDocument document, LocalDateTime now) {
+        remove(document.id());
+        if (!document.hasLocation() || (document.endTime() != null && !document.endTime().isAfter(now))) {
+            return;
+        }
+        members.put(document.id(), document);
+        for (int zoom = minZoom; zoom <= maxZoom; zoom++) {
+            level(zoom).computeIfAbsent(cellOf(document, zoom), k -> new Cell()).add(document);
+        }
+    }
+
+    void remove(UUID eventId) {
+        EventGeoDocument existing = members.remove(eventId);
+        if (existing == null) {
+            return;
+        }
+        for (int zoom = minZoom; zoom <= maxZoom; zoom++) {
+            Map<Long, Cell> level = level(zoom);
+            long key = cellOf(existing, zoom);
+            Cell cell = level.get(key);
+            cell.remove(existing);
+            if (cell.count == 0) {
+                level.remove(key);
+            }
+        }
+    }
+
+    int removeEnded(LocalDateTime now) {
+        List<UUID> ended = new ArrayList<>();
+        for (EventGeoDocument document : members.values()) {
+            if (document.endTime() != null && !document.endTime().isAfter(now)) {
+                ended.add(document.id());
+            }
+        }
+        ended.forEach(this::remove);
+        return ended.size();
+    }
+
+    int size() {
+        return members.size();
+    }
+
+    // Zoom levels past MAX_ZOOM reuse its cells, which are already under 200 m wide
+    static int clusteringZoom(int zoom) {
+        return Math.min(zoom, MAX_ZOOM);
+    }
+
+    List<MapCluster> find(MapViewport viewport) {
+        int zoom = Math.max(minZoom, Math.min(maxZoom, clusteringZoom(viewport.zoom())));
+        int cells = cellsPerAxis(zoom);
+        int minX = x(viewport.west(), cells);
+        int maxX = x(viewport.east(), cells);
+        int minY = y(viewport.north(), cells);
+        int maxY = y(viewport.south(), cells);
+        int columns = Math.floorMod(maxX - minX, cells) + 1;
+
+        Map<Long, Cell> level = level(zoom);
+        List<MapCluster> clusters = new ArrayList<>();
+        if ((long) columns * (maxY - minY + 1) <= level.size()) {
+            for (int offset = 0; offset < columns; offset++) {
+                int x = (minX + offset) % cells;
+                for (int y = minY; y <= maxY; y++) {
+                    Cell cell = level.get(key(x, y, cells));
+                    if (cell != null) {
+                        clusters.add(cell.toCluster());
+                    }
+                }
+            }
+            return clusters;
+        }
+        // Zoomed far out relative to the data: walking the non-empty cells is cheaper than probing the whole viewport
+        for (Map.Entry<Long, Cell> entry : level.entrySet()) {
+            int x = (int) (entry.getKey() / cells);
+            int y = (int) (entry.getKey() % cells);
+            if (y >= minY && y <= maxY && Math.floorMod(x - minX, cells) < columns) {
+                clusters.add(entry.getValue().toCluster());
+            }
+        }
+        return clusters;
+    }
+
+    private Map<Long, Cell> level(int zoom) {
+        return levels.get(zoom - minZoom);
+    }
+
+    private static long cellOf(EventGeoDocument document, int zoom) {
+        int cells = cellsPerAxis(zoom);
+        return key(x(document.longitude(), cells), y(document.latitude(), cells), cells);
+    }
+
+    private static int cellsPerAxis(int zoom) {
+        return 1 << (zoom + CELLS_PER_TILE_SHIFT);
+    }
+
+    private static long key(int x, int y, int cells) {
+        return (long) x * cells + y;
+    }
+
+    private static int x(double longitude, int cells) {
+        int x = (int) Math.floor((longitude + 180) / 360 * cells);
+        return Math.max(0, Math.min(cells - 1, x));
+    }
+
+    private static int y(double latitude, int cells) {
+        double radians = Math.toRadians(Math.max(-MAX_MERCATOR_LATITUDE, Math.min(MAX_MERCATOR_LATITUDE, latitude)));
+        double mercator = Math.log(Math.tan(radians) + 1 / Math.cos(radians));
+        int y = (int) Math.floor((1 - mercator / Math.PI) / 2 * cells);
+        return Math.max(0, Math.min(cells - 1, y));
+    }
+
+    private static final class Cell {
+
+        private int count;
+        private double latitudeSum;
+        private double longitudeSum;
+        // XOR of member ids: when one member is left it is exactly that member's id
+        private long idHighBits;
+        private long idLowBits;
+
+        void add(EventGeoDocument document) {
+            count++;
+            latitudeSum += document.latitude();
+            longitudeSum += document.longitude();
+            idHighBits ^= document.id().getMostSignificantBits();
+            idLowBits ^= document.id().getLeastSignificantBits();
+        }
+
+        void remove(EventGeoDocument document) {
+            count--;
+            latitudeSum -= document.latitude();
+            longitudeSum -= document.longitude();
+            idHighBits ^= document.id().getMostSignificantBits();
+            idLowBits ^= document.id().getLeastSignificantBits();
+        }
+
+        MapCluster toCluster() {
+            return new MapCluster(latitudeSum / count, longitudeSum / count, count,
+                    count == 1 ? new UUID(idHighBits, idLowBits) : null);
+        }
+    }
+}
@@ -0,0 +1,143 @@
+package main.search;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+
+// Lower-cases, folds Latin diacritics, drops Bulgarian/English stop words and applies a light suffix stemmer
+public final class SearchTokenizer {
+
+    private static final int MIN_STEM_LENGTH = 3;
+
+    private static final Set<String> STOP_WORDS = Set.of(
+            "и", "в", "във", "на", "за", "с", "със", "от", "до", "по", "при", "към", "но", "или", "а",
+            "е", "са", "да", "не", "се", "то", "че", "как", "ще", "ли", "бе",
+            "a", "an", "the", "and", "or", "of", "in", "on", "at", "to", "for", "with", "is", "are", "by", "from");
+
+    private SearchTokenizer() {
+    }
+
+    public static List<String> tokenize(String text) {
+        List<String> tokens = new ArrayList<>();
+        for (String word : words(text)) {
+            if (!STOP_WORDS.contains(word)) {
+                tokens.add(stem(word));
+            }
+        }
+        return tokens;
+    }
+
+    public static List<String> words(String text) {
+        List<String> words = new ArrayList<>();
+        if (text == null || text.isEmpty()) {
+            return words;
+        }
+        String lower = text.toLowerCase(Locale.ROOT);
+        StringBuilder current = new StringBuilder();
+        for (int i = 0; i < lower.length(); i++) {
+            char c = lower.charAt(i);
+            if (Character.isLetterOrDigit(c)) {
+                current.append(fold(c));
+            } else if (current.length() > 0 && (c == '\'' || c == '’') && i + 1 < lower.length()
+                    && Character.isLetter(lower.charAt(i + 1))) {
+                // keep "don't" and "o'neill" together, the possessive "'s" is removed by the stemmer
+                current.append('\'');
+            } else if (current.length() > 0) {
+                words.add(current.toString());
+                current.setLength(0);
+            }
+        }
+        if (current.length() > 0) {
+            words.add(current.toString());
+        }
+        return words;
+    }
+
+    public static String stem(String word) {
+        if (isCyrillic(word)) {
+            return stemBulgarian(word);
+        }
+        return stemEnglish(word);
+    }
+
+    private static char fold(char c) {
+        if (c == 'ѝ') {
+            return 'и';
+        }
+        // Only Latin letters are decomposed; й and ё would lose their meaning in Cyrillic
+        if (c >= 'À' && c <= 'ɏ') {
+            String decomposed = Normalizer.normalize(String.valueOf(c), Normalizer.Form.NFD);
+            return decomposed.charAt(0);
+        }
+        return c;
+    }
+
+    private static boolean isCyrillic(String word) {
+        for (int i = 0; i < word.length(); i++) {
+            char c = word.charAt(i);
+            if (c >= '\u0400' && c <= '\u04FF') {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static String stemBulgarian(String word) {
+        int len = word.length();
+
+        // -та/-то/-те are articles only after a vowel (жената, селото), otherwise the word ends in т (концерта)
+        if (len > 6 && word.endsWith("ият")) {
+            len -= 3;
+        } else if (len > 5 && endsWithAny(word, len, "ът", "ия")) {
+            len -= 2;
+        } else if (len > 5 && endsWithAny(word, len, "та", "то", "те") && isVowel(word.charAt(len - 3))) {
+            len -= 2;
+        } else if (len > 4 && word.endsWith("ят")) {
+            len -= 2;
+        }
+
+        if (len > 6 && endsWithAny(word, len, "ове", "еве")) {
+            len -= 3;
+        } else if (len > 5 && endsWithAny(word, len, "ища")) {
+            len -= 3;
+        } else if (len > MIN_STEM_LENGTH && endsWithAny(word, len, "и")) {
+            len -= 1;
+        }
+
+        if (len > MIN_STEM_LENGTH && endsWithAny(word, len, "а", "о", "е", "я", "й")) {
+            len -= 1;
+        }
+        if (len > MIN_STEM_LENGTH + 1 && endsWithAny(word, len, "и")) {
+            len -= 1;
+        }
+        return word.substring(0, len);
+    }
+
+    private static String stemEnglish(String word) {
+        String stemmed = word.endsWith("'s") ? word.substring(0, word.length() - 2) : word;
+        int len = stemmed.length();
+        if (len > 4 && stemmed.endsWith("ies") && !stemmed.endsWith("eies") && !stemmed.endsWith("aies")) {
+            return stemmed.substring(0, len - 3) + "y";
+        }
+        if (len > MIN_STEM_LENGTH && stemmed.endsWith("s")
+                && !stemmed.endsWith("ss") && !stemmed.endsWith("us") && !stemmed.endsWith("is")) {
+            return stemmed.substring(0, len - 1);
+        }
+        return stemmed;
+    }
+
+    private static boolean isVowel(char c) {
+        return "аъоуеиюя".indexOf(c) >= 0;
+    }
+
+    private static boolean endsWithAny(String word, int len, String... suffixes) {
+        for (String suffix : suffixes) {
+            if (len >= suffix.length() && word.startsWith(suffix, len - suffix.length())) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,180 @@
+package main.security;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.security.authentication.event.AuthenticationFailureBadCredentialsEvent;
+import org.springframework.security.authentication.event.AuthenticationSuccessEvent;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.web.authentication.WebAuthenticationDetails;
+import org.springframework.stereotype.Component;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+// Three limits on POST /login: attempts per client IP, failed passwords per account from one IP, and failed passwords
+// per account from all IPs together, with a higher threshold, so a botnet cannot spread its guesses over many
+// addresses. Once the account-wide limit is reached only addresses that have logged in to the account before get
+// through, so guesses from elsewhere do not lock the owner out of their own account.
+@Component
+public class LoginAttemptService {
+
+    private static final Logger logger = LoggerFactory.getLogger(LoginAttemptService.class);
+
+    private final int maxAttemptsPerIp;
+    private final Duration ipWindow;
+    private final int maxFailuresPerAccount;
+    private final int maxFailuresPerAccountTotal;
+    private final Duration accountWindow;
+    private final Duration knownIpRetention;
+    private final Clock clock;
+
+    private final Map<String, Window> attemptsByIp = new ConcurrentHashMap<>();
+    private final Map<String, Window> failuresByAccountAndIp = new ConcurrentHashMap<>();
+    private final Map<String, Window> failuresByAccount = new ConcurrentHashMap<>();
+    // Last successful login per (account, IP)
+    private final Map<String, Instant> knownIps = new ConcurrentHashMap<>();
+
+    @Autowired
+    public LoginAttemptService(@Value("${security.login.max-attempts-per-ip:30}") int maxAttemptsPerIp,
+                               @Value("${security.login.ip-window:1m}") Duration ipWindow,
+                               @Value("${security.login.max-failures-per-account:5}") int maxFailuresPerAccount,
+                               @Value("${security.login.max-failures-per-account-total:50}") int maxFailuresPerAccountTotal,
+                               @Value("${security.login.account-window:15m}") Duration accountWindow,
+                               @Value("${security.login.known-ip-retention:30d}") Duration knownIpRetention) {
+        this(maxAttemptsPerIp, ipWindow, maxFailuresPerAccount, maxFailuresPerAccountTotal, accountWindow,
+                knownIpRetention, Clock.systemUTC());
+    }
+
+    LoginAttemptService(int maxAttemptsPerIp, Duration ipWindow,
+                        int maxFailuresPerAccount, int maxFailuresPerAccountTotal, Duration accountWindow,
+                        Duration knownIpRetention, Clock clock) {
+        this.maxAttemptsPerIp = maxAttemptsPerIp;
+        this.ipWindow = ipWindow;
+        this.maxFailuresPerAccount = maxFailuresPerAccount;
+        this.maxFailuresPerAccountTotal = maxFailuresPerAccountTotal;
+        this.accountWindow = accountWindow;
+        this.knownIpRetention = knownIpRetention;
+        this.clock = clock;
+    }
+
+    public boolean isBlocked(String ip, String account) {
+        Instant now = clock.instant();
+        return exceeded(lookup(attemptsByIp, ip), maxAttemptsPerIp, ipWindow, now)
+                || exceeded(lookup(failuresByAccountAndIp, accountKey(account, ip)), maxFailuresPerAccount, accountWindow, now)
+                || accountWideBlocked(ip, account, now);
+    }
+
+    public long retryAfterSeconds(String ip, String account) {
+        Instant now = clock.instant();
+        long retryAfter = 0;
+        Window ipAttempts = lookup(attemptsByIp, ip);
+        if (exceeded(ipAttempts, maxAttemptsPerIp, ipWindow, now)) {
+            retryAfter = Math.max(retryAfter, secondsUntilExpiry(ipAttempts, ipWindow, now));
+        }
+        Window accountFailures = lookup(failuresByAccountAndIp, accountKey(account, ip));
+        if (exceeded(accountFailures, maxFailuresPerAccount, accountWindow, now)) {
+            retryAfter = Math.max(retryAfter, secondsUntilExpiry(accountFailures, accountWindow, now));
+        }
+        if (accountWideBlocked(ip, account, now)) {
+            retryAfter = Math.max(retryAfter,
+                    secondsUntilExpiry(lookup(failuresByAccount, normalize(account)), accountWindow, now));
+        }
+        return retryAfter;
+    }
+
+    public void recordAttempt(String ip) {
+        increment(attemptsByIp, ip, ipWindow);
+    }
+
+    @EventListener
+    public void onAuthenticationFailure(AuthenticationFailureBadCredentialsEvent event) {
+        Authentication authentication = event.getAuthentication();
+        String ip = remoteAddress(authentication);
+        String account = normalize(authentication.getName());
+        if (increment(failuresByAccountAndIp, accountKey(account, ip), accountWindow) == maxFailuresPerAccount) {
+            logger.warn("Login temporarily blocked for account {} from {} after {} failed attempts",
+                    account, ip, maxFailuresPerAccount);
+        }
+        if (increment(failuresByAccount, account, accountWindow) == maxFailuresPerAccountTotal) {
+            logger.warn("Login temporarily blocked for account {} from unknown addresses after {} failed attempts",
+                    account, maxFailuresPerAccountTotal);
+        }
+    }
+
+    @EventListener
+    public void onAuthenticationSuccess(AuthenticationSuccessEvent event) {
+        Authentication authentication = event.getAuthentication();
+        String key = accountKey(authentication.getName(), remoteAddress(authentication));
+        if (key != null) {
+            failuresByAccountAndIp.remove(key);
+            knownIps.put(key, clock.instant());
+        }
+    }
+
+    public void purgeExpired() {
+        Instant now = clock.instant();
+        attemptsByIp.values().removeIf(window -> window.isExpired(ipWindow, now));
+        failuresByAccountAndIp.values().removeIf(window -> window.isExpired(accountWindow, now));
+        failuresByAccount.values().removeIf(window -> window.isExpired(accountWindow, now));
+        knownIps.values().removeIf(lastLogin -> !now.isBefore(lastLogin.plus(knownIpRetention)));
+    }
+
+    private int increment(Map<String, Window> windows, String key, Duration length) {
+        if (key == null) {
+            return 0;
+        }
+        Instant now = clock.instant();
+        return windows.compute(key, (k, current) -> current == null || current.isExpired(length, now)
+                ? new Window(now, 1)
+                : new Window(current.start(), current.count() + 1)).count();
+    }
+
+    private <T> T lookup(Map<String, T> windows, String key) {
+        return key == null ? null : windows.get(key);
+    }
+
+    private boolean exceeded(Window window, int limit, Duration length, Instant now) {
+        return window != null && !window.isExpired(length, now) && window.count() >= limit;
+    }
+
+    private long secondsUntilExpiry(Window window, Duration length, Instant now) {
+        return Math.max(1, Duration.between(now, window.start().plus(length)).toSeconds());
+    }
+
+    // The account-wide limit does not apply to an address the account has logged in from within the retention
+    private boolean accountWideBlocked(String ip, String account, Instant now) {
+        if (!exceeded(lookup(failuresByAccount, normalize(account)), maxFailuresPerAccountTotal, accountWindow, now)) {
+            return false;
+        }
+        Instant lastLogin = lookup(knownIps, accountKey(account, ip));
+        return lastLogin == null || !now.isBefore(lastLogin.plus(knownIpRetention));
+    }
+
+    // The form login records the client address in the details; the same address LoginThrottlingFilter sees
+    private static String remoteAddress(Authentication authentication) {
+        return authentication.getDetails() instanceof WebAuthenticationDetails details ? details.getRemoteAddress() : null;
+    }
+
+    private String accountKey(String account, String ip) {
+        String normalized = normalize(account);
+        return normalized == null ? null : normalized + " " + (ip == null ? "" : ip);
+    }
+
+    private String normalize(String account) {
+        return account == null || account.isBlank() ? null : account.trim().toLowerCase(Locale.ROOT);
+    }
+
+    private record Window(Instant start, int count) {
+
+        boolean isExpired(Duration length, Instant now) {
+            return !now.isBefore(start.plus(length));
+        }
+    }
+}
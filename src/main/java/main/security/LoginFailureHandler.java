@@ -0,0 +1,28 @@
+package main.security;
+
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import main.exception.ServiceBusyException;
+import org.springframework.core.NestedExceptionUtils;
+import org.springframework.security.core.AuthenticationException;
+import org.springframework.security.web.authentication.SimpleUrlAuthenticationFailureHandler;
+
+import java.io.IOException;
+
+public class LoginFailureHandler extends SimpleUrlAuthenticationFailureHandler {
+
+    public LoginFailureHandler() {
+        super("/login?error");
+    }
+
+    @Override
+    public void onAuthenticationFailure(HttpServletRequest request, HttpServletResponse response,
+                                        AuthenticationException exception) throws IOException, ServletException {
+        if (NestedExceptionUtils.getRootCause(exception) instanceof ServiceBusyException) {
+            getRedirectStrategy().sendRedirect(request, response, "/login?busy");
+            return;
+        }
+        super.onAuthenticationFailure(request, response, exception);
+    }
+}
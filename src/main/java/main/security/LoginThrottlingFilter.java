@@ -0,0 +1,82 @@
+package main.security;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import main.exception.ServiceBusyException;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+// Applies the LoginAttemptService limits to POST /login, or in a chain with HTTP Basic to requests that bring Basic
+// credentials
+public class LoginThrottlingFilter extends OncePerRequestFilter {
+
+    private final LoginAttemptService loginAttemptService;
+    private final boolean basicAuth;
+
+    public LoginThrottlingFilter(LoginAttemptService loginAttemptService) {
+        this(loginAttemptService, false);
+    }
+
+    public LoginThrottlingFilter(LoginAttemptService loginAttemptService, boolean basicAuth) {
+        this.loginAttemptService = loginAttemptService;
+        this.basicAuth = basicAuth;
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        if (basicAuth) {
+            return basicAccount(request) == null;
+        }
+        return !("POST".equals(request.getMethod()) && "/login".equals(request.getServletPath()));
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        String ip = request.getRemoteAddr();
+        String account = basicAuth ? basicAccount(request) : request.getParameter("email");
+
+        if (loginAttemptService.isBlocked(ip, account)) {
+            response.setHeader(HttpHeaders.RETRY_AFTER, String.valueOf(loginAttemptService.retryAfterSeconds(ip, account)));
+            if (basicAuth) {
+                response.sendError(HttpStatus.TOO_MANY_REQUESTS.value());
+            } else {
+                response.sendRedirect(request.getContextPath() + "/login?blocked");
+            }
+            return;
+        }
+
+        loginAttemptService.recordAttempt(ip);
+        try {
+            filterChain.doFilter(request, response);
+        } catch (ServiceBusyException e) {
+            if (basicAuth) {
+                response.sendError(HttpStatus.SERVICE_UNAVAILABLE.value());
+            } else {
+                response.sendRedirect(request.getContextPath() + "/login?busy");
+            }
+        }
+    }
+
+    // The user name from an "Authorization: Basic" header, or null when the request has none
+    private static String basicAccount(HttpServletRequest request) {
+        String header = request.getHeader(HttpHeaders.AUTHORIZATION);
+        if (header == null || !header.regionMatches(true, 0, "Basic ", 0, 6)) {
+            return null;
+        }
+        try {
+            String credentials = new String(Base64.getDecoder().decode(header.substring(6).trim()), StandardCharsets.UTF_8);
+            int colon = credentials.indexOf(':');
+            return colon < 0 ? null : credentials.substring(0, colon);
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,70 @@
+package main.service;
+
+import main.model.SystemFlag;
+import main.repository.SystemFlagRepository;
+import main.repository.UserRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+@Service
+public class BootstrapService {
+
+    private static final Logger logger = LoggerFactory.getLogger(BootstrapService.class);
+
+    static final String ADMIN_BOOTSTRAPPED = "ADMIN_BOOTSTRAPPED";
+
+    private final SystemFlagRepository systemFlagRepository;
+    private final UserRepository userRepository;
+
+    // The flag only ever goes from false to true, so once seen it never has to be read again.
+    private volatile boolean adminBootstrapped;
+
+    public BootstrapService(SystemFlagRepository systemFlagRepository, UserRepository userRepository) {
+        this.systemFlagRepository = systemFlagRepository;
+        this.userRepository = userRepository;
+    }
+
+    @Transactional
+    public void initialize() {
+        SystemFlag flag = systemFlagRepository.findById(ADMIN_BOOTSTRAPPED).orElse(null);
+        if (flag == null) {
+            boolean hasUsers = userRepository.count() > 0;
+            flag = systemFlagRepository.save(SystemFlag.builder()
+                    .name(ADMIN_BOOTSTRAPPED)
+                    .enabled(hasUsers)
+                    .build());
+            logger.info("Admin bootstrap flag initialized: {}", hasUsers);
+        }
+        adminBootstrapped = flag.getEnabled();
+    }
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public boolean claimFirstAdmin() {
+        if (adminBootstrapped) {
+            return false;
+        }
+        if (systemFlagRepository.enableIfDisabled(ADMIN_BOOTSTRAPPED) == 1) {
+            return true;
+        }
+        if (!systemFlagRepository.existsById(ADMIN_BOOTSTRAPPED)) {
+            return claimMissingFlag();
+        }
+        adminBootstrapped = true;
+        return false;
+    }
+
+    // initialize() runs before the server takes requests, so this is only reached if the row was removed since.
+    // The flag is inserted already enabled; a concurrent claim inserting it too fails on the primary key.
+    private boolean claimMissingFlag() {
+        boolean firstUser = userRepository.count() == 0;
+        systemFlagRepository.save(SystemFlag.builder()
+                .name(ADMIN_BOOTSTRAPPED)
+                .enabled(true)
+                .build());
+        logger.warn("Admin bootstrap flag was missing and has been recreated, first admin claimed: {}", firstUser);
+        return firstUser;
+    }
+}
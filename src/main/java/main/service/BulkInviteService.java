@@ -0,0 +1,195 @@
+package main.service;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.persistence.EntityManager;
+import main.model.Event;
+import main.model.Subscription;
+import main.model.User;
+import main.repository.EventRepository;
+import main.repository.SubscriptionRepository;
+import main.repository.UserRepository;
+import main.web.dto.BulkInviteResult;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+// Subscribes a whole list of users to one event, e.g. from an organiser's CSV upload. Hibernate assigns the UUIDs
+// when an entity is persisted, without a round-trip to the database, so the INSERTs can be sent in JDBC batches.
+// Each chunk of hibernate.jdbc.batch_size subscriptions is flushed with its tickets and then cleared from the
+// persistence context, so 10k invites take a few dozen batched round-trips and memory stays flat.
+@Service
+public class BulkInviteService {
+
+    private static final Logger logger = LoggerFactory.getLogger(BulkInviteService.class);
+    private static final int NOT_FOUND_SAMPLE = 10;
+    // Keeps the IN list of the user lookup well under the database's parameter limits
+    private static final int LOOKUP_CHUNK = 1000;
+
+    private final EventRepository eventRepository;
+    private final UserRepository userRepository;
+    private final SubscriptionRepository subscriptionRepository;
+    private final TicketService ticketService;
+    private final CalendarFeedService calendarFeedService;
+    private final EntityManager entityManager;
+    private final MeterRegistry meterRegistry;
+    private final int batchSize;
+    private final int maxRows;
+
+    public BulkInviteService(EventRepository eventRepository,
+                             UserRepository userRepository,
+                             SubscriptionRepository subscriptionRepository,
+                             TicketService ticketService,
+                             CalendarFeedService calendarFeedService,
+                             EntityManager entityManager,
+                             MeterRegistry meterRegistry,
+                             @Value("${spring.jpa.properties.hibernate.jdbc.batch_size:500}") int batchSize,
+                             @Value("${events.bulk-invite.max-rows:10000}") int maxRows) {
+        this.eventRepository = eventRepository;
+        this.userRepository = userRepository;
+        this.subscriptionRepository = subscriptionRepository;
+        this.ticketService = ticketService;
+        this.calendarFeedService = calendarFeedService;
+        this.entityManager = entityManager;
+        this.meterRegistry = meterRegistry;
+        this.batchSize = batchSize;
+        this.maxRows = maxRows;
+    }
+
+    // One address per row: the first cell that contains "@", so a header row and extra columns are ignored.
+    // Cells may be separated by commas or semicolons, spreadsheet exports use either. Addresses come back normalized.
+    public static List<String> readEmails(InputStream csv) throws IOException {
+        List<String> emails = new ArrayList<>();
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(csv, StandardCharsets.UTF_8))) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                for (String cell : line.split("[,;]")) {
+                    String value = cell.replace("\uFEFF", "").replace("\"", "").strip();
+                    if (value.contains("@")) {
+                        emails.add(normalize(value));
+                        break;
+                    }
+                }
+            }
+        }
+        return emails;
+    }
+
+    // The event row stays locked until commit, so concurrent invites to the same event cannot overfill it.
+    // Addresses are taken in file order; once the event is full the rest are counted as over capacity.
+    @Transactional
+    public BulkInviteResult invite(UUID eventId, User organizer, Collection<String> emails) {
+        if (emails.isEmpty()) {
+            throw new IllegalArgumentException("Файлът не съдържа имейл адреси");
+        }
+        if (emails.size() > maxRows) {
+            throw new IllegalArgumentException("Файлът може да съдържа най-много " + maxRows + " имейл адреса");
+        }
+        Event event = eventRepository.findByIdForUpdate(eventId)
+                .orElseThrow(() -> new IllegalArgumentException("Събитието не е намерено"));
+        if (event.getCreator() == null || !event.getCreator().getId().equals(organizer.getId())) {
+            throw new IllegalStateException("Можеш да каниш участници само в събития, които си създал");
+        }
+
+        Set<String> distinctEmails = new LinkedHashSet<>();
+        emails.forEach(email -> distinctEmails.add(normalize(email)));
+        Map<String, User> usersByEmail = findUsersByEmail(distinctEmails);
+        List<UUID> subscribedUserIds = subscriptionRepository.findUserIdsByEventId(eventId);
+        Set<UUID> subscribed = new HashSet<>(subscribedUserIds);
+        long freePlaces = event.getCapacity() == null
+                ? Long.MAX_VALUE
+                : Math.max(0, event.getCapacity() - subscribedUserIds.size());
+
+        List<User> invitees = new ArrayList<>();
+        List<String> notFound = new ArrayList<>();
+        int skipped = 0;
+        int overCapacity = 0;
+        for (String email : distinctEmails) {
+            User user = usersByEmail.get(email);
+            if (user == null) {
+                notFound.add(email);
+            } else if (user.getId().equals(organizer.getId()) || subscribed.contains(user.getId())) {
+                skipped++;
+            } else if (invitees.size() >= freePlaces) {
+                overCapacity++;
+            } else {
+                invitees.add(user);
+            }
+        }
+
+        persist(event, invitees);
+        calendarFeedService.touchUsers(invitees.stream().map(User::getId).toList());
+
+        meterRegistry.counter("subscriptions.created").increment(invitees.size());
+        countInvites("invited", invitees.size());
+        countInvites("skipped", skipped);
+        countInvites("full", overCapacity);
+        countInvites("not-found", notFound.size());
+        logger.info("Bulk invite to event {}: {} invited, {} skipped, {} over capacity, {} without an account",
+                eventId, invitees.size(), skipped, overCapacity, notFound.size());
+
+        return BulkInviteResult.builder()
+                .invited(invitees.size())
+                .skipped(skipped)
+                .overCapacity(overCapacity)
+                .notFound(notFound.size())
+                .notFoundSample(List.copyOf(notFound.subList(0, Math.min(NOT_FOUND_SAMPLE, notFound.size()))))
+                .build();
+    }
+
+    private Map<String, User> findUsersByEmail(Collection<String> emails) {
+        List<String> all = new ArrayList<>(emails);
+        Map<String, User> usersByEmail = new HashMap<>();
+        for (int from = 0; from < all.size(); from += LOOKUP_CHUNK) {
+            for (User user : userRepository.findByEmailIn(all.subList(from, Math.min(from + LOOKUP_CHUNK, all.size())))) {
+                usersByEmail.put(normalize(user.getEmail()), user);
+            }
+        }
+        return usersByEmail;
+    }
+
+    private void persist(Event event, List<User> invitees) {
+        LocalDateTime now = LocalDateTime.now();
+        for (int from = 0; from < invitees.size(); from += batchSize) {
+            List<Subscription> chunk = invitees.subList(from, Math.min(from + batchSize, invitees.size())).stream()
+                    .map(user -> Subscription.builder()
+                            .user(user)
+                            .event(event)
+                            .subscriptionTime(now)
+                            .build())
+                    .toList();
+            subscriptionRepository.saveAll(chunk);
+            ticketService.issueTickets(chunk);
+            entityManager.flush();
+            entityManager.clear();
+        }
+    }
+
+    // The lookup matches case-insensitively on MySQL's default collation, so the file and the stored
+    // addresses are compared in lower case too
+    private static String normalize(String email) {
+        return email.strip().toLowerCase(Locale.ROOT);
+    }
+
+    private void countInvites(String outcome, int count) {
+        meterRegistry.counter("subscriptions.invites", "outcome", outcome).increment(count);
+    }
+}
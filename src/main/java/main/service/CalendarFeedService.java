@@ -0,0 +1,95 @@
+package main.service;
+
+import main.calendar.CalendarFeedEntry;
+import main.model.CalendarFeed;
+import main.repository.CalendarFeedRepository;
+import main.repository.EventRepository;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.security.SecureRandom;
+import java.time.LocalDateTime;
+import java.util.Base64;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+// Per-user .ics feed state: a secret token for the URL and a version bumped by every write that changes the feed's content
+@Service
+public class CalendarFeedService {
+
+    private static final int TOKEN_BYTES = 24;
+
+    private final CalendarFeedRepository calendarFeedRepository;
+    private final EventRepository eventRepository;
+    private final SecureRandom random = new SecureRandom();
+
+    public CalendarFeedService(CalendarFeedRepository calendarFeedRepository, EventRepository eventRepository) {
+        this.calendarFeedRepository = calendarFeedRepository;
+        this.eventRepository = eventRepository;
+    }
+
+    @Transactional(readOnly = true)
+    public Optional<CalendarFeed> find(UUID userId) {
+        return calendarFeedRepository.findById(userId);
+    }
+
+    public CalendarFeed getOrCreate(UUID userId) {
+        return calendarFeedRepository.findById(userId).orElseGet(() -> create(userId));
+    }
+
+    public CalendarFeed getByToken(String token) {
+        return calendarFeedRepository.findByToken(token)
+                .orElseThrow(() -> new IllegalArgumentException("Календарът не е намерен"));
+    }
+
+    public List<CalendarFeedEntry> getEntries(UUID userId) {
+        return eventRepository.findCalendarFeedEntries(userId);
+    }
+
+    @Transactional
+    public void touchUser(UUID userId) {
+        calendarFeedRepository.touchUsers(List.of(userId), LocalDateTime.now());
+    }
+
+    @Transactional
+    public void touchUsers(Collection<UUID> userIds) {
+        if (userIds.isEmpty()) {
+            return;
+        }
+        calendarFeedRepository.touchUsers(userIds, LocalDateTime.now());
+    }
+
+    // Has to run before the events' subscriptions are deleted, the audience is looked up through them
+    @Transactional
+    public void touchEventAudience(Collection<UUID> eventIds) {
+        if (eventIds.isEmpty()) {
+            return;
+        }
+        calendarFeedRepository.touchEventAudience(eventIds, LocalDateTime.now());
+    }
+
+    @Transactional
+    public void delete(UUID userId) {
+        calendarFeedRepository.findById(userId).ifPresent(calendarFeedRepository::delete);
+    }
+
+    private CalendarFeed create(UUID userId) {
+        byte[] bytes = new byte[TOKEN_BYTES];
+        random.nextBytes(bytes);
+        CalendarFeed feed = CalendarFeed.builder()
+                .userId(userId)
+                .token(Base64.getUrlEncoder().withoutPadding().encodeToString(bytes))
+                .version(1L)
+                .updatedOn(LocalDateTime.now())
+                .build();
+        try {
+            return calendarFeedRepository.saveAndFlush(feed);
+        } catch (DataIntegrityViolationException e) {
+            // Another request created it first
+            return calendarFeedRepository.findById(userId).orElseThrow(() -> e);
+        }
+    }
+}
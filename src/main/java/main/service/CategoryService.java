@@ -25,15 +25,19 @@ public class CategoryService {
         this.categoryRepository = categoryRepository;
     }
 
+    @Transactional(readOnly = true)
     @Cacheable(value = "categories")
     public List<Category> getAll() {
         return categoryRepository.findAll(Sort.by(Sort.Direction.ASC, "name"));
     }
 
+    // Not read-only: the query is cached, so it must read the primary (see CategoryRepository)
+    @Transactional
     public List<Category> getAllActive() {
         return categoryRepository.findByIsActiveTrue(Sort.by(Sort.Direction.ASC, "name"));
     }
 
+    @Transactional(readOnly = true)
     public Category getActiveById(UUID id) {
         if (id == null) {
             throw new IllegalArgumentException("Идентификаторът на категорията е задължителен");
@@ -71,6 +75,7 @@ public class CategoryService {
         return saved;
     }
 
+    @Transactional(readOnly = true)
     public Long getCount() {
         return categoryRepository.count();
     }
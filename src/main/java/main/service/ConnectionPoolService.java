@@ -0,0 +1,71 @@
+package main.service;
+
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.HikariPoolMXBean;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import main.web.view.ConnectionPoolView;
+import org.springframework.stereotype.Service;
+
+import javax.sql.DataSource;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+@Service
+public class ConnectionPoolService {
+
+    private final List<DataSource> dataSources;
+    private final MeterRegistry meterRegistry;
+
+    public ConnectionPoolService(List<DataSource> dataSources, MeterRegistry meterRegistry) {
+        this.dataSources = dataSources;
+        this.meterRegistry = meterRegistry;
+    }
+
+    // The routing data sources unwrap to the pools behind them, so each pool is listed once under its name
+    public List<ConnectionPoolView> getPools() {
+        Map<String, HikariDataSource> pools = new LinkedHashMap<>();
+        for (DataSource dataSource : dataSources) {
+            HikariDataSource pool = unwrap(dataSource);
+            if (pool != null) {
+                pools.putIfAbsent(pool.getPoolName(), pool);
+            }
+        }
+        List<ConnectionPoolView> views = new ArrayList<>();
+        pools.values().forEach(pool -> views.add(toView(pool)));
+        return views;
+    }
+
+    private ConnectionPoolView toView(HikariDataSource pool) {
+        String name = pool.getPoolName();
+        Timer acquire = meterRegistry.find("hikaricp.connections.acquire").tag("pool", name).timer();
+        Counter timeouts = meterRegistry.find("hikaricp.connections.timeout").tag("pool", name).counter();
+        // A pool only starts with its first connection; until then there is nothing to read from it
+        HikariPoolMXBean stats = pool.getHikariPoolMXBean();
+        return new ConnectionPoolView(
+                name,
+                stats != null,
+                stats != null ? stats.getActiveConnections() : 0,
+                stats != null ? stats.getIdleConnections() : 0,
+                stats != null ? stats.getTotalConnections() : 0,
+                pool.getMaximumPoolSize(),
+                stats != null ? stats.getThreadsAwaitingConnection() : 0,
+                acquire != null ? acquire.mean(TimeUnit.MILLISECONDS) : 0,
+                acquire != null ? acquire.max(TimeUnit.MILLISECONDS) : 0,
+                timeouts != null ? (long) timeouts.count() : 0,
+                pool.getLeakDetectionThreshold());
+    }
+
+    private static HikariDataSource unwrap(DataSource dataSource) {
+        try {
+            return dataSource.isWrapperFor(HikariDataSource.class) ? dataSource.unwrap(HikariDataSource.class) : null;
+        } catch (SQLException e) {
+            return null;
+        }
+    }
+}
@@ -1,18 +1,39 @@
 package main.service;
 
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import main.api.EventApiRow;
+import main.api.EventCursor;
+import main.api.EventPageQuery;
 import main.model.Category;
 import main.model.Event;
 import main.model.Role;
 import main.model.Subscription;
 import main.model.Ticket;
 import main.model.User;
+import main.monitoring.jfr.EventListingJfrEvent;
+import main.monitoring.jfr.SubscriptionJfrEvent;
 import main.repository.EventRepository;
+import main.search.CalendarWindow;
+import main.search.EventCalendarIndex;
+import main.search.EventGeoIndex;
+import main.search.EventSearchIndex;
+import main.search.GeoMatch;
+import main.search.GeoQuery;
+import main.search.MapCluster;
+import main.search.MapViewport;
+import main.web.dto.CalendarEventResponse;
+import main.web.dto.EventPageResponse;
+import main.web.dto.EventResource;
+import main.web.dto.MapClusterResponse;
+import main.web.dto.NearbyEventResponse;
 import main.web.dto.EventCreateRequest;
 import main.web.view.EventView;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.cache.annotation.CacheEvict;
 import org.springframework.cache.annotation.Cacheable;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.validation.BindingResult;
@@ -24,22 +45,42 @@ import java.util.*;
 public class EventService {
 
     private static final Logger logger = LoggerFactory.getLogger(EventService.class);
+    private static final int SEARCH_RESULT_LIMIT = 200;
+    private static final int CALENDAR_RESULT_LIMIT = 500;
+    private static final LocalDateTime BEFORE_ANY_EVENT = LocalDateTime.of(1970, 1, 1, 0, 0);
+    private static final UUID LOWEST_ID = new UUID(0, 0);
 
     private final EventRepository eventRepository;
     private final CategoryService categoryService;
     private final SubscriptionService subscriptionService;
     private final TicketService ticketService;
+    private final EventSearchIndex eventSearchIndex;
+    private final EventGeoIndex eventGeoIndex;
+    private final EventCalendarIndex eventCalendarIndex;
+    private final CalendarFeedService calendarFeedService;
+    private final MeterRegistry meterRegistry;
 
     public EventService(EventRepository eventRepository,
                         CategoryService categoryService,
                         SubscriptionService subscriptionService,
-                        TicketService ticketService) {
+                        TicketService ticketService,
+                        EventSearchIndex eventSearchIndex,
+                        EventGeoIndex eventGeoIndex,
+                        EventCalendarIndex eventCalendarIndex,
+                        CalendarFeedService calendarFeedService,
+                        MeterRegistry meterRegistry) {
         this.eventRepository = eventRepository;
         this.categoryService = categoryService;
         this.subscriptionService = subscriptionService;
         this.ticketService = ticketService;
+        this.eventSearchIndex = eventSearchIndex;
+        this.eventGeoIndex = eventGeoIndex;
+        this.eventCalendarIndex = eventCalendarIndex;
+        this.calendarFeedService = calendarFeedService;
+        this.meterRegistry = meterRegistry;
     }
 
+    @Transactional(readOnly = true)
     @Cacheable(value = "stats", key = "'eventCount'")
     public Long getCount(){
         return eventRepository.count();
@@ -49,6 +90,7 @@ public class EventService {
         return categoryService.getAllActive();
     }
 
+    @Transactional(readOnly = true)
     public Event getById(UUID eventId) {
         return eventRepository.findById(eventId)
                 .orElseThrow(() -> new IllegalArgumentException("Събитието не е намерено"));
@@ -64,6 +106,7 @@ public class EventService {
         }
     }
 
+    @Transactional(readOnly = true)
     public EventCreateRequest buildEditRequest(UUID eventId, User user) {
         Event event = getById(eventId);
         validateEventOwnership(event, user);
@@ -99,30 +142,200 @@ public class EventService {
                 .build();
 
         Event saved = eventRepository.save(event);
+        eventSearchIndex.indexAfterCommit(saved);
+        eventGeoIndex.indexAfterCommit(saved);
+        eventCalendarIndex.indexAfterCommit(saved);
+        calendarFeedService.touchUser(creator.getId());
         logger.info("Event created successfully: {} by user {}", saved.getName(), creator.getEmail());
         return saved;
     }
 
+    @Transactional(readOnly = true)
     public List<EventView> getEventsForListing(UUID userId, UUID categoryFilter) {
+        ListingBuild listing = startListing("upcoming", userId);
         LocalDateTime now = LocalDateTime.now();
         List<Event> events = eventRepository.findUpcomingEvents(now);
         
         events = filterByCategory(events, categoryFilter);
         
         Set<UUID> subscribedEventIds = subscriptionService.getSubscribedEventIds(userId);
-        return convertToEventViews(events, subscribedEventIds);
+        return listing.complete(convertToEventViews(events, subscribedEventIds));
     }
 
+    @Transactional(readOnly = true)
     public List<EventView> getPastEventsForListing(UUID userId, UUID categoryFilter) {
+        ListingBuild listing = startListing("past", userId);
         LocalDateTime now = LocalDateTime.now();
         List<Event> events = eventRepository.findPastEvents(now);
         
         events = filterByCategory(events, categoryFilter);
         
         Set<UUID> subscribedEventIds = subscriptionService.getSubscribedEventIds(userId);
-        return convertToEventViews(events, subscribedEventIds);
+        return listing.complete(convertToEventViews(events, subscribedEventIds));
     }
     
+    @Transactional(readOnly = true)
+    public List<EventView> searchEventsForListing(UUID userId, UUID categoryFilter, String query) {
+        ListingBuild listing = startListing("search", userId);
+        LocalDateTime now = LocalDateTime.now();
+        List<Event> events = new ArrayList<>();
+        for (Event event : findSearchMatches(query)) {
+            if (event.getEndTime() != null && !event.getEndTime().isBefore(now)) {
+                events.add(event);
+            }
+        }
+
+        events = filterByCategory(events, categoryFilter);
+
+        Set<UUID> subscribedEventIds = subscriptionService.getSubscribedEventIds(userId);
+        return listing.complete(convertToEventViews(events, subscribedEventIds));
+    }
+
+    @Transactional(readOnly = true)
+    public List<EventView> searchPastEventsForListing(UUID userId, UUID categoryFilter, String query) {
+        ListingBuild listing = startListing("past-search", userId);
+        LocalDateTime now = LocalDateTime.now();
+        List<Event> events = new ArrayList<>();
+        for (Event event : findSearchMatches(query)) {
+            if (event.getEndTime() != null && event.getEndTime().isBefore(now)) {
+                events.add(event);
+            }
+        }
+
+        events = filterByCategory(events, categoryFilter);
+
+        Set<UUID> subscribedEventIds = subscriptionService.getSubscribedEventIds(userId);
+        return listing.complete(convertToEventViews(events, subscribedEventIds));
+    }
+
+    @Transactional(readOnly = true)
+    public List<EventView> getNearbyEventsForListing(UUID userId, GeoQuery query, String text) {
+        ListingBuild listing = startListing("nearby", userId);
+        List<UUID> nearestIds = eventGeoIndex.findNearby(query).stream().map(GeoMatch::eventId).toList();
+        if (text != null && !text.isBlank()) {
+            Set<UUID> textMatches = new HashSet<>(eventSearchIndex.search(text, Integer.MAX_VALUE));
+            nearestIds = nearestIds.stream().filter(textMatches::contains).toList();
+        }
+        List<Event> events = loadInOrder(nearestIds);
+
+        Set<UUID> subscribedEventIds = subscriptionService.getSubscribedEventIds(userId);
+        return listing.complete(convertToEventViews(events, subscribedEventIds));
+    }
+
+    @Transactional(readOnly = true)
+    public List<NearbyEventResponse> getNearbyEvents(GeoQuery query) {
+        List<GeoMatch> matches = eventGeoIndex.findNearby(query);
+        List<Event> events = loadInOrder(matches.stream().map(GeoMatch::eventId).toList());
+        Map<UUID, Double> distances = new HashMap<>();
+        matches.forEach(match -> distances.put(match.eventId(), match.distanceKm()));
+
+        List<NearbyEventResponse> responses = new ArrayList<>();
+        for (Event event : events) {
+            responses.add(NearbyEventResponse.builder()
+                    .id(event.getId())
+                    .name(event.getName())
+                    .location(event.getLocation())
+                    .latitude(event.getLatitude())
+                    .longitude(event.getLongitude())
+                    .startTime(event.getStartTime())
+                    .endTime(event.getEndTime())
+                    .categoryName(event.getCategory() != null ? event.getCategory().getName() : "")
+                    .distanceKm(Math.round(distances.get(event.getId()) * 100) / 100.0)
+                    .build());
+        }
+        return responses;
+    }
+
+    @Transactional(readOnly = true)
+    public List<EventView> getEventsInWindowForListing(UUID userId, CalendarWindow window, String text) {
+        ListingBuild listing = startListing("calendar-window", userId);
+        List<UUID> ids = eventCalendarIndex.findOverlapping(window, CALENDAR_RESULT_LIMIT);
+        if (text != null && !text.isBlank()) {
+            Set<UUID> textMatches = new HashSet<>(eventSearchIndex.search(text, Integer.MAX_VALUE));
+            ids = ids.stream().filter(textMatches::contains).toList();
+        }
+        List<Event> events = loadInOrder(ids);
+
+        Set<UUID> subscribedEventIds = subscriptionService.getSubscribedEventIds(userId);
+        return listing.complete(convertToEventViews(events, subscribedEventIds));
+    }
+
+    @Transactional(readOnly = true)
+    public List<CalendarEventResponse> getCalendarEvents(CalendarWindow window) {
+        List<CalendarEventResponse> responses = new ArrayList<>();
+        for (Event event : loadInOrder(eventCalendarIndex.findOverlapping(window, CALENDAR_RESULT_LIMIT))) {
+            responses.add(CalendarEventResponse.builder()
+                    .id(event.getId())
+                    .name(event.getName())
+                    .location(event.getLocation())
+                    .startTime(event.getStartTime())
+                    .endTime(event.getEndTime())
+                    .categoryName(event.getCategory() != null ? event.getCategory().getName() : "")
+                    .build());
+        }
+        return responses;
+    }
+
+    // Fetches one row more than the page to know whether there is a next one without a count query
+    @Transactional(readOnly = true)
+    public EventPageResponse getEventPage(UUID userId, EventPageQuery query) {
+        EventCursor after = query.after();
+        List<EventApiRow> rows = eventRepository.findApiPage(LocalDateTime.now(), query.categoryId(),
+                after != null ? after.startTime() : BEFORE_ANY_EVENT,
+                after != null ? after.id() : LOWEST_ID,
+                PageRequest.of(0, query.limit() + 1));
+        boolean hasNext = rows.size() > query.limit();
+        if (hasNext) {
+            rows = rows.subList(0, query.limit());
+        }
+
+        Set<UUID> subscribedEventIds = rows.isEmpty() ? Set.of() : subscriptionService.getSubscribedEventIds(userId);
+        List<EventResource> items = new ArrayList<>(rows.size());
+        for (EventApiRow row : rows) {
+            items.add(toResource(row, subscribedEventIds.contains(row.id())));
+        }
+        return EventPageResponse.builder()
+                .items(items)
+                .nextCursor(hasNext ? EventCursor.after(rows.get(rows.size() - 1)).encode() : null)
+                .build();
+    }
+
+    public List<MapClusterResponse> getMapClusters(MapViewport viewport) {
+        List<MapClusterResponse> responses = new ArrayList<>();
+        for (MapCluster cluster : eventGeoIndex.findClusters(viewport)) {
+            responses.add(MapClusterResponse.builder()
+                    .latitude(Math.round(cluster.latitude() * 100_000) / 100_000.0)
+                    .longitude(Math.round(cluster.longitude() * 100_000) / 100_000.0)
+                    .count(cluster.count())
+                    .eventId(cluster.eventId())
+                    .build());
+        }
+        return responses;
+    }
+
+    private List<Event> findSearchMatches(String query) {
+        return loadInOrder(eventSearchIndex.search(query, SEARCH_RESULT_LIMIT));
+    }
+
+    // Loads the hits in one query and restores the index order, which findAllById does not keep
+    private List<Event> loadInOrder(List<UUID> rankedIds) {
+        if (rankedIds.isEmpty()) {
+            return new ArrayList<>();
+        }
+        Map<UUID, Event> eventsById = new HashMap<>();
+        for (Event event : eventRepository.findAllById(rankedIds)) {
+            eventsById.put(event.getId(), event);
+        }
+        List<Event> events = new ArrayList<>();
+        for (UUID id : rankedIds) {
+            Event event = eventsById.get(id);
+            if (event != null) {
+                events.add(event);
+            }
+        }
+        return events;
+    }
+
     private List<Event> filterByCategory(List<Event> events, UUID categoryFilter) {
         if (categoryFilter == null) {
             return events;
@@ -194,16 +407,28 @@ public class EventService {
     }
     
     private List<EventView> convertToEventViews(List<Event> events, Set<UUID> subscribedEventIds) {
+        Map<UUID, Long> registeredCounts = countRegistrations(events);
         List<EventView> views = new java.util.ArrayList<>();
         for (Event event : events) {
             boolean isSubscribed = subscribedEventIds.contains(event.getId());
-            EventView view = toView(event, isSubscribed, null);
+            EventView view = toView(event, isSubscribed, null, registeredCounts);
             views.add(view);
         }
         return views;
     }
 
+    // One grouped count for the whole list instead of a count query per card
+    private Map<UUID, Long> countRegistrations(List<Event> events) {
+        List<UUID> eventIds = new ArrayList<>(events.size());
+        for (Event event : events) {
+            eventIds.add(event.getId());
+        }
+        return subscriptionService.countByEvents(eventIds);
+    }
+
+    @Transactional(readOnly = true)
     public List<EventView> getCreatedEvents(UUID userId) {
+        ListingBuild listing = startListing("created", userId);
         List<Event> allEvents = eventRepository.findAll();
         LocalDateTime now = LocalDateTime.now();
         
@@ -219,14 +444,17 @@ public class EventService {
         
         sortEventsByStartTimeAscending(upcomingEvents);
         
+        Map<UUID, Long> registeredCounts = countRegistrations(upcomingEvents);
         List<EventView> views = new ArrayList<>();
         for (Event event : upcomingEvents) {
-            views.add(toView(event, false, null));
+            views.add(toView(event, false, null, registeredCounts));
         }
-        return views;
+        return listing.complete(views);
     }
 
+    @Transactional(readOnly = true)
     public List<EventView> getPastCreatedEvents(UUID userId) {
+        ListingBuild listing = startListing("past-created", userId);
         List<Event> allEvents = eventRepository.findAll();
         LocalDateTime now = LocalDateTime.now();
         
@@ -242,14 +470,17 @@ public class EventService {
         
         sortEventsByStartTimeDescending(pastEvents);
         
+        Map<UUID, Long> registeredCounts = countRegistrations(pastEvents);
         List<EventView> views = new java.util.ArrayList<>();
         for (Event event : pastEvents) {
-            views.add(toView(event, false, null));
+            views.add(toView(event, false, null, registeredCounts));
         }
-        return views;
+        return listing.complete(views);
     }
 
+    @Transactional(readOnly = true)
     public List<EventView> getSubscribedEvents(UUID userId) {
+        ListingBuild listing = startListing("subscribed", userId);
         List<Subscription> subscriptions = subscriptionService.findByUserId(userId);
         LocalDateTime now = LocalDateTime.now();
         
@@ -268,16 +499,19 @@ public class EventService {
         
         sortEventsByStartTimeAscending(upcomingEvents);
         
+        Map<UUID, Long> registeredCounts = countRegistrations(upcomingEvents);
         List<EventView> views = new ArrayList<>();
         for (Event event : upcomingEvents) {
             Ticket ticket = ticketsByEventId.get(event.getId());
             String ticketCode = ticket != null ? ticket.getCode() : null;
-            views.add(toView(event, true, ticketCode));
+            views.add(toView(event, true, ticketCode, registeredCounts));
         }
-        return views;
+        return listing.complete(views);
     }
 
+    @Transactional(readOnly = true)
     public List<EventView> getPastSubscribedEvents(UUID userId) {
+        ListingBuild listing = startListing("past-subscribed", userId);
         List<Subscription> subscriptions = subscriptionService.findByUserId(userId);
         LocalDateTime now = LocalDateTime.now();
         
@@ -296,52 +530,76 @@ public class EventService {
         
         sortEventsByStartTimeDescending(pastEvents);
         
+        Map<UUID, Long> registeredCounts = countRegistrations(pastEvents);
         List<EventView> views = new ArrayList<>();
         for (Event event : pastEvents) {
             Ticket ticket = ticketsByEventId.get(event.getId());
             String ticketCode = ticket != null ? ticket.getCode() : null;
-            views.add(toView(event, true, ticketCode));
+            views.add(toView(event, true, ticketCode, registeredCounts));
         }
-        return views;
+        return listing.complete(views);
     }
 
     @Transactional
     public boolean subscribeUserToEvent(UUID eventId, User user) {
-        Event event = eventRepository.findById(eventId)
-                .orElseThrow(() -> new IllegalArgumentException("Събитието не е намерено"));
-
-        if (event.getCreator() != null && event.getCreator().getId().equals(user.getId())) {
-            throw new IllegalStateException("OWN_EVENT");
-        }
+        SubscriptionJfrEvent recorded = SubscriptionJfrEvent.start("subscribe", eventId, user.getId());
+        String outcome = "error";
+        try {
+            // Same row lock as a bulk invite, so every capacity check on this event runs one at a time
+            Event event = eventRepository.findByIdForUpdate(eventId)
+                    .orElseThrow(() -> new IllegalArgumentException("Събитието не е намерено"));
+
+            if (event.getCreator() != null && event.getCreator().getId().equals(user.getId())) {
+                outcome = "own-event";
+                throw new IllegalStateException("OWN_EVENT");
+            }
 
-        if (subscriptionService.existsByUserAndEvent(user.getId(), eventId)) {
-            return false;
-        }
+            if (subscriptionService.existsByUserAndEvent(user.getId(), eventId)) {
+                outcome = "duplicate";
+                return false;
+            }
 
-        if (event.getCapacity() != null) {
-            long currentSubscriptions = subscriptionService.countByEvent(eventId);
-            if (currentSubscriptions >= event.getCapacity()) {
-                throw new IllegalStateException("FULL");
+            if (event.getCapacity() != null) {
+                long currentSubscriptions = subscriptionService.countByEvent(eventId);
+                if (currentSubscriptions >= event.getCapacity()) {
+                    outcome = "full";
+                    throw new IllegalStateException("FULL");
+                }
             }
-        }
 
-        subscriptionService.create(user, event);
-        logger.info("User {} subscribed to event {}", user.getEmail(), event.getName());
-        return true;
+            subscriptionService.create(user, event);
+            calendarFeedService.touchUser(user.getId());
+            logger.info("User {} subscribed to event {}", user.getEmail(), event.getName());
+            outcome = "subscribed";
+            return true;
+        } finally {
+            recorded.complete(outcome, outcome.equals("subscribed") ? 1 : 0);
+            countSubscriptionOutcome("subscribe", outcome);
+        }
     }
 
     @Transactional
     public boolean unsubscribeUserFromEvent(UUID eventId, User user) {
-        Event event = eventRepository.findById(eventId)
-                .orElseThrow(() -> new IllegalArgumentException("Събитието не е намерено"));
+        SubscriptionJfrEvent recorded = SubscriptionJfrEvent.start("unsubscribe", eventId, user.getId());
+        String outcome = "error";
+        try {
+            Event event = eventRepository.findById(eventId)
+                    .orElseThrow(() -> new IllegalArgumentException("Събитието не е намерено"));
+
+            if (!subscriptionService.existsByUserAndEvent(user.getId(), eventId)) {
+                outcome = "not-subscribed";
+                return false;
+            }
 
-        if (!subscriptionService.existsByUserAndEvent(user.getId(), eventId)) {
-            return false;
+            subscriptionService.deleteByUserAndEvent(user.getId(), eventId);
+            calendarFeedService.touchUser(user.getId());
+            logger.info("User {} unsubscribed from event {}", user.getEmail(), event.getName());
+            outcome = "unsubscribed";
+            return true;
+        } finally {
+            recorded.complete(outcome, outcome.equals("unsubscribed") ? 1 : 0);
+            countSubscriptionOutcome("unsubscribe", outcome);
         }
-
-        subscriptionService.deleteByUserAndEvent(user.getId(), eventId);
-        logger.info("User {} unsubscribed from event {}", user.getEmail(), event.getName());
-        return true;
     }
 
     @Transactional
@@ -361,6 +619,10 @@ public class EventService {
         copyRequestToEvent(request, event, category);
 
         Event updated = eventRepository.save(event);
+        eventSearchIndex.indexAfterCommit(updated);
+        eventGeoIndex.indexAfterCommit(updated);
+        eventCalendarIndex.indexAfterCommit(updated);
+        calendarFeedService.touchEventAudience(List.of(eventId));
         logger.info("Event updated successfully: {} by user {}", updated.getName(), user.getEmail());
     }
 
@@ -379,43 +641,112 @@ public class EventService {
 
         String eventName = event.getName();
         
+        calendarFeedService.touchEventAudience(List.of(eventId));
         subscriptionService.deleteAllByEventId(eventId);
         eventRepository.delete(event);
+        eventSearchIndex.removeAfterCommit(List.of(eventId));
+        eventGeoIndex.removeAfterCommit(List.of(eventId));
+        eventCalendarIndex.removeAfterCommit(List.of(eventId));
         logger.info("Event deleted successfully: {} by user {}", eventName, user.getEmail());
     }
 
     @Transactional
     @CacheEvict(value = {"events", "stats"}, allEntries = true)
-    public void deleteAllByCreatorId(UUID creatorId) {
-        List<Event> events = eventRepository.findByCreatorId(creatorId);
-        for (Event event : events) {
-            subscriptionService.deleteAllByEventId(event.getId());
-            eventRepository.delete(event);
-            logger.info("Event deleted as part of user cleanup: {}", event.getName());
+    public int deleteChunkByCreatorId(UUID creatorId, int chunkSize) {
+        List<UUID> eventIds = eventRepository.findIdsByCreatorId(creatorId, PageRequest.of(0, chunkSize));
+        if (eventIds.isEmpty()) {
+            return 0;
         }
+        calendarFeedService.touchEventAudience(eventIds);
+        subscriptionService.deleteAllByEventIds(eventIds);
+        int deleted = eventRepository.deleteByIdIn(eventIds);
+        eventSearchIndex.removeAfterCommit(eventIds);
+        eventGeoIndex.removeAfterCommit(eventIds);
+        eventCalendarIndex.removeAfterCommit(eventIds);
+        logger.info("Deleted {} events as part of user cleanup for creator {}", deleted, creatorId);
+        return deleted;
     }
 
     @Transactional
     public int deleteEventsOlderThanDays(int days) {
         LocalDateTime cutoffDate = LocalDateTime.now().minusDays(days);
         List<Event> oldEvents = eventRepository.findEventsOlderThan(cutoffDate);
+        calendarFeedService.touchEventAudience(oldEvents.stream().map(Event::getId).toList());
         
         int deletedCount = 0;
+        List<UUID> deletedIds = new ArrayList<>();
         for (Event event : oldEvents) {
             subscriptionService.deleteAllByEventId(event.getId());
             eventRepository.delete(event);
+            deletedIds.add(event.getId());
             deletedCount++;
         }
+        eventSearchIndex.removeAfterCommit(deletedIds);
+        eventGeoIndex.removeAfterCommit(deletedIds);
+        eventCalendarIndex.removeAfterCommit(deletedIds);
         
         return deletedCount;
     }
 
-    private EventView toView(Event event, boolean subscribed, String ticketCode) {
+    private void countSubscriptionOutcome(String action, String outcome) {
+        meterRegistry.counter("events.subscription.requests", "action", action, "outcome", outcome).increment();
+    }
+
+    private ListingBuild startListing(String listing, UUID userId) {
+        return new ListingBuild(listing, EventListingJfrEvent.start(listing, userId), Timer.start(meterRegistry));
+    }
+
+    // Times one listing build as a JFR event and as a timer per listing; builders end with return listing.complete(views)
+    private final class ListingBuild {
+
+        private final String listing;
+        private final EventListingJfrEvent recorded;
+        private final Timer.Sample sample;
+
+        private ListingBuild(String listing, EventListingJfrEvent recorded, Timer.Sample sample) {
+            this.listing = listing;
+            this.recorded = recorded;
+            this.sample = sample;
+        }
+
+        private List<EventView> complete(List<EventView> views) {
+            sample.stop(Timer.builder("events.listing.build")
+                    .description("Time to build the event cards of one listing")
+                    .tag("listing", listing)
+                    .register(meterRegistry));
+            return recorded.complete(views);
+        }
+    }
+
+    private EventResource toResource(EventApiRow row, boolean subscribed) {
+        Long remaining = row.capacity() != null ? Math.max(0, row.capacity() - row.registeredCount()) : null;
+        return EventResource.builder()
+                .id(row.id())
+                .name(row.name())
+                .description(row.description())
+                .location(row.location())
+                .latitude(row.latitude())
+                .longitude(row.longitude())
+                .imageName(row.imageName())
+                .startTime(row.startTime())
+                .endTime(row.endTime())
+                .capacity(row.capacity())
+                .remainingCapacity(remaining)
+                .registeredCount(row.registeredCount())
+                .full(remaining != null && remaining <= 0)
+                .categoryName(row.categoryName() != null ? row.categoryName() : "")
+                .creatorId(row.creatorId())
+                .creatorName(row.creatorName() != null ? row.creatorName() : "")
+                .subscribed(subscribed)
+                .build();
+    }
+
+    private EventView toView(Event event, boolean subscribed, String ticketCode, Map<UUID, Long> registeredCounts) {
         String categoryName = event.getCategory() != null ? event.getCategory().getName() : "";
         User creator = event.getCreator();
         UUID creatorId = creator != null ? creator.getId() : null;
         String creatorName = creator != null ? creator.getUsername() : "";
-        long registeredCount = subscriptionService.countByEvent(event.getId());
+        long registeredCount = registeredCounts.getOrDefault(event.getId(), 0L);
         long remaining = event.getCapacity() != null ? Math.max(0, event.getCapacity() - registeredCount) : Long.MAX_VALUE;
         boolean full = event.getCapacity() != null && remaining <= 0;
 
@@ -4,6 +4,7 @@ import com.google.zxing.BarcodeFormat;
 import com.google.zxing.WriterException;
 import com.google.zxing.common.BitMatrix;
 import com.google.zxing.qrcode.QRCodeWriter;
+import main.monitoring.jfr.QrCodeJfrEvent;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.stereotype.Service;
@@ -22,13 +23,14 @@ public class QrCodeService {
     private static final int DEFAULT_SIZE = 320;
 
     public byte[] generatePng(String data) {
+        QrCodeJfrEvent recorded = QrCodeJfrEvent.start(DEFAULT_SIZE);
         try {
             QRCodeWriter writer = new QRCodeWriter();
             BitMatrix bitMatrix = writer.encode(data, BarcodeFormat.QR_CODE, DEFAULT_SIZE, DEFAULT_SIZE);
             BufferedImage image = toBufferedImage(bitMatrix);
             ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
             ImageIO.write(image, "PNG", outputStream);
-            return outputStream.toByteArray();
+            return recorded.complete(outputStream.toByteArray());
         } catch (WriterException | IOException ex) {
             logger.error("Failed to generate QR code", ex);
             throw new IllegalStateException("Неуспешно генериране на QR код", ex);
@@ -1,21 +1,34 @@
 package main.service;
 
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import main.model.Event;
 import main.client.RatingClient;
+import main.monitoring.RequestTimings;
+import main.monitoring.jfr.RatingFanOutJfrEvent;
 import main.web.dto.EventRatingSummaryResponse;
 import main.web.dto.RatingRequest;
 import main.web.dto.RatingResponse;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.core.env.Environment;
+import org.springframework.core.task.AsyncTaskExecutor;
 import org.springframework.stereotype.Service;
 import feign.FeignException;
 
 import java.time.LocalDateTime;
 import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.UUID;
-import java.util.stream.Collectors;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Function;
+import java.util.function.Supplier;
 
 @Service
 public class RatingService {
@@ -24,11 +37,27 @@ public class RatingService {
     private final RatingClient ratingClient;
     private final EventService eventService;
     private final SubscriptionService subscriptionService;
+    private final AsyncTaskExecutor fanOutExecutor;
+    private final boolean parallelFanOut;
+    private final MeterRegistry meterRegistry;
+
+    // Fanning out onto the small shared platform pool would queue behind other requests, so it is only done on virtual threads
+    @Autowired
+    public RatingService(RatingClient ratingClient, EventService eventService, SubscriptionService subscriptionService,
+                         @Qualifier("applicationTaskExecutor") AsyncTaskExecutor fanOutExecutor, Environment environment,
+                         MeterRegistry meterRegistry) {
+        this(ratingClient, eventService, subscriptionService, fanOutExecutor, Threading.VIRTUAL.isActive(environment),
+                meterRegistry);
+    }
 
-    public RatingService(RatingClient ratingClient, EventService eventService, SubscriptionService subscriptionService) {
+    RatingService(RatingClient ratingClient, EventService eventService, SubscriptionService subscriptionService,
+                  AsyncTaskExecutor fanOutExecutor, boolean parallelFanOut, MeterRegistry meterRegistry) {
         this.ratingClient = ratingClient;
         this.eventService = eventService;
         this.subscriptionService = subscriptionService;
+        this.fanOutExecutor = fanOutExecutor;
+        this.parallelFanOut = parallelFanOut;
+        this.meterRegistry = meterRegistry;
     }
 
     public RatingResponse createRating(UUID eventId, UUID userId, Integer score) {
@@ -48,7 +77,8 @@ public class RatingService {
         request.setScore(score);
 
         try {
-            RatingResponse response = ratingClient.createRating(request).getBody();
+            RatingResponse response = callRatingService("create",
+                    () -> ratingClient.createRating(request)).getBody();
             logger.info("Rating created successfully for event {} by user {}", eventId, userId);
             return response;
         } catch (FeignException e) {
@@ -64,9 +94,11 @@ public class RatingService {
 
     public EventRatingSummaryResponse getRatingsForEvent(UUID eventId) {
         try {
-            return ratingClient.getRatingsForEvent(eventId).getBody();
+            return callRatingService("summary",
+                    () -> ratingClient.getRatingsForEvent(eventId)).getBody();
         } catch (Exception e) {
             logger.error("Error fetching ratings for event {}", eventId, e);
+            countFallback("summary");
             return createEmptyRatingSummary(eventId);
         }
     }
@@ -82,22 +114,68 @@ public class RatingService {
 
     public boolean hasUserRated(UUID eventId, UUID userId) {
         try {
-            Boolean result = ratingClient.hasUserRated(eventId, userId).getBody();
+            Boolean result = callRatingService("has-rated",
+                    () -> ratingClient.hasUserRated(eventId, userId)).getBody();
             return result != null && result;
         } catch (Exception e) {
             logger.error("Error checking if user {} has rated event {}", userId, eventId, e);
+            countFallback("has-rated");
             return false;
         }
     }
 
+    // Latency of every remote call, failed ones included, tagged so a slow or failing rating service stands out
+    private <T> T callRatingService(String call, Supplier<T> request) {
+        Timer.Sample sample = Timer.start(meterRegistry);
+        String outcome = "error";
+        try {
+            T response = RequestTimings.time(RequestTimings.Part.RATING, request);
+            outcome = "success";
+            return response;
+        } finally {
+            sample.stop(Timer.builder("rating.client.requests")
+                    .description("Calls to the rating service")
+                    .tag("call", call)
+                    .tag("outcome", outcome)
+                    .register(meterRegistry));
+        }
+    }
+
+    private void countFallback(String call) {
+        meterRegistry.counter("rating.client.fallbacks", "call", call).increment();
+    }
+
     public Map<UUID, EventRatingSummaryResponse> getRatingsForEvents(List<UUID> eventIds) {
-        return eventIds.stream()
-                .collect(Collectors.toMap(eventId -> eventId, this::getRatingsForEvent));
+        return fanOut("ratings", null, eventIds, this::getRatingsForEvent);
     }
 
     public Map<UUID, Boolean> getHasRatedMapForEvents(List<UUID> eventIds, UUID userId) {
-        return eventIds.stream()
-                .collect(Collectors.toMap(eventId -> eventId, eventId -> hasUserRated(eventId, userId)));
+        return fanOut("has-rated", userId, eventIds, eventId -> hasUserRated(eventId, userId));
+    }
+
+    // The per-event calls handle their own failures, so joining never throws for a rating-service error
+    private <T> Map<UUID, T> fanOut(String callName, UUID userId, List<UUID> eventIds, Function<UUID, T> call) {
+        boolean parallel = parallelFanOut && eventIds.size() > 1;
+        RatingFanOutJfrEvent recorded = RatingFanOutJfrEvent.start(callName, userId, eventIds.size(), parallel);
+        try {
+            Map<UUID, T> result = new HashMap<>();
+            if (!parallel) {
+                eventIds.forEach(eventId -> result.put(eventId, call.apply(eventId)));
+                return result;
+            }
+
+            // The calls run on other threads, so the request's rating time is the wait for all of them
+            return RequestTimings.time(RequestTimings.Part.RATING, () -> {
+                Map<UUID, CompletableFuture<T>> pending = new LinkedHashMap<>();
+                for (UUID eventId : eventIds) {
+                    pending.computeIfAbsent(eventId, id -> CompletableFuture.supplyAsync(() -> call.apply(id), fanOutExecutor));
+                }
+                pending.forEach((eventId, future) -> result.put(eventId, future.join()));
+                return result;
+            });
+        } finally {
+            recorded.complete();
+        }
     }
 }
 
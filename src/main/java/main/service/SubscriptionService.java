@@ -1,52 +1,74 @@
 package main.service;
 
+import io.micrometer.core.instrument.MeterRegistry;
 import main.model.Event;
 import main.model.Subscription;
 import main.model.User;
 import main.repository.SubscriptionRepository;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
-import java.util.Objects;
+import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
 import java.util.UUID;
-import java.util.stream.Collectors;
 
 @Service
 public class SubscriptionService {
 
     private final SubscriptionRepository subscriptionRepository;
     private final TicketService ticketService;
+    private final MeterRegistry meterRegistry;
 
     public SubscriptionService(SubscriptionRepository subscriptionRepository,
-                               TicketService ticketService) {
+                               TicketService ticketService,
+                               MeterRegistry meterRegistry) {
         this.subscriptionRepository = subscriptionRepository;
         this.ticketService = ticketService;
+        this.meterRegistry = meterRegistry;
     }
 
+    @Transactional(readOnly = true)
     public List<Subscription> findByUserId(UUID id) {
         return subscriptionRepository.findByUserId(id);
     }
 
+    // Only the ids, so the subscribed events are not loaded one by one
+    @Transactional(readOnly = true)
     public Set<UUID> getSubscribedEventIds(UUID userId) {
-        return subscriptionRepository.findByUserId(userId).stream()
-                .map(Subscription::getEvent)
-                .filter(Objects::nonNull)
-                .map(Event::getId)
-                .collect(Collectors.toSet());
+        return new HashSet<>(subscriptionRepository.findEventIdsByUserId(userId));
     }
 
+    @Transactional(readOnly = true)
     public boolean existsByUserAndEvent(UUID userId, UUID eventId) {
         return subscriptionRepository.existsByUserIdAndEventId(userId, eventId);
     }
 
+    @Transactional(readOnly = true)
     public long countByEvent(UUID eventId) {
         return subscriptionRepository.countByEventId(eventId);
     }
 
+    // Events without subscriptions are left out of the map
+    @Transactional(readOnly = true)
+    public Map<UUID, Long> countByEvents(Collection<UUID> eventIds) {
+        if (eventIds.isEmpty()) {
+            return Map.of();
+        }
+        Map<UUID, Long> counts = new HashMap<>();
+        for (Object[] row : subscriptionRepository.countByEventIdIn(eventIds)) {
+            counts.put((UUID) row[0], (Long) row[1]);
+        }
+        return counts;
+    }
+
+    @Transactional(readOnly = true)
     public List<Subscription> findByEventId(UUID eventId) {
         return subscriptionRepository.findByEventId(eventId);
     }
@@ -66,14 +88,17 @@ public class SubscriptionService {
                 .build();
         Subscription saved = subscriptionRepository.save(subscription);
         ticketService.issueTicket(saved);
+        meterRegistry.counter("subscriptions.created").increment();
         return saved;
     }
 
+    @Transactional
     public void deleteByUserAndEvent(UUID userId, UUID eventId) {
         Optional<Subscription> subscription = subscriptionRepository.findByUserIdAndEventId(userId, eventId);
         subscription.ifPresent(value -> {
             ticketService.deleteBySubscriptionId(value.getId());
             subscriptionRepository.delete(value);
+            countDeleted("unsubscribe", 1);
         });
     }
 
@@ -82,14 +107,34 @@ public class SubscriptionService {
         subscriptionRepository.findByEventId(eventId).forEach(subscription -> {
             ticketService.deleteBySubscriptionId(subscription.getId());
             subscriptionRepository.delete(subscription);
+            countDeleted("event-deleted", 1);
         });
     }
 
     @Transactional
-    public void deleteAllByUserId(UUID userId) {
-        subscriptionRepository.findByUserId(userId).forEach(subscription -> {
-            ticketService.deleteBySubscriptionId(subscription.getId());
-            subscriptionRepository.delete(subscription);
-        });
+    public int deleteAllByEventIds(Collection<UUID> eventIds) {
+        if (eventIds.isEmpty()) {
+            return 0;
+        }
+        ticketService.deleteByEventIds(eventIds);
+        int deleted = subscriptionRepository.deleteByEventIdIn(eventIds);
+        countDeleted("event-deleted", deleted);
+        return deleted;
+    }
+
+    @Transactional
+    public int deleteChunkByUserId(UUID userId, int chunkSize) {
+        List<UUID> subscriptionIds = subscriptionRepository.findIdsByUserId(userId, PageRequest.of(0, chunkSize));
+        if (subscriptionIds.isEmpty()) {
+            return 0;
+        }
+        ticketService.deleteBySubscriptionIds(subscriptionIds);
+        int deleted = subscriptionRepository.deleteByIdIn(subscriptionIds);
+        countDeleted("user-deleted", deleted);
+        return deleted;
+    }
+
+    private void countDeleted(String reason, int deleted) {
+        meterRegistry.counter("subscriptions.deleted", "reason", reason).increment(deleted);
     }
 }
@@ -1,5 +1,7 @@
 package main.service;
 
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import main.model.Role;
 import main.model.Subscription;
 import main.model.Ticket;
@@ -11,6 +13,7 @@ import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
@@ -23,23 +26,47 @@ public class TicketService {
     private static final Logger logger = LoggerFactory.getLogger(TicketService.class);
 
     private final TicketRepository ticketRepository;
+    private final MeterRegistry meterRegistry;
 
-    public TicketService(TicketRepository ticketRepository) {
+    public TicketService(TicketRepository ticketRepository, MeterRegistry meterRegistry) {
         this.ticketRepository = ticketRepository;
+        this.meterRegistry = meterRegistry;
     }
 
+    // The timers include the flush, so they measure the INSERTs and not only handing the entities to Hibernate
     @Transactional
     public void issueTicket(Subscription subscription) {
+        Timer.Sample sample = Timer.start(meterRegistry);
         String code = UUID.randomUUID().toString();
         Ticket ticket = Ticket.builder()
                 .subscription(subscription)
                 .code(code)
                 .issuedAt(LocalDateTime.now())
                 .build();
-        ticketRepository.save(ticket);
+        ticketRepository.saveAndFlush(ticket);
+        sample.stop(meterRegistry.timer("tickets.issue"));
         logger.info("Ticket issued for subscription {} with code {}", subscription.getId(), ticket.getCode());
     }
 
+    // One ticket per subscription, saved together so they go out in the same JDBC batches
+    @Transactional
+    public void issueTickets(Collection<Subscription> subscriptions) {
+        Timer.Sample sample = Timer.start(meterRegistry);
+        LocalDateTime now = LocalDateTime.now();
+        List<Ticket> tickets = subscriptions.stream()
+                .map(subscription -> Ticket.builder()
+                        .subscription(subscription)
+                        .code(UUID.randomUUID().toString())
+                        .issuedAt(now)
+                        .build())
+                .toList();
+        ticketRepository.saveAll(tickets);
+        ticketRepository.flush();
+        sample.stop(meterRegistry.timer("tickets.issue.bulk"));
+        logger.info("{} tickets issued", tickets.size());
+    }
+
+    @Transactional(readOnly = true)
     public Map<UUID, Ticket> getTicketsForUser(UUID userId) {
         List<Ticket> tickets = ticketRepository.findByUserId(userId);
         return tickets.stream()
@@ -48,10 +75,12 @@ public class TicketService {
 
 
 
+    @Transactional(readOnly = true)
     public Optional<Ticket> findWithDetailsByCode(String code) {
         return ticketRepository.findWithDetailsByCode(code);
     }
 
+    @Transactional(readOnly = true)
     public Ticket getTicketForQr(String code, User requester) {
         Ticket ticket = findWithDetailsByCode(code)
                 .orElseThrow(() -> new IllegalArgumentException("Билетът не беше намерен"));
@@ -72,5 +101,21 @@ public class TicketService {
     public void deleteBySubscriptionId(UUID subscriptionId) {
         ticketRepository.deleteBySubscriptionId(subscriptionId);
     }
+
+    @Transactional
+    public int deleteBySubscriptionIds(Collection<UUID> subscriptionIds) {
+        if (subscriptionIds.isEmpty()) {
+            return 0;
+        }
+        return ticketRepository.deleteBySubscriptionIdIn(subscriptionIds);
+    }
+
+    @Transactional
+    public int deleteByEventIds(Collection<UUID> eventIds) {
+        if (eventIds.isEmpty()) {
+            return 0;
+        }
+        return ticketRepository.deleteByEventIdIn(eventIds);
+    }
 }
 
@@ -0,0 +1,159 @@
+package main.service;
+
+import main.datasource.BatchWorkload;
+import main.model.User;
+import main.monitoring.jfr.CleanupJfrEvent;
+import main.repository.UserRepository;
+import main.web.dto.UserDeletionStatusResponse;
+import main.web.dto.UserDeletionStatusResponse.Status;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.UnaryOperator;
+
+// Both deletion paths share one in-progress guard per user. Only queued deletions keep a status for the admin page,
+// and a finished status is dropped once the retention period has passed.
+@Service
+public class UserCleanupService {
+
+    private static final Logger logger = LoggerFactory.getLogger(UserCleanupService.class);
+
+    private final UserRepository userRepository;
+    private final SubscriptionService subscriptionService;
+    private final EventService eventService;
+    private final CalendarFeedService calendarFeedService;
+    private final int chunkSize;
+    private final Duration statusRetention;
+    private final Set<UUID> inProgress = ConcurrentHashMap.newKeySet();
+    private final Map<UUID, UserDeletionStatusResponse> statuses = new ConcurrentHashMap<>();
+
+    public UserCleanupService(UserRepository userRepository,
+                              SubscriptionService subscriptionService,
+                              EventService eventService,
+                              CalendarFeedService calendarFeedService,
+                              @Value("${user.cleanup.chunk-size:500}") int chunkSize,
+                              @Value("${user.cleanup.status-retention:1h}") Duration statusRetention) {
+        this.userRepository = userRepository;
+        this.subscriptionService = subscriptionService;
+        this.eventService = eventService;
+        this.calendarFeedService = calendarFeedService;
+        this.chunkSize = chunkSize;
+        this.statusRetention = statusRetention;
+    }
+
+    public UserDeletionStatusResponse markQueued(UUID userId) {
+        begin(userId);
+        UserDeletionStatusResponse queued = UserDeletionStatusResponse.builder()
+                .userId(userId)
+                .status(Status.QUEUED)
+                .build();
+        statuses.put(userId, queued);
+        return queued;
+    }
+
+    public Optional<UserDeletionStatusResponse> getStatus(UUID userId) {
+        return Optional.ofNullable(statuses.get(userId));
+    }
+
+    // Runs as batch work, so the chunks draw from the batch pool instead of the one web requests use
+    @Async
+    public void purgeAsync(User user) {
+        BatchWorkload.wrap(() -> {
+            try {
+                delete(user, true);
+            } catch (RuntimeException e) {
+                logger.error("Asynchronous cleanup failed for user {}", user.getId(), e);
+            } finally {
+                inProgress.remove(user.getId());
+            }
+        }).run();
+    }
+
+    public void purge(User user) {
+        begin(user.getId());
+        try {
+            delete(user, false);
+        } finally {
+            inProgress.remove(user.getId());
+        }
+    }
+
+    public int pruneFinishedStatuses() {
+        LocalDateTime cutoff = LocalDateTime.now().minus(statusRetention);
+        int pruned = 0;
+        for (UserDeletionStatusResponse status : statuses.values()) {
+            // Conditional remove, so a deletion queued again for the same user in the meantime is kept
+            if (!status.isInProgress() && status.getFinishedOn() != null && !status.getFinishedOn().isAfter(cutoff)
+                    && statuses.remove(status.getUserId(), status)) {
+                pruned++;
+            }
+        }
+        return pruned;
+    }
+
+    private void begin(UUID userId) {
+        if (!inProgress.add(userId)) {
+            throw new IllegalStateException("Изтриването на този потребител вече е започнало");
+        }
+    }
+
+    // Every chunk runs in its own transaction, so a large cascade never holds one long-running transaction.
+    private void delete(User user, boolean tracked) {
+        UUID userId = user.getId();
+        track(tracked, userId, status -> status.toBuilder()
+                .status(Status.RUNNING)
+                .startedOn(LocalDateTime.now())
+                .build());
+
+        CleanupJfrEvent recorded = CleanupJfrEvent.start("user-purge", userId);
+        long deletedSubscriptions = 0;
+        long deletedEvents = 0;
+        try {
+            int deleted;
+            while ((deleted = subscriptionService.deleteChunkByUserId(userId, chunkSize)) > 0) {
+                deletedSubscriptions += deleted;
+                long total = deletedSubscriptions;
+                track(tracked, userId, status -> status.toBuilder().deletedSubscriptions(total).build());
+            }
+
+            while ((deleted = eventService.deleteChunkByCreatorId(userId, chunkSize)) > 0) {
+                deletedEvents += deleted;
+                long total = deletedEvents;
+                track(tracked, userId, status -> status.toBuilder().deletedEvents(total).build());
+            }
+
+            calendarFeedService.delete(userId);
+            userRepository.delete(user);
+            track(tracked, userId, status -> status.toBuilder()
+                    .status(Status.COMPLETED)
+                    .finishedOn(LocalDateTime.now())
+                    .build());
+            recorded.complete(deletedEvents, deletedSubscriptions, true);
+            logger.info("User {} deleted with {} subscriptions and {} events", user.getEmail(), deletedSubscriptions, deletedEvents);
+        } catch (RuntimeException e) {
+            track(tracked, userId, status -> status.toBuilder()
+                    .status(Status.FAILED)
+                    .finishedOn(LocalDateTime.now())
+                    .errorMessage(e.getMessage())
+                    .build());
+            recorded.complete(deletedEvents, deletedSubscriptions, false);
+            throw e;
+        }
+    }
+
+    private void track(boolean tracked, UUID userId, UnaryOperator<UserDeletionStatusResponse> change) {
+        if (tracked) {
+            statuses.computeIfPresent(userId, (id, status) -> change.apply(status));
+        }
+    }
+}
@@ -7,16 +7,20 @@ import main.model.Role;
 import main.model.User;
 import main.repository.UserRepository;
 import main.web.dto.RegisterRequest;
+import main.web.dto.UserDeletionStatusResponse;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.security.access.AccessDeniedException;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Optional;
 import java.util.UUID;
 
 @Service
@@ -26,51 +30,58 @@ public class UserService {
 
     private final UserRepository userRepository;
     private final PasswordEncoder passwordEncoder;
-    private final EventService eventService;
-    private final SubscriptionService subscriptionService;
+    private final BootstrapService bootstrapService;
+    private final UserCleanupService userCleanupService;
     private final ApplicationEventPublisher eventPublisher;
+    private final TransactionTemplate transactionTemplate;
 
     public UserService(UserRepository userRepository,
                        PasswordEncoder passwordEncoder,
-                       EventService eventService,
-                       SubscriptionService subscriptionService,
-                       ApplicationEventPublisher eventPublisher) {
+                       BootstrapService bootstrapService,
+                       UserCleanupService userCleanupService,
+                       ApplicationEventPublisher eventPublisher,
+                       TransactionTemplate transactionTemplate) {
         this.userRepository = userRepository;
         this.passwordEncoder = passwordEncoder;
-        this.eventService = eventService;
-        this.subscriptionService = subscriptionService;
+        this.bootstrapService = bootstrapService;
+        this.userCleanupService = userCleanupService;
         this.eventPublisher = eventPublisher;
+        this.transactionTemplate = transactionTemplate;
     }
 
     public Long getCount() {
         return userRepository.count();
     }
 
-    @Transactional
     public void register(RegisterRequest registerRequest) {
+        String encodedPassword = passwordEncoder.encode(registerRequest.getPassword());
 
-        if (userRepository.findByUsername(registerRequest.getUsername()) != null || userRepository.findByEmail(registerRequest.getEmail()) != null){
-            throw new UserAlreadyExistsException("Потребителското име или имейл вече е заето");
+        User saved = transactionTemplate.execute(status -> createUser(registerRequest, encodedPassword));
+
+        eventPublisher.publishEvent(new UserRegisteredEvent(this, saved));
+        if (saved.getRole() == Role.ADMIN) {
+            logger.info("First user registered as ADMIN: {}", saved.getEmail());
+        } else {
+            logger.info("User registered: {}", saved.getEmail());
         }
+    }
 
-        boolean isFirstUser = userRepository.count() == 0;
-        Role userRole = isFirstUser ? Role.ADMIN : Role.USER;
+    private User createUser(RegisterRequest registerRequest, String encodedPassword) {
+        Role userRole = bootstrapService.claimFirstAdmin() ? Role.ADMIN : Role.USER;
 
         User user = User.builder()
                 .username(registerRequest.getUsername())
-                .password(passwordEncoder.encode(registerRequest.getPassword()))
+                .password(encodedPassword)
                 .email(registerRequest.getEmail())
                 .role(userRole)
                 .createdOn(LocalDateTime.now())
                 .updatedOn(LocalDateTime.now())
                 .build();
 
-        User saved = userRepository.save(user);
-        eventPublisher.publishEvent(new UserRegisteredEvent(this, saved));
-        if (isFirstUser) {
-            logger.info("First user registered as ADMIN: {}", saved.getEmail());
-        } else {
-            logger.info("User registered: {}", saved.getEmail());
+        try {
+            return userRepository.saveAndFlush(user);
+        } catch (DataIntegrityViolationException e) {
+            throw new UserAlreadyExistsException("Потребителското име или имейл вече е заето");
         }
     }
 
@@ -118,20 +129,29 @@ public class UserService {
         logger.info("User role updated: {} to role {}", user.getEmail(), newRole.name());
     }
 
-    @Transactional
     public void deleteUserWithData(UUID userId) {
+        User user = getForDeletion(userId);
+        userCleanupService.purge(user);
+    }
+
+    public UserDeletionStatusResponse deleteUserWithDataAsync(UUID userId) {
+        User user = getForDeletion(userId);
+        UserDeletionStatusResponse status = userCleanupService.markQueued(userId);
+        userCleanupService.purgeAsync(user);
+        logger.info("User deletion queued: {}", user.getEmail());
+        return status;
+    }
+
+    public Optional<UserDeletionStatusResponse> getDeletionStatus(UUID userId) {
+        return userCleanupService.getStatus(userId);
+    }
+
+    private User getForDeletion(UUID userId) {
         if (userId == null) {
             throw new IllegalArgumentException("Идентификаторът на потребителя е задължителен");
         }
 
-        User user = userRepository.findById(userId)
+        return userRepository.findById(userId)
                 .orElseThrow(() -> new IllegalArgumentException("Потребителят не е намерен"));
-
-        subscriptionService.deleteAllByUserId(userId);
-
-        eventService.deleteAllByCreatorId(userId);
-
-        userRepository.delete(user);
-        logger.info("User deleted with related data: {}", user.getEmail());
     }
 }
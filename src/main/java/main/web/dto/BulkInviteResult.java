@@ -0,0 +1,23 @@
+package main.web.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class BulkInviteResult {
+
+    private int invited;
+    // Already subscribed, or the organiser's own address
+    private int skipped;
+    private int overCapacity;
+    private int notFound;
+    // The first few addresses without an account, so the organiser can spot a typo
+    private List<String> notFoundSample;
+}
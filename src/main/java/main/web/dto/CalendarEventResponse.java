@@ -0,0 +1,23 @@
+package main.web.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class CalendarEventResponse {
+
+    private UUID id;
+    private String name;
+    private String location;
+    private LocalDateTime startTime;
+    private LocalDateTime endTime;
+    private String categoryName;
+}
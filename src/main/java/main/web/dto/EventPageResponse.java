@@ -0,0 +1,19 @@
+package main.web.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class EventPageResponse {
+
+    private List<EventResource> items;
+    // null on the last page
+    private String nextCursor;
+}
@@ -0,0 +1,43 @@
+package main.web.dto;
+
+import com.fasterxml.jackson.annotation.JsonFilter;
+import com.fasterxml.jackson.annotation.JsonPropertyOrder;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import main.api.EventFields;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+// Only serialized through a writer that sets the EventFields filter
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonFilter(EventFields.FILTER_ID)
+@JsonPropertyOrder({"id", "name", "description", "location", "latitude", "longitude", "imageName", "startTime",
+        "endTime", "capacity", "remainingCapacity", "registeredCount", "full", "categoryName", "creatorId",
+        "creatorName", "subscribed"})
+public class EventResource {
+
+    private UUID id;
+    private String name;
+    private String description;
+    private String location;
+    private Double latitude;
+    private Double longitude;
+    private String imageName;
+    private LocalDateTime startTime;
+    private LocalDateTime endTime;
+    private Integer capacity;
+    // null when the event has no capacity limit
+    private Long remainingCapacity;
+    private long registeredCount;
+    private boolean full;
+    private String categoryName;
+    private UUID creatorId;
+    private String creatorName;
+    private boolean subscribed;
+}
@@ -0,0 +1,25 @@
+package main.web.dto;
+
+import com.fasterxml.jackson.annotation.JsonFormat;
+import com.fasterxml.jackson.annotation.JsonPropertyOrder;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.UUID;
+
+// Serialized as [latitude, longitude, count, eventId] to keep map responses small
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonFormat(shape = JsonFormat.Shape.ARRAY)
+@JsonPropertyOrder({"latitude", "longitude", "count", "eventId"})
+public class MapClusterResponse {
+
+    private double latitude;
+    private double longitude;
+    private int count;
+    private UUID eventId;
+}
@@ -0,0 +1,26 @@
+package main.web.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class NearbyEventResponse {
+
+    private UUID id;
+    private String name;
+    private String location;
+    private Double latitude;
+    private Double longitude;
+    private LocalDateTime startTime;
+    private LocalDateTime endTime;
+    private String categoryName;
+    private double distanceKm;
+}
@@ -0,0 +1,32 @@
+package main.web.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+@Data
+@Builder(toBuilder = true)
+@NoArgsConstructor
+@AllArgsConstructor
+public class UserDeletionStatusResponse {
+
+    public enum Status {
+        QUEUED, RUNNING, COMPLETED, FAILED
+    }
+
+    private UUID userId;
+    private Status status;
+    private long deletedSubscriptions;
+    private long deletedEvents;
+    private LocalDateTime startedOn;
+    private LocalDateTime finishedOn;
+    private String errorMessage;
+
+    public boolean isInProgress() {
+        return status == Status.QUEUED || status == Status.RUNNING;
+    }
+}
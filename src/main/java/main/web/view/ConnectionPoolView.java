@@ -0,0 +1,30 @@
+package main.web.view;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+@Data
+@AllArgsConstructor
+public class ConnectionPoolView {
+
+    private final String name;
+    private final boolean started;
+    private final int active;
+    private final int idle;
+    private final int total;
+    private final int maximum;
+    private final int pending;
+    private final double acquireMeanMs;
+    private final double acquireMaxMs;
+    private final long timeouts;
+    private final long leakDetectionMs;
+
+    public int getUtilizationPercent() {
+        return maximum > 0 ? Math.round(100f * active / maximum) : 0;
+    }
+
+    // Every connection is out, or someone is already queueing for one
+    public boolean isSaturated() {
+        return pending > 0 || (maximum > 0 && active >= maximum);
+    }
+}
@@ -0,0 +1,108 @@
+package main.web.view;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import main.image.ResponsiveImages;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationContext;
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+import org.thymeleaf.ITemplateEngine;
+import org.thymeleaf.context.WebContext;
+import org.thymeleaf.spring6.expression.ThymeleafEvaluationContext;
+import org.thymeleaf.web.servlet.JakartaServletWebApplication;
+
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+// Caches the user-independent card HTML; subscription state, free places and tickets stay in the page templates
+@Component("eventCards")
+public class EventCardFragments {
+
+    private static final String TEMPLATE = "fragments/event-card";
+    private static final int MAX_ENTRIES = 10_000;
+
+    private final ITemplateEngine templateEngine;
+    private final ResponsiveImages responsiveImages;
+    private final ApplicationContext applicationContext;
+    private final boolean enabled;
+    private final Map<CardKey, CachedCard> cards = new ConcurrentHashMap<>();
+
+    private volatile JakartaServletWebApplication webApplication;
+
+    public EventCardFragments(ITemplateEngine templateEngine, ResponsiveImages responsiveImages,
+                              ApplicationContext applicationContext,
+                              @Value("${views.event-cards.cache:true}") boolean enabled) {
+        this.templateEngine = templateEngine;
+        this.responsiveImages = responsiveImages;
+        this.applicationContext = applicationContext;
+        this.enabled = enabled;
+    }
+
+    public String render(String fragment, EventView event) {
+        if (!enabled) {
+            return renderFragment(fragment, event);
+        }
+
+        CardKey key = new CardKey(fragment, event.getId());
+        CardVersion version = CardVersion.of(event, imageUrl(event));
+        CachedCard cached = cards.get(key);
+        if (cached != null && cached.version().equals(version)) {
+            return cached.html();
+        }
+
+        String html = renderFragment(fragment, event);
+        if (cards.size() >= MAX_ENTRIES) {
+            cards.clear();
+        }
+        cards.put(key, new CachedCard(version, html));
+        return html;
+    }
+
+    // The variant URLs change once resized images are ready, so they are part of the version
+    private String imageUrl(EventView event) {
+        String imageName = event.getImageName();
+        return imageName == null || imageName.isEmpty() ? null : responsiveImages.src(imageName);
+    }
+
+    private String renderFragment(String fragment, EventView event) {
+        ServletRequestAttributes attributes = (ServletRequestAttributes) RequestContextHolder.currentRequestAttributes();
+        HttpServletRequest request = attributes.getRequest();
+        HttpServletResponse response = attributes.getResponse();
+
+        WebContext context = new WebContext(webApplication(request).buildExchange(request, response), request.getLocale());
+        context.setVariable("event", event);
+        context.setVariable(ThymeleafEvaluationContext.THYMELEAF_EVALUATION_CONTEXT_CONTEXT_VARIABLE_NAME,
+                new ThymeleafEvaluationContext(applicationContext, null));
+        return templateEngine.process(TEMPLATE, Set.of(fragment), context);
+    }
+
+    private JakartaServletWebApplication webApplication(HttpServletRequest request) {
+        JakartaServletWebApplication application = webApplication;
+        if (application == null) {
+            application = JakartaServletWebApplication.buildApplication(request.getServletContext());
+            webApplication = application;
+        }
+        return application;
+    }
+
+    private record CardKey(String fragment, UUID eventId) {
+    }
+
+    private record CachedCard(CardVersion version, String html) {
+    }
+
+    // Events have no version column, so a card is versioned by everything it renders, category and organiser names included
+    private record CardVersion(String name, String description, String location, String imageUrl,
+                               LocalDateTime startTime, LocalDateTime endTime, String categoryName, String creatorName) {
+
+        static CardVersion of(EventView event, String imageUrl) {
+            return new CardVersion(event.getName(), event.getDescription(), event.getLocation(), imageUrl,
+                    event.getStartTime(), event.getEndTime(), event.getCategoryName(), event.getCreatorName());
+        }
+    }
+}
@@ -0,0 +1,28 @@
+package main.api;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class EventCursorTest {
+
+    @Test
+    void whenCursorIsEncoded_thenItDecodesToTheSamePosition() {
+        EventCursor cursor = new EventCursor(LocalDateTime.of(2026, 10, 24, 20, 0), UUID.randomUUID());
+
+        String encoded = cursor.encode();
+
+        assertTrue(encoded.matches("[A-Za-z0-9_-]+"));
+        assertEquals(cursor, EventCursor.decode(encoded));
+    }
+
+    @Test
+    void whenCursorIsTamperedWith_thenItIsRejected() {
+        assertThrows(IllegalArgumentException.class, () -> EventCursor.decode("not a cursor!"));
+        assertThrows(IllegalArgumentException.class, () -> EventCursor.decode("bm8tc2VwYXJhdG9y"));
+        assertThrows(IllegalArgumentException.class, () -> EventCursor.decode("MjAyNnxub3QtYS11dWlk"));
+    }
+}
@@ -0,0 +1,26 @@
+package main.api;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class EventFieldsTest {
+
+    @Test
+    void whenNoFieldsAreRequested_thenAllAreSelected() {
+        assertEquals(Set.copyOf(EventFields.ALL), EventFields.parse(null).selected());
+        assertEquals(Set.copyOf(EventFields.ALL), EventFields.parse(" ").selected());
+    }
+
+    @Test
+    void whenFieldsAreRequested_thenOnlyThoseAndTheIdAreSelected() {
+        assertEquals(Set.of("id", "name", "startTime"), EventFields.parse("name, startTime,").selected());
+    }
+
+    @Test
+    void whenFieldIsUnknown_thenSelectionIsRejected() {
+        assertThrows(IllegalArgumentException.class, () -> EventFields.parse("name,password"));
+    }
+}
@@ -0,0 +1,89 @@
+package main.benchmark;
+
+import java.net.CookieManager;
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+class BenchmarkClient {
+
+    private static final Pattern CSRF_TOKEN = Pattern.compile("name=\"_csrf\"\\s+value=\"([^\"]+)\"");
+
+    private final HttpClient httpClient;
+    private final CookieManager cookies = new CookieManager();
+    private final int port;
+
+    BenchmarkClient(int port) {
+        this.port = port;
+        this.httpClient = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .cookieHandler(cookies)
+                .followRedirects(HttpClient.Redirect.NEVER)
+                .build();
+    }
+
+    HttpClient httpClient() {
+        return httpClient;
+    }
+
+    URI uri(String path) {
+        return URI.create("http://localhost:" + port + path);
+    }
+
+    HttpResponse<Void> get(String path) throws Exception {
+        return httpClient.send(HttpRequest.newBuilder(uri(path)).GET().build(), HttpResponse.BodyHandlers.discarding());
+    }
+
+    HttpResponse<String> getPage(String path) throws Exception {
+        return httpClient.send(HttpRequest.newBuilder(uri(path)).GET().build(), HttpResponse.BodyHandlers.ofString());
+    }
+
+    String csrfToken() throws Exception {
+        return csrfToken(getPage("/login").body());
+    }
+
+    static String csrfToken(String html) {
+        Matcher matcher = CSRF_TOKEN.matcher(html);
+        if (!matcher.find()) {
+            throw new IllegalStateException("CSRF token not found on page");
+        }
+        return matcher.group(1);
+    }
+
+    // Form post as the templates send it; hidden _method turns it into PUT/DELETE on the server
+    HttpResponse<Void> postForm(String path, String token, String method) throws Exception {
+        String form = "_csrf=" + URLEncoder.encode(token, StandardCharsets.UTF_8) + (method != null ? "&_method=" + method : "");
+        return httpClient.send(HttpRequest.newBuilder(uri(path))
+                        .header("Content-Type", "application/x-www-form-urlencoded")
+                        .POST(HttpRequest.BodyPublishers.ofString(form))
+                        .build(),
+                HttpResponse.BodyHandlers.discarding());
+    }
+
+    void logout() {
+        cookies.getCookieStore().removeAll();
+    }
+
+    HttpResponse<Void> postLogin(String email, String password, String token) throws Exception {
+        String form = "email=" + URLEncoder.encode(email, StandardCharsets.UTF_8)
+                + "&password=" + URLEncoder.encode(password, StandardCharsets.UTF_8)
+                + "&_csrf=" + URLEncoder.encode(token, StandardCharsets.UTF_8);
+        return httpClient.send(HttpRequest.newBuilder(uri("/login"))
+                        .header("Content-Type", "application/x-www-form-urlencoded")
+                        .POST(HttpRequest.BodyPublishers.ofString(form))
+                        .build(),
+                HttpResponse.BodyHandlers.discarding());
+    }
+
+    void login(String email, String password) throws Exception {
+        HttpResponse<Void> response = postLogin(email, password, csrfToken());
+        if (!response.headers().firstValue("Location").orElse("").endsWith("/home")) {
+            throw new IllegalStateException("Login failed for " + email);
+        }
+    }
+}
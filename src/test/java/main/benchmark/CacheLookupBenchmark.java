@@ -0,0 +1,110 @@
+package main.benchmark;
+
+import main.model.Category;
+import main.repository.CategoryRepository;
+import main.service.CategoryService;
+import org.junit.jupiter.api.Test;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+import org.springframework.cache.interceptor.SimpleKey;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.domain.Sort;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+// A @Cacheable hit through the Spring proxy next to a bare lookup in the same ConcurrentMapCache
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CacheLookupBenchmark {
+
+    private AnnotationConfigApplicationContext context;
+    private CategoryService categoryService;
+    private Cache categories;
+
+    @Setup
+    public void startContext() {
+        context = new AnnotationConfigApplicationContext(CachingConfiguration.class);
+        categoryService = context.getBean(CategoryService.class);
+        categoryService.getAll();
+        categories = context.getBean(CacheManager.class).getCache("categories");
+    }
+
+    @TearDown
+    public void closeContext() {
+        context.close();
+    }
+
+    @Benchmark
+    public List<Category> cacheableCategories() {
+        return categoryService.getAll();
+    }
+
+    @Benchmark
+    public Object directCacheGet() {
+        return categories.get(SimpleKey.EMPTY);
+    }
+
+    @Test
+    void runWithJmh() throws Exception {
+        new Runner(new OptionsBuilder()
+                .include(CacheLookupBenchmark.class.getSimpleName())
+                .resultFormat(ResultFormatType.JSON)
+                .result("target/jmh-cache-lookup.json")
+                .build()).run();
+    }
+
+    public static void main(String[] args) throws Exception {
+        new CacheLookupBenchmark().runWithJmh();
+    }
+
+    // Same cache manager as BeanConfiguration, without the rest of the application
+    @Configuration
+    @EnableCaching
+    static class CachingConfiguration {
+
+        @Bean
+        CacheManager cacheManager() {
+            return new ConcurrentMapCacheManager("events", "categories", "stats", "users");
+        }
+
+        @Bean
+        CategoryService categoryService() {
+            List<Category> rows = new ArrayList<>();
+            for (int i = 0; i < 12; i++) {
+                rows.add(Category.builder().id(UUID.randomUUID()).name("Категория " + i).isActive(true).build());
+            }
+            CategoryRepository repository = mock(CategoryRepository.class);
+            when(repository.findAll(any(Sort.class))).thenReturn(rows);
+            return new CategoryService(repository);
+        }
+    }
+}
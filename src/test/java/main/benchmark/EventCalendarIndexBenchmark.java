@@ -0,0 +1,101 @@
+package main.benchmark;
+
+import main.repository.EventRepository;
+import main.search.CalendarWindow;
+import main.search.EventCalendarIndex;
+import main.search.EventInterval;
+import org.junit.jupiter.api.Test;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 2)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class EventCalendarIndexBenchmark {
+
+    @Param("100000")
+    private int events;
+
+    private EventCalendarIndex index;
+    private List<EventInterval> all;
+    private CalendarWindow week;
+
+    @Setup
+    public void buildIndex() {
+        Random random = new Random(42);
+        LocalDateTime now = LocalDateTime.now().withNano(0);
+        all = new ArrayList<>(events);
+        for (int i = 0; i < events; i++) {
+            LocalDateTime start = now.plusMinutes(random.nextInt(365 * 24 * 60));
+            // Mostly evening events, a few multi-day festivals and some month-long exhibitions
+            int roll = random.nextInt(1000);
+            LocalDateTime end = roll < 950 ? start.plusHours(1 + random.nextInt(5))
+                    : roll < 995 ? start.plusDays(1 + random.nextInt(4))
+                    : start.plusDays(14 + random.nextInt(30));
+            all.add(new EventInterval(UUID.randomUUID(), start, end, null));
+        }
+        EventRepository repository = mock(EventRepository.class);
+        when(repository.findAllIntervals()).thenReturn(all);
+        index = new EventCalendarIndex(repository);
+        index.rebuild();
+        LocalDateTime monday = now.toLocalDate().plusWeeks(10).atStartOfDay();
+        week = new CalendarWindow(monday, monday.plusDays(7), null);
+    }
+
+    @Benchmark
+    public List<UUID> indexedWeek() {
+        return index.findOverlapping(week, 500);
+    }
+
+    // What the listing did before: load every upcoming event and filter it in memory
+    @Benchmark
+    public List<UUID> fullScanWeek() {
+        List<EventInterval> matches = new ArrayList<>();
+        for (EventInterval interval : all) {
+            if (interval.startTime().isBefore(week.to()) && interval.endTime().isAfter(week.from())) {
+                matches.add(interval);
+            }
+        }
+        matches.sort(Comparator.comparing(EventInterval::startTime));
+        return matches.stream().limit(500).map(EventInterval::id).toList();
+    }
+
+    @Test
+    void runWithJmh() throws Exception {
+        new Runner(new OptionsBuilder()
+                .include(EventCalendarIndexBenchmark.class.getSimpleName())
+                .resultFormat(ResultFormatType.JSON)
+                .result("target/jmh-event-calendar.json")
+                .build()).run();
+    }
+
+    public static void main(String[] args) throws Exception {
+        new EventCalendarIndexBenchmark().runWithJmh();
+    }
+}
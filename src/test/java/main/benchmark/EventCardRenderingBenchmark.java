@@ -0,0 +1,110 @@
+package main.benchmark;
+
+import jakarta.servlet.ServletContext;
+import main.EventAppApplication;
+import main.model.Category;
+import main.model.Role;
+import main.model.User;
+import main.web.view.EventView;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.web.csrf.DefaultCsrfToken;
+import org.springframework.web.context.WebApplicationContext;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+import org.springframework.web.servlet.View;
+import org.springframework.web.servlet.ViewResolver;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// Server-side render time of the events page with 500 cards, with and without the card fragment cache
+class EventCardRenderingBenchmark {
+
+    private static final int EVENTS = Integer.getInteger("benchmark.cards.events", 500);
+    private static final int WARM_UP = Integer.getInteger("benchmark.cards.warm-up", 200);
+    private static final int MEASURED = Integer.getInteger("benchmark.cards.renders", 300);
+
+    @Test
+    void cachedVersusUncachedCards() throws Exception {
+        System.out.println(EVENTS + " cards, uncached: " + run(false).summary());
+        System.out.println(EVENTS + " cards, cached:   " + run(true).summary());
+    }
+
+    private LatencyStats run(boolean cached) throws Exception {
+        try (ConfigurableApplicationContext context = new SpringApplicationBuilder(EventAppApplication.class)
+                .profiles("benchmark")
+                .run("--server.port=0",
+                        "--views.event-cards.cache=" + cached,
+                        "--spring.datasource.url=jdbc:h2:mem:cards_" + cached + ";MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1")) {
+            ServletContext servletContext = ((WebApplicationContext) context).getServletContext();
+            View view = context.getBean("thymeleafViewResolver", ViewResolver.class)
+                    .resolveViewName("events", Locale.forLanguageTag("bg"));
+            Map<String, Object> model = model();
+
+            String html = render(view, model, servletContext);
+            assertTrue(html.contains("Събитие " + (EVENTS - 1)), "Page does not contain every card");
+
+            for (int i = 0; i < WARM_UP; i++) {
+                render(view, model, servletContext);
+            }
+            LatencyStats stats = new LatencyStats();
+            for (int i = 0; i < MEASURED; i++) {
+                long start = System.nanoTime();
+                render(view, model, servletContext);
+                stats.record(System.nanoTime() - start);
+            }
+            return stats;
+        } finally {
+            RequestContextHolder.resetRequestAttributes();
+        }
+    }
+
+    private static String render(View view, Map<String, Object> model, ServletContext servletContext) throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest(servletContext, "GET", "/events");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(request, response));
+        view.render(model, request, response);
+        return response.getContentAsString();
+    }
+
+    // The viewer subscribed to every third event, so both button variants are rendered
+    private static Map<String, Object> model() {
+        User viewer = new User();
+        viewer.setId(UUID.randomUUID());
+        viewer.setUsername("viewer");
+        viewer.setRole(Role.USER);
+
+        LocalDateTime start = LocalDateTime.now().plusDays(1).withNano(0);
+        String[] images = {"event-business.jpg", "event-networking.jpg", "event-workshop.jpg", null};
+        List<EventView> events = new ArrayList<>();
+        for (int i = 0; i < EVENTS; i++) {
+            Integer capacity = i % 2 == 0 ? 50 : null;
+            long registered = i % 50;
+            events.add(new EventView(UUID.randomUUID(), "Събитие " + i,
+                    "Описание на събитие " + i + " с малко повече текст, както в реалните карти.", "София, ул. " + i,
+                    42.69, 23.32, images[i % images.length], start.plusHours(i), start.plusHours(i + 2),
+                    capacity, capacity != null ? capacity - registered : Long.MAX_VALUE, registered,
+                    capacity != null && registered >= capacity, "Категория " + i % 8, UUID.randomUUID(),
+                    "организатор" + i % 40, i % 3 == 0, null));
+        }
+
+        Map<String, Object> model = new HashMap<>();
+        model.put("events", events);
+        model.put("pastEvents", List.of());
+        model.put("categories", List.of(new Category()));
+        model.put("user", viewer);
+        model.put("_csrf", new DefaultCsrfToken("X-CSRF-TOKEN", "_csrf", "benchmark-token"));
+        return model;
+    }
+}
@@ -0,0 +1,144 @@
+package main.benchmark;
+
+import main.repository.EventRepository;
+import main.search.EventGeoDocument;
+import main.search.EventGeoIndex;
+import main.search.GeoMatch;
+import main.search.GeoQuery;
+import main.search.MapCluster;
+import main.search.MapViewport;
+import org.junit.jupiter.api.Test;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyDouble;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 2)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class EventGeoIndexBenchmark {
+
+    // Cities events cluster around, the rest are spread over the whole country
+    private static final double[][] CITIES = {
+            {42.6977, 23.3219}, {42.1354, 24.7453}, {43.2141, 27.9147}, {42.5048, 27.4626}, {43.8356, 25.9657}};
+
+    @Param("100000")
+    private int events;
+
+    private EventGeoIndex grid;
+    private EventGeoIndex fullScan;
+    private LocalDateTime now;
+    private EventGeoDocument moving;
+    private boolean moved;
+
+    @Setup
+    public void buildIndexes() {
+        Random random = new Random(42);
+        now = LocalDateTime.now();
+        List<EventGeoDocument> documents = new ArrayList<>(events);
+        for (int i = 0; i < events; i++) {
+            double latitude;
+            double longitude;
+            if (random.nextInt(10) < 7) {
+                double[] city = CITIES[random.nextInt(CITIES.length)];
+                latitude = city[0] + random.nextGaussian() * 0.1;
+                longitude = city[1] + random.nextGaussian() * 0.1;
+            } else {
+                latitude = 41.2 + random.nextDouble() * 3;
+                longitude = 22.4 + random.nextDouble() * 6.2;
+            }
+            LocalDateTime start = now.plusHours(random.nextInt(24 * 180) - 24 * 30);
+            documents.add(new EventGeoDocument(UUID.randomUUID(), latitude, longitude, start, start.plusHours(3), null));
+        }
+
+        EventRepository repository = mock(EventRepository.class);
+        when(repository.findAllGeoDocuments()).thenReturn(documents);
+        grid = new EventGeoIndex(repository, true);
+        grid.rebuild();
+        moving = new EventGeoDocument(UUID.randomUUID(), 42.6977, 23.3219, now.plusDays(1), now.plusDays(1).plusHours(3), null);
+        grid.index(moving);
+
+        // Same matching code, but every event is a candidate - what a query without a usable index has to do
+        EventRepository unindexed = mock(EventRepository.class);
+        when(unindexed.findGeoDocumentsInBox(anyDouble(), anyDouble(), anyDouble(), anyDouble(), any(), any()))
+                .thenReturn(documents);
+        fullScan = new EventGeoIndex(unindexed, false);
+    }
+
+    @Benchmark
+    public List<GeoMatch> gridCityCentre() {
+        return grid.findNearby(new GeoQuery(42.6977, 23.3219, 5, now, null, null, 50));
+    }
+
+    @Benchmark
+    public List<GeoMatch> gridWideRadius() {
+        return grid.findNearby(new GeoQuery(42.6977, 23.3219, 50, now, null, null, 50));
+    }
+
+    @Benchmark
+    public List<GeoMatch> fullScanCityCentre() {
+        return fullScan.findNearby(new GeoQuery(42.6977, 23.3219, 5, now, null, null, 50));
+    }
+
+    @Benchmark
+    public List<GeoMatch> fullScanWideRadius() {
+        return fullScan.findNearby(new GeoQuery(42.6977, 23.3219, 50, now, null, null, 50));
+    }
+
+    @Benchmark
+    public List<MapCluster> clustersWholeCountry() {
+        return grid.findClusters(new MapViewport(7, 22.0, 41.0, 29.0, 44.5));
+    }
+
+    @Benchmark
+    public List<MapCluster> clustersCityViewport() {
+        return grid.findClusters(new MapViewport(12, 23.15, 42.60, 23.50, 42.78));
+    }
+
+    // Incremental update on event edit: grid cell plus one cluster per zoom level
+    @Benchmark
+    public void moveEvent() {
+        moved = !moved;
+        EventGeoDocument document = moving;
+        grid.index(new EventGeoDocument(document.id(), moved ? 43.2141 : document.latitude(),
+                moved ? 27.9147 : document.longitude(), document.startTime(), document.endTime(), null));
+    }
+
+    @Test
+    void runWithJmh() throws Exception {
+        new Runner(new OptionsBuilder()
+                .include(EventGeoIndexBenchmark.class.getSimpleName())
+                .resultFormat(ResultFormatType.JSON)
+                .result("target/jmh-event-geo.json")
+                .build()).run();
+    }
+
+    public static void main(String[] args) throws Exception {
+        new EventGeoIndexBenchmark().runWithJmh();
+    }
+}
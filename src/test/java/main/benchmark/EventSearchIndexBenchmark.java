@@ -0,0 +1,112 @@
+package main.benchmark;
+
+import main.repository.EventRepository;
+import main.search.EventSearchDocument;
+import main.search.EventSearchIndex;
+import org.junit.jupiter.api.Test;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class EventSearchIndexBenchmark {
+
+    private static final String[] TITLE_WORDS = {
+            "концерт", "фестивал", "работилница", "конференция", "среща", "изложба", "турнир", "лекция",
+            "джаз", "рок", "театър", "кино", "вино", "книги", "бягане", "йога", "шахмат", "стартъп",
+            "workshop", "meetup", "java", "spring", "design", "startup", "music", "party", "hackathon"};
+    private static final String[] CITIES = {
+            "София", "Пловдив", "Варна", "Бургас", "Русе", "Стара Загора", "Плевен", "Велико Търново", "Sofia Tech Park"};
+    private static final String[] DESCRIPTION_WORDS = {
+            "вечер", "любими", "изпълнители", "открито", "програма", "гости", "деца", "семейства", "безплатен",
+            "вход", "билети", "място", "начинаещи", "напреднали", "practical", "hands-on", "talks", "networking",
+            "food", "drinks", "community", "speakers", "парк", "зала", "център", "сцена", "музика", "изкуство"};
+
+    @Param("100000")
+    private int events;
+
+    private EventSearchIndex index;
+
+    @Setup
+    public void buildIndex() {
+        Random random = new Random(42);
+        List<EventSearchDocument> documents = new ArrayList<>(events);
+        for (int i = 0; i < events; i++) {
+            String name = pick(TITLE_WORDS, random) + " " + pick(TITLE_WORDS, random) + " " + i;
+            StringBuilder description = new StringBuilder();
+            for (int w = 0; w < 20; w++) {
+                description.append(pick(DESCRIPTION_WORDS, random)).append(' ');
+            }
+            documents.add(new EventSearchDocument(UUID.randomUUID(), name, description.toString(), pick(CITIES, random)));
+        }
+        EventRepository repository = mock(EventRepository.class);
+        when(repository.findAllSearchDocuments()).thenReturn(documents);
+        index = new EventSearchIndex(repository);
+        index.rebuild();
+    }
+
+    // Skewed towards the start of each vocabulary so some terms are common and some rare
+    private static String pick(String[] words, Random random) {
+        int a = random.nextInt(words.length);
+        int b = random.nextInt(words.length);
+        return words[Math.min(a, b)];
+    }
+
+    @Benchmark
+    public List<UUID> rareWord() {
+        return index.search("hackathon ", 20);
+    }
+
+    @Benchmark
+    public List<UUID> commonWord() {
+        return index.search("концерти ", 20);
+    }
+
+    @Benchmark
+    public List<UUID> typingPrefix() {
+        return index.search("фести", 20);
+    }
+
+    @Benchmark
+    public List<UUID> twoWordsWithCity() {
+        return index.search("джаз варна", 20);
+    }
+
+    @Test
+    void runWithJmh() throws Exception {
+        new Runner(new OptionsBuilder()
+                .include(EventSearchIndexBenchmark.class.getSimpleName())
+                .resultFormat(ResultFormatType.JSON)
+                .result("target/jmh-event-search.json")
+                .build()).run();
+    }
+
+    public static void main(String[] args) throws Exception {
+        new EventSearchIndexBenchmark().runWithJmh();
+    }
+}
@@ -0,0 +1,182 @@
+package main.benchmark;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import main.model.Category;
+import main.model.Event;
+import main.model.Subscription;
+import main.model.Ticket;
+import main.model.User;
+import main.repository.EventRepository;
+import main.search.EventCalendarIndex;
+import main.search.EventGeoIndex;
+import main.search.EventSearchIndex;
+import main.service.CalendarFeedService;
+import main.service.CategoryService;
+import main.service.EventService;
+import main.service.SubscriptionService;
+import main.service.TicketService;
+import main.web.view.EventView;
+import org.junit.jupiter.api.Test;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import static org.mockito.Mockito.withSettings;
+
+// Entity to EventView conversion and the in-memory filtering/sorting of the listing and dashboard methods
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class EventServiceBenchmark {
+
+    @Param("500")
+    private int events;
+
+    private EventService eventService;
+    private UUID userId;
+
+    @Setup
+    public void createService() {
+        Random random = new Random(42);
+        User viewer = user("viewer");
+        userId = viewer.getId();
+        List<User> creators = new ArrayList<>();
+        for (int i = 0; i < 40; i++) {
+            creators.add(user("organizer" + i));
+        }
+        creators.set(0, viewer);
+        List<Category> categories = new ArrayList<>();
+        for (int i = 0; i < 8; i++) {
+            categories.add(Category.builder().id(UUID.randomUUID()).name("Категория " + i).isActive(true).build());
+        }
+
+        // Shuffled start times so the sorts have real work to do
+        LocalDateTime now = LocalDateTime.now();
+        List<Event> all = new ArrayList<>(events);
+        for (int i = 0; i < events; i++) {
+            LocalDateTime start = now.plusHours(random.nextInt(24 * 90) - 24 * 30);
+            all.add(Event.builder()
+                    .id(UUID.randomUUID())
+                    .name("Събитие " + i)
+                    .description("Описание на събитие " + i)
+                    .location("София")
+                    .imageName("event-business.jpg")
+                    .startTime(start)
+                    .endTime(start.plusHours(2))
+                    .capacity(i % 2 == 0 ? 50 : null)
+                    .category(categories.get(i % categories.size()))
+                    .creator(creators.get(i % creators.size()))
+                    .build());
+        }
+
+        Set<UUID> subscribedIds = new HashSet<>();
+        List<Subscription> subscriptions = new ArrayList<>();
+        Map<UUID, Ticket> tickets = new HashMap<>();
+        for (int i = 0; i < all.size(); i += 3) {
+            Event event = all.get(i);
+            Subscription subscription = new Subscription();
+            subscription.setEvent(event);
+            subscriptions.add(subscription);
+            subscribedIds.add(event.getId());
+            Ticket ticket = new Ticket();
+            ticket.setCode("T-" + i);
+            tickets.put(event.getId(), ticket);
+        }
+
+        EventRepository eventRepository = mock(EventRepository.class, withSettings().stubOnly());
+        when(eventRepository.findUpcomingEvents(any())).thenReturn(all);
+        when(eventRepository.findAll()).thenReturn(all);
+        TicketService ticketService = mock(TicketService.class, withSettings().stubOnly());
+        when(ticketService.getTicketsForUser(userId)).thenReturn(tickets);
+
+        // The subscription lookups are stubbed by hand to keep mock dispatch out of the numbers
+        SubscriptionService subscriptionService = new SubscriptionService(null, ticketService, new SimpleMeterRegistry()) {
+            @Override
+            public Set<UUID> getSubscribedEventIds(UUID id) {
+                return subscribedIds;
+            }
+
+            @Override
+            public List<Subscription> findByUserId(UUID id) {
+                return subscriptions;
+            }
+
+            @Override
+            public Map<UUID, Long> countByEvents(Collection<UUID> eventIds) {
+                Map<UUID, Long> counts = new HashMap<>();
+                for (UUID eventId : eventIds) {
+                    counts.put(eventId, (long) (eventId.hashCode() & 31));
+                }
+                return counts;
+            }
+        };
+
+        eventService = new EventService(eventRepository, mock(CategoryService.class), subscriptionService, ticketService,
+                mock(EventSearchIndex.class), mock(EventGeoIndex.class), mock(EventCalendarIndex.class),
+                mock(CalendarFeedService.class), new SimpleMeterRegistry());
+    }
+
+    private static User user(String name) {
+        User user = new User();
+        user.setId(UUID.randomUUID());
+        user.setUsername(name);
+        return user;
+    }
+
+    @Benchmark
+    public List<EventView> listingConversion() {
+        return eventService.getEventsForListing(userId, null);
+    }
+
+    @Benchmark
+    public List<EventView> createdEventsFilterAndSort() {
+        return eventService.getCreatedEvents(userId);
+    }
+
+    @Benchmark
+    public List<EventView> subscribedEventsSortWithTickets() {
+        return eventService.getSubscribedEvents(userId);
+    }
+
+    @Test
+    void runWithJmh() throws Exception {
+        new Runner(new OptionsBuilder()
+                .include(EventServiceBenchmark.class.getSimpleName())
+                .resultFormat(ResultFormatType.JSON)
+                .result("target/jmh-event-service.json")
+                .build()).run();
+    }
+
+    public static void main(String[] args) throws Exception {
+        new EventServiceBenchmark().runWithJmh();
+    }
+}
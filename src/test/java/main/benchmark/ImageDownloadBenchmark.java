@@ -0,0 +1,161 @@
+package main.benchmark;
+
+import main.EventAppApplication;
+import main.image.UploadedImages;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.mock.web.MockMultipartFile;
+
+import javax.imageio.ImageIO;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayOutputStream;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.ByteBuffer;
+import java.time.Duration;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Flow;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// Concurrent full downloads of one uploaded image from a real Tomcat, with and without the sendfile hand-off
+class ImageDownloadBenchmark {
+
+    // Overridable for small machines, e.g. -Dbenchmark.downloads.concurrency=8
+    private static final int CONCURRENCY = Integer.getInteger("benchmark.downloads.concurrency", 32);
+    private static final Duration WARM_UP = Duration.ofSeconds(Long.getLong("benchmark.warm-up-seconds", 5));
+    private static final Duration MEASUREMENT = Duration.ofSeconds(Long.getLong("benchmark.measurement-seconds", 15));
+
+    @Test
+    void sendfileVersusTransferTo() throws Exception {
+        byte[] image = noisePng(900, 700);
+        System.out.println(CONCURRENCY + " clients, " + image.length / 1024 + " KB image, sendfile:   " + run(true, image));
+        System.out.println(CONCURRENCY + " clients, " + image.length / 1024 + " KB image, transferTo: " + run(false, image));
+    }
+
+    private Result run(boolean sendfile, byte[] image) throws Exception {
+        try (ConfigurableApplicationContext context = new SpringApplicationBuilder(EventAppApplication.class)
+                .profiles("benchmark")
+                .run("--server.port=0",
+                        "--images.uploads.sendfile=" + sendfile,
+                        "--spring.datasource.url=jdbc:h2:mem:downloads_" + sendfile + ";MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1")) {
+            String name = context.getBean(UploadedImages.class)
+                    .store(new MockMultipartFile("imageFile", "noise.png", "image/png", image));
+            int port = ((WebServerApplicationContext) context).getWebServer().getPort();
+            BenchmarkClient client = new BenchmarkClient(port);
+            String path = UploadedImages.URL_PREFIX + name;
+
+            // The same bytes have to arrive through the real connector, whole and as a range
+            HttpResponse<Long> ranged = client.httpClient().send(HttpRequest.newBuilder(client.uri(path))
+                    .header("Range", "bytes=1000-1999").GET().build(), countingBody());
+            assertEquals(206, ranged.statusCode());
+            assertEquals(1000L, ranged.body());
+
+            drive(client, path, image.length, WARM_UP, new LatencyStats(), new AtomicLong());
+            LatencyStats stats = new LatencyStats();
+            AtomicLong errors = new AtomicLong();
+            drive(client, path, image.length, MEASUREMENT, stats, errors);
+
+            assertTrue(stats.count() > 0, "No download completed, errors=" + errors.get());
+            return new Result(stats, errors.get(), image.length);
+        }
+    }
+
+    // Every client starts its next download as soon as the previous one completes
+    private void drive(BenchmarkClient client, String path, long expectedBytes, Duration duration,
+                       LatencyStats stats, AtomicLong errors) throws Exception {
+        AtomicBoolean running = new AtomicBoolean(true);
+        HttpRequest request = HttpRequest.newBuilder(client.uri(path)).timeout(Duration.ofSeconds(60)).GET().build();
+        CompletableFuture<?>[] clients = new CompletableFuture<?>[CONCURRENCY];
+        for (int i = 0; i < CONCURRENCY; i++) {
+            CompletableFuture<Void> done = new CompletableFuture<>();
+            loop(client, request, expectedBytes, running, stats, errors, done);
+            clients[i] = done;
+        }
+        TimeUnit.MILLISECONDS.sleep(duration.toMillis());
+        running.set(false);
+        CompletableFuture.allOf(clients).get(120, TimeUnit.SECONDS);
+    }
+
+    private void loop(BenchmarkClient client, HttpRequest request, long expectedBytes, AtomicBoolean running,
+                      LatencyStats stats, AtomicLong errors, CompletableFuture<Void> done) {
+        if (!running.get()) {
+            done.complete(null);
+            return;
+        }
+        long start = System.nanoTime();
+        client.httpClient().sendAsync(request, countingBody())
+                .whenComplete((response, failure) -> {
+                    if (failure != null || response.statusCode() != 200 || response.body() != expectedBytes) {
+                        errors.incrementAndGet();
+                    } else if (running.get()) {
+                        stats.record(System.nanoTime() - start);
+                    }
+                    loop(client, request, expectedBytes, running, stats, errors, done);
+                });
+    }
+
+    // Counts the body instead of buffering it, so the client does not allocate a copy of every download
+    private static HttpResponse.BodyHandler<Long> countingBody() {
+        return info -> HttpResponse.BodySubscribers.fromSubscriber(new ByteCounter(), ByteCounter::count);
+    }
+
+    private static byte[] noisePng(int width, int height) throws Exception {
+        BufferedImage image = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+        Random random = new Random(7);
+        for (int x = 0; x < width; x++) {
+            for (int y = 0; y < height; y++) {
+                image.setRGB(x, y, random.nextInt(0x1000000));
+            }
+        }
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        ImageIO.write(image, "png", out);
+        return out.toByteArray();
+    }
+
+    private static final class ByteCounter implements Flow.Subscriber<List<ByteBuffer>> {
+
+        private long count;
+
+        @Override
+        public void onSubscribe(Flow.Subscription subscription) {
+            subscription.request(Long.MAX_VALUE);
+        }
+
+        @Override
+        public void onNext(List<ByteBuffer> buffers) {
+            for (ByteBuffer buffer : buffers) {
+                count += buffer.remaining();
+            }
+        }
+
+        @Override
+        public void onError(Throwable throwable) {
+        }
+
+        @Override
+        public void onComplete() {
+        }
+
+        long count() {
+            return count;
+        }
+    }
+
+    private record Result(LatencyStats stats, long errors, long bytes) {
+
+        @Override
+        public String toString() {
+            double seconds = MEASUREMENT.toSeconds();
+            return String.format("%.0f downloads/s, %.0f MB/s, %s, errors=%d",
+                    stats.count() / seconds, stats.count() * bytes / seconds / (1024 * 1024), stats.summary(), errors);
+        }
+    }
+}
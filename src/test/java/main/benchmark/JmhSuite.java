@@ -0,0 +1,79 @@
+package main.benchmark;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// Runs every JMH benchmark into one JSON result and fails on regressions against -Djmh.baseline (see README)
+class JmhSuite {
+
+    private static final String INCLUDE = System.getProperty("jmh.include", "main\\.benchmark\\..*");
+    private static final String RESULT = System.getProperty("jmh.result", "target/jmh-result.json");
+    private static final String BASELINE = System.getProperty("jmh.baseline");
+    private static final double MAX_REGRESSION = Double.parseDouble(System.getProperty("jmh.max-regression", "0.10"));
+
+    @Test
+    void runAndCompareWithBaseline() throws Exception {
+        new Runner(new OptionsBuilder()
+                .include(INCLUDE)
+                .resultFormat(ResultFormatType.JSON)
+                .result(RESULT)
+                .build()).run();
+
+        if (BASELINE == null) {
+            return;
+        }
+        Map<String, Score> baseline = scores(new File(BASELINE));
+        Map<String, Score> current = scores(new File(RESULT));
+        List<String> regressions = new ArrayList<>();
+        System.out.printf("%-90s %14s %14s %8s%n", "Benchmark", "Baseline", "Current", "Change");
+        for (Map.Entry<String, Score> entry : current.entrySet()) {
+            Score before = baseline.get(entry.getKey());
+            if (before == null || !before.unit().equals(entry.getValue().unit())) {
+                continue;
+            }
+            // All suite benchmarks use AverageTime, so a higher score is slower
+            double change = entry.getValue().score() / before.score() - 1;
+            System.out.printf("%-90s %14.3f %14.3f %+7.1f%%%n", entry.getKey(), before.score(), entry.getValue().score(), change * 100);
+            if (change > MAX_REGRESSION) {
+                regressions.add(entry.getKey());
+            }
+        }
+        assertTrue(regressions.isEmpty(), "Slower than " + BASELINE + " by more than " + MAX_REGRESSION * 100 + "%: " + regressions);
+    }
+
+    private static Map<String, Score> scores(File file) throws IOException {
+        Map<String, Score> scores = new LinkedHashMap<>();
+        for (JsonNode run : new ObjectMapper().readTree(file)) {
+            StringBuilder key = new StringBuilder(run.path("benchmark").asText());
+            Iterator<Map.Entry<String, JsonNode>> params = run.path("params").fields();
+            while (params.hasNext()) {
+                Map.Entry<String, JsonNode> param = params.next();
+                key.append(' ').append(param.getKey()).append('=').append(param.getValue().asText());
+            }
+            JsonNode metric = run.path("primaryMetric");
+            scores.put(key.toString(), new Score(metric.path("score").asDouble(), metric.path("scoreUnit").asText()));
+        }
+        return scores;
+    }
+
+    private record Score(double score, String unit) {
+    }
+
+    public static void main(String[] args) throws Exception {
+        new JmhSuite().runAndCompareWithBaseline();
+    }
+}
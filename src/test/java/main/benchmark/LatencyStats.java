@@ -0,0 +1,36 @@
+package main.benchmark;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+class LatencyStats {
+
+    private final List<Long> samplesNanos = Collections.synchronizedList(new ArrayList<>());
+
+    void record(long nanos) {
+        samplesNanos.add(nanos);
+    }
+
+    int count() {
+        return samplesNanos.size();
+    }
+
+    double percentileMillis(double percentile) {
+        List<Long> sorted;
+        synchronized (samplesNanos) {
+            sorted = new ArrayList<>(samplesNanos);
+        }
+        if (sorted.isEmpty()) {
+            return 0;
+        }
+        Collections.sort(sorted);
+        int index = (int) Math.ceil(percentile / 100.0 * sorted.size()) - 1;
+        return sorted.get(Math.max(0, Math.min(index, sorted.size() - 1))) / 1_000_000.0;
+    }
+
+    String summary() {
+        return String.format("n=%d p50=%.1f ms p99=%.1f ms max=%.1f ms",
+                count(), percentileMillis(50), percentileMillis(99), percentileMillis(100));
+    }
+}
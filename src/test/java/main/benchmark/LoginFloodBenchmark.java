@@ -0,0 +1,129 @@
+package main.benchmark;
+
+import main.model.Category;
+import main.model.Event;
+import main.model.Role;
+import main.model.User;
+import main.repository.CategoryRepository;
+import main.repository.EventRepository;
+import main.repository.UserRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.net.http.HttpResponse;
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// Per-IP throttling is lifted so every flood request reaches the password encoder and the hashing pool is what is measured.
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+        properties = "security.login.max-attempts-per-ip=1000000")
+@ActiveProfiles("benchmark")
+class LoginFloodBenchmark {
+
+    private static final int EVENT_COUNT = 50;
+    private static final int SAMPLES = 200;
+    private static final int FLOOD_CLIENTS = 32;
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private CategoryRepository categoryRepository;
+
+    @Autowired
+    private EventRepository eventRepository;
+
+    @Autowired
+    private PasswordEncoder passwordEncoder;
+
+    @Test
+    void eventsLatencyWhileLoginIsFlooded() throws Exception {
+        seed();
+
+        BenchmarkClient browser = new BenchmarkClient(port);
+        browser.login("reader@example.com", "password123");
+
+        measureEvents(browser);
+        LatencyStats baseline = measureEvents(browser);
+
+        AtomicBoolean flooding = new AtomicBoolean(true);
+        Map<String, AtomicLong> outcomes = new ConcurrentHashMap<>();
+        ExecutorService flood = Executors.newFixedThreadPool(FLOOD_CLIENTS);
+        for (int i = 0; i < FLOOD_CLIENTS; i++) {
+            int clientId = i;
+            flood.submit(() -> {
+                BenchmarkClient attacker = new BenchmarkClient(port);
+                String token = attacker.csrfToken();
+                long attempt = 0;
+                while (flooding.get()) {
+                    HttpResponse<Void> response = attacker.postLogin("victim-" + clientId + "-" + attempt++ + "@example.com", "wrong", token);
+                    String location = response.headers().firstValue("Location").orElse("status-" + response.statusCode());
+                    outcomes.computeIfAbsent(location.replaceAll("^https?://[^/]+", ""), key -> new AtomicLong()).incrementAndGet();
+                }
+                return null;
+            });
+        }
+
+        Thread.sleep(2000);
+        LatencyStats underFlood = measureEvents(browser);
+        flooding.set(false);
+        flood.shutdown();
+        assertTrue(flood.awaitTermination(30, TimeUnit.SECONDS));
+
+        System.out.println("GET /events baseline:      " + baseline.summary());
+        System.out.println("GET /events under flood:   " + underFlood.summary());
+        System.out.println("POST /login flood outcomes: " + outcomes);
+
+        assertEquals(SAMPLES, underFlood.count());
+    }
+
+    private void seed() {
+        User reader = userRepository.save(User.builder()
+                .username("reader")
+                .email("reader@example.com")
+                .password(passwordEncoder.encode("password123"))
+                .role(Role.USER)
+                .createdOn(LocalDateTime.now())
+                .updatedOn(LocalDateTime.now())
+                .build());
+        Category category = categoryRepository.save(Category.builder().name("Benchmark").isActive(true).build());
+        for (int i = 0; i < EVENT_COUNT; i++) {
+            eventRepository.save(Event.builder()
+                    .name("Event " + i)
+                    .description("Benchmark event")
+                    .location("Sofia")
+                    .startTime(LocalDateTime.now().plusDays(i + 1))
+                    .endTime(LocalDateTime.now().plusDays(i + 2))
+                    .capacity(100)
+                    .category(category)
+                    .creator(reader)
+                    .build());
+        }
+    }
+
+    private LatencyStats measureEvents(BenchmarkClient client) throws Exception {
+        LatencyStats stats = new LatencyStats();
+        for (int i = 0; i < SAMPLES; i++) {
+            long start = System.nanoTime();
+            HttpResponse<Void> response = client.get("/events");
+            stats.record(System.nanoTime() - start);
+            assertEquals(200, response.statusCode());
+        }
+        return stats;
+    }
+}
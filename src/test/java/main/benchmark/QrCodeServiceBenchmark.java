@@ -0,0 +1,48 @@
+package main.benchmark;
+
+import main.service.QrCodeService;
+import org.junit.jupiter.api.Test;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.concurrent.TimeUnit;
+
+// Encoding a ticket code as a 320x320 PNG, as /tickets/{code}/qr does on every request
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class QrCodeServiceBenchmark {
+
+    private final QrCodeService qrCodeService = new QrCodeService();
+
+    @Benchmark
+    public byte[] ticketPng() {
+        return qrCodeService.generatePng("9f3c2a7e-41b8-4d0e-a6f5-3b2c1d0e9f8a");
+    }
+
+    @Test
+    void runWithJmh() throws Exception {
+        new Runner(new OptionsBuilder()
+                .include(QrCodeServiceBenchmark.class.getSimpleName())
+                .resultFormat(ResultFormatType.JSON)
+                .result("target/jmh-qr-code.json")
+                .build()).run();
+    }
+
+    public static void main(String[] args) throws Exception {
+        new QrCodeServiceBenchmark().runWithJmh();
+    }
+}
@@ -0,0 +1,94 @@
+package main.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import main.web.dto.EventRatingSummaryResponse;
+import main.web.dto.RatingResponse;
+import org.junit.jupiter.api.Test;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+// Jackson mapping of the rating service's summary, read by RatingClient for every past event on /home
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RatingSummaryJsonBenchmark {
+
+    @Param({"0", "50"})
+    private int ratings;
+
+    // Configured like the application's mapper (java.time support, no timestamps for dates)
+    private final ObjectMapper objectMapper = Jackson2ObjectMapperBuilder.json().build();
+
+    private EventRatingSummaryResponse summary;
+    private byte[] json;
+
+    @Setup
+    public void createSummary() throws IOException {
+        UUID eventId = UUID.randomUUID();
+        LocalDateTime now = LocalDateTime.now().withNano(0);
+        List<RatingResponse> rows = new ArrayList<>(ratings);
+        for (int i = 0; i < ratings; i++) {
+            rows.add(RatingResponse.builder()
+                    .id(UUID.randomUUID())
+                    .eventId(eventId)
+                    .userId(UUID.randomUUID())
+                    .score(1 + i % 5)
+                    .createdOn(now.minusDays(i))
+                    .updatedOn(now.minusDays(i))
+                    .build());
+        }
+        summary = EventRatingSummaryResponse.builder()
+                .eventId(eventId)
+                .averageScore(ratings == 0 ? null : 3.0)
+                .totalRatings((long) ratings)
+                .ratings(rows)
+                .build();
+        json = objectMapper.writeValueAsBytes(summary);
+    }
+
+    @Benchmark
+    public byte[] serialize() throws IOException {
+        return objectMapper.writeValueAsBytes(summary);
+    }
+
+    @Benchmark
+    public EventRatingSummaryResponse deserialize() throws IOException {
+        return objectMapper.readValue(json, EventRatingSummaryResponse.class);
+    }
+
+    @Test
+    void runWithJmh() throws Exception {
+        new Runner(new OptionsBuilder()
+                .include(RatingSummaryJsonBenchmark.class.getSimpleName())
+                .resultFormat(ResultFormatType.JSON)
+                .result("target/jmh-rating-summary-json.json")
+                .build()).run();
+    }
+
+    public static void main(String[] args) throws Exception {
+        new RatingSummaryJsonBenchmark().runWithJmh();
+    }
+}
@@ -0,0 +1,81 @@
+package main.benchmark;
+
+import main.exception.ServiceBusyException;
+import main.model.Role;
+import main.model.User;
+import main.repository.UserRepository;
+import main.service.UserService;
+import main.web.dto.RegisterRequest;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.NONE)
+@ActiveProfiles("benchmark")
+class RegistrationBurstBenchmark {
+
+    private static final int BURST_SIZE = 400;
+    private static final int CONCURRENT_CLIENTS = 64;
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Test
+    void registrationBurst() throws Exception {
+        AtomicInteger registered = new AtomicInteger();
+        AtomicInteger rejected = new AtomicInteger();
+        CountDownLatch startSignal = new CountDownLatch(1);
+        ExecutorService clients = Executors.newFixedThreadPool(CONCURRENT_CLIENTS);
+
+        List<Future<?>> results = new ArrayList<>();
+        for (int i = 0; i < BURST_SIZE; i++) {
+            RegisterRequest request = new RegisterRequest();
+            request.setUsername("burst-user-" + i);
+            request.setEmail("burst-" + i + "@example.com");
+            request.setPassword("password123");
+            results.add(clients.submit(() -> {
+                startSignal.await();
+                try {
+                    userService.register(request);
+                    registered.incrementAndGet();
+                } catch (ServiceBusyException e) {
+                    rejected.incrementAndGet();
+                }
+                return null;
+            }));
+        }
+
+        long start = System.nanoTime();
+        startSignal.countDown();
+        for (Future<?> result : results) {
+            result.get();
+        }
+        long elapsedNanos = System.nanoTime() - start;
+        clients.shutdown();
+        assertTrue(clients.awaitTermination(10, TimeUnit.SECONDS));
+
+        double seconds = elapsedNanos / 1_000_000_000.0;
+        System.out.printf("Registration burst: %d requests, %d clients, %d registered, %d rejected as busy, %.2f s, %.1f signups/s%n",
+                BURST_SIZE, CONCURRENT_CLIENTS, registered.get(), rejected.get(), seconds, registered.get() / seconds);
+
+        List<User> users = userRepository.findAll();
+        assertEquals(BURST_SIZE, registered.get() + rejected.get());
+        assertEquals(registered.get(), users.size());
+        assertEquals(1, users.stream().filter(user -> user.getRole() == Role.ADMIN).count());
+    }
+}
@@ -0,0 +1,77 @@
+package main.benchmark;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import main.repository.SubscriptionRepository;
+import main.service.SubscriptionService;
+import main.service.TicketService;
+import org.junit.jupiter.api.Test;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import static org.mockito.Mockito.withSettings;
+
+// Collecting the event ids of a user's subscriptions into a set, which every listing page does before converting events
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SubscriptionServiceBenchmark {
+
+    @Param({"10", "1000"})
+    private int subscriptions;
+
+    private SubscriptionService subscriptionService;
+    private UUID userId;
+
+    @Setup
+    public void createService() {
+        userId = UUID.randomUUID();
+        List<UUID> eventIds = new ArrayList<>(subscriptions);
+        for (int i = 0; i < subscriptions; i++) {
+            eventIds.add(UUID.randomUUID());
+        }
+        SubscriptionRepository repository = mock(SubscriptionRepository.class, withSettings().stubOnly());
+        when(repository.findEventIdsByUserId(userId)).thenReturn(eventIds);
+        subscriptionService = new SubscriptionService(repository, mock(TicketService.class), new SimpleMeterRegistry());
+    }
+
+    @Benchmark
+    public Set<UUID> subscribedEventIds() {
+        return subscriptionService.getSubscribedEventIds(userId);
+    }
+
+    @Test
+    void runWithJmh() throws Exception {
+        new Runner(new OptionsBuilder()
+                .include(SubscriptionServiceBenchmark.class.getSimpleName())
+                .resultFormat(ResultFormatType.JSON)
+                .result("target/jmh-subscription-service.json")
+                .build()).run();
+    }
+
+    public static void main(String[] args) throws Exception {
+        new SubscriptionServiceBenchmark().runWithJmh();
+    }
+}
@@ -0,0 +1,51 @@
+package main.benchmark;
+
+import main.EventAppApplication;
+import main.datagen.SyntheticDataGenerator;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import javax.sql.DataSource;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// Time to bulk-load 1M subscriptions with tickets into H2 in MySQL mode, then a check that the generated graph is valid
+class SyntheticDataGeneratorBenchmark {
+
+    private static final int USERS = Integer.getInteger("benchmark.datagen.users", 100_000);
+    private static final int EVENTS = Integer.getInteger("benchmark.datagen.events", 10_000);
+    private static final long SUBSCRIPTIONS = Long.getLong("benchmark.datagen.subscriptions", 1_000_000);
+
+    @Test
+    void millionSubscriptions() throws Exception {
+        try (ConfigurableApplicationContext context = new SpringApplicationBuilder(EventAppApplication.class)
+                .profiles("benchmark")
+                .run("--server.port=0",
+                        "--spring.datasource.url=jdbc:h2:mem:datagen;MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1")) {
+            SyntheticDataGenerator generator = new SyntheticDataGenerator(context.getBean(DataSource.class),
+                    context.getBean(PasswordEncoder.class), USERS, EVENTS, SUBSCRIPTIONS, 12, 1.0, 5000, 42, "password123");
+
+            long start = System.nanoTime();
+            long written = generator.generate();
+            long millis = (System.nanoTime() - start) / 1_000_000;
+            System.out.printf("%d users, %d events, %d subscriptions and tickets in %d ms (%d subscriptions/s)%n",
+                    USERS, EVENTS, written, millis, written * 1000 / Math.max(1, millis));
+
+            JdbcTemplate jdbc = new JdbcTemplate(context.getBean(DataSource.class));
+            assertEquals(SUBSCRIPTIONS, written);
+            assertEquals(SUBSCRIPTIONS, jdbc.queryForObject("select count(*) from subscriptions", Long.class));
+            assertEquals(SUBSCRIPTIONS, jdbc.queryForObject("select count(*) from tickets", Long.class));
+            assertEquals(SUBSCRIPTIONS, jdbc.queryForObject(
+                    "select count(*) from (select distinct user_id, event_id from subscriptions) pairs", Long.class));
+            assertEquals(0, jdbc.queryForObject("select count(*) from events e where e.capacity is not null and"
+                    + " e.capacity < (select count(*) from subscriptions s where s.event_id = e.id)", Long.class));
+            System.out.println("Top events by subscriptions: " + jdbc.queryForList(
+                    "select count(*) from subscriptions group by event_id order by count(*) desc limit 5", Long.class));
+
+            assertEquals(0, generator.generate(), "A second run must not duplicate the data");
+        }
+    }
+}
@@ -0,0 +1,255 @@
+package main.benchmark;
+
+import main.EventAppApplication;
+import main.model.Category;
+import main.model.Event;
+import main.model.Role;
+import main.model.Subscription;
+import main.model.User;
+import main.repository.CategoryRepository;
+import main.repository.EventRepository;
+import main.repository.SubscriptionRepository;
+import main.repository.UserRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// Closed-loop user journeys (login, then /events, subscribe, /home, ticket QR, unsubscribe) against the real app on
+// H2 in MySQL mode and a local rating stub; reports throughput and p50/p99 per endpoint. Run with mvn test -Pload
+class UserJourneyLoadBenchmark {
+
+    private static final int USERS = Integer.getInteger("benchmark.journeys.users", 8);
+    private static final int UPCOMING_EVENTS = Integer.getInteger("benchmark.journeys.events", 200);
+    // Pages browsed per login; BCrypt would dominate on small machines if every journey logged in again
+    private static final int ROUNDS_PER_LOGIN = Integer.getInteger("benchmark.journeys.rounds-per-login", 5);
+    private static final int PAST_EVENTS_PER_USER = 3;
+    private static final long RATING_DELAY_MILLIS = Long.getLong("benchmark.rating-delay-ms", 5);
+    private static final Duration WARM_UP = Duration.ofSeconds(Long.getLong("benchmark.warm-up-seconds", 10));
+    private static final Duration MEASUREMENT = Duration.ofSeconds(Long.getLong("benchmark.measurement-seconds", 30));
+    private static final String PASSWORD = "password123";
+    private static final Pattern TICKET_QR = Pattern.compile("/tickets/([0-9a-f-]{36})/qr");
+
+    private static final List<String> STEPS = List.of("GET /login", "POST /login", "GET /events",
+            "POST /events/{id}/subscriptions", "GET /home", "GET /tickets/{code}/qr", "DELETE /events/{id}/subscriptions");
+
+    @Test
+    void userJourneys() throws Exception {
+        try (RatingServiceStub ratingStub = new RatingServiceStub(RATING_DELAY_MILLIS);
+             ConfigurableApplicationContext context = new SpringApplicationBuilder(EventAppApplication.class)
+                     .profiles("benchmark")
+                     .run("--server.port=0",
+                             "--spring.datasource.url=jdbc:h2:mem:journeys;MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1",
+                             "--rating.service.url=" + ratingStub.url(),
+                             // Every simulated user logs in from localhost, which the per-IP throttle would block
+                             "--security.login.max-attempts-per-ip=" + Integer.MAX_VALUE,
+                             // Measure login latency under load instead of shedding it once the hashing queue waits 5 s
+                             "--security.password-hashing.timeout-ms=" + Duration.ofMinutes(1).toMillis())) {
+            List<UUID> events = seed(context);
+            int port = ((WebServerApplicationContext) context).getWebServer().getPort();
+
+            run(port, events, WARM_UP, new Stats());
+            Stats stats = new Stats();
+            run(port, events, MEASUREMENT, stats);
+
+            System.out.println(USERS + " users, " + ROUNDS_PER_LOGIN + " journeys per login, " + UPCOMING_EVENTS + " upcoming events, rating stub delay "
+                    + RATING_DELAY_MILLIS + " ms, " + MEASUREMENT.toSeconds() + " s measured");
+            System.out.println(stats.report());
+            assertTrue(stats.journeys.get() > 0, "No journey completed");
+        }
+    }
+
+    private void run(int port, List<UUID> events, Duration duration, Stats stats) throws Exception {
+        AtomicBoolean running = new AtomicBoolean(true);
+        ExecutorService executor = Executors.newFixedThreadPool(USERS);
+        try {
+            List<Future<?>> users = new ArrayList<>();
+            for (int i = 0; i < USERS; i++) {
+                String email = "user" + i + "@example.com";
+                BenchmarkClient client = new BenchmarkClient(port);
+                users.add(executor.submit(() -> {
+                    while (running.get()) {
+                        try {
+                            session(client, email, events, stats, running);
+                        } catch (Exception e) {
+                            stats.failedJourneys.incrementAndGet();
+                        }
+                    }
+                    return null;
+                }));
+            }
+            Thread.sleep(duration.toMillis());
+            running.set(false);
+            for (Future<?> user : users) {
+                user.get();
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    // A failed step ends the session; the next one starts with a fresh login
+    private void session(BenchmarkClient client, String email, List<UUID> events, Stats stats, AtomicBoolean running)
+            throws Exception {
+        client.logout();
+        HttpResponse<String> loginPage = step(stats, running, "GET /login", 200, () -> client.getPage("/login"));
+        HttpResponse<Void> login = step(stats, running, "POST /login", 302,
+                () -> client.postLogin(email, PASSWORD, BenchmarkClient.csrfToken(loginPage.body())));
+        if (!login.headers().firstValue("Location").orElse("").endsWith("/home")) {
+            stats.errors.get("POST /login").incrementAndGet();
+            throw new IllegalStateException("Login rejected for " + email);
+        }
+        for (int round = 0; round < ROUNDS_PER_LOGIN && running.get(); round++) {
+            journey(client, events, stats, running);
+            if (running.get()) {
+                stats.journeys.incrementAndGet();
+            }
+        }
+    }
+
+    private void journey(BenchmarkClient client, List<UUID> events, Stats stats, AtomicBoolean running) throws Exception {
+        HttpResponse<String> listing = step(stats, running, "GET /events", 200, () -> client.getPage("/events"));
+        String token = BenchmarkClient.csrfToken(listing.body());
+        UUID event = events.get(ThreadLocalRandom.current().nextInt(events.size()));
+        step(stats, running, "POST /events/{id}/subscriptions", 302,
+                () -> client.postForm("/events/" + event + "/subscriptions", token, null));
+        HttpResponse<String> home = step(stats, running, "GET /home", 200, () -> client.getPage("/home"));
+        Matcher ticket = TICKET_QR.matcher(home.body());
+        if (!ticket.find()) {
+            throw new IllegalStateException("No ticket on /home after subscribing");
+        }
+        step(stats, running, "GET /tickets/{code}/qr", 200, () -> client.get("/tickets/" + ticket.group(1) + "/qr"));
+        step(stats, running, "DELETE /events/{id}/subscriptions", 302,
+                () -> client.postForm("/events/" + event + "/subscriptions", token, "delete"));
+    }
+
+    private <T> HttpResponse<T> step(Stats stats, AtomicBoolean running, String name, int expectedStatus,
+                                     Request<T> request) throws Exception {
+        long start = System.nanoTime();
+        HttpResponse<T> response;
+        try {
+            response = request.send();
+        } catch (Exception e) {
+            stats.errors.get(name).incrementAndGet();
+            throw e;
+        }
+        if (response.statusCode() != expectedStatus) {
+            stats.errors.get(name).incrementAndGet();
+            throw new IllegalStateException(name + " returned " + response.statusCode());
+        }
+        if (running.get()) {
+            stats.latencies.get(name).record(System.nanoTime() - start);
+        }
+        return response;
+    }
+
+    // One account per simulated user, each with a few past subscriptions so /home fans out to the rating stub
+    private List<UUID> seed(ConfigurableApplicationContext context) {
+        UserRepository userRepository = context.getBean(UserRepository.class);
+        CategoryRepository categoryRepository = context.getBean(CategoryRepository.class);
+        EventRepository eventRepository = context.getBean(EventRepository.class);
+        SubscriptionRepository subscriptionRepository = context.getBean(SubscriptionRepository.class);
+        String passwordHash = context.getBean(PasswordEncoder.class).encode(PASSWORD);
+
+        List<Category> categories = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            categories.add(categoryRepository.save(Category.builder().name("Категория " + i).isActive(true).build()));
+        }
+        User organizer = userRepository.save(user("organizer", passwordHash));
+        List<UUID> upcoming = new ArrayList<>();
+        for (int i = 0; i < UPCOMING_EVENTS; i++) {
+            upcoming.add(eventRepository.save(event("Събитие " + i, LocalDateTime.now().plusHours(i + 1),
+                    categories.get(i % categories.size()), organizer)).getId());
+        }
+        for (int i = 0; i < USERS; i++) {
+            User user = userRepository.save(user("user" + i, passwordHash));
+            for (int p = 0; p < PAST_EVENTS_PER_USER; p++) {
+                Event past = eventRepository.save(event("Минало " + i + "-" + p, LocalDateTime.now().minusDays(p + 1),
+                        categories.get(p % categories.size()), organizer));
+                subscriptionRepository.save(Subscription.builder()
+                        .user(user)
+                        .event(past)
+                        .subscriptionTime(LocalDateTime.now().minusDays(p + 2))
+                        .build());
+            }
+        }
+        return upcoming;
+    }
+
+    private static User user(String name, String passwordHash) {
+        return User.builder()
+                .username(name)
+                .email(name + "@example.com")
+                .password(passwordHash)
+                .role(Role.USER)
+                .createdOn(LocalDateTime.now())
+                .updatedOn(LocalDateTime.now())
+                .build();
+    }
+
+    private static Event event(String name, LocalDateTime start, Category category, User creator) {
+        return Event.builder()
+                .name(name)
+                .description("Събитие за натоварващия тест")
+                .location("София")
+                .startTime(start)
+                .endTime(start.plusHours(2))
+                .category(category)
+                .creator(creator)
+                .build();
+    }
+
+    @FunctionalInterface
+    private interface Request<T> {
+        HttpResponse<T> send() throws Exception;
+    }
+
+    private static final class Stats {
+
+        private final Map<String, LatencyStats> latencies = new LinkedHashMap<>();
+        private final Map<String, AtomicLong> errors = new LinkedHashMap<>();
+        private final AtomicLong journeys = new AtomicLong();
+        private final AtomicLong failedJourneys = new AtomicLong();
+
+        Stats() {
+            for (String step : STEPS) {
+                latencies.put(step, new LatencyStats());
+                errors.put(step, new AtomicLong());
+            }
+        }
+
+        String report() {
+            double seconds = MEASUREMENT.toSeconds();
+            StringBuilder report = new StringBuilder(String.format("%-36s %8s %8s %9s %9s %9s %7s%n",
+                    "Endpoint", "Requests", "req/s", "p50 ms", "p99 ms", "max ms", "Errors"));
+            for (String step : STEPS) {
+                LatencyStats stats = latencies.get(step);
+                report.append(String.format("%-36s %8d %8.1f %9.1f %9.1f %9.1f %7d%n", step, stats.count(),
+                        stats.count() / seconds, stats.percentileMillis(50), stats.percentileMillis(99),
+                        stats.percentileMillis(100), errors.get(step).get()));
+            }
+            return report.append(String.format("Journeys: %d (%.1f/s), failed sessions: %d",
+                    journeys.get(), journeys.get() / seconds, failedJourneys.get())).toString();
+        }
+    }
+}
@@ -0,0 +1,167 @@
+package main.benchmark;
+
+import main.EventAppApplication;
+import main.model.Category;
+import main.model.Event;
+import main.model.Role;
+import main.model.Subscription;
+import main.model.User;
+import main.repository.CategoryRepository;
+import main.repository.EventRepository;
+import main.repository.SubscriptionRepository;
+import main.repository.UserRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// Closed-loop load on /home, whose past-event ratings fan out to a stub rating service with a fixed network delay.
+class VirtualThreadLoadBenchmark {
+
+    // Overridable for small machines, e.g. -Dbenchmark.users=200
+    private static final int USERS = Integer.getInteger("benchmark.users", 2000);
+    private static final int PAST_EVENTS = 5;
+    private static final long RATING_DELAY_MILLIS = 25;
+    private static final Duration WARM_UP = Duration.ofSeconds(Long.getLong("benchmark.warm-up-seconds", 10));
+    private static final Duration MEASUREMENT = Duration.ofSeconds(Long.getLong("benchmark.measurement-seconds", 30));
+
+    private RatingServiceStub ratingStub;
+
+    @BeforeEach
+    void startRatingStub() throws Exception {
+        ratingStub = new RatingServiceStub(RATING_DELAY_MILLIS);
+    }
+
+    @AfterEach
+    void stopRatingStub() {
+        ratingStub.close();
+    }
+
+    @Test
+    void platformVersusVirtualThreads() throws Exception {
+        Result platform = run(false);
+        System.out.println(USERS + " users, platform threads: " + platform);
+
+        if (Runtime.version().feature() < 21) {
+            System.out.println(USERS + " users, virtual threads:  skipped, requires Java 21 (running " + Runtime.version() + ")");
+            return;
+        }
+        Result virtual = run(true);
+        System.out.println(USERS + " users, virtual threads:  " + virtual);
+    }
+
+    private Result run(boolean virtualThreads) throws Exception {
+        String mode = virtualThreads ? "virtual" : "platform";
+        try (ConfigurableApplicationContext context = new SpringApplicationBuilder(EventAppApplication.class)
+                .profiles("benchmark")
+                .run("--server.port=0",
+                        "--spring.threads.virtual.enabled=" + virtualThreads,
+                        "--spring.datasource.url=jdbc:h2:mem:vt_" + mode + ";MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1",
+                        "--rating.service.url=" + ratingStub.url())) {
+            seed(context);
+            int port = ((WebServerApplicationContext) context).getWebServer().getPort();
+            BenchmarkClient client = new BenchmarkClient(port);
+            client.login("reader@example.com", "password123");
+
+            drive(client, WARM_UP, new LatencyStats(), new AtomicLong());
+            LatencyStats stats = new LatencyStats();
+            AtomicLong errors = new AtomicLong();
+            drive(client, MEASUREMENT, stats, errors);
+
+            assertTrue(stats.count() > 0, "No /home request completed in " + mode + " mode, errors=" + errors.get());
+            return new Result(stats, errors.get());
+        }
+    }
+
+    // Every simulated user sends its next request as soon as the previous one completes
+    private void drive(BenchmarkClient client, Duration duration, LatencyStats stats, AtomicLong errors) throws Exception {
+        AtomicBoolean running = new AtomicBoolean(true);
+        HttpRequest request = HttpRequest.newBuilder(client.uri("/home")).timeout(Duration.ofSeconds(120)).GET().build();
+        CompletableFuture<?>[] users = new CompletableFuture<?>[USERS];
+        for (int i = 0; i < USERS; i++) {
+            CompletableFuture<Void> done = new CompletableFuture<>();
+            loop(client, request, running, stats, errors, done);
+            users[i] = done;
+        }
+        TimeUnit.MILLISECONDS.sleep(duration.toMillis());
+        running.set(false);
+        CompletableFuture.allOf(users).get(180, TimeUnit.SECONDS);
+    }
+
+    private void loop(BenchmarkClient client, HttpRequest request, AtomicBoolean running,
+                      LatencyStats stats, AtomicLong errors, CompletableFuture<Void> done) {
+        if (!running.get()) {
+            done.complete(null);
+            return;
+        }
+        long start = System.nanoTime();
+        client.httpClient().sendAsync(request, HttpResponse.BodyHandlers.discarding())
+                .whenComplete((response, failure) -> {
+                    if (failure != null || response.statusCode() != 200) {
+                        errors.incrementAndGet();
+                    } else if (running.get()) {
+                        stats.record(System.nanoTime() - start);
+                    }
+                    loop(client, request, running, stats, errors, done);
+                });
+    }
+
+    private void seed(ConfigurableApplicationContext context) {
+        UserRepository userRepository = context.getBean(UserRepository.class);
+        CategoryRepository categoryRepository = context.getBean(CategoryRepository.class);
+        EventRepository eventRepository = context.getBean(EventRepository.class);
+        SubscriptionRepository subscriptionRepository = context.getBean(SubscriptionRepository.class);
+        PasswordEncoder passwordEncoder = context.getBean(PasswordEncoder.class);
+
+        User reader = userRepository.save(User.builder()
+                .username("reader")
+                .email("reader@example.com")
+                .password(passwordEncoder.encode("password123"))
+                .role(Role.USER)
+                .createdOn(LocalDateTime.now())
+                .updatedOn(LocalDateTime.now())
+                .build());
+        Category category = categoryRepository.save(Category.builder().name("Benchmark").isActive(true).build());
+        for (int i = 0; i < PAST_EVENTS * 2; i++) {
+            boolean past = i < PAST_EVENTS;
+            Event event = eventRepository.save(Event.builder()
+                    .name("Event " + i)
+                    .description("Benchmark event")
+                    .location("Sofia")
+                    .startTime(past ? LocalDateTime.now().minusHours(i + 3) : LocalDateTime.now().plusDays(i))
+                    .endTime(past ? LocalDateTime.now().minusHours(i + 1) : LocalDateTime.now().plusDays(i + 1))
+                    .capacity(100)
+                    .category(category)
+                    .creator(reader)
+                    .build());
+            subscriptionRepository.save(Subscription.builder()
+                    .user(reader)
+                    .event(event)
+                    .subscriptionTime(LocalDateTime.now().minusDays(1))
+                    .build());
+        }
+    }
+
+    private record Result(LatencyStats stats, long errors) {
+
+        @Override
+        public String toString() {
+            return String.format("%.0f req/s, %s, errors=%d",
+                    stats.count() / (double) MEASUREMENT.toSeconds(), stats.summary(), errors);
+        }
+    }
+}
@@ -0,0 +1,41 @@
+package main.cache;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LocalStorageAccessTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @Test
+    void whenRegionIsFull_thenTheLeastRecentlyUsedEntryIsDropped() {
+        LocalStorageAccess region = new LocalStorageAccess("users", 2, meterRegistry);
+        region.putIntoCache("a", 1, null);
+        region.putIntoCache("b", 2, null);
+        region.getFromCache("a", null);
+
+        region.putIntoCache("c", 3, null);
+
+        assertTrue(region.contains("a"));
+        assertFalse(region.contains("b"));
+        assertTrue(region.contains("c"));
+        assertEquals(2, region.size());
+    }
+
+    @Test
+    void whenEntriesAreLookedUp_thenHitsAndMissesAreCountedPerRegion() {
+        LocalStorageAccess region = new LocalStorageAccess("categories", 10, meterRegistry);
+        region.putIntoCache("a", 1, null);
+
+        assertEquals(1, region.getFromCache("a", null));
+        assertNull(region.getFromCache("b", null));
+        region.evictData("a");
+        assertNull(region.getFromCache("a", null));
+
+        assertEquals(1, meterRegistry.get("hibernate.cache.requests").tag("region", "categories").tag("result", "hit").counter().count());
+        assertEquals(2, meterRegistry.get("hibernate.cache.requests").tag("region", "categories").tag("result", "miss").counter().count());
+        assertEquals(0, meterRegistry.get("hibernate.cache.entries").tag("region", "categories").gauge().value());
+    }
+}
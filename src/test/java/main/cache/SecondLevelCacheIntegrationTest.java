@@ -0,0 +1,143 @@
+package main.cache;
+
+import jakarta.persistence.EntityManagerFactory;
+import main.model.Category;
+import main.model.Event;
+import main.model.Role;
+import main.model.User;
+import main.monitoring.SqlStatementCounter;
+import main.repository.CategoryRepository;
+import main.repository.EventRepository;
+import main.repository.UserRepository;
+import main.service.CategoryService;
+import main.service.UserService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+// Not @Transactional: cached entries and query results only become visible to other sessions once a write commits,
+// so the rows are committed here and deleted again after each test.
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class SecondLevelCacheIntegrationTest {
+
+    private static final String EMAIL = "cache-user@example.com";
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private CategoryRepository categoryRepository;
+
+    @Autowired
+    private EventRepository eventRepository;
+
+    @Autowired
+    private CategoryService categoryService;
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private SqlStatementCounter sqlStatementCounter;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private User user;
+    private Category music;
+    private Category sports;
+    private Event event;
+
+    @BeforeEach
+    void setUp() {
+        user = userRepository.save(User.builder()
+                .username("cacheuser")
+                .email(EMAIL)
+                .password("not-used")
+                .firstName("Иван")
+                .role(Role.USER)
+                .createdOn(LocalDateTime.now())
+                .updatedOn(LocalDateTime.now())
+                .build());
+        music = categoryRepository.save(Category.builder().name("Кеш музика").build());
+        sports = categoryRepository.save(Category.builder().name("Кеш спорт").build());
+
+        event = new Event();
+        event.setName("Cached Event");
+        event.setStartTime(LocalDateTime.now().plusDays(1));
+        event.setEndTime(LocalDateTime.now().plusDays(2));
+        event.setCapacity(10);
+        event.setCategory(music);
+        event.setCreator(user);
+        event = eventRepository.save(event);
+    }
+
+    @AfterEach
+    void tearDown() {
+        eventRepository.delete(event);
+        categoryRepository.deleteAll(List.of(music, sports));
+        userRepository.delete(user);
+    }
+
+    @Test
+    @WithMockUser(username = EMAIL)
+    void whenEventsPageIsServedWithAWarmCache_thenTheUserAndCategoryQueriesAreSkipped() throws Exception {
+        entityManagerFactory.getCache().evictAll();
+
+        long cold = statementsForEventsPage();
+        long warm = statementsForEventsPage();
+
+        // The user lookup by email and the active category list both come from the query cache
+        assertEquals(cold - 2, warm, "Cold cache ran " + cold + " statements, warm cache " + warm);
+    }
+
+    @Test
+    void whenCategoryIsDeactivated_thenCachedLookupsSeeItImmediately() {
+        assertTrue(categoryService.getAllActive().contains(sports));
+        assertEquals(sports, categoryService.getActiveById(sports.getId()));
+
+        categoryService.deleteById(sports.getId());
+
+        assertFalse(categoryService.getAllActive().stream().anyMatch(c -> c.getId().equals(sports.getId())));
+        assertThrows(IllegalArgumentException.class, () -> categoryService.getActiveById(sports.getId()));
+    }
+
+    @Test
+    @WithMockUser(username = EMAIL)
+    void whenUserIsRenamed_thenTheCachedLookupByEmailReturnsTheNewName() {
+        userService.getByEmail(EMAIL);
+        long before = sqlStatementCounter.current();
+        assertEquals("Иван", userService.getByEmail(EMAIL).getFirstName());
+        assertEquals(before, sqlStatementCounter.current());
+
+        userService.updateNames(user.getId(), "Петър", "Петров");
+
+        User renamed = userService.getByEmail(EMAIL);
+        assertEquals("Петър", renamed.getFirstName());
+        assertEquals("Петров", renamed.getLastName());
+    }
+
+    private long statementsForEventsPage() throws Exception {
+        long before = sqlStatementCounter.current();
+        mockMvc.perform(get("/events")).andExpect(status().isOk());
+        return sqlStatementCounter.current() - before;
+    }
+}
@@ -0,0 +1,71 @@
+package main.calendar;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.Arrays;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ICalendarWriterTest {
+
+    private static final ZoneId SOFIA = ZoneId.of("Europe/Sofia");
+    private static final Instant STAMP = Instant.parse("2026-10-19T08:00:00Z");
+
+    @Test
+    void whenEventIsWritten_thenTimesAreInUtcAndLinesEndWithCrlf() throws IOException {
+        UUID id = UUID.randomUUID();
+        String ics = write(new CalendarFeedEntry(id, "Джаз вечер", null, "София", 42.6977, 23.3219,
+                LocalDateTime.of(2026, 10, 24, 20, 0), LocalDateTime.of(2026, 10, 24, 23, 0)));
+
+        assertTrue(ics.startsWith("BEGIN:VCALENDAR\r\nVERSION:2.0\r\n"));
+        assertTrue(ics.endsWith("END:VCALENDAR\r\n"));
+        assertTrue(ics.contains("UID:" + id + "@eventapp\r\n"));
+        assertTrue(ics.contains("DTSTAMP:20261019T080000Z\r\n"));
+        assertTrue(ics.contains("DTSTART:20261024T170000Z\r\n"));
+        assertTrue(ics.contains("DTEND:20261024T200000Z\r\n"));
+        assertTrue(ics.contains("SUMMARY:Джаз вечер\r\n"));
+        assertTrue(ics.contains("GEO:42.697700;23.321900\r\n"));
+        assertFalse(ics.contains("DESCRIPTION"));
+        assertFalse(ics.replace("\r\n", "").contains("\n"));
+    }
+
+    @Test
+    void whenTextHasSpecialCharacters_thenTheyAreEscaped() throws IOException {
+        String ics = write(new CalendarFeedEntry(UUID.randomUUID(), "Рок; поп, джаз", "Ред 1\r\nРед 2 \\ край", null, null, null,
+                LocalDateTime.of(2026, 10, 24, 20, 0), null));
+
+        assertTrue(ics.contains("SUMMARY:Рок\\; поп\\, джаз\r\n"));
+        assertTrue(ics.contains("DESCRIPTION:Ред 1\\nРед 2 \\\\ край\r\n"));
+        assertFalse(ics.contains("DTEND"));
+    }
+
+    @Test
+    void whenLineIsLong_thenItIsFoldedAt75OctetsWithoutSplittingCharacters() throws IOException {
+        String description = "Събитие ".repeat(40);
+        String ics = write(new CalendarFeedEntry(UUID.randomUUID(), "Дълго", description, null, null, null,
+                LocalDateTime.of(2026, 10, 24, 20, 0), null));
+
+        for (String line : ics.split("\r\n")) {
+            assertTrue(line.getBytes(StandardCharsets.UTF_8).length <= 75, line);
+        }
+        String unfolded = ics.replace("\r\n ", "");
+        assertTrue(unfolded.contains("DESCRIPTION:" + description + "\r\n"));
+        assertTrue(Arrays.stream(ics.split("\r\n")).filter(line -> line.startsWith(" ")).count() > 5);
+    }
+
+    private static String write(CalendarFeedEntry entry) throws IOException {
+        StringWriter out = new StringWriter();
+        ICalendarWriter writer = new ICalendarWriter(out, SOFIA);
+        writer.beginCalendar("-//EventApp//Test//BG", "EventApp");
+        writer.event(entry, "eventapp", STAMP);
+        writer.endCalendar();
+        return out.toString();
+    }
+}
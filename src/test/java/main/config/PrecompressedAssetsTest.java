@@ -0,0 +1,95 @@
+package main.config;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Stream;
+import java.util.zip.Deflater;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// Guards the .gz siblings served by the resource chain; regenerate them with
+// mvn test -Dtest=PrecompressedAssetsTest -Dassets.precompress=true
+class PrecompressedAssetsTest {
+
+    private static final Path STATIC = Paths.get("src/main/resources/static");
+    private static final Set<String> COMPRESSIBLE = Set.of("css", "js", "svg");
+
+    @Test
+    void whenBuilding_thenEveryTextAssetHasAnUpToDateGzipSibling() throws IOException {
+        boolean regenerate = Boolean.getBoolean("assets.precompress");
+        List<String> stale = new ArrayList<>();
+
+        for (Path asset : assets()) {
+            byte[] original = Files.readAllBytes(asset);
+            Path gzip = asset.resolveSibling(asset.getFileName() + ".gz");
+            if (Files.exists(gzip) && Arrays.equals(gunzip(Files.readAllBytes(gzip)), original)) {
+                continue;
+            }
+            if (regenerate) {
+                Files.write(gzip, gzip(original));
+            } else {
+                stale.add(STATIC.relativize(gzip).toString());
+            }
+        }
+
+        assertTrue(stale.isEmpty(), "Missing or stale precompressed assets: " + stale);
+    }
+
+    @Test
+    void whenBuilding_thenNoPrecompressedFileIsOrphaned() throws IOException {
+        try (Stream<Path> files = Files.walk(STATIC)) {
+            List<Path> orphans = files
+                    .filter(file -> file.toString().endsWith(".gz") || file.toString().endsWith(".br"))
+                    .filter(file -> !Files.exists(file.resolveSibling(file.getFileName().toString().replaceFirst("\\.(gz|br)$", ""))))
+                    .toList();
+            assertEquals(List.of(), orphans);
+        }
+    }
+
+    private static List<Path> assets() throws IOException {
+        try (Stream<Path> files = Files.walk(STATIC)) {
+            return files.filter(Files::isRegularFile)
+                    .filter(file -> COMPRESSIBLE.contains(extension(file)))
+                    .sorted()
+                    .toList();
+        }
+    }
+
+    private static String extension(Path file) {
+        String name = file.getFileName().toString();
+        int dot = name.lastIndexOf('.');
+        return dot < 0 ? "" : name.substring(dot + 1);
+    }
+
+    private static byte[] gzip(byte[] data) throws IOException {
+        ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+        try (OutputStream out = new GZIPOutputStream(buffer) {
+            {
+                def.setLevel(Deflater.BEST_COMPRESSION);
+            }
+        }) {
+            out.write(data);
+        }
+        return buffer.toByteArray();
+    }
+
+    private static byte[] gunzip(byte[] data) throws IOException {
+        try (InputStream in = new GZIPInputStream(new ByteArrayInputStream(data))) {
+            return in.readAllBytes();
+        }
+    }
+}
@@ -0,0 +1,57 @@
+package main.controller;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.Matchers.hasSize;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class AdminPoolControllerIntegrationTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Test
+    @WithMockUser(username = "admin@example.com", roles = {"ADMIN"})
+    void whenAdminOpensPoolsPage_thenEachPoolIsListed() throws Exception {
+        mockMvc.perform(get("/admin/pools"))
+                .andExpect(status().isOk())
+                .andExpect(view().name("admin-pools"))
+                .andExpect(model().attribute("pools", hasSize(2)))
+                .andExpect(content().string(containsString("primary")))
+                .andExpect(content().string(containsString("batch")))
+                .andExpect(content().string(containsString("след 10000 ms")));
+    }
+
+    @Test
+    @WithMockUser(username = "user@example.com", roles = {"USER"})
+    void whenUserOpensPoolsPage_thenAccessIsDenied() throws Exception {
+        mockMvc.perform(get("/admin/pools"))
+                .andExpect(status().isForbidden());
+    }
+
+    @Test
+    void whenPoolHasHandedOutConnections_thenAcquireTimeIsRecordedInBuckets() {
+        Timer acquire = meterRegistry.get("hikaricp.connections.acquire").tag("pool", "primary").timer();
+
+        assertTrue(acquire.count() > 0);
+        assertEquals(9, acquire.takeSnapshot().histogramCounts().length);
+        assertNotNull(meterRegistry.find("hikaricp.connections.pending").tag("pool", "primary").gauge());
+    }
+}
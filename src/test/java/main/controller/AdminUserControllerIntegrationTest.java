@@ -118,5 +118,11 @@ class AdminUserControllerIntegrationTest {
 
         assertTrue(userRepository.findById(adminUser.getId()).isPresent());
     }
-}
 
+    @Test
+    @WithMockUser(username = "admin@example.com", roles = {"ADMIN"})
+    void whenGetDeletionStatusWithoutDeletion_thenNotFound() throws Exception {
+        mockMvc.perform(get("/admin/users/{userId}/deletion", regularUser.getId()))
+                .andExpect(status().isNotFound());
+    }
+}
@@ -0,0 +1,166 @@
+package main.controller;
+
+import jakarta.persistence.EntityManager;
+import main.model.CalendarFeed;
+import main.model.Category;
+import main.model.Event;
+import main.model.Role;
+import main.model.User;
+import main.repository.CategoryRepository;
+import main.repository.EventRepository;
+import main.repository.UserRepository;
+import main.service.CalendarFeedService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+
+import static org.hamcrest.Matchers.containsString;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.csrf;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+@Transactional
+class CalendarFeedControllerIntegrationTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private CategoryRepository categoryRepository;
+
+    @Autowired
+    private EventRepository eventRepository;
+
+    @Autowired
+    private CalendarFeedService calendarFeedService;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    private User testUser;
+    private CalendarFeed feed;
+
+    @BeforeEach
+    void setUp() {
+        testUser = new User();
+        testUser.setUsername("feeduser");
+        testUser.setEmail("feed@example.com");
+        testUser.setPassword("password123");
+        testUser.setRole(Role.USER);
+        testUser.setCreatedOn(LocalDateTime.now());
+        testUser.setUpdatedOn(LocalDateTime.now());
+        testUser = userRepository.save(testUser);
+
+        Category category = new Category();
+        category.setName("Feed Category");
+        category.setIsActive(true);
+        category = categoryRepository.save(category);
+
+        Event event = new Event();
+        event.setName("Feed Event");
+        event.setLocation("Sofia");
+        event.setStartTime(LocalDateTime.now().plusDays(1));
+        event.setEndTime(LocalDateTime.now().plusDays(1).plusHours(2));
+        event.setCapacity(10);
+        event.setCategory(category);
+        event.setCreator(testUser);
+        eventRepository.save(event);
+
+        feed = calendarFeedService.getOrCreate(testUser.getId());
+    }
+
+    @Test
+    void whenTokenIsValid_thenFeedIsServedWithoutLogin() throws Exception {
+        MvcResult result = mockMvc.perform(get("/calendar/" + feed.getToken() + ".ics"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith("text/calendar"))
+                .andExpect(header().exists(HttpHeaders.ETAG))
+                .andExpect(header().exists(HttpHeaders.LAST_MODIFIED))
+                .andExpect(content().string(containsString("BEGIN:VCALENDAR\r\n")))
+                .andExpect(content().string(containsString("SUMMARY:Feed Event\r\n")));
+    }
+
+    @Test
+    void whenETagMatches_thenNotModified() throws Exception {
+        String eTag = fetchETag();
+
+        mockMvc.perform(get("/calendar/" + feed.getToken() + ".ics").header(HttpHeaders.IF_NONE_MATCH, eTag))
+                .andExpect(status().isNotModified());
+    }
+
+    @Test
+    void whenFeedIsTouched_thenETagChanges() throws Exception {
+        String before = fetchETag();
+
+        calendarFeedService.touchUser(testUser.getId());
+        entityManager.flush();
+        entityManager.clear();
+
+        mockMvc.perform(get("/calendar/" + feed.getToken() + ".ics").header(HttpHeaders.IF_NONE_MATCH, before))
+                .andExpect(request().asyncStarted());
+        assertNotEquals(before, fetchETag());
+    }
+
+    @Test
+    void whenTokenIsUnknown_thenNotFound() throws Exception {
+        mockMvc.perform(get("/calendar/unknown-token.ics"))
+                .andExpect(status().isNotFound());
+    }
+
+    @Test
+    @WithMockUser(username = "feed@example.com")
+    void whenProfileIsShown_thenFeedUrlIsIncluded() throws Exception {
+        mockMvc.perform(get("/profile"))
+                .andExpect(status().isOk())
+                .andExpect(model().attribute("calendarFeedUrl", containsString("/calendar/" + feed.getToken() + ".ics")));
+    }
+
+    @Test
+    @WithMockUser(username = "feed@example.com")
+    void whenProfileIsShownWithoutAFeed_thenNoneIsCreatedUntilItIsRequested() throws Exception {
+        calendarFeedService.delete(testUser.getId());
+
+        mockMvc.perform(get("/profile"))
+                .andExpect(status().isOk())
+                .andExpect(model().attributeDoesNotExist("calendarFeedUrl"))
+                .andExpect(content().string(containsString("/profile/calendar-feed")));
+        assertTrue(calendarFeedService.find(testUser.getId()).isEmpty());
+
+        mockMvc.perform(post("/profile/calendar-feed").with(csrf()))
+                .andExpect(redirectedUrl("/profile"));
+
+        CalendarFeed created = calendarFeedService.find(testUser.getId()).orElseThrow();
+        mockMvc.perform(get("/profile"))
+                .andExpect(model().attribute("calendarFeedUrl", containsString("/calendar/" + created.getToken() + ".ics")));
+    }
+
+    private String fetchETag() throws Exception {
+        MvcResult result = mockMvc.perform(get("/calendar/" + feed.getToken() + ".ics")).andReturn();
+        String eTag = result.getResponse().getHeader(HttpHeaders.ETAG);
+        assertNotNull(eTag);
+        return eTag;
+    }
+}
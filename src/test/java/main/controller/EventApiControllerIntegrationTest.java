@@ -0,0 +1,174 @@
+package main.controller;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import main.model.Category;
+import main.model.Event;
+import main.model.Role;
+import main.model.User;
+import main.repository.CategoryRepository;
+import main.repository.EventRepository;
+import main.repository.UserRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.ByteArrayInputStream;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.GZIPInputStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+@Transactional
+class EventApiControllerIntegrationTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private CategoryRepository categoryRepository;
+
+    @Autowired
+    private EventRepository eventRepository;
+
+    private Category testCategory;
+
+    @BeforeEach
+    void setUp() {
+        User testUser = new User();
+        testUser.setUsername("apiuser");
+        testUser.setEmail("api@example.com");
+        testUser.setPassword("password123");
+        testUser.setRole(Role.USER);
+        testUser.setCreatedOn(LocalDateTime.now());
+        testUser.setUpdatedOn(LocalDateTime.now());
+        testUser = userRepository.save(testUser);
+
+        testCategory = new Category();
+        testCategory.setName("Api Category");
+        testCategory.setIsActive(true);
+        testCategory = categoryRepository.save(testCategory);
+
+        // Two events share a start time so the second page has to break the tie by id
+        LocalDateTime start = LocalDateTime.now().plusDays(1).withNano(0);
+        for (int i = 0; i < 5; i++) {
+            Event event = new Event();
+            event.setName("Api Event " + i);
+            event.setDescription("Описание ".repeat(20));
+            event.setLocation("Sofia");
+            event.setStartTime(i < 2 ? start : start.plusHours(i));
+            event.setEndTime(start.plusHours(i + 2));
+            event.setCapacity(50);
+            event.setCategory(testCategory);
+            event.setCreator(testUser);
+            eventRepository.save(event);
+        }
+    }
+
+    @Test
+    @WithMockUser(username = "api@example.com")
+    void whenPagingWithCursor_thenEveryEventIsReturnedOnceInStartOrder() throws Exception {
+        List<String> names = new ArrayList<>();
+        String cursor = null;
+        int pages = 0;
+        do {
+            JsonNode page = fetch("/api/v1/events?limit=2&category=" + testCategory.getId() + (cursor != null ? "&after=" + cursor : ""));
+            page.get("items").forEach(item -> names.add(item.get("name").asText()));
+            cursor = page.get("nextCursor").isNull() ? null : page.get("nextCursor").asText();
+            pages++;
+        } while (cursor != null);
+
+        assertEquals(3, pages);
+        assertEquals(5, names.size());
+        assertEquals(5, names.stream().distinct().count());
+        assertEquals(List.of("Api Event 2", "Api Event 3", "Api Event 4"), names.subList(2, 5));
+    }
+
+    @Test
+    @WithMockUser(username = "api@example.com")
+    void whenFieldsAreSelected_thenOnlyThoseAreReturned() throws Exception {
+        JsonNode item = fetch("/api/v1/events?limit=1&fields=name,remainingCapacity&category=" + testCategory.getId())
+                .get("items").get(0);
+
+        List<String> fields = new ArrayList<>();
+        item.fieldNames().forEachRemaining(fields::add);
+        assertEquals(List.of("id", "name", "remainingCapacity"), fields);
+        assertEquals(50, item.get("remainingCapacity").asInt());
+    }
+
+    @Test
+    @WithMockUser(username = "api@example.com")
+    void whenETagMatches_thenNotModified() throws Exception {
+        String url = "/api/v1/events?category=" + testCategory.getId();
+        String eTag = mockMvc.perform(get(url))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.CACHE_CONTROL, "no-cache, private"))
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+        assertNotNull(eTag);
+        assertFalse(eTag.startsWith("W/"));
+        mockMvc.perform(get(url).header(HttpHeaders.IF_NONE_MATCH, eTag))
+                .andExpect(status().isNotModified());
+    }
+
+    @Test
+    @WithMockUser(username = "api@example.com")
+    void whenClientAcceptsGzip_thenBodyIsCompressedWithItsOwnETag() throws Exception {
+        String url = "/api/v1/events?category=" + testCategory.getId();
+        MvcResult plain = mockMvc.perform(get(url)).andReturn();
+        MvcResult compressed = mockMvc.perform(get(url).header(HttpHeaders.ACCEPT_ENCODING, "br;q=1.0, gzip;q=0.8"))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.CONTENT_ENCODING, "gzip"))
+                .andReturn();
+
+        byte[] body = compressed.getResponse().getContentAsByteArray();
+        try (GZIPInputStream in = new GZIPInputStream(new ByteArrayInputStream(body))) {
+            assertArrayEquals(plain.getResponse().getContentAsByteArray(), in.readAllBytes());
+        }
+        assertTrue(body.length < plain.getResponse().getContentAsByteArray().length);
+        assertNotEquals(plain.getResponse().getHeader(HttpHeaders.ETAG), compressed.getResponse().getHeader(HttpHeaders.ETAG));
+        assertTrue(compressed.getResponse().getHeaders(HttpHeaders.VARY).contains(HttpHeaders.ACCEPT_ENCODING));
+    }
+
+    @Test
+    @WithMockUser(username = "api@example.com")
+    void whenParametersAreInvalid_thenBadRequest() throws Exception {
+        mockMvc.perform(get("/api/v1/events?limit=0")).andExpect(status().isBadRequest());
+        mockMvc.perform(get("/api/v1/events?limit=101")).andExpect(status().isBadRequest());
+        mockMvc.perform(get("/api/v1/events?after=garbage")).andExpect(status().isBadRequest());
+        mockMvc.perform(get("/api/v1/events?fields=name,password")).andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void whenNotLoggedIn_thenUnauthorizedInsteadOfRedirect() throws Exception {
+        mockMvc.perform(get("/api/v1/events")).andExpect(status().isUnauthorized());
+    }
+
+    private JsonNode fetch(String url) throws Exception {
+        byte[] body = mockMvc.perform(get(url))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsByteArray();
+        return objectMapper.readTree(body);
+    }
+}
@@ -1,16 +1,30 @@
 package main.controller;
 
+import main.image.ResponsiveImages;
+import main.image.UploadedImages;
+import jakarta.persistence.EntityManager;
 import main.model.Category;
 import main.model.Event;
 import main.model.Role;
+import main.model.Subscription;
 import main.model.User;
 import main.repository.CategoryRepository;
 import main.repository.EventRepository;
+import main.repository.SubscriptionRepository;
+import main.repository.TicketRepository;
 import main.repository.UserRepository;
+import main.search.EventCalendarIndex;
+import main.search.EventGeoDocument;
+import main.search.EventInterval;
+import main.search.EventGeoIndex;
+import main.monitoring.SqlStatementCounter;
 import main.service.EventService;
+import main.web.dto.BulkInviteResult;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.web.MockMultipartFile;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.security.crypto.password.PasswordEncoder;
@@ -19,11 +33,20 @@ import org.springframework.test.context.ActiveProfiles;
 import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.transaction.annotation.Transactional;
 
+import javax.imageio.ImageIO;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
 import java.time.LocalDateTime;
+import java.util.List;
 import java.util.UUID;
 
+import static main.monitoring.SqlStatementAssertions.assertMaxSqlStatements;
 import static org.junit.jupiter.api.Assertions.*;
+import static org.hamcrest.Matchers.hasSize;
 import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.csrf;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.user;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 
@@ -33,6 +56,10 @@ import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.
 @Transactional
 class EventControllerIntegrationTest {
 
+    // The user, the upcoming events, their grouped subscription counts, the past events, the user's subscribed
+    // event ids for both lists and the categories
+    private static final long LISTING_SQL_STATEMENTS = 7;
+
     @Autowired
     private MockMvc mockMvc;
 
@@ -48,9 +75,30 @@ class EventControllerIntegrationTest {
     @Autowired
     private EventService eventService;
 
+    @Autowired
+    private EventGeoIndex eventGeoIndex;
+
+    @Autowired
+    private EventCalendarIndex eventCalendarIndex;
+
+    @Autowired
+    private ResponsiveImages responsiveImages;
+
     @Autowired
     private PasswordEncoder passwordEncoder;
 
+    @Autowired
+    private SubscriptionRepository subscriptionRepository;
+
+    @Autowired
+    private TicketRepository ticketRepository;
+
+    @Autowired
+    private SqlStatementCounter sqlStatementCounter;
+
+    @Autowired
+    private EntityManager entityManager;
+
     private User testUser;
     private Category testCategory;
 
@@ -263,6 +311,55 @@ class EventControllerIntegrationTest {
                 .andExpect(model().attributeExists("message"));
     }
 
+    // 1200 invitees for 1000 places: one-by-one that would be 2000 INSERTs, batched it is a handful of statements
+    @Test
+    @WithMockUser(username = "test@example.com")
+    void whenOrganizerUploadsInviteCsv_thenInviteesAreSubscribedInBatchesUpToCapacity() throws Exception {
+        Event event = createTestEvent();
+        event.setCapacity(1000);
+        List<User> invitees = new ArrayList<>();
+        StringBuilder csv = new StringBuilder("email\n");
+        for (int i = 0; i < 1200; i++) {
+            User invitee = organizer("invitee" + i);
+            invitees.add(invitee);
+            csv.append(invitee.getEmail()).append('\n');
+        }
+        csv.append("nobody@example.com\n");
+        entityManager.flush();
+        entityManager.clear();
+
+        MockMultipartFile file = new MockMultipartFile("file", "invites.csv", "text/csv",
+                csv.toString().getBytes(StandardCharsets.UTF_8));
+        BulkInviteResult result = (BulkInviteResult) assertMaxSqlStatements(sqlStatementCounter, 20,
+                () -> mockMvc.perform(multipart("/events/{eventId}/invites", event.getId()).file(file).with(csrf()))
+                        .andExpect(status().is3xxRedirection())
+                        .andExpect(redirectedUrl("/events/" + event.getId() + "/participants"))
+                        .andReturn()).getFlashMap().get("inviteResult");
+
+        assertEquals(1000, result.getInvited());
+        assertEquals(200, result.getOverCapacity());
+        assertEquals(1, result.getNotFound());
+        assertEquals(1000, subscriptionRepository.countByEventId(event.getId()));
+        assertEquals(1000, ticketRepository.count());
+        assertTrue(subscriptionRepository.existsByUserIdAndEventId(invitees.get(999).getId(), event.getId()));
+        assertFalse(subscriptionRepository.existsByUserIdAndEventId(invitees.get(1000).getId(), event.getId()));
+    }
+
+    @Test
+    @WithMockUser(username = "other@example.com")
+    void whenNonOrganizerUploadsInviteCsv_thenAccessIsDenied() throws Exception {
+        organizer("other");
+        Event event = createTestEvent();
+        MockMultipartFile file = new MockMultipartFile("file", "invites.csv", "text/csv",
+                "test@example.com\n".getBytes(StandardCharsets.UTF_8));
+
+        mockMvc.perform(multipart("/events/{eventId}/invites", event.getId()).file(file).with(csrf()))
+                .andExpect(status().isForbidden())
+                .andExpect(view().name("error/oops"));
+
+        assertEquals(0, subscriptionRepository.countByEventId(event.getId()));
+    }
+
     @Test
     @WithMockUser(username = "test@example.com")
     void whenDeleteEventWithRedirectParam_thenRedirectsToEvents() throws Exception {
@@ -278,6 +375,245 @@ class EventControllerIntegrationTest {
         assertFalse(eventRepository.findById(eventId).isPresent());
     }
 
+    @Test
+    @WithMockUser(username = "test@example.com")
+    void whenGetNearbyEvents_thenEventsWithinRadiusAreReturnedAsJson() throws Exception {
+        Event event = createTestEvent();
+        eventGeoIndex.index(EventGeoDocument.of(event));
+
+        try {
+            mockMvc.perform(get("/events/nearby")
+                            .param("lat", "42.70")
+                            .param("lng", "23.32")
+                            .param("radiusKm", "5"))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$[?(@.id == '" + event.getId() + "')].distanceKm").exists());
+
+            mockMvc.perform(get("/events/nearby")
+                            .param("lat", "43.21")
+                            .param("lng", "27.91")
+                            .param("radiusKm", "5"))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$[?(@.id == '" + event.getId() + "')]").isEmpty());
+        } finally {
+            eventGeoIndex.removeAll(List.of(event.getId()));
+        }
+    }
+
+    @Test
+    @WithMockUser(username = "test@example.com")
+    void whenGetCalendar_thenEventsOverlappingTheWindowAreReturned() throws Exception {
+        Event event = createTestEvent();
+        eventCalendarIndex.index(EventInterval.of(event));
+        LocalDateTime today = LocalDateTime.now().toLocalDate().atStartOfDay();
+
+        try {
+            mockMvc.perform(get("/events/calendar")
+                            .param("from", today.toString())
+                            .param("to", today.plusDays(7).toString()))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$[?(@.id == '" + event.getId() + "')].name").value("Test Event"));
+
+            mockMvc.perform(get("/events/calendar")
+                            .param("from", today.plusDays(7).toString())
+                            .param("to", today.plusDays(14).toString()))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$[?(@.id == '" + event.getId() + "')]").isEmpty());
+        } finally {
+            eventCalendarIndex.removeAll(List.of(event.getId()));
+        }
+    }
+
+    @Test
+    @WithMockUser(username = "test@example.com")
+    void whenGetCalendarWithTooLongWindow_thenBadRequest() throws Exception {
+        LocalDateTime today = LocalDateTime.now().toLocalDate().atStartOfDay();
+
+        mockMvc.perform(get("/events/calendar")
+                        .param("from", today.toString())
+                        .param("to", today.plusDays(60).toString()))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    @WithMockUser(username = "test@example.com")
+    void whenGetMapClusters_thenCompactClustersAreReturned() throws Exception {
+        Event event = createTestEvent();
+        eventGeoIndex.index(EventGeoDocument.of(event));
+
+        try {
+            mockMvc.perform(get("/events/map/clusters")
+                            .param("zoom", "16")
+                            .param("west", "23.31")
+                            .param("south", "42.69")
+                            .param("east", "23.33")
+                            .param("north", "42.70"))
+                    .andExpect(status().isOk())
+                    .andExpect(header().string("Cache-Control", "max-age=15, private"))
+                    .andExpect(jsonPath("$[?(@[3] == '" + event.getId() + "')]").isNotEmpty());
+        } finally {
+            eventGeoIndex.removeAll(List.of(event.getId()));
+        }
+    }
+
+    @Test
+    @WithMockUser(username = "test@example.com")
+    void whenGetMapClustersWithInvalidViewport_thenBadRequest() throws Exception {
+        mockMvc.perform(get("/events/map/clusters")
+                        .param("zoom", "10")
+                        .param("west", "23.31")
+                        .param("south", "43.00")
+                        .param("east", "23.33")
+                        .param("north", "42.00"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    @WithMockUser(username = "test@example.com")
+    void whenGetNearbyEventsWithInvalidCoordinates_thenBadRequest() throws Exception {
+        mockMvc.perform(get("/events/nearby")
+                        .param("lat", "123")
+                        .param("lng", "23.32"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    @WithMockUser(username = "test@example.com")
+    void whenListingEventsWithImage_thenCardUsesResizedVariantsCachedAsImmutable() throws Exception {
+        createTestEvent();
+        responsiveImages.prepare();
+        String variant = responsiveImages.src("event-business.jpg");
+
+        String html = mockMvc.perform(get("/events"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        assertTrue(html.contains("srcset=\"" + responsiveImages.srcset("event-business.jpg") + "\""));
+        assertFalse(html.contains("/images/events/event-business.jpg"));
+
+        byte[] image = mockMvc.perform(get(variant))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.CACHE_CONTROL, "max-age=31536000, public, immutable"))
+                .andReturn().getResponse().getContentAsByteArray();
+        assertTrue(image.length < 100_000);
+    }
+
+    @Test
+    @WithMockUser(username = "test@example.com")
+    void whenListingEventsTwice_thenCachedCardFollowsEditsAndKeepsPerUserActions() throws Exception {
+        User other = new User();
+        other.setUsername("other");
+        other.setEmail("other@example.com");
+        other.setPassword(passwordEncoder.encode("password123"));
+        other.setRole(Role.USER);
+        other.setCreatedOn(LocalDateTime.now());
+        other.setUpdatedOn(LocalDateTime.now());
+        userRepository.save(other);
+        createTestEvent();
+
+        String creatorPage = mockMvc.perform(get("/events"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        assertTrue(creatorPage.contains("Test Category"));
+        assertTrue(creatorPage.contains("Твое събитие"));
+
+        testCategory.setName("Renamed Category");
+        categoryRepository.saveAndFlush(testCategory);
+
+        String otherPage = mockMvc.perform(get("/events").with(user("other@example.com")))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        assertTrue(otherPage.contains("Renamed Category"));
+        assertFalse(otherPage.contains("Test Category"));
+        assertFalse(otherPage.contains("Твое събитие"));
+        assertTrue(otherPage.contains("Запиши се"));
+    }
+
+    @Test
+    @WithMockUser(username = "test@example.com")
+    void whenCreateEventWithUploadedImage_thenEventUsesTheStoredImage() throws Exception {
+        ByteArrayOutputStream png = new ByteArrayOutputStream();
+        ImageIO.write(new BufferedImage(640, 360, BufferedImage.TYPE_INT_RGB), "png", png);
+
+        mockMvc.perform(multipart("/events")
+                        .file(new MockMultipartFile("imageFile", "poster.png", "image/png", png.toByteArray()))
+                        .with(csrf())
+                        .param("name", "Uploaded Image Event")
+                        .param("description", "Event with its own poster")
+                        .param("location", "Sofia")
+                        .param("startTime", LocalDateTime.now().plusDays(1).withNano(0).toString())
+                        .param("endTime", LocalDateTime.now().plusDays(2).withNano(0).toString())
+                        .param("capacity", "10")
+                        .param("categoryId", testCategory.getId().toString()))
+                .andExpect(status().is3xxRedirection());
+
+        Event created = eventRepository.findAll().stream()
+                .filter(event -> "Uploaded Image Event".equals(event.getName()))
+                .findFirst().orElseThrow();
+        assertTrue(UploadedImages.isUploadName(created.getImageName()));
+    }
+
+    @Test
+    @WithMockUser(username = "test@example.com")
+    void whenCreateEventWithNonImageUpload_thenFormIsShownWithError() throws Exception {
+        mockMvc.perform(multipart("/events")
+                        .file(new MockMultipartFile("imageFile", "poster.png", "image/png", "not a png".getBytes()))
+                        .with(csrf())
+                        .param("name", "Broken Upload Event")
+                        .param("description", "Event with a broken poster")
+                        .param("location", "Sofia")
+                        .param("startTime", LocalDateTime.now().plusDays(1).withNano(0).toString())
+                        .param("endTime", LocalDateTime.now().plusDays(2).withNano(0).toString())
+                        .param("categoryId", testCategory.getId().toString()))
+                .andExpect(status().isOk())
+                .andExpect(view().name("event-create"))
+                .andExpect(model().attributeHasFieldErrors("eventCreateRequest", "imageName"));
+    }
+
+    // Twelve events from four organizers in three categories, half of them subscribed to, so any per-card query
+    // would push the listing far past the limit
+    @Test
+    @WithMockUser(username = "test@example.com")
+    void whenListingManyEvents_thenSqlStatementCountStaysConstant() throws Exception {
+        List<Category> categories = List.of(testCategory, category("Music"), category("Sports"));
+        List<User> organizers = List.of(testUser, organizer("organizer1"), organizer("organizer2"), organizer("organizer3"));
+        for (int i = 0; i < 12; i++) {
+            Event event = createTestEvent();
+            event.setCategory(categories.get(i % categories.size()));
+            event.setCreator(organizers.get(i % organizers.size()));
+            if (i % 2 == 0) {
+                subscriptionRepository.save(Subscription.builder()
+                        .user(testUser)
+                        .event(event)
+                        .subscriptionTime(LocalDateTime.now())
+                        .build());
+            }
+        }
+        entityManager.flush();
+        entityManager.clear();
+
+        assertMaxSqlStatements(sqlStatementCounter, LISTING_SQL_STATEMENTS, () -> mockMvc.perform(get("/events"))
+                .andExpect(status().isOk())
+                .andExpect(model().attribute("events", hasSize(12))));
+    }
+
+    private Category category(String name) {
+        Category category = new Category();
+        category.setName(name);
+        category.setIsActive(true);
+        return categoryRepository.save(category);
+    }
+
+    private User organizer(String name) {
+        User organizer = new User();
+        organizer.setUsername(name);
+        organizer.setEmail(name + "@example.com");
+        organizer.setPassword("not-used");
+        organizer.setRole(Role.USER);
+        organizer.setCreatedOn(LocalDateTime.now());
+        organizer.setUpdatedOn(LocalDateTime.now());
+        return userRepository.save(organizer);
+    }
+
     private Event createTestEvent() {
         Event event = new Event();
         event.setName("Test Event");
@@ -1,7 +1,19 @@
 package main.controller;
 
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.persistence.EntityManager;
+import main.model.Category;
+import main.model.Event;
 import main.model.Role;
+import main.model.Subscription;
+import main.model.Ticket;
 import main.model.User;
+import main.monitoring.SqlStatementCounter;
+import main.repository.CategoryRepository;
+import main.repository.EventRepository;
+import main.repository.SubscriptionRepository;
+import main.repository.TicketRepository;
 import main.repository.UserRepository;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -15,8 +27,14 @@ import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
+import java.util.List;
 import java.util.UUID;
+import java.util.concurrent.TimeUnit;
 
+import static main.monitoring.SqlStatementAssertions.assertMaxSqlStatements;
+import static org.hamcrest.Matchers.allOf;
+import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.Matchers.hasSize;
 import static org.junit.jupiter.api.Assertions.*;
 import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.csrf;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
@@ -28,6 +46,10 @@ import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.
 @Transactional
 class HomeControllerIntegrationTest {
 
+    // The user, then for upcoming and past events each: the subscriptions with their events, the tickets, the
+    // created events and two grouped subscription counts
+    private static final long HOME_SQL_STATEMENTS = 11;
+
     @Autowired
     private MockMvc mockMvc;
 
@@ -37,6 +59,27 @@ class HomeControllerIntegrationTest {
     @Autowired
     private PasswordEncoder passwordEncoder;
 
+    @Autowired
+    private CategoryRepository categoryRepository;
+
+    @Autowired
+    private EventRepository eventRepository;
+
+    @Autowired
+    private SubscriptionRepository subscriptionRepository;
+
+    @Autowired
+    private TicketRepository ticketRepository;
+
+    @Autowired
+    private SqlStatementCounter sqlStatementCounter;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
     private User testUser;
     private User otherUser;
 
@@ -142,5 +185,153 @@ class HomeControllerIntegrationTest {
                 .andExpect(model().attributeExists("selectedCategory"))
                 .andExpect(model().attribute("selectedCategory", categoryId));
     }
-}
 
+    @Test
+    @WithMockUser(username = "test@example.com")
+    void whenGetEventsWithQuery_thenSearchResultsAreShown() throws Exception {
+        mockMvc.perform(get("/events")
+                        .param("q", "джаз"))
+                .andExpect(status().isOk())
+                .andExpect(view().name("events"))
+                .andExpect(model().attribute("query", "джаз"))
+                .andExpect(model().attributeExists("events"))
+                .andExpect(model().attributeExists("pastEvents"));
+    }
+
+    @Test
+    @WithMockUser(username = "test@example.com")
+    void whenGetEventsNearLocation_thenNearbyFilterIsApplied() throws Exception {
+        mockMvc.perform(get("/events")
+                        .param("lat", "42.6977")
+                        .param("lng", "23.3219")
+                        .param("radiusKm", "10"))
+                .andExpect(status().isOk())
+                .andExpect(view().name("events"))
+                .andExpect(model().attributeExists("nearby"))
+                .andExpect(model().attributeExists("events"));
+    }
+
+    @Test
+    @WithMockUser(username = "test@example.com")
+    void whenGetEventsWithInvalidRadius_thenErrorIsShown() throws Exception {
+        mockMvc.perform(get("/events")
+                        .param("lat", "42.6977")
+                        .param("lng", "23.3219")
+                        .param("radiusKm", "1000"))
+                .andExpect(status().isOk())
+                .andExpect(view().name("events"))
+                .andExpect(model().attributeExists("filterError"));
+    }
+
+    @Test
+    @WithMockUser(username = "test@example.com")
+    void whenGetEventsForDateRange_thenWindowIsApplied() throws Exception {
+        mockMvc.perform(get("/events")
+                        .param("from", "2026-10-19")
+                        .param("to", "2026-10-25"))
+                .andExpect(status().isOk())
+                .andExpect(view().name("events"))
+                .andExpect(model().attributeExists("calendarWindow"))
+                .andExpect(model().attribute("pastEvents", List.of()));
+    }
+
+    // Subscribed and created events, upcoming and past, from four organizers in three categories: any per-event
+    // query would push the dashboard far past the limit
+    @Test
+    @WithMockUser(username = "test@example.com")
+    void whenHomeHasManyEvents_thenSqlStatementCountStaysConstant() throws Exception {
+        List<Category> categories = List.of(category("Music"), category("Sports"), category("Tech"));
+        List<User> organizers = List.of(otherUser, organizer("organizer1"), organizer("organizer2"), organizer("organizer3"));
+        LocalDateTime now = LocalDateTime.now();
+        for (int i = 0; i < 16; i++) {
+            LocalDateTime start = i % 2 == 0 ? now.plusDays(i + 1) : now.minusDays(i + 1);
+            Event subscribed = event("Subscribed " + i, start, categories.get(i % categories.size()),
+                    organizers.get(i % organizers.size()));
+            Subscription subscription = subscriptionRepository.save(Subscription.builder()
+                    .user(testUser)
+                    .event(subscribed)
+                    .subscriptionTime(now)
+                    .build());
+            ticketRepository.save(Ticket.builder()
+                    .subscription(subscription)
+                    .code(UUID.randomUUID().toString())
+                    .issuedAt(now)
+                    .build());
+            event("Created " + i, start, categories.get(i % categories.size()), testUser);
+        }
+        entityManager.flush();
+        entityManager.clear();
+
+        assertMaxSqlStatements(sqlStatementCounter, HOME_SQL_STATEMENTS, () -> mockMvc.perform(get("/home"))
+                .andExpect(status().isOk())
+                .andExpect(model().attribute("subscribedEvents", hasSize(8)))
+                .andExpect(model().attribute("pastSubscribedEvents", hasSize(8)))
+                .andExpect(model().attribute("createdEvents", hasSize(8)))
+                .andExpect(model().attribute("pastCreatedEvents", hasSize(8))));
+    }
+
+    @Test
+    @WithMockUser(username = "test@example.com")
+    void whenPagesAreServed_thenServerTimingSplitsTheirTime() throws Exception {
+        Event event = event("Timed", LocalDateTime.now().plusDays(1), category("Music"), otherUser);
+        Subscription subscription = subscriptionRepository.save(Subscription.builder()
+                .user(testUser)
+                .event(event)
+                .subscriptionTime(LocalDateTime.now())
+                .build());
+        Ticket ticket = ticketRepository.save(Ticket.builder()
+                .subscription(subscription)
+                .code(UUID.randomUUID().toString())
+                .issuedAt(LocalDateTime.now())
+                .build());
+
+        mockMvc.perform(get("/home"))
+                .andExpect(status().isOk())
+                .andExpect(header().string("Server-Timing", allOf(containsString("db;dur="),
+                        containsString("rating;dur="), containsString("view;dur="), containsString("total;dur="))));
+        mockMvc.perform(get("/tickets/{code}/qr", ticket.getCode()))
+                .andExpect(status().isOk())
+                .andExpect(header().string("Server-Timing", containsString("db;dur=")));
+
+        assertTrue(breakdown("HomeController", "home", "view").totalTime(TimeUnit.NANOSECONDS) > 0);
+        assertTrue(breakdown("HomeController", "home", "db").totalTime(TimeUnit.NANOSECONDS) > 0);
+        assertTrue(breakdown("TicketController", "renderTicketQr", "db").totalTime(TimeUnit.NANOSECONDS) > 0);
+        assertTrue(breakdown("TicketController", "renderTicketQr", "total").count() > 0);
+    }
+
+    private Timer breakdown(String controller, String method, String part) {
+        return meterRegistry.get("http.server.requests.breakdown")
+                .tag("controller", controller)
+                .tag("method", method)
+                .tag("part", part)
+                .timer();
+    }
+
+    private Category category(String name) {
+        Category category = new Category();
+        category.setName(name);
+        category.setIsActive(true);
+        return categoryRepository.save(category);
+    }
+
+    private User organizer(String name) {
+        User organizer = new User();
+        organizer.setUsername(name);
+        organizer.setEmail(name + "@example.com");
+        organizer.setPassword("not-used");
+        organizer.setRole(Role.USER);
+        organizer.setCreatedOn(LocalDateTime.now());
+        organizer.setUpdatedOn(LocalDateTime.now());
+        return userRepository.save(organizer);
+    }
+
+    private Event event(String name, LocalDateTime start, Category category, User creator) {
+        Event event = new Event();
+        event.setName(name);
+        event.setStartTime(start);
+        event.setEndTime(start.plusHours(2));
+        event.setCategory(category);
+        event.setCreator(creator);
+        return eventRepository.save(event);
+    }
+}
@@ -0,0 +1,113 @@
+package main.controller;
+
+import main.image.UploadedImages;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import javax.imageio.ImageIO;
+import java.awt.Color;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayOutputStream;
+import java.nio.file.Files;
+import java.util.Arrays;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class UploadedImageControllerIntegrationTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private UploadedImages uploadedImages;
+
+    private String name;
+    private byte[] content;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        // Noise does not compress, so the file is large enough for real range requests
+        BufferedImage image = new BufferedImage(300, 200, BufferedImage.TYPE_INT_RGB);
+        Random random = new Random(42);
+        for (int x = 0; x < image.getWidth(); x++) {
+            for (int y = 0; y < image.getHeight(); y++) {
+                image.setRGB(x, y, new Color(random.nextInt(256), random.nextInt(256), random.nextInt(256)).getRGB());
+            }
+        }
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        ImageIO.write(image, "png", out);
+        name = uploadedImages.store(new MockMultipartFile("imageFile", "noise.png", "image/png", out.toByteArray()));
+        content = Files.readAllBytes(uploadedImages.resolve(name).orElseThrow());
+    }
+
+    @Test
+    void whenImageIsRequested_thenWholeFileIsServedAsImmutable() throws Exception {
+        byte[] body = mockMvc.perform(get("/images/u/" + name))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType("image/png"))
+                .andExpect(header().longValue(HttpHeaders.CONTENT_LENGTH, content.length))
+                .andExpect(header().string(HttpHeaders.CACHE_CONTROL, "max-age=31536000, public, immutable"))
+                .andExpect(header().string(HttpHeaders.ACCEPT_RANGES, "bytes"))
+                .andExpect(header().string(HttpHeaders.ETAG, "\"" + name.substring(0, 64) + "\""))
+                .andReturn().getResponse().getContentAsByteArray();
+
+        assertArrayEquals(content, body);
+    }
+
+    @Test
+    void whenETagMatches_thenNotModified() throws Exception {
+        mockMvc.perform(get("/images/u/" + name).header(HttpHeaders.IF_NONE_MATCH, "\"" + name.substring(0, 64) + "\""))
+                .andExpect(status().isNotModified())
+                .andExpect(content().bytes(new byte[0]));
+    }
+
+    @Test
+    void whenRangeIsRequested_thenOnlyThatPartIsServed() throws Exception {
+        byte[] middle = mockMvc.perform(get("/images/u/" + name).header(HttpHeaders.RANGE, "bytes=100-1099"))
+                .andExpect(status().isPartialContent())
+                .andExpect(header().string(HttpHeaders.CONTENT_RANGE, "bytes 100-1099/" + content.length))
+                .andExpect(header().longValue(HttpHeaders.CONTENT_LENGTH, 1000))
+                .andReturn().getResponse().getContentAsByteArray();
+        assertArrayEquals(Arrays.copyOfRange(content, 100, 1100), middle);
+
+        byte[] tail = mockMvc.perform(get("/images/u/" + name).header(HttpHeaders.RANGE, "bytes=-500"))
+                .andExpect(status().isPartialContent())
+                .andReturn().getResponse().getContentAsByteArray();
+        assertArrayEquals(Arrays.copyOfRange(content, content.length - 500, content.length), tail);
+    }
+
+    @Test
+    void whenRangeCannotBeSatisfied_thenRangeNotSatisfiable() throws Exception {
+        mockMvc.perform(get("/images/u/" + name).header(HttpHeaders.RANGE, "bytes=" + content.length + "-"))
+                .andExpect(status().isRequestedRangeNotSatisfiable())
+                .andExpect(header().string(HttpHeaders.CONTENT_RANGE, "bytes */" + content.length));
+    }
+
+    @Test
+    void whenIfRangeIsStale_thenWholeFileIsServed() throws Exception {
+        mockMvc.perform(get("/images/u/" + name)
+                        .header(HttpHeaders.RANGE, "bytes=0-99")
+                        .header(HttpHeaders.IF_RANGE, "\"another-version\""))
+                .andExpect(status().isOk())
+                .andExpect(header().longValue(HttpHeaders.CONTENT_LENGTH, content.length));
+    }
+
+    @Test
+    void whenFileIsUnknown_thenNotFound() throws Exception {
+        mockMvc.perform(get("/images/u/" + "0".repeat(64) + ".png")).andExpect(status().isNotFound());
+        mockMvc.perform(get("/images/u/application.properties")).andExpect(status().isNotFound());
+    }
+}
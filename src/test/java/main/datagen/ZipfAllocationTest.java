@@ -0,0 +1,48 @@
+package main.datagen;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ZipfAllocationTest {
+
+    @Test
+    void whenAllocating_thenCountsAddUpAndFallWithRank() {
+        int[] counts = ZipfAllocation.allocate(1_000_000, 10_000, 1.0, 1_000_000);
+
+        assertEquals(1_000_000, Arrays.stream(counts).asLongStream().sum());
+        for (int rank = 1; rank < 100; rank++) {
+            assertTrue(counts[rank] <= counts[rank - 1], "Rank " + rank + " has more than the rank before it");
+        }
+        // With exponent 1 the second bucket gets about half of the first
+        assertEquals(0.5, (double) counts[1] / counts[0], 0.01);
+    }
+
+    @Test
+    void whenTopBucketsHitTheCap_thenOverflowMovesToLowerRanks() {
+        int[] counts = ZipfAllocation.allocate(1_000, 10, 2.0, 150);
+
+        assertEquals(1_000, Arrays.stream(counts).sum());
+        assertTrue(Arrays.stream(counts).allMatch(count -> count <= 150));
+        assertEquals(150, counts[0]);
+        assertEquals(150, counts[1]);
+    }
+
+    @Test
+    void whenExponentIsZero_thenTheSplitIsUniform() {
+        assertArrayEquals(new int[]{25, 25, 25, 25}, ZipfAllocation.allocate(100, 4, 0, 1_000));
+    }
+
+    @Test
+    void whenTotalExceedsEveryCap_thenBucketsAreFullAndTheRestIsDropped() {
+        assertArrayEquals(new int[]{3, 3}, ZipfAllocation.allocate(10, 2, 1.0, 3));
+    }
+
+    @Test
+    void whenArgumentsAreInvalid_thenIllegalArgumentExceptionIsThrown() {
+        assertThrows(IllegalArgumentException.class, () -> ZipfAllocation.allocate(10, 0, 1.0, 3));
+        assertThrows(IllegalArgumentException.class, () -> ZipfAllocation.allocate(-1, 2, 1.0, 3));
+    }
+}
@@ -0,0 +1,151 @@
+package main.datasource;
+
+import main.model.Category;
+import main.model.Role;
+import main.model.User;
+import main.repository.UserRepository;
+import main.service.CategoryService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.mock.web.MockHttpSession;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import javax.sql.DataSource;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+import static org.hamcrest.Matchers.containsString;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.csrf;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.redirectedUrl;
+
+// Two in-memory H2 databases stand in for the primary and the replica. Nothing replicates between them, so a row
+// written through the application shows up on a read only if that read went to the primary.
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:routing-primary;MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1",
+        "spring.datasource.driver-class-name=org.h2.Driver",
+        "spring.datasource.username=sa",
+        "spring.datasource.password=",
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.open-in-view=false",
+        "datasource.replica.url=jdbc:h2:mem:routing-replica;MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1",
+        "datasource.replica.lag-query=SELECT seconds FROM replication_lag",
+        "datasource.replica.lag-check-interval-ms=3600000"
+})
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class ReadReplicaRoutingIntegrationTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private CategoryService categoryService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private ReplicaLagMonitor replicaLagMonitor;
+
+    @Autowired
+    @Qualifier("primaryDataSource")
+    private DataSource primary;
+
+    @Autowired
+    @Qualifier("replicaDataSource")
+    private DataSource replica;
+
+    // Gives the replica the schema Hibernate created on the primary, without any of its rows
+    @BeforeEach
+    void setUp() {
+        JdbcTemplate replicaJdbc = new JdbcTemplate(replica);
+        replicaJdbc.execute("DROP ALL OBJECTS");
+        for (String statement : new JdbcTemplate(primary).queryForList("SCRIPT NODATA", String.class)) {
+            if (!statement.startsWith("CREATE USER")) {
+                replicaJdbc.execute(statement);
+            }
+        }
+        replicaJdbc.execute("CREATE TABLE replication_lag (seconds INT)");
+        replicaJdbc.update("INSERT INTO replication_lag VALUES (0)");
+        replicaLagMonitor.check();
+    }
+
+    @Test
+    void whenCategoryIsCreated_thenItIsWrittenToThePrimaryAndReadOnlyListingsReadTheReplica() {
+        String name = "Основна " + UUID.randomUUID();
+
+        categoryService.create(name);
+
+        assertEquals(1, countCategories(primary, name));
+        assertEquals(0, countCategories(replica, name));
+        assertFalse(names(categoryService.getAll()).contains(name));
+    }
+
+    // A cached result read from the lagging replica would keep missing the row after the replica caught up
+    @Test
+    void whenCachedLookupsRunBehindTheReplica_thenTheyReadThePrimary() {
+        String name = "Основна " + UUID.randomUUID();
+        categoryService.getAllActive();
+        categoryService.create(name);
+        String email = "routing-" + UUID.randomUUID() + "@example.com";
+        userRepository.save(User.builder()
+                .username("routing-" + UUID.randomUUID().toString().substring(0, 8))
+                .email(email)
+                .password("secret")
+                .role(Role.USER)
+                .createdOn(LocalDateTime.now())
+                .updatedOn(LocalDateTime.now())
+                .build());
+
+        assertEquals(0, countCategories(replica, name));
+        assertTrue(names(categoryService.getAllActive()).contains(name));
+        assertNotNull(userRepository.findByEmail(email));
+    }
+
+    @Test
+    void whenReplicaFallsBehind_thenReadOnlyListingsReadThePrimary() {
+        String name = "Основна " + UUID.randomUUID();
+        categoryService.create(name);
+
+        new JdbcTemplate(replica).update("UPDATE replication_lag SET seconds = 60");
+        replicaLagMonitor.check();
+
+        assertTrue(names(categoryService.getAllActive()).contains(name));
+    }
+
+    @Test
+    @WithMockUser(roles = "ADMIN")
+    void whenSessionHasJustWritten_thenThePageItIsRedirectedToReadsThePrimary() throws Exception {
+        String name = "Основна " + UUID.randomUUID();
+        MockHttpSession session = new MockHttpSession();
+
+        mockMvc.perform(post("/admin/categories").session(session).with(csrf()).param("name", name))
+                .andExpect(redirectedUrl("/admin/categories"));
+
+        // The replica never receives the row, as if it were lagging behind, yet the session sees its own write
+        mockMvc.perform(get("/admin/categories").session(session))
+                .andExpect(content().string(containsString(name)));
+        assertEquals(0, countCategories(replica, name));
+    }
+
+    private static long countCategories(DataSource dataSource, String name) {
+        return new JdbcTemplate(dataSource).queryForObject(
+                "SELECT COUNT(*) FROM categories WHERE name = ?", Long.class, name);
+    }
+
+    private static List<String> names(List<Category> categories) {
+        return categories.stream().map(Category::getName).toList();
+    }
+}
@@ -0,0 +1,166 @@
+package main.datasource;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.h2.jdbcx.JdbcDataSource;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ReadWriteRoutingDataSourceTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final AtomicBoolean replicaDown = new AtomicBoolean();
+
+    private DataSource replica;
+    private JdbcTemplate primaryJdbc;
+    private JdbcTemplate replicaJdbc;
+    private ReplicaLagMonitor lagMonitor;
+    private JdbcTemplate jdbc;
+    private TransactionTemplate writes;
+    private TransactionTemplate reads;
+
+    @BeforeEach
+    void setUp() {
+        JdbcDataSource primary = h2("primary");
+        JdbcDataSource replicaDatabase = h2("replica");
+        replica = new DelegatingDataSource(replicaDatabase) {
+            @Override
+            public Connection getConnection() throws SQLException {
+                if (replicaDown.get()) {
+                    throw new SQLException("Connection refused");
+                }
+                return super.getConnection();
+            }
+        };
+        primaryJdbc = new JdbcTemplate(primary);
+        replicaJdbc = new JdbcTemplate(replicaDatabase);
+        for (JdbcTemplate database : new JdbcTemplate[]{primaryJdbc, replicaJdbc}) {
+            database.execute("CREATE TABLE node (name VARCHAR(20))");
+        }
+        primaryJdbc.update("INSERT INTO node VALUES ('primary')");
+        replicaJdbc.update("INSERT INTO node VALUES ('replica')");
+        replicaJdbc.execute("CREATE TABLE replication_lag (seconds INT)");
+        replicaJdbc.update("INSERT INTO replication_lag VALUES (0)");
+
+        lagMonitor = monitor("SELECT seconds FROM replication_lag", false);
+        ReadWriteRoutingDataSource routing = new ReadWriteRoutingDataSource(primary, replica, lagMonitor);
+        jdbc = new JdbcTemplate(routing);
+        DataSourceTransactionManager transactionManager = new DataSourceTransactionManager(routing);
+        writes = new TransactionTemplate(transactionManager);
+        reads = new TransactionTemplate(transactionManager);
+        reads.setReadOnly(true);
+    }
+
+    @Test
+    void whenReplicaIsCaughtUp_thenReadOnlyTransactionsUseItAndWritesUseThePrimary() {
+        lagMonitor.check();
+
+        assertEquals("replica", reads.execute(status -> node()));
+        assertEquals("primary", writes.execute(status -> node()));
+
+        writes.executeWithoutResult(status -> jdbc.update("INSERT INTO node VALUES ('written')"));
+        assertEquals(1, primaryJdbc.queryForObject("SELECT COUNT(*) FROM node WHERE name = 'written'", Integer.class));
+        assertEquals(0, replicaJdbc.queryForObject("SELECT COUNT(*) FROM node WHERE name = 'written'", Integer.class));
+        assertEquals(0.0, meterRegistry.get("datasource.replica.lag").gauge().value());
+        assertEquals(1.0, meterRegistry.get("datasource.replica.active").gauge().value());
+    }
+
+    @Test
+    void whenReplicaIsBehind_thenReadsFallBackUntilItCatchesUp() {
+        replicaJdbc.update("UPDATE replication_lag SET seconds = 30");
+        lagMonitor.check();
+
+        assertFalse(lagMonitor.isReplicaUsable());
+        assertEquals("primary", reads.execute(status -> node()));
+        assertEquals(1, meterRegistry.get("datasource.replica.fallbacks").tag("reason", "unhealthy").counter().count());
+        assertEquals(30.0, meterRegistry.get("datasource.replica.lag").gauge().value());
+
+        replicaJdbc.update("UPDATE replication_lag SET seconds = 1");
+        lagMonitor.check();
+
+        assertEquals("replica", reads.execute(status -> node()));
+    }
+
+    @Test
+    void whenReplicationHasStopped_thenReadsUseThePrimary() {
+        replicaJdbc.update("UPDATE replication_lag SET seconds = NULL");
+        lagMonitor.check();
+
+        assertEquals("primary", reads.execute(status -> node()));
+        assertTrue(Double.isNaN(meterRegistry.get("datasource.replica.lag").gauge().value()));
+    }
+
+    @Test
+    void whenTheReplicaReportsNoStatus_thenItIsUsedOnlyWhenConfiguredAsCaughtUp() {
+        replicaJdbc.update("DELETE FROM replication_lag");
+        lagMonitor.check();
+
+        assertFalse(lagMonitor.isReplicaUsable());
+        assertEquals("primary", reads.execute(status -> node()));
+
+        ReplicaLagMonitor optedIn = monitor("SELECT seconds FROM replication_lag", true);
+        optedIn.check();
+
+        assertTrue(optedIn.isReplicaUsable());
+    }
+
+    @Test
+    void whenTheLagQueryHasNoLagColumn_thenTheCheckFails() {
+        ReplicaLagMonitor misconfigured = monitor("SELECT seconds, seconds AS other FROM replication_lag", false);
+
+        assertThrows(IllegalStateException.class, misconfigured::check);
+        assertFalse(misconfigured.isReplicaUsable());
+
+        ReplicaLagMonitor olderMySql = monitor(
+                "SELECT 'x' AS channel, seconds AS Seconds_Behind_Master FROM replication_lag", false);
+        olderMySql.check();
+        assertTrue(olderMySql.isReplicaUsable());
+    }
+
+    @Test
+    void whenNothingHasBeenCheckedYet_thenReadsStayOnThePrimary() {
+        assertEquals("primary", reads.execute(status -> node()));
+    }
+
+    @Test
+    void whenReplicaRefusesConnections_thenReadsFallBackAndItIsSkippedUntilTheNextCheck() {
+        lagMonitor.check();
+        replicaDown.set(true);
+
+        assertEquals("primary", reads.execute(status -> node()));
+        assertFalse(lagMonitor.isReplicaUsable());
+        assertEquals(1, meterRegistry.get("datasource.replica.fallbacks").tag("reason", "connection-failed").counter().count());
+
+        replicaDown.set(false);
+        lagMonitor.check();
+
+        assertEquals("replica", reads.execute(status -> node()));
+    }
+
+    private ReplicaLagMonitor monitor(String lagQuery, boolean missingStatusMeansCaughtUp) {
+        return new ReplicaLagMonitor(replica, lagQuery, Duration.ofSeconds(2), missingStatusMeansCaughtUp, meterRegistry);
+    }
+
+    private String node() {
+        return jdbc.queryForObject("SELECT name FROM node", String.class);
+    }
+
+    private static JdbcDataSource h2(String name) {
+        JdbcDataSource dataSource = new JdbcDataSource();
+        dataSource.setURL("jdbc:h2:mem:" + name + "-" + UUID.randomUUID() + ";DB_CLOSE_DELAY=-1");
+        dataSource.setUser("sa");
+        return dataSource;
+    }
+}
@@ -0,0 +1,58 @@
+package main.datasource;
+
+import main.config.DataSourceConfiguration;
+import org.h2.jdbcx.JdbcDataSource;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskScheduler;
+
+import java.time.Instant;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class WorkloadRoutingDataSourceTest {
+
+    @Test
+    void whenBatchWorkloadRuns_thenItUsesTheBatchPoolAndEverythingElseTheWebPool() {
+        JdbcTemplate jdbc = new JdbcTemplate(new WorkloadRoutingDataSource(h2("web"), h2("batch")));
+        String[] fromBatch = new String[1];
+
+        BatchWorkload.wrap(() -> fromBatch[0] = pool(jdbc)).run();
+
+        assertEquals("batch", fromBatch[0]);
+        assertEquals("web", pool(jdbc));
+        assertFalse(BatchWorkload.isActive());
+    }
+
+    @Test
+    void whenSchedulerRunsATask_thenTheTaskCountsAsBatchWorkload() throws Exception {
+        ThreadPoolTaskScheduler scheduler = new ThreadPoolTaskScheduler();
+        new DataSourceConfiguration().batchWorkloadTaskScheduler().customize(scheduler);
+        scheduler.initialize();
+        CompletableFuture<Boolean> batch = new CompletableFuture<>();
+        try {
+            scheduler.schedule(() -> batch.complete(BatchWorkload.isActive()), Instant.now());
+
+            assertTrue(batch.get(5, TimeUnit.SECONDS));
+        } finally {
+            scheduler.shutdown();
+        }
+    }
+
+    private static String pool(JdbcTemplate jdbc) {
+        return jdbc.queryForObject("SELECT name FROM pool", String.class);
+    }
+
+    private static JdbcDataSource h2(String name) {
+        JdbcDataSource dataSource = new JdbcDataSource();
+        dataSource.setURL("jdbc:h2:mem:" + name + "-" + UUID.randomUUID() + ";DB_CLOSE_DELAY=-1");
+        dataSource.setUser("sa");
+        JdbcTemplate jdbc = new JdbcTemplate(dataSource);
+        jdbc.execute("CREATE TABLE pool (name VARCHAR(20))");
+        jdbc.update("INSERT INTO pool VALUES (?)", name);
+        return dataSource;
+    }
+}
@@ -56,6 +56,20 @@ class GlobalExceptionHandlerTest {
                 .andExpect(redirectedUrl("/register"));
     }
 
+    @Test
+    void whenServiceBusyException_thenServiceUnavailableIsReturned() throws Exception {
+        doThrow(new ServiceBusyException("Сървърът е претоварен. Опитай отново след малко."))
+                .when(userService).register(any());
+
+        mockMvc.perform(post("/register")
+                        .with(csrf())
+                        .param("username", "burstuser")
+                        .param("email", "burst@example.com")
+                        .param("password", "password123"))
+                .andExpect(status().isServiceUnavailable())
+                .andExpect(view().name("error/oops"));
+    }
+
     @Test
     void whenCategoryAlreadyExistsException_thenRedirectToAdminCategories() throws Exception {
         doThrow(new CategoryAlreadyExistsException("Категорията вече съществува"))
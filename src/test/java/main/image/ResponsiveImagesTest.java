@@ -0,0 +1,102 @@
+package main.image;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.core.task.SyncTaskExecutor;
+
+import javax.imageio.ImageIO;
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ResponsiveImagesTest {
+
+    @TempDir
+    Path sources;
+
+    @TempDir
+    Path variants;
+
+    @Test
+    void whenImagesArePrepared_thenEveryWidthSmallerThanTheSourceIsWritten() throws IOException {
+        writePng(sources.resolve("event-large.png"), 1000, 600);
+        ResponsiveImages images = new ResponsiveImages(sources.toUri().toString(), variants, new UploadedImages(variants, new SyncTaskExecutor()));
+
+        images.prepare();
+
+        List<String> entries = Arrays.asList(images.srcset("event-large.png").split(", "));
+        assertEquals(4, entries.size());
+        assertTrue(entries.get(0).matches("/images/v/event-large-320\\.[0-9a-f]{12}\\.jpg 320w"));
+        assertTrue(entries.get(3).endsWith(" 960w"));
+        assertTrue(images.src("event-large.png").matches("/images/v/event-large-480\\.[0-9a-f]{12}\\.jpg"));
+
+        BufferedImage smallest = ImageIO.read(variants.resolve(fileName(entries.get(0))).toFile());
+        assertEquals(320, smallest.getWidth());
+        assertEquals(192, smallest.getHeight());
+    }
+
+    @Test
+    void whenSourceIsNarrowerThanEveryWidth_thenOneVariantAtItsOwnWidthIsWritten() throws IOException {
+        writePng(sources.resolve("event-small.png"), 200, 100);
+        ResponsiveImages images = new ResponsiveImages(sources.toUri().toString(), variants, new UploadedImages(variants, new SyncTaskExecutor()));
+
+        images.prepare();
+
+        assertTrue(images.srcset("event-small.png").endsWith(" 200w"));
+        assertTrue(images.src("event-small.png").contains("event-small-200."));
+    }
+
+    @Test
+    void whenVariantsExist_thenTheyAreReusedAndChangedSourcesGetNewUrls() throws IOException {
+        Path source = sources.resolve("event.png");
+        writePng(source, 800, 400);
+        ResponsiveImages images = new ResponsiveImages(sources.toUri().toString(), variants, new UploadedImages(variants, new SyncTaskExecutor()));
+        images.prepare();
+        String firstUrl = images.src("event.png");
+        Path firstFile = variants.resolve(fileName(firstUrl));
+        Files.setLastModifiedTime(firstFile, FileTime.fromMillis(0));
+
+        images.prepare();
+        assertEquals(firstUrl, images.src("event.png"));
+        assertEquals(0, Files.getLastModifiedTime(firstFile).toMillis());
+
+        writePng(source, 800, 401);
+        images.prepare();
+        assertNotEquals(firstUrl, images.src("event.png"));
+    }
+
+    @Test
+    void whenImageIsUnknown_thenOriginalIsUsedWithoutSrcset() {
+        ResponsiveImages images = new ResponsiveImages(sources.toUri().toString(), variants, new UploadedImages(variants, new SyncTaskExecutor()));
+
+        images.prepare();
+
+        assertEquals("/images/events/custom.jpg", images.src("custom.jpg"));
+        assertNull(images.srcset("custom.jpg"));
+        assertNull(images.webpSrcset("custom.jpg"));
+    }
+
+    private static String fileName(String srcsetEntryOrUrl) {
+        String url = srcsetEntryOrUrl.split(" ")[0];
+        return url.substring(ResponsiveImages.URL_PREFIX.length());
+    }
+
+    private static void writePng(Path path, int width, int height) throws IOException {
+        BufferedImage image = new BufferedImage(width, height, BufferedImage.TYPE_INT_ARGB);
+        Graphics2D graphics = image.createGraphics();
+        graphics.setColor(Color.ORANGE);
+        graphics.fillRect(0, 0, width / 2, height);
+        graphics.setColor(Color.BLUE);
+        graphics.fillOval(width / 2, 0, width / 2, height);
+        graphics.dispose();
+        ImageIO.write(image, "png", path.toFile());
+    }
+}
@@ -0,0 +1,93 @@
+package main.image;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.core.task.SyncTaskExecutor;
+import org.springframework.mock.web.MockMultipartFile;
+
+import javax.imageio.ImageIO;
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class UploadedImagesTest {
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void whenImageIsUploaded_thenItIsStoredUnderItsContentHashWithVariants() throws IOException {
+        UploadedImages images = new UploadedImages(directory, new SyncTaskExecutor());
+        byte[] png = png(1000, 500);
+
+        String name = images.store(new MockMultipartFile("imageFile", "photo.png", "image/png", png));
+
+        assertTrue(UploadedImages.isUploadName(name));
+        assertTrue(name.endsWith(".png"));
+        assertArrayEquals(png, Files.readAllBytes(directory.resolve(name)));
+        assertTrue(images.src(name).matches("/images/u/[0-9a-f]{64}-480\\.jpg"));
+        assertTrue(images.srcset(name).endsWith(" 960w"));
+        String hash = name.substring(0, 64);
+        assertEquals(320, ImageIO.read(directory.resolve(hash + "-320.jpg").toFile()).getWidth());
+    }
+
+    @Test
+    void whenSameImageIsUploadedTwice_thenItIsStoredOnce() throws IOException {
+        UploadedImages images = new UploadedImages(directory, new SyncTaskExecutor());
+        byte[] png = png(200, 100);
+
+        String first = images.store(new MockMultipartFile("imageFile", "a.png", "image/png", png));
+        String second = images.store(new MockMultipartFile("imageFile", "b.png", "image/png", png));
+
+        assertEquals(first, second);
+        try (var files = Files.list(directory)) {
+            assertEquals(1, files.count());
+        }
+        // Narrower than every variant width, so the original is served on its own
+        assertEquals("/images/u/" + first, images.src(first));
+        assertNull(images.srcset(first));
+    }
+
+    @Test
+    void whenFileIsNotAnImage_thenItIsRejectedAndNothingIsKept() throws IOException {
+        UploadedImages images = new UploadedImages(directory, new SyncTaskExecutor());
+        MockMultipartFile text = new MockMultipartFile("imageFile", "fake.jpg", "image/jpeg",
+                "not an image".getBytes(StandardCharsets.UTF_8));
+
+        assertThrows(IllegalArgumentException.class, () -> images.store(text));
+        try (var files = Files.list(directory)) {
+            assertEquals(0, files.count());
+        }
+    }
+
+    @Test
+    void whenNameIsNotAStoredFile_thenItDoesNotResolve() throws IOException {
+        UploadedImages images = new UploadedImages(directory, new SyncTaskExecutor());
+        String name = images.store(new MockMultipartFile("imageFile", "a.png", "image/png", png(200, 100)));
+
+        assertTrue(images.resolve(name).isPresent());
+        assertTrue(images.resolve("../" + name).isEmpty());
+        assertTrue(images.resolve("0".repeat(64) + ".jpg").isEmpty());
+        assertTrue(images.resolve("application.properties").isEmpty());
+    }
+
+    static byte[] png(int width, int height) throws IOException {
+        BufferedImage image = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+        Graphics2D graphics = image.createGraphics();
+        graphics.setColor(Color.WHITE);
+        graphics.fillRect(0, 0, width, height);
+        graphics.setColor(Color.RED);
+        graphics.fillOval(0, 0, width, height);
+        graphics.dispose();
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        ImageIO.write(image, "png", out);
+        return out.toByteArray();
+    }
+}
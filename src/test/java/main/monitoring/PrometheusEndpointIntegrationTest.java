@@ -0,0 +1,49 @@
+package main.monitoring;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.hamcrest.Matchers.containsString;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class PrometheusEndpointIntegrationTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Test
+    void whenScrapedFromTheScrapeNetwork_thenMetricsAreServedWithoutLogin() throws Exception {
+        meterRegistry.counter("events.subscription.requests", "action", "subscribe", "outcome", "full").increment();
+
+        mockMvc.perform(get("/actuator/prometheus").with(request -> {
+                    request.setRemoteAddr("127.0.0.1");
+                    return request;
+                }))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith("text/plain"))
+                .andExpect(content().string(containsString(
+                        "events_subscription_requests_total{action=\"subscribe\",outcome=\"full\"}")))
+                .andExpect(content().string(containsString("# TYPE jvm_memory_used_bytes gauge")));
+    }
+
+    @Test
+    void whenScrapedFromElsewhereWithoutLogin_thenAccessIsRefused() throws Exception {
+        mockMvc.perform(get("/actuator/prometheus").with(request -> {
+                    request.setRemoteAddr("203.0.113.9");
+                    return request;
+                }))
+                .andExpect(status().isUnauthorized());
+    }
+}
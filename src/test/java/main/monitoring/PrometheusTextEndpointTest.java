@@ -0,0 +1,81 @@
+package main.monitoring;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PrometheusTextEndpointTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final PrometheusTextEndpoint endpoint = new PrometheusTextEndpoint(meterRegistry);
+
+    @Test
+    void whenCountersAndGaugesAreScraped_thenTheyUsePrometheusNamesAndLabels() {
+        Counter.builder("events.subscription.requests")
+                .description("Subscription requests by outcome")
+                .tag("action", "subscribe")
+                .tag("outcome", "full")
+                .register(meterRegistry)
+                .increment(3);
+        AtomicInteger active = new AtomicInteger(7);
+        Gauge.builder("hikaricp.connections.active", active, AtomicInteger::get).register(meterRegistry);
+
+        String text = endpoint.scrape();
+
+        assertTrue(text.contains("# HELP events_subscription_requests_total Subscription requests by outcome\n"
+                + "# TYPE events_subscription_requests_total counter\n"
+                + "events_subscription_requests_total{action=\"subscribe\",outcome=\"full\"} 3\n"), text);
+        assertTrue(text.contains("# TYPE hikaricp_connections_active gauge\nhikaricp_connections_active 7\n"), text);
+    }
+
+    @Test
+    void whenTimersAndSummariesAreScraped_thenCountSumAndMaxAreExported() {
+        Timer timer = Timer.builder("rating.client.requests").tag("call", "summary").register(meterRegistry);
+        timer.record(Duration.ofMillis(250));
+        timer.record(Duration.ofMillis(750));
+        DistributionSummary.builder("upload.size").baseUnit("bytes").register(meterRegistry).record(2048);
+
+        String text = endpoint.scrape();
+
+        assertTrue(text.contains("# TYPE rating_client_requests_seconds summary\n"
+                + "rating_client_requests_seconds_count{call=\"summary\"} 2\n"
+                + "rating_client_requests_seconds_sum{call=\"summary\"} 1\n"), text);
+        assertTrue(text.contains("rating_client_requests_seconds_max{call=\"summary\"} 0.75\n"), text);
+        assertTrue(text.contains("upload_size_bytes_count 1\nupload_size_bytes_sum 2048\n"), text);
+    }
+
+    @Test
+    void whenTimerHasBuckets_thenItIsExportedAsACumulativeHistogram() {
+        Timer timer = Timer.builder("hikaricp.connections.acquire")
+                .tag("pool", "primary")
+                .serviceLevelObjectives(Duration.ofMillis(5), Duration.ofMillis(100))
+                .register(meterRegistry);
+        timer.record(Duration.ofMillis(2));
+        timer.record(Duration.ofMillis(50));
+        timer.record(Duration.ofMillis(500));
+
+        String text = endpoint.scrape();
+
+        assertTrue(text.contains("# TYPE hikaricp_connections_acquire_seconds histogram\n"
+                + "hikaricp_connections_acquire_seconds_bucket{le=\"0.005\",pool=\"primary\"} 1\n"
+                + "hikaricp_connections_acquire_seconds_bucket{le=\"0.1\",pool=\"primary\"} 2\n"
+                + "hikaricp_connections_acquire_seconds_bucket{le=\"+Inf\",pool=\"primary\"} 3\n"
+                + "hikaricp_connections_acquire_seconds_count{pool=\"primary\"} 3\n"
+                + "hikaricp_connections_acquire_seconds_sum{pool=\"primary\"} 0.552\n"), text);
+    }
+
+    @Test
+    void whenLabelValuesHaveQuotes_thenTheyAreEscaped() {
+        meterRegistry.counter("odd.values", "path", "a\"b\\c").increment();
+
+        assertTrue(endpoint.scrape().contains("odd_values_total{path=\"a\\\"b\\\\c\"} 1\n"));
+    }
+}
@@ -0,0 +1,105 @@
+package main.monitoring;
+
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.http.HttpServletResponse;
+import main.controller.TicketController;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.security.Principal;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+
+class ServerTimingFilterTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final ServerTimingFilter filter = new ServerTimingFilter(meterRegistry, true);
+
+    @Test
+    void whenControllerMethodRuns_thenEachPartIsTimedForIt() throws Exception {
+        HandlerMethod handler = new HandlerMethod(mock(TicketController.class),
+                TicketController.class.getMethod("renderTicketQr", String.class, Principal.class));
+
+        filter.doFilter(new MockHttpServletRequest("GET", "/tickets/abc/qr"), new MockHttpServletResponse(),
+                (request, response) -> {
+                    request.setAttribute(HandlerMapping.BEST_MATCHING_HANDLER_ATTRIBUTE, handler);
+                    RequestTimings.time(RequestTimings.Part.DB, () -> sleep(20));
+                    RequestTimings.time(RequestTimings.Part.RATING, () -> sleep(10));
+                });
+
+        Timer db = timer("db");
+        assertEquals(1, db.count());
+        assertTrue(db.totalTime(TimeUnit.MILLISECONDS) >= 20);
+        assertTrue(timer("rating").totalTime(TimeUnit.MILLISECONDS) >= 10);
+        assertEquals(0, timer("view").totalTime(TimeUnit.NANOSECONDS));
+        assertTrue(timer("total").totalTime(TimeUnit.MILLISECONDS) >= 30);
+    }
+
+    @Test
+    void whenBodyIsWritten_thenHeaderCarriesTheSplitSoFar() throws Exception {
+        MockHttpServletResponse servletResponse = new MockHttpServletResponse();
+
+        filter.doFilter(new MockHttpServletRequest("GET", "/home"), servletResponse, (request, response) -> {
+            RequestTimings.time(RequestTimings.Part.DB, () -> sleep(5));
+            response.getWriter().write("<html></html>");
+            response.flushBuffer();
+            RequestTimings.time(RequestTimings.Part.DB, () -> sleep(5));
+        });
+
+        String header = servletResponse.getHeader(ServerTimingFilter.HEADER);
+        assertNotNull(header);
+        assertTrue(header.matches("db;dur=\\d+\\.\\d;desc=\"Database\", rating;dur=0\\.0;desc=\"Rating service\", "
+                + "view;dur=0\\.0;desc=\"View rendering\", total;dur=\\d+\\.\\d"), header);
+        // Nothing reached a controller method, so there is nothing to tag a timer with
+        assertTrue(meterRegistry.find(ServerTimingFilter.METRIC).timers().isEmpty());
+    }
+
+    @Test
+    void whenResponseIsARedirect_thenHeaderIsStillAdded() throws Exception {
+        MockHttpServletResponse servletResponse = new MockHttpServletResponse();
+
+        filter.doFilter(new MockHttpServletRequest("POST", "/events"), servletResponse,
+                (request, response) -> ((HttpServletResponse) response).sendRedirect("/events"));
+
+        assertNotNull(servletResponse.getHeader(ServerTimingFilter.HEADER));
+    }
+
+    @Test
+    void whenHeaderIsDisabled_thenOnlyTheTimersAreKept() throws Exception {
+        MockHttpServletResponse servletResponse = new MockHttpServletResponse();
+
+        new ServerTimingFilter(meterRegistry, false).doFilter(new MockHttpServletRequest("GET", "/home"),
+                servletResponse, (request, response) -> response.getWriter().write("ok"));
+
+        assertNull(servletResponse.getHeader(ServerTimingFilter.HEADER));
+    }
+
+    @Test
+    void whenNoRequestIsBeingTimed_thenSectionsAreIgnored() {
+        assertEquals("ok", RequestTimings.time(RequestTimings.Part.DB, () -> "ok"));
+        RequestTimings.end(RequestTimings.Part.VIEW);
+    }
+
+    private Timer timer(String part) {
+        return meterRegistry.get(ServerTimingFilter.METRIC)
+                .tag("controller", "TicketController")
+                .tag("method", "renderTicketQr")
+                .tag("part", part)
+                .timer();
+    }
+
+    private static Object sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        return null;
+    }
+}
@@ -0,0 +1,24 @@
+package main.monitoring;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// Fails a test when the call runs more SQL statements than allowed, which is how an N+1 regression shows up.
+// Flush and clear the persistence context first, so pending inserts do not count and lookups really hit the database.
+public final class SqlStatementAssertions {
+
+    private SqlStatementAssertions() {
+    }
+
+    public static <T> T assertMaxSqlStatements(SqlStatementCounter counter, long max, Call<T> call) throws Exception {
+        long before = counter.current();
+        T result = call.call();
+        long statements = counter.current() - before;
+        assertTrue(statements <= max, "Expected at most " + max + " SQL statements but " + statements + " ran");
+        return result;
+    }
+
+    @FunctionalInterface
+    public interface Call<T> {
+        T call() throws Exception;
+    }
+}
@@ -0,0 +1,60 @@
+package main.monitoring;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.servlet.HandlerMapping;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SqlStatementCountFilterTest {
+
+    private final SqlStatementCounter counter = new SqlStatementCounter();
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final SqlStatementCountFilter filter = new SqlStatementCountFilter(counter, meterRegistry, 2);
+
+    @Test
+    void whenRequestRunsStatements_thenTheyAreRecordedForItsRoute() throws Exception {
+        counter.inspect("select 1");
+
+        filter.doFilter(new MockHttpServletRequest("GET", "/events/42"), new MockHttpServletResponse(), (request, response) -> {
+            request.setAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE, "/events/{eventId}");
+            counter.inspect("select 2");
+            counter.inspect("select 3");
+            counter.inspect("select 4");
+        });
+
+        DistributionSummary summary = meterRegistry.get(SqlStatementCountFilter.METRIC)
+                .tag("method", "GET")
+                .tag("uri", "/events/{eventId}")
+                .summary();
+        assertEquals(1, summary.count());
+        assertEquals(3, summary.totalAmount());
+    }
+
+    @Test
+    void whenRequestFails_thenItsStatementsAreStillRecorded() {
+        assertThrows(IllegalStateException.class, () -> filter.doFilter(new MockHttpServletRequest("POST", "/events"),
+                new MockHttpServletResponse(), (request, response) -> {
+                    counter.inspect("insert");
+                    throw new IllegalStateException("FULL");
+                }));
+
+        DistributionSummary summary = meterRegistry.get(SqlStatementCountFilter.METRIC).tag("uri", "UNKNOWN").summary();
+        assertEquals(1, summary.totalAmount());
+    }
+
+    @Test
+    void whenCountersAreReadOnAnotherThread_thenTheyAreIndependent() throws Exception {
+        counter.inspect("select 1");
+        long[] otherThread = new long[1];
+        Thread thread = new Thread(() -> otherThread[0] = counter.current());
+        thread.start();
+        thread.join();
+
+        assertEquals(0, otherThread[0]);
+        assertTrue(counter.current() >= 1);
+    }
+}
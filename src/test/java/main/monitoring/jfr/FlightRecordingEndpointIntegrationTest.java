@@ -0,0 +1,97 @@
+package main.monitoring.jfr;
+
+import com.jayway.jsonpath.JsonPath;
+import main.model.Role;
+import main.model.User;
+import main.repository.UserRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.httpBasic;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+// The README's curl calls: an ADMIN starts and stops a recording with HTTP Basic and no session or CSRF token
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+@Transactional
+class FlightRecordingEndpointIntegrationTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private PasswordEncoder passwordEncoder;
+
+    @BeforeEach
+    void setUp() {
+        saveUser("jfr-admin@example.com", Role.ADMIN);
+        saveUser("jfr-user@example.com", Role.USER);
+    }
+
+    @Test
+    void whenAdminUsesBasicAuth_thenARecordingIsStartedAndStopped() throws Exception {
+        String started = mockMvc.perform(post("/actuator/flightrecording")
+                        .with(httpBasic("jfr-admin@example.com", "password123"))
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"settings\": \"default\", \"durationSeconds\": 60}"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.state").value("RUNNING"))
+                .andExpect(header().doesNotExist("Set-Cookie"))
+                .andReturn().getResponse().getContentAsString();
+        Number id = JsonPath.read(started, "$.id");
+
+        mockMvc.perform(delete("/actuator/flightrecording/{id}", id.longValue())
+                        .with(httpBasic("jfr-admin@example.com", "password123")))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.state").value("CLOSED"));
+    }
+
+    @Test
+    void whenBasicAuthIsNotAnAdminOrTheWrongPassword_thenNoRecordingStarts() throws Exception {
+        mockMvc.perform(post("/actuator/flightrecording")
+                        .with(httpBasic("jfr-user@example.com", "password123"))
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{}"))
+                .andExpect(status().isForbidden());
+
+        mockMvc.perform(post("/actuator/flightrecording")
+                        .with(httpBasic("jfr-admin@example.com", "wrong"))
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{}"))
+                .andExpect(status().isUnauthorized());
+    }
+
+    @Test
+    void whenBasicAuthIsSentOutsideTheActuator_thenItDoesNotSkipCsrf() throws Exception {
+        mockMvc.perform(post("/admin/categories")
+                        .with(httpBasic("jfr-admin@example.com", "password123"))
+                        .param("name", "Basic"))
+                .andExpect(status().isForbidden());
+    }
+
+    private void saveUser(String email, Role role) {
+        User user = new User();
+        user.setUsername(email.substring(0, email.indexOf('@')));
+        user.setEmail(email);
+        user.setPassword(passwordEncoder.encode("password123"));
+        user.setRole(role);
+        user.setCreatedOn(LocalDateTime.now());
+        user.setUpdatedOn(LocalDateTime.now());
+        userRepository.save(user);
+    }
+}
@@ -0,0 +1,86 @@
+package main.monitoring.jfr;
+
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.boot.actuate.endpoint.InvalidEndpointRequestException;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class FlightRecordingEndpointTest {
+
+    @TempDir
+    Path directory;
+
+    private FlightRecordingEndpoint endpoint;
+
+    @AfterEach
+    void stopRecordings() {
+        endpoint.recordings().forEach(recording -> endpoint.stop((Long) recording.get("id")));
+    }
+
+    @Test
+    void whenRecordingIsStopped_thenItsFileHoldsTheDomainEvents() throws Exception {
+        endpoint = new FlightRecordingEndpoint(directory, Duration.ofMinutes(1));
+        UUID eventId = UUID.randomUUID();
+        UUID userId = UUID.randomUUID();
+
+        Map<String, Object> started = endpoint.start(null, null);
+        assertEquals("RUNNING", started.get("state"));
+        SubscriptionJfrEvent.start("subscribe", eventId, userId).complete("subscribed", 1);
+        EventListingJfrEvent.start("upcoming", userId).complete(List.of("first", "second", "third"));
+        CleanupJfrEvent.start("past-events", null).complete(4, 0, true);
+        Map<String, Object> stopped = endpoint.stop((Long) started.get("id"));
+
+        assertEquals("CLOSED", stopped.get("state"));
+        assertTrue((Long) stopped.get("bytes") > 0);
+        List<RecordedEvent> events = RecordingFile.readAllEvents(Path.of((String) stopped.get("file")));
+        RecordedEvent subscription = only(events, "eventapp.Subscription");
+        assertEquals(eventId.toString(), subscription.getString("eventId"));
+        assertEquals("subscribed", subscription.getString("outcome"));
+        assertEquals(1, subscription.getInt("rows"));
+        assertEquals(3, only(events, "eventapp.EventListing").getInt("events"));
+        assertEquals(4, only(events, "eventapp.Cleanup").getLong("deletedEvents"));
+        assertTrue(endpoint.recordings().isEmpty());
+    }
+
+    @Test
+    void whenARecordingIsRunning_thenAnotherCannotStart() {
+        endpoint = new FlightRecordingEndpoint(directory, Duration.ofMinutes(1));
+        endpoint.start("default", 30);
+
+        assertThrows(InvalidEndpointRequestException.class, () -> endpoint.start("default", 30));
+        assertEquals(1, endpoint.recordings().size());
+    }
+
+    @Test
+    void whenSettingsAreUnknownOrDurationTooLong_thenTheyAreRejectedOrCapped() {
+        endpoint = new FlightRecordingEndpoint(directory, Duration.ofMinutes(1));
+
+        assertThrows(InvalidEndpointRequestException.class, () -> endpoint.start("/etc/passwd", null));
+        assertEquals(60L, endpoint.start("profile", 3600).get("durationSeconds"));
+    }
+
+    @Test
+    void whenRecordingIsUnknown_thenStopFindsNothing() {
+        endpoint = new FlightRecordingEndpoint(directory, Duration.ofMinutes(1));
+
+        assertNull(endpoint.stop(-1));
+    }
+
+    private static RecordedEvent only(List<RecordedEvent> events, String name) {
+        List<RecordedEvent> matching = events.stream()
+                .filter(event -> event.getEventType().getName().equals(name))
+                .toList();
+        assertEquals(1, matching.size(), name);
+        return matching.get(0);
+    }
+}
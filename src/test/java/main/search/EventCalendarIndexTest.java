@@ -0,0 +1,119 @@
+package main.search;
+
+import main.repository.EventRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class EventCalendarIndexTest {
+
+    private static final LocalDateTime MONDAY = LocalDateTime.of(2026, 10, 19, 0, 0);
+    private static final LocalDateTime NEXT_MONDAY = MONDAY.plusDays(7);
+
+    @Mock
+    private EventRepository eventRepository;
+
+    private final UUID music = UUID.randomUUID();
+
+    private final EventInterval tuesday = interval(MONDAY.plusDays(1).withHour(19), 3, music);
+    private final EventInterval sundayNight = interval(MONDAY.minusHours(2), 4, null);
+    private final EventInterval endsAtMonday = interval(MONDAY.minusHours(3), 3, music);
+    private final EventInterval startsNextMonday = interval(NEXT_MONDAY, 2, music);
+    private final EventInterval festival = new EventInterval(UUID.randomUUID(), MONDAY.minusDays(20), MONDAY.plusDays(2), music);
+    private final EventInterval unscheduled = new EventInterval(UUID.randomUUID(), null, null, music);
+
+    @Test
+    void whenWindowIsQueried_thenOverlappingEventsAreReturnedByStartTime() {
+        EventCalendarIndex index = builtIndex();
+
+        List<UUID> ids = index.findOverlapping(new CalendarWindow(MONDAY, NEXT_MONDAY, null), 100);
+
+        assertEquals(List.of(festival.id(), sundayNight.id(), tuesday.id()), ids);
+        verify(eventRepository, never()).findIntervalsOverlapping(any(), any());
+    }
+
+    @Test
+    void whenCategoryIsGiven_thenOtherCategoriesAreSkipped() {
+        EventCalendarIndex index = builtIndex();
+
+        List<UUID> ids = index.findOverlapping(new CalendarWindow(MONDAY, NEXT_MONDAY, music), 100);
+
+        assertEquals(List.of(festival.id(), tuesday.id()), ids);
+    }
+
+    @Test
+    void whenLimitIsReached_thenEarliestEventsAreKept() {
+        EventCalendarIndex index = builtIndex();
+
+        assertEquals(List.of(festival.id()), index.findOverlapping(new CalendarWindow(MONDAY, NEXT_MONDAY, null), 1));
+    }
+
+    @Test
+    void whenEventIsRescheduledOrRemoved_thenIndexFollows() {
+        EventCalendarIndex index = builtIndex();
+
+        index.index(new EventInterval(festival.id(), NEXT_MONDAY.plusDays(1), NEXT_MONDAY.plusDays(2), music));
+        index.index(new EventInterval(tuesday.id(), MONDAY.minusDays(30), MONDAY.plusDays(1), music));
+        index.removeAll(List.of(sundayNight.id()));
+
+        assertEquals(List.of(tuesday.id()), index.findOverlapping(new CalendarWindow(MONDAY, NEXT_MONDAY, null), 100));
+        assertEquals(4, index.size());
+    }
+
+    @Test
+    void whenEventsChangeWhileTheRebuildReadsTheDatabase_thenTheChangesSurviveTheSwap() {
+        EventCalendarIndex index = builtIndex();
+        // The read still sees the festival, deleted while it runs, and not yet tuesday, created meanwhile
+        when(eventRepository.findAllIntervals()).thenAnswer(invocation -> {
+            index.removeAll(List.of(festival.id()));
+            index.index(tuesday);
+            return List.of(festival, sundayNight);
+        });
+
+        index.rebuild();
+
+        assertEquals(List.of(sundayNight.id(), tuesday.id()),
+                index.findOverlapping(new CalendarWindow(MONDAY, NEXT_MONDAY, null), 100));
+        assertEquals(2, index.size());
+    }
+
+    @Test
+    void whenIndexIsNotBuilt_thenOverlapQueryIsUsed() {
+        EventCalendarIndex index = new EventCalendarIndex(eventRepository);
+        when(eventRepository.findIntervalsOverlapping(MONDAY, NEXT_MONDAY)).thenReturn(List.of(tuesday, sundayNight));
+
+        List<UUID> ids = index.findOverlapping(new CalendarWindow(MONDAY, NEXT_MONDAY, null), 100);
+
+        assertFalse(index.isReady());
+        assertEquals(List.of(sundayNight.id(), tuesday.id()), ids);
+    }
+
+    @Test
+    void whenWindowIsInvalid_thenItIsRejected() {
+        assertThrows(IllegalArgumentException.class, () -> new CalendarWindow(null, NEXT_MONDAY, null));
+        assertThrows(IllegalArgumentException.class, () -> new CalendarWindow(NEXT_MONDAY, MONDAY, null));
+        assertThrows(IllegalArgumentException.class, () -> new CalendarWindow(MONDAY, MONDAY.plusDays(43), null));
+    }
+
+    private EventCalendarIndex builtIndex() {
+        EventCalendarIndex index = new EventCalendarIndex(eventRepository);
+        when(eventRepository.findAllIntervals())
+                .thenReturn(List.of(tuesday, sundayNight, endsAtMonday, startsNextMonday, festival, unscheduled));
+        index.rebuild();
+        return index;
+    }
+
+    private static EventInterval interval(LocalDateTime start, int hours, UUID categoryId) {
+        return new EventInterval(UUID.randomUUID(), start, start.plusHours(hours), categoryId);
+    }
+}
@@ -0,0 +1,183 @@
+package main.search;
+
+import main.repository.EventRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class EventGeoIndexTest {
+
+    private static final double SOFIA_LAT = 42.6977;
+    private static final double SOFIA_LNG = 23.3219;
+
+    @Mock
+    private EventRepository eventRepository;
+
+    private final LocalDateTime now = LocalDateTime.now();
+    private final UUID music = UUID.randomUUID();
+
+    private final EventGeoDocument centre = document(42.6960, 23.3230, now.plusDays(1), music);
+    private final EventGeoDocument mladost = document(42.6500, 23.3790, now.plusDays(2), null);
+    private final EventGeoDocument plovdiv = document(42.1354, 24.7453, now.plusDays(1), music);
+    private final EventGeoDocument pastInSofia = document(42.6990, 23.3200, now.minusDays(3), music);
+
+    @Test
+    void whenIndexIsBuilt_thenOnlyEventsWithinRadiusAreReturnedNearestFirst() {
+        EventGeoIndex index = builtIndex();
+
+        List<GeoMatch> matches = index.findNearby(new GeoQuery(SOFIA_LAT, SOFIA_LNG, 10, now, null, null, 10));
+
+        assertEquals(List.of(centre.id(), mladost.id()), matches.stream().map(GeoMatch::eventId).toList());
+        assertTrue(matches.get(0).distanceKm() < 1);
+        assertEquals(6.9, matches.get(1).distanceKm(), 0.5);
+        verify(eventRepository, never()).findGeoDocumentsInBox(anyDouble(), anyDouble(), anyDouble(), anyDouble(), any(), any());
+    }
+
+    @Test
+    void whenCategoryAndTimeWindowAreGiven_thenEventsAreFiltered() {
+        EventGeoIndex index = builtIndex();
+
+        List<GeoMatch> matches = index.findNearby(new GeoQuery(SOFIA_LAT, SOFIA_LNG, 200, now, now.plusDays(2), music, 10));
+
+        assertEquals(List.of(centre.id(), plovdiv.id()), matches.stream().map(GeoMatch::eventId).toList());
+    }
+
+    @Test
+    void whenLimitIsSmallerThanMatches_thenNearestAreKept() {
+        EventGeoIndex index = builtIndex();
+
+        List<GeoMatch> matches = index.findNearby(new GeoQuery(SOFIA_LAT, SOFIA_LNG, 200, now, null, null, 1));
+
+        assertEquals(List.of(centre.id()), matches.stream().map(GeoMatch::eventId).toList());
+    }
+
+    @Test
+    void whenEventMovesOrIsRemoved_thenIndexFollows() {
+        EventGeoIndex index = builtIndex();
+
+        index.index(new EventGeoDocument(centre.id(), 42.1400, 24.7500, centre.startTime(), centre.endTime(), music));
+        assertEquals(List.of(mladost.id()), ids(index.findNearby(new GeoQuery(SOFIA_LAT, SOFIA_LNG, 10, now, null, null, 10))));
+
+        index.removeAll(List.of(plovdiv.id()));
+        assertEquals(List.of(centre.id()), ids(index.findNearby(new GeoQuery(42.1354, 24.7453, 10, now, null, null, 10))));
+        assertEquals(3, index.size());
+    }
+
+    @Test
+    void whenEventHasNoCoordinates_thenItIsNotIndexed() {
+        EventGeoIndex index = builtIndex();
+
+        index.index(new EventGeoDocument(UUID.randomUUID(), null, null, now, now.plusHours(2), null));
+
+        assertEquals(4, index.size());
+    }
+
+    @Test
+    void whenIndexIsNotBuilt_thenBoundingBoxQueryIsUsed() {
+        EventGeoIndex index = new EventGeoIndex(eventRepository, true);
+        when(eventRepository.findGeoDocumentsInBox(anyDouble(), anyDouble(), anyDouble(), anyDouble(), any(), any()))
+                .thenReturn(List.of(mladost, centre, plovdiv));
+
+        List<GeoMatch> matches = index.findNearby(new GeoQuery(SOFIA_LAT, SOFIA_LNG, 10, now, null, null, 10));
+
+        assertFalse(index.isReady());
+        assertEquals(List.of(centre.id(), mladost.id()), ids(matches));
+        verify(eventRepository).findGeoDocumentsInBox(
+                doubleThat(minLat -> minLat < SOFIA_LAT && minLat > SOFIA_LAT - 0.1),
+                doubleThat(maxLat -> maxLat > SOFIA_LAT && maxLat < SOFIA_LAT + 0.1),
+                doubleThat(minLng -> minLng < SOFIA_LNG && minLng > SOFIA_LNG - 0.2),
+                doubleThat(maxLng -> maxLng > SOFIA_LNG && maxLng < SOFIA_LNG + 0.2),
+                eq(now), any());
+    }
+
+    @Test
+    void whenIndexIsBuilt_thenOnlyUpcomingEventsAreClustered() {
+        EventGeoIndex index = builtIndex();
+
+        List<MapCluster> clusters = index.findClusters(new MapViewport(14, 23.2, 42.6, 23.5, 42.8));
+
+        assertEquals(2, clusters.size());
+        assertFalse(clusters.stream().anyMatch(cluster -> pastInSofia.id().equals(cluster.eventId())));
+    }
+
+    @Test
+    void whenIndexIsNotBuilt_thenClustersAreComputedFromTheViewportQuery() {
+        EventGeoIndex index = new EventGeoIndex(eventRepository, true);
+        when(eventRepository.findGeoDocumentsInBox(eq(41.0), eq(44.5), eq(22.0), eq(29.0), any(), any()))
+                .thenReturn(List.of(centre, mladost, plovdiv));
+
+        List<MapCluster> clusters = index.findClusters(new MapViewport(8, 22.0, 41.0, 29.0, 44.5));
+
+        assertEquals(3, clusters.stream().mapToInt(MapCluster::count).sum());
+        assertEquals(2, clusters.size());
+    }
+
+    @Test
+    void whenIndexIsDisabled_thenRebuildSkipsLoadingAndDatabaseIsUsed() {
+        EventGeoIndex index = new EventGeoIndex(eventRepository, false);
+
+        index.rebuild();
+        index.index(centre);
+
+        assertFalse(index.isReady());
+        assertEquals(0, index.size());
+        verify(eventRepository, never()).findAllGeoDocuments();
+    }
+
+    @Test
+    void whenEventsChangeWhileTheRebuildReadsTheDatabase_thenTheChangesSurviveTheSwap() {
+        EventGeoIndex index = builtIndex();
+        // The read still sees centre, which is deleted while it runs, and not yet mladost, which is created meanwhile
+        when(eventRepository.findAllGeoDocuments()).thenAnswer(invocation -> {
+            index.removeAll(List.of(centre.id()));
+            index.index(mladost);
+            return List.of(centre, plovdiv);
+        });
+
+        index.rebuild();
+
+        List<GeoMatch> matches = index.findNearby(new GeoQuery(SOFIA_LAT, SOFIA_LNG, 10, now, null, null, 10));
+        assertEquals(List.of(mladost.id()), matches.stream().map(GeoMatch::eventId).toList());
+        assertEquals(2, index.size());
+    }
+
+    @Test
+    void whenQueryIsInvalid_thenItIsRejected() {
+        assertThrows(IllegalArgumentException.class, () -> new GeoQuery(91, 0, 10, null, null, null, 10));
+        assertThrows(IllegalArgumentException.class, () -> new GeoQuery(0, 0, 0, null, null, null, 10));
+        assertThrows(IllegalArgumentException.class, () -> new GeoQuery(0, 0, 500, null, null, null, 10));
+        assertThrows(IllegalArgumentException.class, () -> new GeoQuery(0, 0, 10, now, now.minusDays(1), null, 10));
+        assertThrows(IllegalArgumentException.class, () -> new GeoQuery(0, 0, 10, null, null, null, 0));
+    }
+
+    @Test
+    void whenComputingDistance_thenHaversineIsUsed() {
+        assertEquals(132, EventGeoIndex.distanceKm(SOFIA_LAT, SOFIA_LNG, 42.1354, 24.7453), 2);
+        assertEquals(0, EventGeoIndex.distanceKm(SOFIA_LAT, SOFIA_LNG, SOFIA_LAT, SOFIA_LNG), 1e-9);
+    }
+
+    private EventGeoIndex builtIndex() {
+        EventGeoIndex index = new EventGeoIndex(eventRepository, true);
+        when(eventRepository.findAllGeoDocuments()).thenReturn(List.of(centre, mladost, plovdiv, pastInSofia));
+        index.rebuild();
+        return index;
+    }
+
+    private static EventGeoDocument document(double latitude, double longitude, LocalDateTime start, UUID categoryId) {
+        return new EventGeoDocument(UUID.randomUUID(), latitude, longitude, start, start.plusHours(3), categoryId);
+    }
+
+    private static List<UUID> ids(List<GeoMatch> matches) {
+        return matches.stream().map(GeoMatch::eventId).toList();
+    }
+}
@@ -0,0 +1,125 @@
+package main.search;
+
+import main.model.Event;
+import main.repository.EventRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class EventSearchIndexTest {
+
+    @Mock
+    private EventRepository eventRepository;
+
+    private EventSearchIndex index;
+
+    private final UUID jazz = UUID.randomUUID();
+    private final UUID rock = UUID.randomUUID();
+    private final UUID workshop = UUID.randomUUID();
+
+    @BeforeEach
+    void setUp() {
+        index = new EventSearchIndex(eventRepository);
+        when(eventRepository.findAllSearchDocuments()).thenReturn(List.of(
+                new EventSearchDocument(jazz, "Джаз концерт", "Вечер с любими изпълнители", "София"),
+                new EventSearchDocument(rock, "Рок фестивал", "Три дни концерти на открито", "Пловдив"),
+                new EventSearchDocument(workshop, "Java workshop", "Hands-on workshops for beginners", "Sofia Tech Park")));
+        index.rebuild();
+    }
+
+    @Test
+    void whenWordMatchesInNameAndDescription_thenNameMatchRanksFirst() {
+        assertEquals(List.of(jazz, rock), index.search("концерти ", 10));
+    }
+
+    @Test
+    void whenLastWordIsIncomplete_thenItIsMatchedAsPrefix() {
+        assertEquals(List.of(rock), index.search("фести", 10));
+        assertEquals(List.of(workshop), index.search("work", 10));
+        assertTrue(index.search("фести ", 10).isEmpty());
+    }
+
+    @Test
+    void whenSeveralWordsAreGiven_thenEveryWordMustMatch() {
+        assertEquals(List.of(jazz), index.search("джаз софия", 10));
+        assertEquals(List.of(workshop), index.search("java sofia", 10));
+        assertTrue(index.search("джаз пловдив", 10).isEmpty());
+    }
+
+    @Test
+    void whenEventIsUpdatedOrRemoved_thenIndexFollows() {
+        index.index(new EventSearchDocument(jazz, "Блус вечер", null, "Варна"));
+
+        assertTrue(index.search("джаз", 10).isEmpty());
+        assertEquals(List.of(jazz), index.search("варна", 10));
+
+        index.removeAll(List.of(jazz, rock));
+
+        assertEquals(1, index.size());
+        assertTrue(index.search("варна", 10).isEmpty());
+        assertTrue(index.search("концерт", 10).isEmpty());
+    }
+
+    @Test
+    void whenNoTransactionIsActive_thenChangesApplyImmediately() {
+        Event event = Event.builder().id(UUID.randomUUID()).name("Шахматен турнир").location("Бургас").build();
+
+        index.indexAfterCommit(event);
+        assertEquals(List.of(event.getId()), index.search("шахмат", 10));
+
+        index.removeAfterCommit(List.of(event.getId()));
+        assertTrue(index.search("шахмат", 10).isEmpty());
+    }
+
+    @Test
+    void whenEventsChangeWhileTheRebuildReadsTheDatabase_thenTheChangesSurviveTheSwap() {
+        UUID chess = UUID.randomUUID();
+        // The read still sees the jazz event, which is deleted while it runs; the new chess event is not in it yet
+        when(eventRepository.findAllSearchDocuments()).thenAnswer(invocation -> {
+            index.removeAll(List.of(jazz));
+            index.index(new EventSearchDocument(chess, "Шахматен турнир", null, "Бургас"));
+            return List.of(
+                    new EventSearchDocument(jazz, "Джаз концерт", "Вечер с любими изпълнители", "София"),
+                    new EventSearchDocument(rock, "Рок фестивал", "Три дни концерти на открито", "Пловдив"));
+        });
+
+        index.rebuild();
+
+        assertTrue(index.search("джаз", 10).isEmpty());
+        assertEquals(List.of(chess), index.search("шахмат", 10));
+        assertEquals(List.of(rock), index.search("фестивал", 10));
+        assertEquals(2, index.size());
+    }
+
+    @Test
+    void whenEventsAreRemovedAndAdded_thenFreedDocumentNumbersAreReused() {
+        for (int i = 0; i < 100; i++) {
+            UUID id = UUID.randomUUID();
+            index.index(new EventSearchDocument(id, "Временно събитие " + i, null, null));
+            index.removeAll(List.of(id));
+        }
+        index.removeAll(List.of(rock));
+        UUID chess = UUID.randomUUID();
+        index.index(new EventSearchDocument(chess, "Шахматен турнир", null, "Бургас"));
+
+        assertEquals(4, index.documentSlots());
+        assertEquals(List.of(chess), index.search("шахмат", 10));
+        assertEquals(List.of(jazz), index.search("джаз", 10));
+    }
+
+    @Test
+    void whenQueryIsBlankOrOnlyStopWords_thenNothingIsReturned() {
+        assertTrue(index.search("", 10).isEmpty());
+        assertTrue(index.search("   ", 10).isEmpty());
+        assertTrue(index.search("и на ", 10).isEmpty());
+    }
+}
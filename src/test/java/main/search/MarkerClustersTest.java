@@ -0,0 +1,111 @@
+package main.search;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.Comparator;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MarkerClustersTest {
+
+    private static final MapViewport BULGARIA_ZOOMED_OUT = new MapViewport(5, 22.0, 41.0, 29.0, 44.5);
+
+    private final LocalDateTime now = LocalDateTime.now();
+    private final MarkerClusters clusters = new MarkerClusters(0, MarkerClusters.MAX_ZOOM);
+
+    @Test
+    void whenZoomedOut_thenNearbyEventsShareOneClusterAtTheirCentroid() {
+        EventGeoDocument centre = upcoming(42.6960, 23.3230);
+        EventGeoDocument mladost = upcoming(42.6500, 23.3790);
+        clusters.add(centre, now);
+        clusters.add(mladost, now);
+
+        List<MapCluster> found = clusters.find(BULGARIA_ZOOMED_OUT);
+
+        assertEquals(1, found.size());
+        assertEquals(2, found.get(0).count());
+        assertEquals((42.6960 + 42.6500) / 2, found.get(0).latitude(), 1e-9);
+        assertEquals((23.3230 + 23.3790) / 2, found.get(0).longitude(), 1e-9);
+        assertNull(found.get(0).eventId());
+    }
+
+    @Test
+    void whenZoomedIn_thenEventsAreSeparateAndCarryTheirIds() {
+        EventGeoDocument centre = upcoming(42.6960, 23.3230);
+        EventGeoDocument mladost = upcoming(42.6500, 23.3790);
+        clusters.add(centre, now);
+        clusters.add(mladost, now);
+
+        List<MapCluster> found = clusters.find(new MapViewport(14, 23.2, 42.6, 23.5, 42.8));
+
+        assertEquals(List.of(centre.id(), mladost.id()), found.stream()
+                .sorted(Comparator.comparingDouble(MapCluster::latitude).reversed())
+                .map(MapCluster::eventId).toList());
+    }
+
+    @Test
+    void whenEventIsRemovedOrMoved_thenClustersAreUpdatedInPlace() {
+        EventGeoDocument first = upcoming(42.6960, 23.3230);
+        EventGeoDocument second = upcoming(42.6970, 23.3240);
+        EventGeoDocument third = upcoming(42.6980, 23.3250);
+        clusters.add(first, now);
+        clusters.add(second, now);
+        clusters.add(third, now);
+
+        clusters.remove(first.id());
+        clusters.add(new EventGeoDocument(third.id(), 43.2141, 27.9147, third.startTime(), third.endTime(), null), now);
+
+        List<MapCluster> found = clusters.find(new MapViewport(10, 22.0, 41.0, 29.0, 44.5));
+        assertEquals(2, found.size());
+        assertTrue(found.stream().allMatch(cluster -> cluster.count() == 1));
+        assertTrue(found.stream().anyMatch(cluster -> second.id().equals(cluster.eventId())));
+        assertTrue(found.stream().anyMatch(cluster -> third.id().equals(cluster.eventId())));
+        assertEquals(2, clusters.size());
+    }
+
+    @Test
+    void whenEventHasEnded_thenItIsLeftOutAndEvictedLater() {
+        EventGeoDocument ended = new EventGeoDocument(UUID.randomUUID(), 42.69, 23.32, now.minusDays(1), now.minusHours(1), null);
+        EventGeoDocument endingSoon = new EventGeoDocument(UUID.randomUUID(), 42.69, 23.32, now.minusHours(2), now.plusMinutes(5), null);
+        clusters.add(ended, now);
+        clusters.add(endingSoon, now);
+        assertEquals(1, clusters.size());
+
+        assertEquals(1, clusters.removeEnded(now.plusMinutes(10)));
+        assertTrue(clusters.find(BULGARIA_ZOOMED_OUT).isEmpty());
+    }
+
+    @Test
+    void whenViewportCrossesAntimeridian_thenBothSidesAreIncluded() {
+        clusters.add(upcoming(-17.7, 178.4), now);
+        clusters.add(upcoming(-14.3, -170.7), now);
+        clusters.add(upcoming(42.69, 23.32), now);
+
+        List<MapCluster> found = clusters.find(new MapViewport(4, 170, -25, -165, -10));
+
+        assertEquals(2, found.size());
+    }
+
+    @Test
+    void whenViewportIsLargerThanTheData_thenNonEmptyCellsAreWalkedInstead() {
+        clusters.add(upcoming(42.69, 23.32), now);
+        clusters.add(upcoming(43.21, 27.91), now);
+
+        assertEquals(2, clusters.find(new MapViewport(16, -180, -85, 180, 85)).size());
+        assertEquals(1, clusters.find(new MapViewport(22, 27.8, 43.1, 28.0, 43.3)).size());
+    }
+
+    @Test
+    void whenViewportIsInvalid_thenItIsRejected() {
+        assertThrows(IllegalArgumentException.class, () -> new MapViewport(-1, 0, 0, 1, 1));
+        assertThrows(IllegalArgumentException.class, () -> new MapViewport(5, 0, 10, 1, 5));
+        assertThrows(IllegalArgumentException.class, () -> new MapViewport(5, -200, 0, 1, 1));
+    }
+
+    private EventGeoDocument upcoming(double latitude, double longitude) {
+        return new EventGeoDocument(UUID.randomUUID(), latitude, longitude, now.plusDays(1), now.plusDays(1).plusHours(3), null);
+    }
+}
@@ -0,0 +1,47 @@
+package main.search;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SearchTokenizerTest {
+
+    @Test
+    void whenTokenizing_thenTextIsLowerCasedSplitAndStopWordsDropped() {
+        assertEquals(List.of("концерт", "парк"), SearchTokenizer.tokenize("Концерт в Парка!"));
+        assertEquals(List.of("workshop", "java"), SearchTokenizer.tokenize("The workshops of Java"));
+    }
+
+    @Test
+    void whenBulgarianInflectionsDiffer_thenTheyShareOneStem() {
+        assertAllSameStem("концерт", "концерти", "концертът", "концерта");
+        assertAllSameStem("конференция", "конференции", "конференцията");
+        assertAllSameStem("събитие", "събития", "събитието");
+        assertAllSameStem("фестивал", "фестивали", "фестивалът");
+        assertAllSameStem("концертите", "концерти");
+        assertAllSameStem("жена", "жени", "жената");
+    }
+
+    @Test
+    void whenEnglishPluralsAndPossessives_thenTheyShareOneStem() {
+        assertAllSameStem("party", "parties", "party's");
+        assertAllSameStem("meetup", "meetups");
+        assertEquals("class", SearchTokenizer.stem("class"));
+    }
+
+    @Test
+    void whenLatinLettersCarryDiacritics_thenTheyAreFoldedButCyrillicIsKept() {
+        assertEquals(List.of("cafe"), SearchTokenizer.words("Café"));
+        assertEquals(List.of("край"), SearchTokenizer.words("Край"));
+        assertEquals(List.of("и"), SearchTokenizer.words("ѝ"));
+    }
+
+    private void assertAllSameStem(String... words) {
+        String expected = SearchTokenizer.stem(words[0]);
+        for (String word : words) {
+            assertEquals(expected, SearchTokenizer.stem(word), word);
+        }
+    }
+}
@@ -0,0 +1,88 @@
+package main.security;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import main.exception.ServiceBusyException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class BoundedPasswordEncoderTest {
+
+    private final PasswordEncoder delegate = mock(PasswordEncoder.class);
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private BoundedPasswordEncoder passwordEncoder;
+
+    @AfterEach
+    void tearDown() {
+        passwordEncoder.shutdown();
+    }
+
+    @Test
+    void whenEncode_thenDelegateRunsOnHashingPool() {
+        passwordEncoder = new BoundedPasswordEncoder(delegate, 1, 1, 1000, meterRegistry);
+        when(delegate.encode("secret")).thenAnswer(invocation -> Thread.currentThread().getName());
+
+        String result = passwordEncoder.encode("secret");
+
+        assertTrue(result.startsWith("password-hash-"));
+        assertEquals(1, meterRegistry.get("password.hashing.duration").tag("operation", "encode").timer().count());
+    }
+
+    @Test
+    void whenMatches_thenDelegateResultIsReturned() {
+        passwordEncoder = new BoundedPasswordEncoder(delegate, 1, 1, 1000, meterRegistry);
+        when(delegate.matches("secret", "hash")).thenReturn(true);
+
+        assertTrue(passwordEncoder.matches("secret", "hash"));
+        assertEquals(1, meterRegistry.get("password.hashing.duration").tag("operation", "matches").timer().count());
+    }
+
+    @Test
+    void whenPoolAndQueueAreFull_thenRequestIsRejected() throws Exception {
+        passwordEncoder = new BoundedPasswordEncoder(delegate, 1, 1, 5000, meterRegistry);
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        when(delegate.encode(anyString())).thenAnswer(invocation -> {
+            started.countDown();
+            release.await();
+            return "hash";
+        });
+
+        ExecutorService callers = Executors.newFixedThreadPool(2);
+        try {
+            callers.submit(() -> passwordEncoder.encode("first"));
+            assertTrue(started.await(5, TimeUnit.SECONDS));
+            callers.submit(() -> passwordEncoder.encode("queued"));
+            Thread.sleep(100);
+
+            assertEquals(1.0, meterRegistry.get("password.hashing.queue.depth").gauge().value());
+            assertThrows(ServiceBusyException.class, () -> passwordEncoder.encode("rejected"));
+            assertEquals(1.0, meterRegistry.get("password.hashing.rejected").tag("reason", "queue_full").counter().count());
+        } finally {
+            release.countDown();
+            callers.shutdown();
+        }
+    }
+
+    @Test
+    void whenHashingTakesTooLong_thenRequestTimesOut() {
+        passwordEncoder = new BoundedPasswordEncoder(delegate, 1, 1, 50, meterRegistry);
+        when(delegate.encode("slow")).thenAnswer(invocation -> {
+            Thread.sleep(1000);
+            return "hash";
+        });
+
+        assertThrows(ServiceBusyException.class, () -> passwordEncoder.encode("slow"));
+        assertEquals(1.0, meterRegistry.get("password.hashing.rejected").tag("reason", "timeout").counter().count());
+    }
+}
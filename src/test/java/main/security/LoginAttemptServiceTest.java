@@ -0,0 +1,141 @@
+package main.security;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.authentication.BadCredentialsException;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.authentication.event.AuthenticationFailureBadCredentialsEvent;
+import org.springframework.security.authentication.event.AuthenticationSuccessEvent;
+import org.springframework.security.web.authentication.WebAuthenticationDetails;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LoginAttemptServiceTest {
+
+    private static final String IP = "10.0.0.1";
+    private static final String ACCOUNT = "user@example.com";
+
+    private MutableClock clock;
+    private LoginAttemptService loginAttemptService;
+
+    @BeforeEach
+    void setUp() {
+        clock = new MutableClock(Instant.parse("2026-01-01T10:00:00Z"));
+        loginAttemptService = new LoginAttemptService(3, Duration.ofMinutes(1), 2, 4, Duration.ofMinutes(15),
+                Duration.ofDays(30), clock);
+    }
+
+    @Test
+    void whenIpExceedsAttemptLimit_thenIpIsBlockedUntilWindowExpires() {
+        for (int i = 0; i < 3; i++) {
+            assertFalse(loginAttemptService.isBlocked(IP, "someone-" + i + "@example.com"));
+            loginAttemptService.recordAttempt(IP);
+        }
+
+        assertTrue(loginAttemptService.isBlocked(IP, "another@example.com"));
+        assertFalse(loginAttemptService.isBlocked("10.0.0.2", "another@example.com"));
+        assertEquals(60, loginAttemptService.retryAfterSeconds(IP, null));
+
+        clock.advance(Duration.ofMinutes(1));
+
+        assertFalse(loginAttemptService.isBlocked(IP, "another@example.com"));
+    }
+
+    @Test
+    void whenAccountExceedsFailureLimitFromAnIp_thenOnlyThatIpIsBlockedForIt() {
+        loginAttemptService.onAuthenticationFailure(failure(ACCOUNT, IP));
+        assertFalse(loginAttemptService.isBlocked(IP, ACCOUNT));
+
+        loginAttemptService.onAuthenticationFailure(failure("USER@example.com ", IP));
+
+        assertTrue(loginAttemptService.isBlocked(IP, ACCOUNT));
+        assertEquals(900, loginAttemptService.retryAfterSeconds(IP, ACCOUNT));
+        assertFalse(loginAttemptService.isBlocked(IP, "another@example.com"));
+        // The owner logging in from their usual address is not locked out by the guesses
+        assertFalse(loginAttemptService.isBlocked("10.9.9.9", ACCOUNT));
+    }
+
+    @Test
+    void whenManyIpsGuessOneAccount_thenUnknownIpsAreBlockedButTheOwnersKnownIpIsNot() {
+        loginAttemptService.onAuthenticationSuccess(success(ACCOUNT, IP));
+        for (int i = 0; i < 4; i++) {
+            loginAttemptService.onAuthenticationFailure(failure(ACCOUNT, "10.1.0." + i));
+        }
+
+        assertTrue(loginAttemptService.isBlocked("10.2.0.1", ACCOUNT));
+        assertEquals(900, loginAttemptService.retryAfterSeconds("10.2.0.1", ACCOUNT));
+        assertFalse(loginAttemptService.isBlocked(IP, ACCOUNT));
+        assertFalse(loginAttemptService.isBlocked("10.2.0.1", "another@example.com"));
+
+        clock.advance(Duration.ofMinutes(15));
+
+        assertFalse(loginAttemptService.isBlocked("10.2.0.1", ACCOUNT));
+    }
+
+    @Test
+    void whenLoginSucceeds_thenAccountFailuresAreReset() {
+        loginAttemptService.onAuthenticationFailure(failure(ACCOUNT, IP));
+        loginAttemptService.onAuthenticationSuccess(success(ACCOUNT, IP));
+        loginAttemptService.onAuthenticationFailure(failure(ACCOUNT, IP));
+
+        assertFalse(loginAttemptService.isBlocked(IP, ACCOUNT));
+    }
+
+    @Test
+    void whenWindowsExpire_thenPurgeRemovesThem() {
+        loginAttemptService.recordAttempt(IP);
+        loginAttemptService.recordAttempt(IP);
+        loginAttemptService.recordAttempt(IP);
+
+        clock.advance(Duration.ofMinutes(2));
+        loginAttemptService.purgeExpired();
+        clock.advance(Duration.ofSeconds(-90));
+
+        assertFalse(loginAttemptService.isBlocked(IP, null));
+    }
+
+    private AuthenticationSuccessEvent success(String account, String ip) {
+        UsernamePasswordAuthenticationToken login = UsernamePasswordAuthenticationToken.authenticated(account, null, null);
+        login.setDetails(new WebAuthenticationDetails(ip, null));
+        return new AuthenticationSuccessEvent(login);
+    }
+
+    private AuthenticationFailureBadCredentialsEvent failure(String account, String ip) {
+        UsernamePasswordAuthenticationToken attempt = UsernamePasswordAuthenticationToken.unauthenticated(account, "wrong");
+        attempt.setDetails(new WebAuthenticationDetails(ip, null));
+        return new AuthenticationFailureBadCredentialsEvent(attempt, new BadCredentialsException("Bad credentials"));
+    }
+
+    private static class MutableClock extends Clock {
+
+        private Instant now;
+
+        MutableClock(Instant now) {
+            this.now = now;
+        }
+
+        void advance(Duration duration) {
+            now = now.plus(duration);
+        }
+
+        @Override
+        public ZoneOffset getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(java.time.ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return now;
+        }
+    }
+}
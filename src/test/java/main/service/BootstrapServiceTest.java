@@ -0,0 +1,109 @@
+package main.service;
+
+import main.model.SystemFlag;
+import main.repository.SystemFlagRepository;
+import main.repository.UserRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class BootstrapServiceTest {
+
+    @Mock
+    private SystemFlagRepository systemFlagRepository;
+
+    @Mock
+    private UserRepository userRepository;
+
+    @InjectMocks
+    private BootstrapService bootstrapService;
+
+    @Test
+    void whenInitializeOnEmptyDatabase_thenFlagIsCreatedDisabled() {
+        when(systemFlagRepository.findById(BootstrapService.ADMIN_BOOTSTRAPPED)).thenReturn(Optional.empty());
+        when(userRepository.count()).thenReturn(0L);
+        when(systemFlagRepository.save(any(SystemFlag.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+        bootstrapService.initialize();
+
+        ArgumentCaptor<SystemFlag> captor = ArgumentCaptor.forClass(SystemFlag.class);
+        verify(systemFlagRepository).save(captor.capture());
+        assertFalse(captor.getValue().getEnabled());
+    }
+
+    @Test
+    void whenInitializeWithExistingUsers_thenFlagIsCreatedEnabled() {
+        when(systemFlagRepository.findById(BootstrapService.ADMIN_BOOTSTRAPPED)).thenReturn(Optional.empty());
+        when(userRepository.count()).thenReturn(3L);
+        when(systemFlagRepository.save(any(SystemFlag.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+        bootstrapService.initialize();
+
+        assertFalse(bootstrapService.claimFirstAdmin());
+        verify(systemFlagRepository, never()).enableIfDisabled(any());
+    }
+
+    @Test
+    void whenFlagAlreadyExists_thenUserCountIsNotQueried() {
+        SystemFlag flag = SystemFlag.builder().name(BootstrapService.ADMIN_BOOTSTRAPPED).enabled(true).build();
+        when(systemFlagRepository.findById(BootstrapService.ADMIN_BOOTSTRAPPED)).thenReturn(Optional.of(flag));
+
+        bootstrapService.initialize();
+
+        verify(userRepository, never()).count();
+        verify(systemFlagRepository, never()).save(any());
+    }
+
+    @Test
+    void whenClaimSucceeds_thenFirstAdminIsGranted() {
+        when(systemFlagRepository.enableIfDisabled(BootstrapService.ADMIN_BOOTSTRAPPED)).thenReturn(1);
+
+        assertTrue(bootstrapService.claimFirstAdmin());
+    }
+
+    @Test
+    void whenFlagRowIsMissing_thenClaimCreatesItEnabledAndGrantsTheFirstAdmin() {
+        when(systemFlagRepository.enableIfDisabled(BootstrapService.ADMIN_BOOTSTRAPPED)).thenReturn(0);
+        when(systemFlagRepository.existsById(BootstrapService.ADMIN_BOOTSTRAPPED)).thenReturn(false);
+        when(userRepository.count()).thenReturn(0L);
+
+        assertTrue(bootstrapService.claimFirstAdmin());
+
+        ArgumentCaptor<SystemFlag> captor = ArgumentCaptor.forClass(SystemFlag.class);
+        verify(systemFlagRepository).save(captor.capture());
+        assertEquals(BootstrapService.ADMIN_BOOTSTRAPPED, captor.getValue().getName());
+        assertTrue(captor.getValue().getEnabled());
+    }
+
+    @Test
+    void whenFlagRowIsMissingButUsersExist_thenClaimRecreatesItWithoutGrantingAdmin() {
+        when(systemFlagRepository.enableIfDisabled(BootstrapService.ADMIN_BOOTSTRAPPED)).thenReturn(0);
+        when(systemFlagRepository.existsById(BootstrapService.ADMIN_BOOTSTRAPPED)).thenReturn(false);
+        when(userRepository.count()).thenReturn(2L);
+
+        assertFalse(bootstrapService.claimFirstAdmin());
+
+        verify(systemFlagRepository).save(any(SystemFlag.class));
+    }
+
+    @Test
+    void whenClaimFails_thenLaterClaimsSkipTheDatabase() {
+        when(systemFlagRepository.enableIfDisabled(BootstrapService.ADMIN_BOOTSTRAPPED)).thenReturn(0);
+        when(systemFlagRepository.existsById(BootstrapService.ADMIN_BOOTSTRAPPED)).thenReturn(true);
+
+        assertFalse(bootstrapService.claimFirstAdmin());
+        assertFalse(bootstrapService.claimFirstAdmin());
+
+        verify(systemFlagRepository, times(1)).enableIfDisabled(BootstrapService.ADMIN_BOOTSTRAPPED);
+    }
+}
@@ -0,0 +1,183 @@
+package main.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.persistence.EntityManager;
+import main.model.Event;
+import main.model.Subscription;
+import main.model.User;
+import main.repository.EventRepository;
+import main.repository.SubscriptionRepository;
+import main.repository.UserRepository;
+import main.web.dto.BulkInviteResult;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class BulkInviteServiceTest {
+
+    @Mock
+    private EventRepository eventRepository;
+
+    @Mock
+    private UserRepository userRepository;
+
+    @Mock
+    private SubscriptionRepository subscriptionRepository;
+
+    @Mock
+    private TicketService ticketService;
+
+    @Mock
+    private CalendarFeedService calendarFeedService;
+
+    @Mock
+    private EntityManager entityManager;
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private BulkInviteService bulkInviteService;
+    private User organizer;
+    private Event event;
+
+    @BeforeEach
+    void setUp() {
+        bulkInviteService = new BulkInviteService(eventRepository, userRepository, subscriptionRepository, ticketService,
+                calendarFeedService, entityManager, meterRegistry, 2, 100);
+        organizer = user("organizer");
+        event = new Event();
+        event.setId(UUID.randomUUID());
+        event.setCreator(organizer);
+    }
+
+    @Test
+    void whenInviteListExceedsTheFreePlaces_thenOnlyTheFirstUsersInTheFileAreSubscribed() {
+        User subscribed = user("subscribed");
+        User first = user("first");
+        User second = user("second");
+        User third = user("third");
+        event.setCapacity(3);
+        when(eventRepository.findByIdForUpdate(event.getId())).thenReturn(Optional.of(event));
+        when(userRepository.findByEmailIn(anyCollection())).thenReturn(List.of(subscribed, organizer, first, second, third));
+        when(subscriptionRepository.findUserIdsByEventId(event.getId())).thenReturn(List.of(subscribed.getId()));
+
+        BulkInviteResult result = bulkInviteService.invite(event.getId(), organizer, List.of(
+                "subscribed@example.com", "organizer@example.com", "first@example.com", "first@example.com",
+                "second@example.com", "third@example.com", "nobody@example.com"));
+
+        assertEquals(2, result.getInvited());
+        assertEquals(2, result.getSkipped());
+        assertEquals(1, result.getOverCapacity());
+        assertEquals(1, result.getNotFound());
+        assertEquals(List.of("nobody@example.com"), result.getNotFoundSample());
+        assertEquals(List.of(first, second), savedUsers());
+        assertEquals(2, meterRegistry.get("subscriptions.created").counter().count());
+        assertEquals(1, meterRegistry.get("subscriptions.invites").tag("outcome", "full").counter().count());
+    }
+
+    @Test
+    void whenInviteIsLargerThanABatch_thenEachChunkIsFlushedWithItsTicketsAndCleared() {
+        List<User> users = new ArrayList<>();
+        List<String> emails = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            users.add(user("guest" + i));
+            emails.add("guest" + i + "@example.com");
+        }
+        when(eventRepository.findByIdForUpdate(event.getId())).thenReturn(Optional.of(event));
+        when(userRepository.findByEmailIn(anyCollection())).thenReturn(users);
+        when(subscriptionRepository.findUserIdsByEventId(event.getId())).thenReturn(List.of());
+
+        BulkInviteResult result = bulkInviteService.invite(event.getId(), organizer, emails);
+
+        assertEquals(5, result.getInvited());
+        assertEquals(users, savedUsers());
+        verify(ticketService, times(3)).issueTickets(anyCollection());
+        verify(entityManager, times(3)).flush();
+        verify(entityManager, times(3)).clear();
+        verify(calendarFeedService).touchUsers(users.stream().map(User::getId).toList());
+    }
+
+    @Test
+    void whenAddressesDifferOnlyInCase_thenTheStoredUserIsMatchedOnce() {
+        User alice = user("alice");
+        alice.setEmail("Alice@Example.com");
+        when(eventRepository.findByIdForUpdate(event.getId())).thenReturn(Optional.of(event));
+        when(userRepository.findByEmailIn(anyCollection())).thenReturn(List.of(alice));
+        when(subscriptionRepository.findUserIdsByEventId(event.getId())).thenReturn(List.of());
+
+        BulkInviteResult result = bulkInviteService.invite(event.getId(), organizer,
+                List.of("alice@example.com", " ALICE@EXAMPLE.COM ", "Alice@Example.com"));
+
+        assertEquals(1, result.getInvited());
+        assertEquals(0, result.getNotFound());
+        assertEquals(List.of(alice), savedUsers());
+    }
+
+    @Test
+    void whenUserIsNotTheOrganizer_thenInviteIsRejected() {
+        when(eventRepository.findByIdForUpdate(event.getId())).thenReturn(Optional.of(event));
+
+        assertThrows(IllegalStateException.class,
+                () -> bulkInviteService.invite(event.getId(), user("stranger"), List.of("guest@example.com")));
+
+        verify(subscriptionRepository, never()).saveAll(any());
+    }
+
+    @Test
+    void whenFileHasMoreRowsThanAllowed_thenNothingIsLookedUp() {
+        List<String> emails = new ArrayList<>();
+        for (int i = 0; i < 101; i++) {
+            emails.add("guest" + i + "@example.com");
+        }
+
+        assertThrows(IllegalArgumentException.class, () -> bulkInviteService.invite(event.getId(), organizer, emails));
+
+        verifyNoInteractions(eventRepository, userRepository);
+    }
+
+    @Test
+    void whenCsvHasAHeaderQuotesAndExtraColumns_thenOnlyTheAddressesAreRead() throws Exception {
+        String csv = "\uFEFFemail,name\n"
+                + "\"first@example.com\",Първи\n"
+                + "\n"
+                + "Втори;second@example.com\n"
+                + "  Third@Example.COM  \n";
+
+        List<String> emails = BulkInviteService.readEmails(new ByteArrayInputStream(csv.getBytes(StandardCharsets.UTF_8)));
+
+        assertEquals(List.of("first@example.com", "second@example.com", "third@example.com"), emails);
+    }
+
+    @SuppressWarnings("unchecked")
+    private List<User> savedUsers() {
+        ArgumentCaptor<List<Subscription>> chunks = ArgumentCaptor.forClass(List.class);
+        verify(subscriptionRepository, atLeastOnce()).saveAll(chunks.capture());
+        return chunks.getAllValues().stream()
+                .flatMap(List::stream)
+                .map(Subscription::getUser)
+                .toList();
+    }
+
+    private static User user(String name) {
+        User user = new User();
+        user.setId(UUID.randomUUID());
+        user.setUsername(name);
+        user.setEmail(name + "@example.com");
+        return user;
+    }
+}
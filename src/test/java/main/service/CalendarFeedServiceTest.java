@@ -0,0 +1,77 @@
+package main.service;
+
+import main.model.CalendarFeed;
+import main.repository.CalendarFeedRepository;
+import main.repository.EventRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class CalendarFeedServiceTest {
+
+    @Mock
+    private CalendarFeedRepository calendarFeedRepository;
+
+    @Mock
+    private EventRepository eventRepository;
+
+    @InjectMocks
+    private CalendarFeedService calendarFeedService;
+
+    @Test
+    void whenUserHasNoFeed_thenOneIsCreatedWithAnUnguessableToken() {
+        UUID userId = UUID.randomUUID();
+        when(calendarFeedRepository.findById(userId)).thenReturn(Optional.empty());
+        when(calendarFeedRepository.saveAndFlush(any(CalendarFeed.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+        CalendarFeed feed = calendarFeedService.getOrCreate(userId);
+
+        assertEquals(userId, feed.getUserId());
+        assertEquals(32, feed.getToken().length());
+        assertTrue(feed.getToken().matches("[A-Za-z0-9_-]+"));
+        assertEquals(1L, feed.getVersion());
+    }
+
+    @Test
+    void whenUserHasFeed_thenItIsReused() {
+        UUID userId = UUID.randomUUID();
+        CalendarFeed existing = new CalendarFeed(userId, "token", 7L, LocalDateTime.now());
+        when(calendarFeedRepository.findById(userId)).thenReturn(Optional.of(existing));
+
+        assertSame(existing, calendarFeedService.getOrCreate(userId));
+        verify(calendarFeedRepository, never()).saveAndFlush(any());
+    }
+
+    @Test
+    void whenTokenIsUnknown_thenFeedIsNotFound() {
+        when(calendarFeedRepository.findByToken("missing")).thenReturn(Optional.empty());
+
+        assertThrows(IllegalArgumentException.class, () -> calendarFeedService.getByToken("missing"));
+    }
+
+    @Test
+    void whenEventsChange_thenTheirAudienceIsTouchedInOneStatement() {
+        List<UUID> eventIds = List.of(UUID.randomUUID(), UUID.randomUUID());
+
+        calendarFeedService.touchEventAudience(eventIds);
+        calendarFeedService.touchEventAudience(List.of());
+
+        ArgumentCaptor<LocalDateTime> now = ArgumentCaptor.forClass(LocalDateTime.class);
+        verify(calendarFeedRepository, times(1)).touchEventAudience(eq(eventIds), now.capture());
+        assertNotNull(now.getValue());
+    }
+}
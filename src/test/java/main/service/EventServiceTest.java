@@ -1,15 +1,31 @@
 package main.service;
 
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import main.api.EventApiRow;
+import main.api.EventCursor;
+import main.api.EventPageQuery;
 import main.model.Category;
 import main.model.Event;
 import main.model.User;
 import main.repository.EventRepository;
+import main.search.CalendarWindow;
+import main.search.EventCalendarIndex;
+import main.search.EventGeoIndex;
+import main.search.EventSearchIndex;
+import main.search.GeoMatch;
+import main.search.GeoQuery;
+import main.web.dto.CalendarEventResponse;
+import main.web.dto.EventPageResponse;
+import main.web.dto.NearbyEventResponse;
 import main.web.dto.EventCreateRequest;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
+import org.mockito.InOrder;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Pageable;
 import org.springframework.validation.BindingResult;
 
 import java.time.LocalDateTime;
@@ -18,7 +34,10 @@ import java.util.UUID;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
 import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
@@ -36,9 +55,24 @@ class EventServiceTest {
     @Mock
     private TicketService ticketService;
 
+    @Mock
+    private EventSearchIndex eventSearchIndex;
+
+    @Mock
+    private EventGeoIndex eventGeoIndex;
+
+    @Mock
+    private EventCalendarIndex eventCalendarIndex;
+
+    @Mock
+    private CalendarFeedService calendarFeedService;
+
     @Mock
     private BindingResult bindingResult;
 
+    @Spy
+    private SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
     @InjectMocks
     private EventService eventService;
 
@@ -162,6 +196,10 @@ class EventServiceTest {
         assertEquals(category, result.getCategory());
         verify(categoryService).getActiveById(category.getId());
         verify(eventRepository).save(any(Event.class));
+        verify(eventSearchIndex).indexAfterCommit(savedEvent);
+        verify(eventGeoIndex).indexAfterCommit(savedEvent);
+        verify(eventCalendarIndex).indexAfterCommit(savedEvent);
+        verify(calendarFeedService).touchUser(user.getId());
     }
 
     @Test
@@ -236,6 +274,7 @@ class EventServiceTest {
 
         assertTrue(result);
         verify(subscriptionService).deleteByUserAndEvent(user.getId(), event.getId());
+        verify(calendarFeedService).touchUser(user.getId());
     }
 
     @Test
@@ -259,6 +298,8 @@ class EventServiceTest {
         verify(subscriptionService).deleteAllByEventId(oldEvent2.getId());
         verify(eventRepository).delete(oldEvent1);
         verify(eventRepository).delete(oldEvent2);
+        verify(eventSearchIndex).removeAfterCommit(List.of(oldEvent1.getId(), oldEvent2.getId()));
+        verify(calendarFeedService).touchEventAudience(List.of(oldEvent1.getId(), oldEvent2.getId()));
     }
 
     @Test
@@ -270,7 +311,7 @@ class EventServiceTest {
         event.setId(UUID.randomUUID());
         event.setCreator(creator);
 
-        when(eventRepository.findById(event.getId())).thenReturn(Optional.of(event));
+        when(eventRepository.findByIdForUpdate(event.getId())).thenReturn(Optional.of(event));
 
         IllegalStateException exception = assertThrows(
                 IllegalStateException.class,
@@ -279,6 +320,7 @@ class EventServiceTest {
 
         assertEquals("OWN_EVENT", exception.getMessage());
         verify(subscriptionService, never()).create(any(), any());
+        assertEquals(1, subscriptionRequests("own-event"));
     }
 
     @Test
@@ -294,7 +336,7 @@ class EventServiceTest {
         event.setCreator(creator);
         event.setCapacity(10);
 
-        when(eventRepository.findById(event.getId())).thenReturn(Optional.of(event));
+        when(eventRepository.findByIdForUpdate(event.getId())).thenReturn(Optional.of(event));
         when(subscriptionService.existsByUserAndEvent(user.getId(), event.getId())).thenReturn(false);
         when(subscriptionService.countByEvent(event.getId())).thenReturn(10L);
 
@@ -305,30 +347,48 @@ class EventServiceTest {
 
         assertEquals("FULL", exception.getMessage());
         verify(subscriptionService, never()).create(any(), any());
+        assertEquals(1, subscriptionRequests("full"));
+    }
+
+    private double subscriptionRequests(String outcome) {
+        return meterRegistry.get("events.subscription.requests")
+                .tag("action", "subscribe")
+                .tag("outcome", outcome)
+                .counter()
+                .count();
     }
 
     @Test
-    void deleteAllByCreatorId_ShouldDeleteAllEvents() {
+    void deleteChunkByCreatorId_ShouldBulkDeleteEventsAndSubscriptions() {
         UUID creatorId = UUID.randomUUID();
+        List<UUID> eventIds = Arrays.asList(UUID.randomUUID(), UUID.randomUUID());
 
-        Event event1 = new Event();
-        event1.setId(UUID.randomUUID());
-        event1.setName("Event 1");
+        when(eventRepository.findIdsByCreatorId(eq(creatorId), any(Pageable.class))).thenReturn(eventIds);
+        when(eventRepository.deleteByIdIn(eventIds)).thenReturn(2);
 
-        Event event2 = new Event();
-        event2.setId(UUID.randomUUID());
-        event2.setName("Event 2");
+        int deleted = eventService.deleteChunkByCreatorId(creatorId, 100);
 
-        List<Event> events = Arrays.asList(event1, event2);
+        assertEquals(2, deleted);
+        InOrder inOrder = inOrder(calendarFeedService, subscriptionService);
+        inOrder.verify(calendarFeedService).touchEventAudience(eventIds);
+        inOrder.verify(subscriptionService).deleteAllByEventIds(eventIds);
+        verify(eventRepository).deleteByIdIn(eventIds);
+        verify(eventSearchIndex).removeAfterCommit(eventIds);
+        verify(eventGeoIndex).removeAfterCommit(eventIds);
+        verify(eventCalendarIndex).removeAfterCommit(eventIds);
+    }
 
-        when(eventRepository.findByCreatorId(creatorId)).thenReturn(events);
+    @Test
+    void deleteChunkByCreatorId_WithNoEvents_ShouldReturnZero() {
+        UUID creatorId = UUID.randomUUID();
 
-        eventService.deleteAllByCreatorId(creatorId);
+        when(eventRepository.findIdsByCreatorId(eq(creatorId), any(Pageable.class))).thenReturn(List.of());
 
-        verify(subscriptionService).deleteAllByEventId(event1.getId());
-        verify(subscriptionService).deleteAllByEventId(event2.getId());
-        verify(eventRepository).delete(event1);
-        verify(eventRepository).delete(event2);
+        int deleted = eventService.deleteChunkByCreatorId(creatorId, 100);
+
+        assertEquals(0, deleted);
+        verify(subscriptionService, never()).deleteAllByEventIds(any());
+        verify(eventRepository, never()).deleteByIdIn(any());
     }
 
     @Test
@@ -426,13 +486,157 @@ class EventServiceTest {
 
         when(eventRepository.findUpcomingEvents(any(LocalDateTime.class))).thenReturn(events);
         when(subscriptionService.getSubscribedEventIds(userId)).thenReturn(subscribedEventIds);
+        when(subscriptionService.countByEvents(List.of(event.getId()))).thenReturn(Map.of(event.getId(), 4L));
 
         List<main.web.view.EventView> result = eventService.getEventsForListing(userId, categoryId);
 
         assertNotNull(result);
         assertEquals(1, result.size());
+        assertEquals(4L, result.get(0).getRegisteredCount());
         verify(eventRepository).findUpcomingEvents(any(LocalDateTime.class));
         verify(subscriptionService).getSubscribedEventIds(userId);
+        verify(subscriptionService, never()).countByEvent(any());
+    }
+
+    @Test
+    void searchEventsForListing_ShouldKeepRankOrderAndOnlyUpcomingEvents() {
+        UUID userId = UUID.randomUUID();
+        LocalDateTime now = LocalDateTime.now();
+
+        Event best = new Event();
+        best.setId(UUID.randomUUID());
+        best.setName("Джаз концерт");
+        best.setEndTime(now.plusDays(1));
+
+        Event second = new Event();
+        second.setId(UUID.randomUUID());
+        second.setName("Концерт в парка");
+        second.setEndTime(now.plusDays(2));
+
+        Event past = new Event();
+        past.setId(UUID.randomUUID());
+        past.setName("Стар концерт");
+        past.setEndTime(now.minusDays(1));
+
+        when(eventSearchIndex.search(eq("концерт"), anyInt())).thenReturn(List.of(best.getId(), past.getId(), second.getId()));
+        when(eventRepository.findAllById(List.of(best.getId(), past.getId(), second.getId()))).thenReturn(List.of(second, past, best));
+        when(subscriptionService.getSubscribedEventIds(userId)).thenReturn(Set.of(second.getId()));
+
+        List<main.web.view.EventView> result = eventService.searchEventsForListing(userId, null, "концерт");
+
+        assertEquals(2, result.size());
+        assertEquals(best.getId(), result.get(0).getId());
+        assertEquals(second.getId(), result.get(1).getId());
+        assertTrue(result.get(1).isSubscribed());
+    }
+
+    @Test
+    void getCalendarEvents_ShouldReturnWindowEventsInIndexOrder() {
+        Event first = new Event();
+        first.setId(UUID.randomUUID());
+        first.setName("First");
+        Event second = new Event();
+        second.setId(UUID.randomUUID());
+        second.setName("Second");
+
+        LocalDateTime monday = LocalDateTime.now().withHour(0);
+        CalendarWindow window = new CalendarWindow(monday, monday.plusDays(7), null);
+        when(eventCalendarIndex.findOverlapping(eq(window), anyInt())).thenReturn(List.of(first.getId(), second.getId()));
+        when(eventRepository.findAllById(List.of(first.getId(), second.getId()))).thenReturn(List.of(second, first));
+
+        assertEquals(List.of("First", "Second"), eventService.getCalendarEvents(window).stream()
+                .map(CalendarEventResponse::getName).toList());
+    }
+
+    @Test
+    void getEventPage_ShouldTrimLookAheadRowAndReturnCursorAfterLastItem() {
+        UUID userId = UUID.randomUUID();
+        LocalDateTime start = LocalDateTime.now().plusDays(1);
+        EventApiRow first = new EventApiRow(UUID.randomUUID(), "First", null, null, null, null, null,
+                start, start.plusHours(2), 2, "Music", null, "org", 2);
+        EventApiRow second = new EventApiRow(UUID.randomUUID(), "Second", null, null, null, null, null,
+                start, start.plusHours(2), null, null, null, null, 0);
+        EventApiRow lookAhead = new EventApiRow(UUID.randomUUID(), "Third", null, null, null, null, null,
+                start.plusDays(1), start.plusDays(1), null, null, null, null, 0);
+        when(eventRepository.findApiPage(any(LocalDateTime.class), isNull(), any(LocalDateTime.class), any(UUID.class), any(Pageable.class)))
+                .thenReturn(List.of(first, second, lookAhead));
+        when(subscriptionService.getSubscribedEventIds(userId)).thenReturn(Set.of(second.id()));
+
+        EventPageResponse page = eventService.getEventPage(userId, new EventPageQuery(null, null, 2));
+
+        assertEquals(2, page.getItems().size());
+        assertTrue(page.getItems().get(0).isFull());
+        assertEquals(0L, page.getItems().get(0).getRemainingCapacity());
+        assertNull(page.getItems().get(1).getRemainingCapacity());
+        assertTrue(page.getItems().get(1).isSubscribed());
+        assertEquals(EventCursor.after(second), EventCursor.decode(page.getNextCursor()));
+    }
+
+    @Test
+    void getEventPage_ShouldContinueAfterCursorAndEndWithoutNextCursor() {
+        EventCursor cursor = new EventCursor(LocalDateTime.now(), UUID.randomUUID());
+        when(eventRepository.findApiPage(any(LocalDateTime.class), isNull(), eq(cursor.startTime()), eq(cursor.id()), any(Pageable.class)))
+                .thenReturn(List.of());
+
+        EventPageResponse page = eventService.getEventPage(UUID.randomUUID(), new EventPageQuery(cursor, null, 20));
+
+        assertTrue(page.getItems().isEmpty());
+        assertNull(page.getNextCursor());
+        verifyNoInteractions(subscriptionService);
+    }
+
+    @Test
+    void getNearbyEvents_ShouldReturnEventsNearestFirstWithRoundedDistance() {
+        Event near = new Event();
+        near.setId(UUID.randomUUID());
+        near.setName("Near");
+        near.setLatitude(42.69);
+        near.setLongitude(23.32);
+
+        Event far = new Event();
+        far.setId(UUID.randomUUID());
+        far.setName("Far");
+
+        GeoQuery query = new GeoQuery(42.6977, 23.3219, 10, LocalDateTime.now(), null, null, 10);
+        when(eventGeoIndex.findNearby(query)).thenReturn(List.of(new GeoMatch(near.getId(), 0.1234), new GeoMatch(far.getId(), 7.891)));
+        when(eventRepository.findAllById(List.of(near.getId(), far.getId()))).thenReturn(List.of(far, near));
+
+        List<NearbyEventResponse> result = eventService.getNearbyEvents(query);
+
+        assertEquals(List.of("Near", "Far"), result.stream().map(NearbyEventResponse::getName).toList());
+        assertEquals(0.12, result.get(0).getDistanceKm());
+        assertEquals(7.89, result.get(1).getDistanceKm());
+    }
+
+    @Test
+    void getNearbyEventsForListing_WithText_ShouldKeepOnlyTextMatches() {
+        UUID userId = UUID.randomUUID();
+        Event jazz = new Event();
+        jazz.setId(UUID.randomUUID());
+        jazz.setName("Джаз");
+        UUID other = UUID.randomUUID();
+
+        GeoQuery query = new GeoQuery(42.6977, 23.3219, 10, LocalDateTime.now(), null, null, 10);
+        when(eventGeoIndex.findNearby(query)).thenReturn(List.of(new GeoMatch(other, 0.5), new GeoMatch(jazz.getId(), 1.0)));
+        when(eventSearchIndex.search("джаз", Integer.MAX_VALUE)).thenReturn(List.of(jazz.getId()));
+        when(eventRepository.findAllById(List.of(jazz.getId()))).thenReturn(List.of(jazz));
+        when(subscriptionService.getSubscribedEventIds(userId)).thenReturn(Set.of());
+
+        List<main.web.view.EventView> result = eventService.getNearbyEventsForListing(userId, query, "джаз");
+
+        assertEquals(1, result.size());
+        assertEquals(jazz.getId(), result.get(0).getId());
+    }
+
+    @Test
+    void searchPastEventsForListing_WithNoMatches_ShouldNotQueryRepository() {
+        UUID userId = UUID.randomUUID();
+        when(eventSearchIndex.search(eq("няма"), anyInt())).thenReturn(List.of());
+
+        List<main.web.view.EventView> result = eventService.searchPastEventsForListing(userId, null, "няма");
+
+        assertTrue(result.isEmpty());
+        verify(eventRepository, never()).findAllById(any());
     }
 
     @Test
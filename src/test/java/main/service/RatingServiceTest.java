@@ -0,0 +1,100 @@
+package main.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import main.client.RatingClient;
+import main.web.dto.EventRatingSummaryResponse;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
+import org.springframework.http.ResponseEntity;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class RatingServiceTest {
+
+    @Mock
+    private RatingClient ratingClient;
+
+    @Mock
+    private EventService eventService;
+
+    @Mock
+    private SubscriptionService subscriptionService;
+
+    @Mock
+    private AsyncTaskExecutor executor;
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @Test
+    void whenFanOutIsSequential_thenCallsRunOnCallerThreadWithoutExecutor() {
+        RatingService ratingService = new RatingService(ratingClient, eventService, subscriptionService, executor, false, meterRegistry);
+        UUID first = UUID.randomUUID();
+        UUID second = UUID.randomUUID();
+        when(ratingClient.getRatingsForEvent(any(UUID.class)))
+                .thenAnswer(invocation -> ResponseEntity.ok(summary(invocation.getArgument(0))));
+
+        Map<UUID, EventRatingSummaryResponse> ratings = ratingService.getRatingsForEvents(List.of(first, second));
+
+        assertEquals(Set.of(first, second), ratings.keySet());
+        assertEquals(first, ratings.get(first).getEventId());
+        verifyNoInteractions(executor);
+    }
+
+    @Test
+    void whenFanOutIsParallel_thenCallsRunOnExecutorThreads() {
+        RatingService ratingService = new RatingService(ratingClient, eventService, subscriptionService,
+                new SimpleAsyncTaskExecutor("rating-test-"), true, meterRegistry);
+        UUID userId = UUID.randomUUID();
+        List<UUID> eventIds = List.of(UUID.randomUUID(), UUID.randomUUID(), UUID.randomUUID());
+        Set<String> callerThreads = ConcurrentHashMap.newKeySet();
+        when(ratingClient.hasUserRated(any(UUID.class), eq(userId))).thenAnswer(invocation -> {
+            callerThreads.add(Thread.currentThread().getName());
+            return ResponseEntity.ok(invocation.getArgument(0).equals(eventIds.get(1)));
+        });
+
+        Map<UUID, Boolean> hasRated = ratingService.getHasRatedMapForEvents(eventIds, userId);
+
+        assertEquals(Map.of(eventIds.get(0), false, eventIds.get(1), true, eventIds.get(2), false), hasRated);
+        assertTrue(callerThreads.stream().allMatch(name -> name.startsWith("rating-test-")));
+    }
+
+    @Test
+    void whenParallelCallFails_thenEmptySummaryIsReturnedForThatEvent() {
+        RatingService ratingService = new RatingService(ratingClient, eventService, subscriptionService,
+                new SimpleAsyncTaskExecutor("rating-test-"), true, meterRegistry);
+        UUID healthy = UUID.randomUUID();
+        UUID failing = UUID.randomUUID();
+        when(ratingClient.getRatingsForEvent(healthy)).thenReturn(ResponseEntity.ok(summary(healthy)));
+        when(ratingClient.getRatingsForEvent(failing)).thenThrow(new RuntimeException("rating service down"));
+
+        Map<UUID, EventRatingSummaryResponse> ratings = ratingService.getRatingsForEvents(List.of(healthy, failing));
+
+        assertEquals(1L, ratings.get(healthy).getTotalRatings());
+        assertEquals(0L, ratings.get(failing).getTotalRatings());
+        assertEquals(1, meterRegistry.get("rating.client.fallbacks").tag("call", "summary").counter().count());
+        assertEquals(1, meterRegistry.get("rating.client.requests").tag("outcome", "error").timer().count());
+        assertEquals(1, meterRegistry.get("rating.client.requests").tag("outcome", "success").timer().count());
+    }
+
+    private EventRatingSummaryResponse summary(UUID eventId) {
+        return EventRatingSummaryResponse.builder()
+                .eventId(eventId)
+                .averageScore(4.0)
+                .totalRatings(1L)
+                .ratings(List.of())
+                .build();
+    }
+}
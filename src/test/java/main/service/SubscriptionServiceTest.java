@@ -1,5 +1,6 @@
 package main.service;
 
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import main.model.Event;
 import main.model.Subscription;
 import main.model.User;
@@ -9,13 +10,16 @@ import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Pageable;
 
 import java.time.LocalDateTime;
 import java.util.*;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
@@ -27,6 +31,9 @@ class SubscriptionServiceTest {
     @Mock
     private TicketService ticketService;
 
+    @Spy
+    private SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
     @InjectMocks
     private SubscriptionService subscriptionService;
 
@@ -77,40 +84,22 @@ class SubscriptionServiceTest {
 
     @Test
     void whenGetSubscribedEventIds_thenEventIdsAreReturned() {
-        List<Subscription> subscriptions = new ArrayList<>();
-        subscriptions.add(testSubscription);
-
-        when(subscriptionRepository.findByUserId(testUserId)).thenReturn(subscriptions);
+        when(subscriptionRepository.findEventIdsByUserId(testUserId)).thenReturn(List.of(testEventId));
 
         Set<UUID> result = subscriptionService.getSubscribedEventIds(testUserId);
 
         assertNotNull(result);
         assertEquals(1, result.size());
         assertTrue(result.contains(testEventId));
-        verify(subscriptionRepository).findByUserId(testUserId);
+        verify(subscriptionRepository).findEventIdsByUserId(testUserId);
     }
 
     @Test
-    void whenGetSubscribedEventIdsWithNullEvent_thenNullEventIsFiltered() {
-        Subscription subscriptionWithNullEvent = Subscription.builder()
-                .id(UUID.randomUUID())
-                .user(testUser)
-                .event(null)
-                .subscriptionTime(LocalDateTime.now())
-                .build();
-
-        List<Subscription> subscriptions = new ArrayList<>();
-        subscriptions.add(testSubscription);
-        subscriptions.add(subscriptionWithNullEvent);
-
-        when(subscriptionRepository.findByUserId(testUserId)).thenReturn(subscriptions);
+    void whenGetSubscribedEventIds_thenSubscriptionsAreNotLoaded() {
+        when(subscriptionRepository.findEventIdsByUserId(testUserId)).thenReturn(List.of());
 
-        Set<UUID> result = subscriptionService.getSubscribedEventIds(testUserId);
-
-        assertNotNull(result);
-        assertEquals(1, result.size());
-        assertTrue(result.contains(testEventId));
-        verify(subscriptionRepository).findByUserId(testUserId);
+        assertTrue(subscriptionService.getSubscribedEventIds(testUserId).isEmpty());
+        verify(subscriptionRepository, never()).findByUserId(any());
     }
 
     @Test
@@ -143,6 +132,24 @@ class SubscriptionServiceTest {
         verify(subscriptionRepository).countByEventId(testEventId);
     }
 
+    @Test
+    void whenCountByEvents_thenCountsAreMappedByEventIdWithOneQuery() {
+        UUID otherEventId = UUID.randomUUID();
+        List<UUID> eventIds = List.of(testEventId, otherEventId);
+        when(subscriptionRepository.countByEventIdIn(eventIds)).thenReturn(List.<Object[]>of(new Object[]{testEventId, 3L}));
+
+        Map<UUID, Long> result = subscriptionService.countByEvents(eventIds);
+
+        assertEquals(Map.of(testEventId, 3L), result);
+        verify(subscriptionRepository, never()).countByEventId(any());
+    }
+
+    @Test
+    void whenCountByEventsWithoutIds_thenNoQueryIsRun() {
+        assertTrue(subscriptionService.countByEvents(List.of()).isEmpty());
+        verifyNoInteractions(subscriptionRepository);
+    }
+
     @Test
     void whenFindByEventId_thenSubscriptionsAreReturned() {
         List<Subscription> subscriptions = new ArrayList<>();
@@ -167,6 +174,7 @@ class SubscriptionServiceTest {
         assertNotNull(result);
         verify(subscriptionRepository).save(any(Subscription.class));
         verify(ticketService).issueTicket(any(Subscription.class));
+        assertEquals(1, meterRegistry.get("subscriptions.created").counter().count());
     }
 
     @Test
@@ -225,16 +233,39 @@ class SubscriptionServiceTest {
     }
 
     @Test
-    void whenDeleteAllByUserId_thenAllSubscriptionsAreDeleted() {
-        List<Subscription> subscriptions = new ArrayList<>();
-        subscriptions.add(testSubscription);
+    void whenDeleteChunkByUserId_thenTicketsAndSubscriptionsAreBulkDeleted() {
+        List<UUID> subscriptionIds = List.of(testSubscriptionId);
 
-        when(subscriptionRepository.findByUserId(testUserId)).thenReturn(subscriptions);
+        when(subscriptionRepository.findIdsByUserId(eq(testUserId), any(Pageable.class))).thenReturn(subscriptionIds);
+        when(subscriptionRepository.deleteByIdIn(subscriptionIds)).thenReturn(1);
 
-        subscriptionService.deleteAllByUserId(testUserId);
+        int deleted = subscriptionService.deleteChunkByUserId(testUserId, 100);
 
-        verify(ticketService).deleteBySubscriptionId(testSubscriptionId);
-        verify(subscriptionRepository).delete(testSubscription);
+        assertEquals(1, deleted);
+        verify(ticketService).deleteBySubscriptionIds(subscriptionIds);
+        verify(subscriptionRepository).deleteByIdIn(subscriptionIds);
+        assertEquals(1, meterRegistry.get("subscriptions.deleted").tag("reason", "user-deleted").counter().count());
+    }
+
+    @Test
+    void whenDeleteChunkByUserIdWithNoSubscriptions_thenNothingIsDeleted() {
+        when(subscriptionRepository.findIdsByUserId(eq(testUserId), any(Pageable.class))).thenReturn(List.of());
+
+        int deleted = subscriptionService.deleteChunkByUserId(testUserId, 100);
+
+        assertEquals(0, deleted);
+        verify(ticketService, never()).deleteBySubscriptionIds(any());
+        verify(subscriptionRepository, never()).deleteByIdIn(any());
     }
-}
 
+    @Test
+    void whenDeleteAllByEventIds_thenTicketsAndSubscriptionsAreBulkDeleted() {
+        List<UUID> eventIds = List.of(testEventId);
+        when(subscriptionRepository.deleteByEventIdIn(eventIds)).thenReturn(3);
+
+        int deleted = subscriptionService.deleteAllByEventIds(eventIds);
+
+        assertEquals(3, deleted);
+        verify(ticketService).deleteByEventIds(eventIds);
+    }
+}
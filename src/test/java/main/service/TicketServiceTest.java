@@ -1,5 +1,6 @@
 package main.service;
 
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import main.model.Role;
 import main.model.Subscription;
 import main.model.Ticket;
@@ -8,15 +9,20 @@ import main.repository.TicketRepository;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
 
 import java.time.LocalDateTime;
+import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
 
 import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
@@ -25,6 +31,9 @@ class TicketServiceTest {
     @Mock
     private TicketRepository ticketRepository;
 
+    @Spy
+    private SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
     @InjectMocks
     private TicketService ticketService;
 
@@ -134,6 +143,19 @@ class TicketServiceTest {
         verify(ticketRepository).findWithDetailsByCode("non-existing");
     }
 
+    @Test
+    void whenTicketsAreIssued_thenTheFlushIsInsideTheTimedSample() {
+        ticketService.issueTicket(testSubscription);
+        ticketService.issueTickets(List.of(testSubscription, new Subscription()));
+
+        InOrder inOrder = inOrder(ticketRepository);
+        inOrder.verify(ticketRepository).saveAndFlush(any(Ticket.class));
+        inOrder.verify(ticketRepository).saveAll(anyList());
+        inOrder.verify(ticketRepository).flush();
+        assertEquals(1, meterRegistry.get("tickets.issue").timer().count());
+        assertEquals(1, meterRegistry.get("tickets.issue.bulk").timer().count());
+    }
+
     @Test
     void whenDeleteBySubscriptionId_thenRepositoryMethodIsCalled() {
         UUID subscriptionId = UUID.randomUUID();
@@ -142,5 +164,23 @@ class TicketServiceTest {
 
         verify(ticketRepository).deleteBySubscriptionId(subscriptionId);
     }
-}
 
+    @Test
+    void whenDeleteBySubscriptionIds_thenBulkDeleteIsIssued() {
+        List<UUID> subscriptionIds = List.of(UUID.randomUUID(), UUID.randomUUID());
+        when(ticketRepository.deleteBySubscriptionIdIn(subscriptionIds)).thenReturn(2);
+
+        int deleted = ticketService.deleteBySubscriptionIds(subscriptionIds);
+
+        assertEquals(2, deleted);
+        verify(ticketRepository).deleteBySubscriptionIdIn(subscriptionIds);
+    }
+
+    @Test
+    void whenDeleteBySubscriptionIdsWithEmptyList_thenRepositoryIsNotCalled() {
+        int deleted = ticketService.deleteBySubscriptionIds(List.of());
+
+        assertEquals(0, deleted);
+        verify(ticketRepository, never()).deleteBySubscriptionIdIn(any());
+    }
+}
@@ -0,0 +1,150 @@
+package main.service;
+
+import main.datasource.BatchWorkload;
+import main.model.User;
+import main.repository.UserRepository;
+import main.web.dto.UserDeletionStatusResponse;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class UserCleanupServiceTest {
+
+    private static final int CHUNK_SIZE = 2;
+
+    @Mock
+    private UserRepository userRepository;
+
+    @Mock
+    private SubscriptionService subscriptionService;
+
+    @Mock
+    private EventService eventService;
+
+    @Mock
+    private CalendarFeedService calendarFeedService;
+
+    private UserCleanupService userCleanupService;
+
+    private User user;
+
+    @BeforeEach
+    void setUp() {
+        userCleanupService = new UserCleanupService(userRepository, subscriptionService, eventService, calendarFeedService,
+                CHUNK_SIZE, Duration.ofHours(1));
+
+        user = new User();
+        user.setId(UUID.randomUUID());
+        user.setEmail("organiser@example.com");
+    }
+
+    @Test
+    void whenQueuedPurgeRuns_thenChunksAreDeletedUntilEmptyAndStatusIsCompleted() {
+        when(subscriptionService.deleteChunkByUserId(user.getId(), CHUNK_SIZE)).thenReturn(2, 1, 0);
+        when(eventService.deleteChunkByCreatorId(user.getId(), CHUNK_SIZE)).thenReturn(2, 2, 0);
+
+        userCleanupService.markQueued(user.getId());
+        userCleanupService.purgeAsync(user);
+
+        verify(subscriptionService, times(3)).deleteChunkByUserId(user.getId(), CHUNK_SIZE);
+        verify(eventService, times(3)).deleteChunkByCreatorId(user.getId(), CHUNK_SIZE);
+        verify(calendarFeedService).delete(user.getId());
+        verify(userRepository).delete(user);
+
+        UserDeletionStatusResponse status = userCleanupService.getStatus(user.getId()).orElseThrow();
+        assertEquals(UserDeletionStatusResponse.Status.COMPLETED, status.getStatus());
+        assertEquals(3, status.getDeletedSubscriptions());
+        assertEquals(4, status.getDeletedEvents());
+        assertNotNull(status.getFinishedOn());
+    }
+
+    @Test
+    void whenQueuedPurgeFails_thenStatusIsFailedAndExceptionIsNotPropagated() {
+        when(subscriptionService.deleteChunkByUserId(user.getId(), CHUNK_SIZE))
+                .thenThrow(new IllegalStateException("boom"));
+
+        userCleanupService.markQueued(user.getId());
+        assertDoesNotThrow(() -> userCleanupService.purgeAsync(user));
+
+        UserDeletionStatusResponse status = userCleanupService.getStatus(user.getId()).orElseThrow();
+        assertEquals(UserDeletionStatusResponse.Status.FAILED, status.getStatus());
+        assertEquals("boom", status.getErrorMessage());
+        verify(userRepository, never()).delete(any());
+    }
+
+    @Test
+    void whenQueuedPurgeRuns_thenItsChunksRunAsBatchWork() {
+        List<Boolean> batch = new ArrayList<>();
+        when(subscriptionService.deleteChunkByUserId(user.getId(), CHUNK_SIZE)).thenAnswer(invocation -> {
+            batch.add(BatchWorkload.isActive());
+            return 0;
+        });
+
+        userCleanupService.markQueued(user.getId());
+        userCleanupService.purgeAsync(user);
+
+        assertEquals(List.of(true), batch);
+        assertFalse(BatchWorkload.isActive());
+    }
+
+    @Test
+    void whenSynchronousPurgeFails_thenExceptionIsRethrownAndNoStatusIsKept() {
+        when(subscriptionService.deleteChunkByUserId(user.getId(), CHUNK_SIZE))
+                .thenThrow(new IllegalStateException("boom"));
+
+        assertThrows(IllegalStateException.class, () -> userCleanupService.purge(user));
+
+        assertTrue(userCleanupService.getStatus(user.getId()).isEmpty());
+        // The guard is released, so the deletion can be retried
+        assertDoesNotThrow(() -> userCleanupService.markQueued(user.getId()));
+    }
+
+    @Test
+    void whenDeletionIsQueued_thenSynchronousPurgeIsRejected() {
+        userCleanupService.markQueued(user.getId());
+
+        assertThrows(IllegalStateException.class, () -> userCleanupService.purge(user));
+
+        verifyNoInteractions(subscriptionService, eventService, userRepository);
+    }
+
+    @Test
+    void whenFinishedStatusOutlivesRetention_thenItIsPrunedAndQueuedOnesAreKept() {
+        userCleanupService = new UserCleanupService(userRepository, subscriptionService, eventService, calendarFeedService,
+                CHUNK_SIZE, Duration.ZERO);
+        User queued = new User();
+        queued.setId(UUID.randomUUID());
+        userCleanupService.markQueued(user.getId());
+        userCleanupService.purgeAsync(user);
+        userCleanupService.markQueued(queued.getId());
+
+        assertEquals(1, userCleanupService.pruneFinishedStatuses());
+
+        assertTrue(userCleanupService.getStatus(user.getId()).isEmpty());
+        assertTrue(userCleanupService.getStatus(queued.getId()).isPresent());
+    }
+
+    @Test
+    void whenMarkQueuedTwice_thenSecondCallIsRejected() {
+        UserDeletionStatusResponse status = userCleanupService.markQueued(user.getId());
+
+        assertEquals(UserDeletionStatusResponse.Status.QUEUED, status.getStatus());
+        assertThrows(IllegalStateException.class, () -> userCleanupService.markQueued(user.getId()));
+    }
+
+    @Test
+    void whenNoDeletionStarted_thenStatusIsEmpty() {
+        assertTrue(userCleanupService.getStatus(user.getId()).isEmpty());
+    }
+}
@@ -1,18 +1,25 @@
 package main.service;
 
 import main.event.UserRegisteredEvent;
+import main.exception.ServiceBusyException;
 import main.exception.UserAlreadyExistsException;
 import main.model.Role;
 import main.model.User;
 import main.repository.UserRepository;
 import main.web.dto.RegisterRequest;
+import main.web.dto.UserDeletionStatusResponse;
+import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.util.ArrayList;
 import java.util.List;
@@ -33,17 +40,26 @@ class UserServiceTest {
     private PasswordEncoder passwordEncoder;
 
     @Mock
-    private EventService eventService;
+    private BootstrapService bootstrapService;
 
     @Mock
-    private SubscriptionService subscriptionService;
+    private UserCleanupService userCleanupService;
 
     @Mock
     private ApplicationEventPublisher eventPublisher;
 
+    @Mock
+    private TransactionTemplate transactionTemplate;
+
     @InjectMocks
     private UserService userService;
 
+    @BeforeEach
+    void setUp() {
+        lenient().when(transactionTemplate.execute(any()))
+                .thenAnswer(invocation -> invocation.<TransactionCallback<?>>getArgument(0).doInTransaction(null));
+    }
+
     @Test
     void whenValidRegisterRequest_thenUserIsRegistered() {
   
@@ -52,70 +68,74 @@ class UserServiceTest {
         request.setEmail("test@example.com");
         request.setPassword("password123");
 
-        when(userRepository.findByUsername("testuser")).thenReturn(null);
-        when(userRepository.findByEmail("test@example.com")).thenReturn(null);
         when(passwordEncoder.encode("password123")).thenReturn("encodedPassword");
-        
-        User savedUser = new User();
-        savedUser.setId(UUID.randomUUID());
-        savedUser.setUsername("testuser");
-        savedUser.setEmail("test@example.com");
-        savedUser.setPassword("encodedPassword");
-        savedUser.setRole(Role.USER);
-        
-        when(userRepository.save(any(User.class))).thenReturn(savedUser);
+        when(bootstrapService.claimFirstAdmin()).thenReturn(false);
+        when(userRepository.saveAndFlush(any(User.class))).thenAnswer(invocation -> invocation.getArgument(0));
 
         userService.register(request);
 
-        verify(userRepository).findByUsername("testuser");
-        verify(userRepository).findByEmail("test@example.com");
-        verify(passwordEncoder).encode("password123");
-        verify(userRepository).save(any(User.class));
+        ArgumentCaptor<User> captor = ArgumentCaptor.forClass(User.class);
+        verify(userRepository).saveAndFlush(captor.capture());
+        assertEquals("encodedPassword", captor.getValue().getPassword());
+        assertEquals(Role.USER, captor.getValue().getRole());
+        verify(userRepository, never()).findByUsername(any());
+        verify(userRepository, never()).count();
         verify(eventPublisher).publishEvent(any(UserRegisteredEvent.class));
     }
 
     @Test
-    void whenRegisterWithExistingUsername_thenThrowException() {
+    void whenFirstAdminIsClaimed_thenUserIsRegisteredAsAdmin() {
+
+        RegisterRequest request = new RegisterRequest();
+        request.setUsername("firstuser");
+        request.setEmail("first@example.com");
+        request.setPassword("password123");
+
+        when(passwordEncoder.encode("password123")).thenReturn("encodedPassword");
+        when(bootstrapService.claimFirstAdmin()).thenReturn(true);
+        when(userRepository.saveAndFlush(any(User.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+        userService.register(request);
+
+        ArgumentCaptor<User> captor = ArgumentCaptor.forClass(User.class);
+        verify(userRepository).saveAndFlush(captor.capture());
+        assertEquals(Role.ADMIN, captor.getValue().getRole());
+    }
+
+    @Test
+    void whenRegisterViolatesUniqueConstraint_thenThrowException() {
  
         RegisterRequest request = new RegisterRequest();
         request.setUsername("existinguser");
-        request.setEmail("new@example.com");
+        request.setEmail("existing@example.com");
         request.setPassword("password123");
 
-        User existingUser = new User();
-        existingUser.setUsername("existinguser");
-        
-        when(userRepository.findByUsername("existinguser")).thenReturn(existingUser);
+        when(passwordEncoder.encode("password123")).thenReturn("encodedPassword");
+        when(userRepository.saveAndFlush(any(User.class)))
+                .thenThrow(new DataIntegrityViolationException("Duplicate entry"));
 
         assertThrows(UserAlreadyExistsException.class, () -> {
             userService.register(request);
         });
 
-        verify(userRepository).findByUsername("existinguser");
-        verify(userRepository, never()).save(any(User.class));
+        verify(eventPublisher, never()).publishEvent(any());
     }
 
     @Test
-    void whenRegisterWithExistingEmail_thenThrowException() {
+    void whenPasswordHashingIsBusy_thenNothingIsSaved() {
 
         RegisterRequest request = new RegisterRequest();
         request.setUsername("newuser");
-        request.setEmail("existing@example.com");
+        request.setEmail("new@example.com");
         request.setPassword("password123");
 
-        when(userRepository.findByUsername("newuser")).thenReturn(null);
-        
-        User existingUser = new User();
-        existingUser.setEmail("existing@example.com");
-        when(userRepository.findByEmail("existing@example.com")).thenReturn(existingUser);
+        when(passwordEncoder.encode("password123")).thenThrow(new ServiceBusyException("busy"));
 
-        assertThrows(UserAlreadyExistsException.class, () -> {
+        assertThrows(ServiceBusyException.class, () -> {
             userService.register(request);
         });
 
-        verify(userRepository).findByUsername("newuser");
-        verify(userRepository).findByEmail("existing@example.com");
-        verify(userRepository, never()).save(any(User.class));
+        verify(userRepository, never()).saveAndFlush(any(User.class));
     }
 
     @Test
@@ -268,9 +288,30 @@ class UserServiceTest {
 
         userService.deleteUserWithData(userId);
 
-        verify(subscriptionService).deleteAllByUserId(userId);
-        verify(eventService).deleteAllByCreatorId(userId);
-        verify(userRepository).delete(user);
+        verify(userCleanupService).purge(user);
+    }
+
+    @Test
+    void whenDeleteUserWithDataAsync_thenCleanupIsQueued() {
+
+        UUID userId = UUID.randomUUID();
+        User user = new User();
+        user.setId(userId);
+        user.setEmail("test@example.com");
+
+        UserDeletionStatusResponse queued = UserDeletionStatusResponse.builder()
+                .userId(userId)
+                .status(UserDeletionStatusResponse.Status.QUEUED)
+                .build();
+
+        when(userRepository.findById(userId)).thenReturn(Optional.of(user));
+        when(userCleanupService.markQueued(userId)).thenReturn(queued);
+
+        UserDeletionStatusResponse result = userService.deleteUserWithDataAsync(userId);
+
+        assertEquals(UserDeletionStatusResponse.Status.QUEUED, result.getStatus());
+        verify(userCleanupService).purgeAsync(user);
+        verify(userCleanupService, never()).purge(any());
     }
 
     @Test
@@ -293,6 +334,6 @@ class UserServiceTest {
         });
 
         verify(userRepository).findById(userId);
-        verify(userRepository, never()).delete(any());
+        verify(userCleanupService, never()).purge(any());
     }
 }